@@ -0,0 +1,48 @@
+package com.tintsteps.patientservice.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Timeouts of async requests. The patient export streams for as long as the table takes to read,
+ * so it alone gets a long timeout; every other async request keeps the container default.
+ */
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    public static final String EXPORT_PATH = "/api/v1/patients/export";
+
+    private final Duration exportTimeout;
+
+    public AsyncRequestConfig(@Value("${patient.export.request-timeout:30m}") Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            // Runs before async processing starts, while the timeout can still be changed
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest && isExport(request)) {
+                    asyncRequest.setTimeout(exportTimeout.toMillis());
+                }
+            }
+        });
+    }
+
+    private static boolean isExport(NativeWebRequest request) {
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        return servletRequest != null
+                && EXPORT_PATH.equals(servletRequest.getRequestURI().substring(servletRequest.getContextPath().length()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.tintsteps.patientservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors used to run independent database loads concurrently
+ */
+@Configuration
+public class ConcurrencyConfig {
+
+    /**
+     * One virtual thread per summary section. Sections spend nearly all of their
+     * time blocked on JDBC, so virtual threads keep this cheap under load.
+     * Each section runs with the security context of the request that forked it,
+     * which replica routing needs to keep a recent writer's reads on the primary.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService patientSummaryExecutor() {
+        return new DelegatingSecurityContextExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("patient-summary-", 0).factory()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.tintsteps.patientservice.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.Data;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeout settings of one downstream service, bound from
+ * patient.http-clients.&lt;service&gt;. Defaults apply to anything left unset.
+ */
+@Data
+public class DownstreamClientSettings {
+
+    private String baseUrl;
+    private int maxConnections = 50;
+    // Requests allowed to queue for a connection once all of them are in use
+    private int pendingAcquireMaxCount = 200;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+    // Kept below the downstream's own idle timeout so we never write to a connection it has closed
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    private Batch batch = new Batch();
+    private RecordCache cache = new RecordCache();
+
+    /**
+     * A pool of its own for the service, with Micrometer metrics under reactor.netty.connection.provider
+     * tagged with the pool name.
+     */
+    public ConnectionProvider newConnectionProvider(String name) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictionInterval)
+                .metrics(true)
+                .build();
+    }
+
+    public HttpClient newHttpClient(ConnectionProvider connectionProvider) {
+        return HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(connectTimeout.toMillis()))
+                .responseTimeout(responseTimeout);
+    }
+
+    /**
+     * Micro-batching of single lookups. Lookups arriving within the window, up to max-size of them,
+     * go out as one POST of their ids to bulk-path; without a bulk path, or if the service turns
+     * out not to have one, they go out as single calls, at most parallelism at a time.
+     */
+    @Data
+    public static class Batch {
+
+        private Duration window = Duration.ofMillis(5);
+        private int maxSize = 50;
+        private String bulkPath;
+        private int parallelism = 8;
+    }
+
+    /**
+     * Local copies of the service's records looked up by id.
+     */
+    @Data
+    public static class RecordCache {
+
+        private long maximumSize = 10000;
+        // Served without a reload until this old
+        private Duration refreshAfter = Duration.ofMinutes(1);
+        // How long a record is kept to fall back on while the service cannot be reached
+        private Duration retainFor = Duration.ofHours(24);
+    }
+}
@@ -0,0 +1,32 @@
+package com.tintsteps.patientservice.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins the read-only transactions started by a piece of code to the primary. Meant for loads that
+ * fill a cache shared by all users: a lagging replica would have them cache the state from before
+ * a write whose eviction triggered the load, and keep serving it until the entry expires.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> reads) {
+        if (isPinned()) {
+            return reads.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+}
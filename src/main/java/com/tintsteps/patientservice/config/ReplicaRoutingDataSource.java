@@ -0,0 +1,122 @@
+package com.tintsteps.patientservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections for read-only transactions. Replicas are used round robin while they
+ * answer the health check within the lag limit; a replica that fails to hand out a connection is
+ * skipped until the next check passes. Falls back to the primary when no replica is usable, the
+ * current user wrote within the read-your-writes window, or the reads are pinned with {@link PrimaryReads}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    // Replay lag in seconds, zero on a replica that has applied everything it received
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+                                    ReadYourWritesTracker readYourWritesTracker, Duration maxLag) {
+        if (replicaPools.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica URL is required");
+        }
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!PrimaryReads.isPinned() && !readYourWritesTracker.currentUserWroteRecently()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.pool.getConnection();
+                } catch (SQLException e) {
+                    log.warn("Replica {} failed to hand out a connection, routing around it: {}", replica.pool.getPoolName(), e.getMessage());
+                    replica.healthy = false;
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+    }
+
+    @Scheduled(fixedDelayString = "${patient.datasource.replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy = isHealthy(replica.pool);
+            if (healthy != replica.healthy) {
+                log.info("Replica {} is now {}", replica.pool.getPoolName(), healthy ? "in rotation" : "out of rotation");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    public boolean hasHealthyReplica() {
+        return replicas.stream().anyMatch(replica -> replica.healthy);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private boolean isHealthy(HikariDataSource pool) {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            double lagSeconds = resultSet.getDouble(1);
+            if (lagSeconds * 1000 > maxLag.toMillis()) {
+                log.warn("Replica {} lags {}s behind the primary", pool.getPoolName(), lagSeconds);
+                return false;
+            }
+            return true;
+        } catch (SQLException e) {
+            log.warn("Health check of replica {} failed: {}", pool.getPoolName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        // Out of rotation until the first health check passes
+        private volatile boolean healthy;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
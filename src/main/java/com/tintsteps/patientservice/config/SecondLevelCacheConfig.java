@@ -0,0 +1,83 @@
+package com.tintsteps.patientservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache on Caffeine through JCache. Every region is created here with an
+ * explicit size and time to live, and Hibernate refuses to start if it asks for any other region.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String PATIENT_REGION = "patient";
+    public static final String DISTINCT_VALUES_REGION = "distinct-values";
+
+    // One entry per table, read on every query cache hit to see if the result is stale
+    private static final long UPDATE_TIMESTAMPS_MAXIMUM_SIZE = 1000;
+
+    // A provider of our own keeps the regions of each application context apart
+    @Bean(destroyMethod = "close")
+    public CachingProvider hibernateCachingProvider() {
+        return new CaffeineCachingProvider();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            CachingProvider hibernateCachingProvider,
+            MeterRegistry meterRegistry,
+            @Value("${patient.second-level-cache.patients.maximum-size:50000}") long patientMaximumSize,
+            @Value("${patient.second-level-cache.patients.expire-after-write:30m}") Duration patientExpireAfterWrite,
+            @Value("${patient.second-level-cache.distinct-values.maximum-size:100}") long distinctValuesMaximumSize,
+            @Value("${patient.second-level-cache.distinct-values.expire-after-write:5m}") Duration distinctValuesExpireAfterWrite) {
+        CacheManager cacheManager = hibernateCachingProvider.getCacheManager();
+        createRegion(cacheManager, meterRegistry, PATIENT_REGION, patientMaximumSize, patientExpireAfterWrite);
+        createRegion(cacheManager, meterRegistry, DISTINCT_VALUES_REGION, distinctValuesMaximumSize, distinctValuesExpireAfterWrite);
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                distinctValuesMaximumSize, distinctValuesExpireAfterWrite);
+        // Must outlive every cached query result, an expired timestamp would let a stale result through
+        createRegion(cacheManager, meterRegistry, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                UPDATE_TIMESTAMPS_MAXIMUM_SIZE, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String name,
+                                     long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (expireAfterWrite != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        }
+        // Hibernate caches disassembled, immutable state, copying it on every access buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        Cache<Object, Object> region = cacheManager.createCache(name, configuration);
+        JCacheMetrics.monitor(meterRegistry, region);
+    }
+}
@@ -1,5 +1,7 @@
 package com.tintsteps.patientservice.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.metrics.MetricsEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -24,6 +26,8 @@ public class SecurityConfig {
                         // These rules are checked first.
 //                        .requestMatchers(HttpMethod.POST, "/api/v1/users").permitAll()
 //                        .requestMatchers(HttpMethod.GET, "/api/v1/users/email/**").permitAll()
+                        // Cache, connection pool and lookup meters are operational data, admins only.
+                        .requestMatchers(EndpointRequest.to(MetricsEndpoint.class)).hasRole("ADMIN")
                         // All other requests must be authenticated.
                         .anyRequest().authenticated()
                 )
@@ -1,61 +1,86 @@
 package com.tintsteps.patientservice.config;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.ReactiveSecurityContextHolder;
-import org.springframework.web.reactive.function.client.ClientRequest;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One long-lived WebClient per downstream service. Each is cloned from the load-balanced builder
+ * and sits on a connection pool of its own, so a slow service exhausts only its own connections
+ * and the integrations no longer build a client and filter chain on every call.
+ */
 @Configuration
 public class WebClientConfig {
 
+    public static final String USER_SERVICE = "ts-user-service";
+    public static final String ADDRESS_SERVICE = "ts-address-service";
+    public static final String SCHEDULE_SERVICE = "ts-schedule-service";
+
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
     @Bean
     @LoadBalanced
     public WebClient.Builder loadBalancedWebClientBuilder() {
         return WebClient.builder();
     }
 
-    /**
-     * A WebClient for calling public, unsecured endpoints.
-     * It uses the load-balanced builder but adds no authentication.
-     */
     @Bean
-    public WebClient publicWebClient(WebClient.Builder loadBalancedWebClientBuilder) {
-        return loadBalancedWebClientBuilder.build();
+    @ConfigurationProperties("patient.http-clients.user-service")
+    public DownstreamClientSettings userServiceClientSettings() {
+        return new DownstreamClientSettings();
     }
 
-    /**
-     * A WebClient for calling secure, token-protected endpoints.
-     * It adds an ExchangeFilterFunction to propagate the JWT from the
-     * current security context.
-     */
     @Bean
-    public WebClient secureWebClient(WebClient.Builder loadBalancedWebClientBuilder) {
-        return loadBalancedWebClientBuilder
-                .filter(jwtPropagationFilter())
-                .build();
+    @ConfigurationProperties("patient.http-clients.address-service")
+    public DownstreamClientSettings addressServiceClientSettings() {
+        return new DownstreamClientSettings();
+    }
+
+    @Bean
+    @ConfigurationProperties("patient.http-clients.schedule-service")
+    public DownstreamClientSettings scheduleServiceClientSettings() {
+        return new DownstreamClientSettings();
+    }
+
+    @Bean
+    public WebClient userServiceWebClient(WebClient.Builder loadBalancedWebClientBuilder,
+                                          DownstreamClientSettings userServiceClientSettings) {
+        return pooledClient(USER_SERVICE, loadBalancedWebClientBuilder, userServiceClientSettings);
     }
 
-    /**
-     * Creates a filter that intercepts requests to add the Authorization header.
-     * It retrieves the JWT from the reactive security context.
-     * @return An ExchangeFilterFunction that adds a Bearer token.
-     */
-    private ExchangeFilterFunction jwtPropagationFilter() {
-        return (request, next) -> ReactiveSecurityContextHolder.getContext()
-                .flatMap(context -> {
-                    Authentication authentication = context.getAuthentication();
-                    if (authentication!= null && authentication.getCredentials() instanceof String jwt) {
-                        ClientRequest authorizedRequest = ClientRequest.from(request)
-                                .headers(headers -> headers.setBearerAuth(jwt))
-                                .build();
-                        return next.exchange(authorizedRequest);
-                    }
-                    return next.exchange(request);
-                })
-                .switchIfEmpty(next.exchange(request));
+    @Bean
+    public WebClient addressServiceWebClient(WebClient.Builder loadBalancedWebClientBuilder,
+                                             DownstreamClientSettings addressServiceClientSettings) {
+        return pooledClient(ADDRESS_SERVICE, loadBalancedWebClientBuilder, addressServiceClientSettings);
+    }
+
+    @Bean
+    public WebClient scheduleServiceWebClient(WebClient.Builder loadBalancedWebClientBuilder,
+                                              DownstreamClientSettings scheduleServiceClientSettings) {
+        return pooledClient(SCHEDULE_SERVICE, loadBalancedWebClientBuilder, scheduleServiceClientSettings);
+    }
+
+    @PreDestroy
+    void disposeConnectionProviders() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+
+    // Cloned so the connector and base URL never leak into the shared load-balanced builder
+    private WebClient pooledClient(String service, WebClient.Builder loadBalancedWebClientBuilder,
+                                   DownstreamClientSettings settings) {
+        ConnectionProvider connectionProvider = settings.newConnectionProvider(service);
+        connectionProviders.add(connectionProvider);
+        return loadBalancedWebClientBuilder.clone()
+                .baseUrl(settings.getBaseUrl() != null ? settings.getBaseUrl() : "http://" + service)
+                .clientConnector(new ReactorClientHttpConnector(settings.newHttpClient(connectionProvider)))
+                .build();
     }
 }
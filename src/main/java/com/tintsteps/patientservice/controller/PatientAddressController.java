@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.controller;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientAddressDto;
 import com.tintsteps.patientservice.model.ResponseModel;
 import com.tintsteps.patientservice.service.PatientAddressService;
@@ -47,6 +48,15 @@ public class PatientAddressController {
         return ResponseEntity.ok(ResponseModel.success(addresses, "Patient addresses retrieved successfully"));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientAddressDto>>> scrollPatientAddresses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPageDto<PatientAddressDto> addresses = patientAddressService.scroll(cursor, size);
+        return ResponseEntity.ok(ResponseModel.success(addresses, "Patient addresses retrieved successfully"));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientAddressOwner(authentication, #id)")
     public ResponseEntity<ResponseModel<PatientAddressDto>> updatePatientAddress(
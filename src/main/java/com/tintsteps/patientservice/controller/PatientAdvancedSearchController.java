@@ -1,6 +1,9 @@
 package com.tintsteps.patientservice.controller;
 
 import com.tintsteps.patientservice.dto.PatientDto;
+import com.tintsteps.patientservice.dto.PatientRiskAssessmentDto;
+import com.tintsteps.patientservice.dto.PatientRiskCohortMemberDto;
+import com.tintsteps.patientservice.dto.PatientSearchCriteria;
 import com.tintsteps.patientservice.model.Gender;
 import com.tintsteps.patientservice.model.ResponseModel;
 import com.tintsteps.patientservice.service.*;
@@ -27,6 +30,8 @@ public class PatientAdvancedSearchController {
     private final PatientMedicationService patientMedicationService;
     private final PatientMedicalHistoryService patientMedicalHistoryService;
     private final PatientInsuranceService patientInsuranceService;
+    private final PatientRiskCohortService patientRiskCohortService;
+    private final PatientRiskIndexService patientRiskIndexService;
 
     @GetMapping("/by-medical-condition")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
@@ -41,9 +46,7 @@ public class PatientAdvancedSearchController {
                 .distinct()
                 .collect(Collectors.toList());
         
-        List<PatientDto> patients = patientIds.stream()
-                .map(patientService::findById)
-                .collect(Collectors.toList());
+        List<PatientDto> patients = patientService.findByIds(patientIds);
         
         return ResponseEntity.ok(ResponseModel.success(patients, 
                 "Patients with medical condition '" + condition + "' retrieved successfully"));
@@ -62,9 +65,7 @@ public class PatientAdvancedSearchController {
                 .distinct()
                 .collect(Collectors.toList());
         
-        List<PatientDto> patients = patientIds.stream()
-                .map(patientService::findById)
-                .collect(Collectors.toList());
+        List<PatientDto> patients = patientService.findByIds(patientIds);
         
         return ResponseEntity.ok(ResponseModel.success(patients, 
                 "Patients taking medication '" + medicationName + "' retrieved successfully"));
@@ -83,9 +84,7 @@ public class PatientAdvancedSearchController {
                 .distinct()
                 .collect(Collectors.toList());
         
-        List<PatientDto> patients = patientIds.stream()
-                .map(patientService::findById)
-                .collect(Collectors.toList());
+        List<PatientDto> patients = patientService.findByIds(patientIds);
         
         return ResponseEntity.ok(ResponseModel.success(patients, 
                 "Patients with allergy '" + allergen + "' retrieved successfully"));
@@ -144,9 +143,7 @@ public class PatientAdvancedSearchController {
                 .distinct()
                 .collect(Collectors.toList());
         
-        List<PatientDto> patients = patientIds.stream()
-                .map(patientService::findById)
-                .collect(Collectors.toList());
+        List<PatientDto> patients = patientService.findByIds(patientIds);
         
         return ResponseEntity.ok(ResponseModel.success(patients, 
                 "Patients with insurance provider '" + provider + "' retrieved successfully"));
@@ -154,16 +151,13 @@ public class PatientAdvancedSearchController {
 
     @GetMapping("/critical-allergies")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
-    public ResponseEntity<ResponseModel<List<PatientDto>>> searchPatientsWithCriticalAllergies() {
+    public ResponseEntity<ResponseModel<Page<PatientRiskCohortMemberDto>>> searchPatientsWithCriticalAllergies(
+            Pageable pageable) {
         log.info("Searching patients with critical allergies");
         
-        // Find all patients and filter those with critical allergies
-        List<PatientDto> allPatients = patientService.findAll();
-        List<PatientDto> patientsWithCriticalAllergies = allPatients.stream()
-                .filter(patient -> patientAllergyService.hasCriticalAllergies(patient.getId()))
-                .collect(Collectors.toList());
+        Page<PatientRiskCohortMemberDto> patients = patientRiskCohortService.findPatientsWithCriticalAllergies(pageable);
         
-        return ResponseEntity.ok(ResponseModel.success(patientsWithCriticalAllergies, 
+        return ResponseEntity.ok(ResponseModel.success(patients, 
                 "Patients with critical allergies retrieved successfully"));
     }
 
@@ -173,9 +167,7 @@ public class PatientAdvancedSearchController {
         log.info("Searching patients without insurance");
         
         List<UUID> patientIdsWithoutInsurance = patientInsuranceService.findPatientsWithoutInsurance();
-        List<PatientDto> patients = patientIdsWithoutInsurance.stream()
-                .map(patientService::findById)
-                .collect(Collectors.toList());
+        List<PatientDto> patients = patientService.findByIds(patientIdsWithoutInsurance);
         
         return ResponseEntity.ok(ResponseModel.success(patients, 
                 "Patients without insurance retrieved successfully"));
@@ -198,120 +190,89 @@ public class PatientAdvancedSearchController {
 
     @GetMapping("/multiple-medications")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
-    public ResponseEntity<ResponseModel<List<PatientDto>>> searchPatientsWithMultipleMedications(
-            @RequestParam(defaultValue = "3") int minimumMedications) {
+    public ResponseEntity<ResponseModel<Page<PatientRiskCohortMemberDto>>> searchPatientsWithMultipleMedications(
+            @RequestParam(defaultValue = "3") int minimumMedications,
+            Pageable pageable) {
         log.info("Searching patients with {} or more medications", minimumMedications);
         
-        // Find all patients and filter those with multiple medications
-        List<PatientDto> allPatients = patientService.findAll();
-        List<PatientDto> patientsWithMultipleMedications = allPatients.stream()
-                .filter(patient -> patientMedicationService.getActiveMedicationCount(patient.getId()) >= minimumMedications)
-                .collect(Collectors.toList());
+        Page<PatientRiskCohortMemberDto> patients =
+                patientRiskCohortService.findPatientsWithMultipleMedications(minimumMedications, pageable);
         
-        return ResponseEntity.ok(ResponseModel.success(patientsWithMultipleMedications, 
+        return ResponseEntity.ok(ResponseModel.success(patients, 
                 "Patients with " + minimumMedications + "+ medications retrieved successfully"));
     }
 
     @GetMapping("/chronic-conditions")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
-    public ResponseEntity<ResponseModel<List<PatientDto>>> searchPatientsWithChronicConditions() {
+    public ResponseEntity<ResponseModel<Page<PatientRiskCohortMemberDto>>> searchPatientsWithChronicConditions(
+            Pageable pageable) {
         log.info("Searching patients with chronic conditions");
         
-        // Find all patients and filter those with chronic conditions
-        List<PatientDto> allPatients = patientService.findAll();
-        List<PatientDto> patientsWithChronicConditions = allPatients.stream()
-                .filter(patient -> !patientMedicalHistoryService.getChronicConditions(patient.getId()).isEmpty())
-                .collect(Collectors.toList());
+        Page<PatientRiskCohortMemberDto> patients = patientRiskCohortService.findPatientsWithChronicConditions(pageable);
         
-        return ResponseEntity.ok(ResponseModel.success(patientsWithChronicConditions, 
+        return ResponseEntity.ok(ResponseModel.success(patients, 
                 "Patients with chronic conditions retrieved successfully"));
     }
 
     @GetMapping("/high-risk")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
-    public ResponseEntity<ResponseModel<List<PatientDto>>> searchHighRiskPatients() {
+    public ResponseEntity<ResponseModel<Page<PatientRiskCohortMemberDto>>> searchHighRiskPatients(Pageable pageable) {
         log.info("Searching high-risk patients");
         
-        // Find all patients and filter high-risk ones
-        List<PatientDto> allPatients = patientService.findAll();
-        List<PatientDto> highRiskPatients = allPatients.stream()
-                .filter(patient -> {
-                    boolean hasCriticalAllergies = patientAllergyService.hasCriticalAllergies(patient.getId());
-                    boolean hasChronicConditions = !patientMedicalHistoryService.getChronicConditions(patient.getId()).isEmpty();
-                    boolean hasMultipleMedications = patientMedicationService.getActiveMedicationCount(patient.getId()) > 3;
-                    
-                    // Consider high-risk if patient has 2 or more risk factors
-                    int riskFactors = 0;
-                    if (hasCriticalAllergies) riskFactors++;
-                    if (hasChronicConditions) riskFactors++;
-                    if (hasMultipleMedications) riskFactors++;
-                    
-                    return riskFactors >= 2;
-                })
-                .collect(Collectors.toList());
+        // High-risk means 2 or more of: critical allergies, chronic conditions, multiple medications
+        Page<PatientRiskCohortMemberDto> highRiskPatients = patientRiskCohortService.findHighRiskPatients(pageable);
         
         return ResponseEntity.ok(ResponseModel.success(highRiskPatients, 
                 "High-risk patients retrieved successfully"));
     }
 
+    @GetMapping("/by-risk-level")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<ResponseModel<Page<PatientRiskAssessmentDto>>> searchPatientsByRiskLevel(
+            @RequestParam String riskLevel,
+            Pageable pageable) {
+        log.info("Searching patients by risk level: {}", riskLevel);
+        
+        Page<PatientRiskAssessmentDto> patients = patientRiskIndexService.findByRiskLevel(riskLevel, pageable);
+        
+        return ResponseEntity.ok(ResponseModel.success(patients, 
+                "Patients with risk level '" + riskLevel + "' retrieved successfully"));
+    }
+
+    @PostMapping("/risk-index/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel<Integer>> rebuildRiskIndex() {
+        log.info("Rebuilding patient risk index");
+        
+        int rebuilt = patientRiskIndexService.rebuildAll();
+        
+        return ResponseEntity.ok(ResponseModel.success(rebuilt, "Patient risk index rebuilt successfully"));
+    }
+
     @GetMapping("/multi-criteria")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
-    public ResponseEntity<ResponseModel<List<PatientDto>>> searchPatientsByMultipleCriteria(
+    public ResponseEntity<ResponseModel<Page<PatientDto>>> searchPatientsByMultipleCriteria(
             @RequestParam(required = false) String medicalCondition,
             @RequestParam(required = false) String medication,
             @RequestParam(required = false) String allergen,
             @RequestParam(required = false) Gender gender,
             @RequestParam(required = false) String bloodGroup,
             @RequestParam(required = false) Integer minAge,
-            @RequestParam(required = false) Integer maxAge) {
+            @RequestParam(required = false) Integer maxAge,
+            Pageable pageable) {
         log.info("Searching patients by multiple criteria");
         
-        List<PatientDto> results = patientService.findAll();
-        
-        // Apply filters based on provided criteria
-        if (medicalCondition != null) {
-            List<UUID> patientIdsWithCondition = patientMedicalHistoryService.findByCondition(medicalCondition)
-                    .stream()
-                    .map(history -> history.getPatientId())
-                    .collect(Collectors.toList());
-            results = results.stream()
-                    .filter(patient -> patientIdsWithCondition.contains(patient.getId()))
-                    .collect(Collectors.toList());
-        }
-        
-        if (medication != null) {
-            List<UUID> patientIdsWithMedication = patientMedicationService.findByMedicationName(medication)
-                    .stream()
-                    .map(med -> med.getPatientId())
-                    .collect(Collectors.toList());
-            results = results.stream()
-                    .filter(patient -> patientIdsWithMedication.contains(patient.getId()))
-                    .collect(Collectors.toList());
-        }
-        
-        if (allergen != null) {
-            List<UUID> patientIdsWithAllergy = patientAllergyService.findByAllergen(allergen)
-                    .stream()
-                    .map(allergy -> allergy.getPatientId())
-                    .collect(Collectors.toList());
-            results = results.stream()
-                    .filter(patient -> patientIdsWithAllergy.contains(patient.getId()))
-                    .collect(Collectors.toList());
-        }
-        
-        if (gender != null) {
-            results = results.stream()
-                    .filter(patient -> gender.equals(patient.getGender()))
-                    .collect(Collectors.toList());
-        }
-        
-        if (bloodGroup != null) {
-            results = results.stream()
-                    .filter(patient -> bloodGroup.equals(patient.getBloodGroup()))
-                    .collect(Collectors.toList());
-        }
-        
-        // Age filtering would require additional logic to calculate age from date of birth
+        PatientSearchCriteria criteria = PatientSearchCriteria.builder()
+                .medicalCondition(medicalCondition)
+                .medication(medication)
+                .allergen(allergen)
+                .gender(gender)
+                .bloodGroup(bloodGroup)
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .build();
+        
+        Page<PatientDto> results = patientService.search(criteria, pageable);
         
         return ResponseEntity.ok(ResponseModel.success(results, 
                 "Patients matching multiple criteria retrieved successfully"));
@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.controller;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientAllergyDto;
 import com.tintsteps.patientservice.model.ResponseModel;
 import com.tintsteps.patientservice.service.PatientAllergyService;
@@ -47,6 +48,15 @@ public class PatientAllergyController {
         return ResponseEntity.ok(ResponseModel.success(allergies, "Patient allergies retrieved successfully"));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientAllergyDto>>> scrollPatientAllergies(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPageDto<PatientAllergyDto> allergies = patientAllergyService.scroll(cursor, size);
+        return ResponseEntity.ok(ResponseModel.success(allergies, "Patient allergies retrieved successfully"));
+    }
+
     @GetMapping("/patient/{patientId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientOwner(authentication, #patientId)")
     public ResponseEntity<ResponseModel<List<PatientAllergyDto>>> getPatientAllergiesByPatientId(@PathVariable UUID patientId) {
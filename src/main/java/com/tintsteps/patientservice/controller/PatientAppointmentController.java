@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.controller;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientAppointmentDto;
 import com.tintsteps.patientservice.model.ResponseModel;
 import com.tintsteps.patientservice.service.PatientAppointmentService;
@@ -47,6 +48,15 @@ public class PatientAppointmentController {
         return ResponseEntity.ok(ResponseModel.success(appointments, "Patient appointments retrieved successfully"));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientAppointmentDto>>> scrollPatientAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPageDto<PatientAppointmentDto> appointments = patientAppointmentService.scroll(cursor, size);
+        return ResponseEntity.ok(ResponseModel.success(appointments, "Patient appointments retrieved successfully"));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientAppointmentOwner(authentication, #id)")
     public ResponseEntity<ResponseModel<PatientAppointmentDto>> updatePatientAppointment(
@@ -1,8 +1,13 @@
 package com.tintsteps.patientservice.controller;
 
+import com.tintsteps.patientservice.dto.BulkIngestReportDto;
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientDto;
+import com.tintsteps.patientservice.model.BulkIngestRecordType;
 import com.tintsteps.patientservice.model.Gender;
 import com.tintsteps.patientservice.model.ResponseModel;
+import com.tintsteps.patientservice.service.PatientBulkIngestService;
+import com.tintsteps.patientservice.service.PatientExportService;
 import com.tintsteps.patientservice.service.PatientService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,11 +16,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
@@ -27,7 +35,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PatientController {
 
+    private static final int MAX_BULK_GET_SIZE = 1000;
+
     private final PatientService patientService;
+    private final PatientExportService patientExportService;
+    private final PatientBulkIngestService patientBulkIngestService;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('PATIENT')")
@@ -46,6 +58,16 @@ public class PatientController {
         return ResponseEntity.ok(ResponseModel.success(patient, "Patient retrieved successfully"));
     }
 
+    @PostMapping("/_bulk-get")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<ResponseModel<List<PatientDto>>> bulkGetPatients(@RequestBody List<UUID> ids) {
+        if (ids.size() > MAX_BULK_GET_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_GET_SIZE + " patient IDs can be requested at once");
+        }
+        List<PatientDto> patients = patientService.findByIds(ids);
+        return ResponseEntity.ok(ResponseModel.success(patients, "Patients retrieved successfully"));
+    }
+
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isUserOwner(authentication, #userId)")
     public ResponseEntity<ResponseModel<PatientDto>> getPatientByUserId(@PathVariable UUID userId) {
@@ -60,6 +82,36 @@ public class PatientController {
         return ResponseEntity.ok(ResponseModel.success(patients, "Patients retrieved successfully"));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientDto>>> scrollPatients(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPageDto<PatientDto> patients = patientService.scroll(cursor, size);
+        return ResponseEntity.ok(ResponseModel.success(patients, "Patients retrieved successfully"));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPatients(
+            @RequestParam(defaultValue = "false") boolean includeAllergies,
+            @RequestParam(defaultValue = "false") boolean includeMedications,
+            @RequestParam(defaultValue = "false") boolean includeMedicalHistory) {
+        StreamingResponseBody body = output -> patientExportService.exportPatients(
+                includeAllergies, includeMedications, includeMedicalHistory, output);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // recordType is patients, allergies, medications, medical-history, emergency-contacts, insurance, addresses or appointments
+    @PostMapping(value = "/bulk-ingest/{recordType}", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResponseModel<BulkIngestReportDto>> bulkIngest(
+            @PathVariable String recordType,
+            InputStream body) {
+        BulkIngestReportDto report = patientBulkIngestService.ingest(BulkIngestRecordType.fromPath(recordType), body);
+        return ResponseEntity.ok(ResponseModel.success(report, "Bulk ingest completed"));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or @patientSecurity.isPatientOwner(authentication, #id)")
     public ResponseEntity<ResponseModel<PatientDto>> updatePatient(
@@ -169,6 +221,7 @@ public class PatientController {
                 new Object() {
                     public final long totalPatients = patientService.countAll();
                     public final Double averageAge = patientService.getAverageAge();
+                    public final List<Object[]> ageStats = patientService.getAgeStatistics();
                     public final Double averageHeight = patientService.getAverageHeight();
                     public final BigDecimal averageWeight = patientService.getAverageWeight();
                     public final List<Object[]> genderStats = patientService.getGenderStatistics();
@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.controller;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientEmergencyContactDto;
 import com.tintsteps.patientservice.model.ResponseModel;
 import com.tintsteps.patientservice.service.PatientEmergencyContactService;
@@ -47,6 +48,15 @@ public class PatientEmergencyContactController {
         return ResponseEntity.ok(ResponseModel.success(contacts, "Emergency contacts retrieved successfully"));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientEmergencyContactDto>>> scrollEmergencyContacts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPageDto<PatientEmergencyContactDto> contacts = patientEmergencyContactService.scroll(cursor, size);
+        return ResponseEntity.ok(ResponseModel.success(contacts, "Emergency contacts retrieved successfully"));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientEmergencyContactOwner(authentication, #id)")
     public ResponseEntity<ResponseModel<PatientEmergencyContactDto>> updateEmergencyContact(
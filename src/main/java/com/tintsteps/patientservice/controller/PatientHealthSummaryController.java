@@ -9,6 +9,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,46 +21,37 @@ import java.util.UUID;
 public class PatientHealthSummaryController {
 
     private final PatientService patientService;
-    private final PatientAllergyService patientAllergyService;
     private final PatientMedicationService patientMedicationService;
     private final PatientEmergencyContactService patientEmergencyContactService;
     private final PatientInsuranceService patientInsuranceService;
     private final PatientMedicalHistoryService patientMedicalHistoryService;
-    private final PatientAddressService patientAddressService;
     private final PatientAppointmentService patientAppointmentService;
+    private final PatientSummaryAssembler patientSummaryAssembler;
+    private final PatientRiskIndexService patientRiskIndexService;
+    private final PatientClinicalSnapshotService patientClinicalSnapshotService;
+    private final PatientTimelineService patientTimelineService;
+    private final PatientSummaryEnricher patientSummaryEnricher;
 
     @GetMapping("/{patientId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientOwner(authentication, #patientId)")
     public ResponseEntity<ResponseModel<PatientHealthSummaryDto>> getPatientHealthSummary(@PathVariable UUID patientId) {
         log.info("Getting comprehensive health summary for patient ID: {}", patientId);
         
-        // Get basic patient info
-        PatientDto patient = patientService.findById(patientId);
+        // Single statement aggregate, no per-section round trips
+        PatientHealthSummaryDto summary = patientService.getHealthSummary(patientId);
         
-        // Get all related data
-        List<PatientAllergyDto> allergies = patientAllergyService.findByPatientId(patientId);
-        List<PatientMedicationDto> currentMedications = patientMedicationService.getCurrentMedicationsForPatient(patientId);
-        List<PatientMedicationDto> allMedications = patientMedicationService.findByPatientId(patientId);
-        List<PatientEmergencyContactDto> emergencyContacts = patientEmergencyContactService.findByPatientId(patientId);
-        List<PatientInsuranceDto> insurance = patientInsuranceService.findByPatientId(patientId);
-        List<PatientMedicalHistoryDto> medicalHistory = patientMedicalHistoryService.findByPatientId(patientId);
-        List<PatientAddressDto> addresses = patientAddressService.findByPatientId(patientId);
-        List<PatientAppointmentDto> appointments = patientAppointmentService.findByPatientId(patientId);
+        return ResponseEntity.ok(ResponseModel.success(summary, "Patient health summary retrieved successfully"));
+    }
+
+    @GetMapping("/{patientId}/enriched")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientOwner(authentication, #patientId)")
+    public ResponseEntity<ResponseModel<EnrichedPatientHealthSummaryDto>> getEnrichedPatientHealthSummary(@PathVariable UUID patientId) {
+        log.info("Getting enriched health summary for patient ID: {}", patientId);
         
-        // Build comprehensive summary
-        PatientHealthSummaryDto summary = PatientHealthSummaryDto.builder()
-                .patient(patient)
-                .allergies(allergies)
-                .currentMedications(currentMedications)
-                .allMedications(allMedications)
-                .emergencyContacts(emergencyContacts)
-                .insurance(insurance)
-                .medicalHistory(medicalHistory)
-                .addresses(addresses)
-                .appointments(appointments)
-                .build();
+        // Addresses and upcoming appointments resolved from their services under the summary deadline
+        EnrichedPatientHealthSummaryDto summary = patientSummaryEnricher.getEnrichedHealthSummary(patientId);
         
-        return ResponseEntity.ok(ResponseModel.success(summary, "Patient health summary retrieved successfully"));
+        return ResponseEntity.ok(ResponseModel.success(summary, "Enriched patient health summary retrieved successfully"));
     }
 
     @GetMapping("/{patientId}/dashboard")
@@ -66,31 +59,29 @@ public class PatientHealthSummaryController {
     public ResponseEntity<ResponseModel<PatientDashboardDto>> getPatientDashboard(@PathVariable UUID patientId) {
         log.info("Getting dashboard data for patient ID: {}", patientId);
         
-        // Get basic patient info
-        PatientDto patient = patientService.findById(patientId);
-        
-        // Get key metrics
-        List<String> criticalAllergies = patientAllergyService.getCriticalAllergies(patientId);
-        List<String> activeMedications = patientMedicationService.getActiveMedicationNames(patientId);
-        List<PatientMedicationDto> expiringMedications = patientMedicationService.getExpiringMedications(patientId, 30);
-        List<PatientEmergencyContactDto> emergencyContacts = patientEmergencyContactService.findByPatientId(patientId);
-        List<PatientMedicalHistoryDto> recentHistory = patientMedicalHistoryService.getRecentMedicalHistory(patientId, 90);
-        
-        // Calculate profile completeness
-        int profileCompleteness = patientService.calculateProfileCompleteness(patientId);
+        // Load basic info, key metrics and profile completeness concurrently
+        PatientSummaryAssembler.Assembly assembly = patientSummaryAssembler.begin();
+        PatientSummaryAssembler.Section<PatientDto> patient = assembly.fork(() -> patientService.findById(patientId));
+        PatientSummaryAssembler.Section<PatientClinicalSnapshotDto> clinical = assembly.fork(() -> patientClinicalSnapshotService.getSnapshot(patientId));
+        PatientSummaryAssembler.Section<List<PatientMedicationDto>> expiringMedications = assembly.fork(() -> patientMedicationService.getExpiringMedications(patientId, 30));
+        PatientSummaryAssembler.Section<List<PatientEmergencyContactDto>> emergencyContacts = assembly.fork(() -> patientEmergencyContactService.findByPatientId(patientId));
+        PatientSummaryAssembler.Section<List<PatientMedicalHistoryDto>> recentHistory = assembly.fork(() -> patientMedicalHistoryService.getRecentMedicalHistory(patientId, 90));
+        PatientSummaryAssembler.Section<Integer> profileCompleteness = assembly.fork(() -> patientService.calculateProfileCompleteness(patientId));
+        PatientSummaryAssembler.Section<Boolean> hasInsurance = assembly.fork(() -> patientInsuranceService.hasInsurance(patientId));
+        assembly.join();
         
         // Build dashboard
         PatientDashboardDto dashboard = PatientDashboardDto.builder()
-                .patient(patient)
-                .profileCompleteness(profileCompleteness)
-                .criticalAllergies(criticalAllergies)
-                .activeMedications(activeMedications)
-                .expiringMedications(expiringMedications)
-                .emergencyContacts(emergencyContacts)
-                .recentMedicalHistory(recentHistory)
-                .hasInsurance(patientInsuranceService.hasInsurance(patientId))
-                .hasEmergencyContacts(!emergencyContacts.isEmpty())
-                .hasCriticalAllergies(!criticalAllergies.isEmpty())
+                .patient(patient.get())
+                .profileCompleteness(profileCompleteness.get())
+                .criticalAllergies(clinical.get().getCriticalAllergies())
+                .activeMedications(clinical.get().getActiveMedicationNames())
+                .expiringMedications(expiringMedications.get())
+                .emergencyContacts(emergencyContacts.get())
+                .recentMedicalHistory(recentHistory.get())
+                .hasInsurance(hasInsurance.get())
+                .hasEmergencyContacts(!emergencyContacts.get().isEmpty())
+                .hasCriticalAllergies(!clinical.get().getCriticalAllergies().isEmpty())
                 .build();
         
         return ResponseEntity.ok(ResponseModel.success(dashboard, "Patient dashboard retrieved successfully"));
@@ -101,18 +92,15 @@ public class PatientHealthSummaryController {
     public ResponseEntity<ResponseModel<PatientSafetyAlertsDto>> getPatientSafetyAlerts(@PathVariable UUID patientId) {
         log.info("Getting safety alerts for patient ID: {}", patientId);
         
-        // Get critical allergies
-        List<String> criticalAllergies = patientAllergyService.getCriticalAllergies(patientId);
-        
-        // Get active medications
-        List<String> activeMedications = patientMedicationService.getActiveMedicationNames(patientId);
+        // Get critical allergies, active medications and chronic conditions
+        PatientClinicalSnapshotDto clinical = patientClinicalSnapshotService.getSnapshot(patientId);
+        List<String> criticalAllergies = clinical.getCriticalAllergies();
+        List<String> activeMedications = clinical.getActiveMedicationNames();
+        List<String> chronicConditions = clinical.getChronicConditions();
         
         // Get expiring medications
         List<PatientMedicationDto> expiringMedications = patientMedicationService.getExpiringMedications(patientId, 30);
         
-        // Get chronic conditions
-        List<String> chronicConditions = patientMedicalHistoryService.getChronicConditions(patientId);
-        
         // Check for missing emergency contacts
         boolean hasEmergencyContacts = patientEmergencyContactService.hasEmergencyContacts(patientId);
         
@@ -142,11 +130,10 @@ public class PatientHealthSummaryController {
             @RequestParam(required = false) String newMedication) {
         log.info("Checking medication safety for patient ID: {}", patientId);
         
-        // Get current medications
-        List<String> currentMedications = patientMedicationService.getActiveMedicationNames(patientId);
-        
-        // Get allergies
-        List<String> allergens = patientAllergyService.getAllergens(patientId);
+        // Get current medications and allergies
+        PatientClinicalSnapshotDto clinical = patientClinicalSnapshotService.getSnapshot(patientId);
+        List<String> currentMedications = clinical.getActiveMedicationNames();
+        List<String> allergens = clinical.getAllergens();
         
         // Check for conflicts if new medication is provided
         boolean hasConflicts = false;
@@ -175,27 +162,16 @@ public class PatientHealthSummaryController {
 
     @GetMapping("/{patientId}/timeline")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientOwner(authentication, #patientId)")
-    public ResponseEntity<ResponseModel<PatientTimelineDto>> getPatientTimeline(
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientTimelineEntryDto>>> getPatientTimeline(
             @PathVariable UUID patientId,
-            @RequestParam(defaultValue = "365") int daysBack) {
+            @RequestParam(defaultValue = "365") int daysBack,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         log.info("Getting timeline for patient ID: {} for last {} days", patientId, daysBack);
         
-        // Get recent medical history
-        List<PatientMedicalHistoryDto> recentHistory = patientMedicalHistoryService.getRecentMedicalHistory(patientId, daysBack);
-        
-        // Get medication history
-        List<PatientMedicationDto> medicationHistory = patientMedicationService.getMedicationHistory(patientId);
-        
-        // Get appointments
-        List<PatientAppointmentDto> appointments = patientAppointmentService.findByPatientId(patientId);
-        
-        PatientTimelineDto timeline = PatientTimelineDto.builder()
-                .patientId(patientId)
-                .daysBack(daysBack)
-                .medicalHistory(recentHistory)
-                .medicationHistory(medicationHistory)
-                .appointments(appointments)
-                .build();
+        // History, allergies, medication starts and stops and appointment links merged newest first
+        Instant since = Instant.now().minus(Duration.ofDays(daysBack));
+        CursorPageDto<PatientTimelineEntryDto> timeline = patientTimelineService.getTimeline(patientId, since, cursor, size);
         
         return ResponseEntity.ok(ResponseModel.success(timeline, "Patient timeline retrieved successfully"));
     }
@@ -205,27 +181,19 @@ public class PatientHealthSummaryController {
     public ResponseEntity<ResponseModel<PatientCarePlanDto>> getPatientCarePlan(@PathVariable UUID patientId) {
         log.info("Getting care plan for patient ID: {}", patientId);
         
-        // Get patient basic info
-        PatientDto patient = patientService.findById(patientId);
-        
-        // Get current medications
-        List<PatientMedicationDto> currentMedications = patientMedicationService.getCurrentMedicationsForPatient(patientId);
-        
-        // Get chronic conditions
-        List<String> chronicConditions = patientMedicalHistoryService.getChronicConditions(patientId);
-        
-        // Get critical allergies
-        List<String> criticalAllergies = patientAllergyService.getCriticalAllergies(patientId);
-        
-        // Get upcoming appointments
-        List<PatientAppointmentDto> appointments = patientAppointmentService.findByPatientId(patientId);
+        // Load patient info, clinical snapshot and appointments concurrently
+        PatientSummaryAssembler.Assembly assembly = patientSummaryAssembler.begin();
+        PatientSummaryAssembler.Section<PatientDto> patient = assembly.fork(() -> patientService.findById(patientId));
+        PatientSummaryAssembler.Section<PatientClinicalSnapshotDto> clinical = assembly.fork(() -> patientClinicalSnapshotService.getSnapshot(patientId));
+        PatientSummaryAssembler.Section<List<PatientAppointmentDto>> appointments = assembly.fork(() -> patientAppointmentService.findByPatientId(patientId));
+        assembly.join();
         
         PatientCarePlanDto carePlan = PatientCarePlanDto.builder()
-                .patient(patient)
-                .currentMedications(currentMedications)
-                .chronicConditions(chronicConditions)
-                .criticalAllergies(criticalAllergies)
-                .upcomingAppointments(appointments)
+                .patient(patient.get())
+                .currentMedications(clinical.get().getCurrentMedications())
+                .chronicConditions(clinical.get().getChronicConditions())
+                .criticalAllergies(clinical.get().getCriticalAllergies())
+                .upcomingAppointments(appointments.get())
                 .build();
         
         return ResponseEntity.ok(ResponseModel.success(carePlan, "Patient care plan retrieved successfully"));
@@ -236,36 +204,8 @@ public class PatientHealthSummaryController {
     public ResponseEntity<ResponseModel<PatientRiskAssessmentDto>> getPatientRiskAssessment(@PathVariable UUID patientId) {
         log.info("Getting risk assessment for patient ID: {}", patientId);
         
-        // Get patient info
-        PatientDto patient = patientService.findById(patientId);
-        
-        // Calculate risk factors
-        boolean hasCriticalAllergies = patientAllergyService.hasCriticalAllergies(patientId);
-        boolean hasChronicConditions = !patientMedicalHistoryService.getChronicConditions(patientId).isEmpty();
-        boolean hasMultipleMedications = patientMedicationService.getActiveMedicationCount(patientId) > 3;
-        boolean missingEmergencyContacts = !patientEmergencyContactService.hasEmergencyContacts(patientId);
-        boolean missingInsurance = !patientInsuranceService.hasInsurance(patientId);
-        
-        // Calculate risk score (simple scoring system)
-        int riskScore = 0;
-        if (hasCriticalAllergies) riskScore += 20;
-        if (hasChronicConditions) riskScore += 15;
-        if (hasMultipleMedications) riskScore += 10;
-        if (missingEmergencyContacts) riskScore += 10;
-        if (missingInsurance) riskScore += 5;
-        
-        String riskLevel = riskScore >= 40 ? "HIGH" : riskScore >= 20 ? "MEDIUM" : "LOW";
-        
-        PatientRiskAssessmentDto riskAssessment = PatientRiskAssessmentDto.builder()
-                .patientId(patientId)
-                .riskScore(riskScore)
-                .riskLevel(riskLevel)
-                .hasCriticalAllergies(hasCriticalAllergies)
-                .hasChronicConditions(hasChronicConditions)
-                .hasMultipleMedications(hasMultipleMedications)
-                .missingEmergencyContacts(missingEmergencyContacts)
-                .missingInsurance(missingInsurance)
-                .build();
+        // Single lookup in the persisted risk index
+        PatientRiskAssessmentDto riskAssessment = patientRiskIndexService.getRiskAssessment(patientId);
         
         return ResponseEntity.ok(ResponseModel.success(riskAssessment, "Patient risk assessment completed"));
     }
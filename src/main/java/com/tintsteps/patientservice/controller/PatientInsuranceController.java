@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.controller;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientInsuranceDto;
 import com.tintsteps.patientservice.model.ResponseModel;
 import com.tintsteps.patientservice.service.PatientInsuranceService;
@@ -47,6 +48,15 @@ public class PatientInsuranceController {
         return ResponseEntity.ok(ResponseModel.success(insurance, "Patient insurance retrieved successfully"));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientInsuranceDto>>> scrollInsurance(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPageDto<PatientInsuranceDto> insurance = patientInsuranceService.scroll(cursor, size);
+        return ResponseEntity.ok(ResponseModel.success(insurance, "Patient insurance retrieved successfully"));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientInsuranceOwner(authentication, #id)")
     public ResponseEntity<ResponseModel<PatientInsuranceDto>> updateInsurance(
@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.controller;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientMedicalHistoryDto;
 import com.tintsteps.patientservice.model.ResponseModel;
 import com.tintsteps.patientservice.service.PatientMedicalHistoryService;
@@ -49,6 +50,15 @@ public class PatientMedicalHistoryController {
         return ResponseEntity.ok(ResponseModel.success(history, "Medical history retrieved successfully"));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientMedicalHistoryDto>>> scrollMedicalHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPageDto<PatientMedicalHistoryDto> history = patientMedicalHistoryService.scroll(cursor, size);
+        return ResponseEntity.ok(ResponseModel.success(history, "Medical history retrieved successfully"));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientMedicalHistoryOwner(authentication, #id)")
     public ResponseEntity<ResponseModel<PatientMedicalHistoryDto>> updateMedicalHistory(
@@ -137,6 +147,17 @@ public class PatientMedicalHistoryController {
         return ResponseEntity.ok(ResponseModel.success(conditions, "Medical conditions retrieved successfully"));
     }
 
+    @GetMapping("/patient/{patientId}/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientOwner(authentication, #patientId)")
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientMedicalHistoryDto>>> scrollPatientMedicalHistory(
+            @PathVariable UUID patientId,
+            @RequestParam(required = false) Instant since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPageDto<PatientMedicalHistoryDto> history = patientMedicalHistoryService.scrollByPatientId(patientId, since, cursor, size);
+        return ResponseEntity.ok(ResponseModel.success(history, "Medical history retrieved successfully"));
+    }
+
     @GetMapping("/patient/{patientId}/recent")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientOwner(authentication, #patientId)")
     public ResponseEntity<ResponseModel<List<PatientMedicalHistoryDto>>> getRecentMedicalHistory(
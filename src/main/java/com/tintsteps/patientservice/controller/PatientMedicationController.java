@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.controller;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientMedicationDto;
 import com.tintsteps.patientservice.model.ResponseModel;
 import com.tintsteps.patientservice.service.PatientMedicationService;
@@ -49,6 +50,15 @@ public class PatientMedicationController {
         return ResponseEntity.ok(ResponseModel.success(medications, "Patient medications retrieved successfully"));
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientMedicationDto>>> scrollPatientMedications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPageDto<PatientMedicationDto> medications = patientMedicationService.scroll(cursor, size);
+        return ResponseEntity.ok(ResponseModel.success(medications, "Patient medications retrieved successfully"));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientMedicationOwner(authentication, #id)")
     public ResponseEntity<ResponseModel<PatientMedicationDto>> updatePatientMedication(
@@ -88,6 +98,16 @@ public class PatientMedicationController {
         return ResponseEntity.ok(ResponseModel.success(medications, "Patient medications retrieved successfully"));
     }
 
+    @GetMapping("/patient/{patientId}/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or @patientSecurity.isPatientOwner(authentication, #patientId)")
+    public ResponseEntity<ResponseModel<CursorPageDto<PatientMedicationDto>>> scrollMedicationsByPatientId(
+            @PathVariable UUID patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        CursorPageDto<PatientMedicationDto> medications = patientMedicationService.scrollByPatientId(patientId, cursor, size);
+        return ResponseEntity.ok(ResponseModel.success(medications, "Patient medications retrieved successfully"));
+    }
+
     @GetMapping("/medication/{medicationName}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR')")
     public ResponseEntity<ResponseModel<Page<PatientMedicationDto>>> getMedicationsByName(
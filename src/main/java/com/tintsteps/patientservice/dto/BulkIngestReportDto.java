@@ -0,0 +1,35 @@
+package com.tintsteps.patientservice.dto;
+
+import com.tintsteps.patientservice.model.BulkIngestRecordType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestReportDto {
+    private BulkIngestRecordType recordType;
+    private long received;
+    private long inserted;
+    private long failed;
+    private int chunks;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<RowError> errors;
+    // More rows failed than are listed in errors
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        // 1-based line of the record in the NDJSON input
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,52 @@
+package com.tintsteps.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset scroll. Unlike a Page there is no total count,
+ * {@code nextCursor} continues the scroll and is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+
+    public static final int MAX_SIZE = 1000;
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Rows to fetch for a page of the given size, one extra row tells whether another page follows
+     */
+    public static Limit fetchLimit(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE);
+        }
+        return Limit.of(size + 1);
+    }
+
+    /**
+     * Build a page from rows fetched with {@link #fetchLimit(int)}
+     */
+    public static <E, T> CursorPageDto<T> of(List<E> rows, int size, Function<E, T> mapper, Function<E, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        return CursorPageDto.<T>builder()
+                .content(pageRows.stream().map(mapper).toList())
+                .size(pageRows.size())
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.get(size - 1)).encode() : null)
+                .hasNext(hasNext)
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.tintsteps.patientservice.dto;
+
+import com.tintsteps.patientservice.integration.dto.AddressDto;
+import com.tintsteps.patientservice.integration.dto.AppointmentDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrichedPatientHealthSummaryDto {
+    private PatientHealthSummaryDto summary;
+    private List<AddressDto> addresses;
+    private List<AppointmentDto> upcomingAppointments;
+    // Set when a lookup for the section failed, was refused by an open circuit or missed the deadline
+    private boolean addressesDegraded;
+    private boolean appointmentsDegraded;
+}
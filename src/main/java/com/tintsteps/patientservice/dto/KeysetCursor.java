@@ -0,0 +1,48 @@
+package com.tintsteps.patientservice.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last row of a keyset page, handed to clients as an opaque token.
+ * Patients are ordered by (created_at, id) and a patient's medical history by (recorded_at, id),
+ * carried in {@code createdAt}; tables without a timestamp are ordered by id alone and leave
+ * {@code createdAt} null.
+ */
+public record KeysetCursor(Instant createdAt, UUID id) {
+
+    public static KeysetCursor after(UUID id) {
+        return new KeysetCursor(null, id);
+    }
+
+    public String encode() {
+        String position = (createdAt == null ? "" : createdAt.getEpochSecond() + "." + createdAt.getNano()) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}, null for the first page
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.indexOf(':');
+            UUID id = UUID.fromString(position.substring(separator + 1));
+            if (separator == 0) {
+                return after(id);
+            }
+            String timestamp = position.substring(0, separator);
+            int dot = timestamp.indexOf('.');
+            Instant createdAt = Instant.ofEpochSecond(
+                    Long.parseLong(timestamp.substring(0, dot)), Long.parseLong(timestamp.substring(dot + 1)));
+            return new KeysetCursor(createdAt, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.tintsteps.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Clinical facts of one patient that composite views read over and over
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientClinicalSnapshotDto {
+    private UUID patientId;
+    private List<String> allergens;
+    private List<String> criticalAllergies;
+    private List<PatientMedicationDto> currentMedications;
+    private List<String> activeMedicationNames;
+    private List<String> chronicConditions;
+}
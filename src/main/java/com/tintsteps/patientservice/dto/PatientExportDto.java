@@ -0,0 +1,24 @@
+package com.tintsteps.patientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One line of the NDJSON patient export. Child sections that were not requested are left out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PatientExportDto {
+    private PatientDto patient;
+    private List<PatientAllergyDto> allergies;
+    private List<PatientMedicationDto> medications;
+    private List<PatientMedicalHistoryDto> medicalHistory;
+}
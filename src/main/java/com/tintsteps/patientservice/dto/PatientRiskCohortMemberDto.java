@@ -0,0 +1,22 @@
+package com.tintsteps.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientRiskCohortMemberDto {
+    private PatientDto patient;
+    private int riskScore;
+    private String riskLevel;
+    private int activeMedicationCount;
+    private boolean hasCriticalAllergies;
+    private boolean hasChronicConditions;
+    private boolean hasMultipleMedications;
+    private boolean missingEmergencyContacts;
+    private boolean missingInsurance;
+}
@@ -0,0 +1,24 @@
+package com.tintsteps.patientservice.dto;
+
+import com.tintsteps.patientservice.model.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional patient search criteria, every non-null field narrows the result
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSearchCriteria {
+    private String medicalCondition;
+    private String medication;
+    private String allergen;
+    private Gender gender;
+    private String bloodGroup;
+    private Integer minAge;
+    private Integer maxAge;
+}
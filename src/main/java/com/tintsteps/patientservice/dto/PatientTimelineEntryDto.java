@@ -0,0 +1,25 @@
+package com.tintsteps.patientservice.dto;
+
+import com.tintsteps.patientservice.model.TimelineEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientTimelineEntryDto {
+    private TimelineEventType type;
+    private Instant occurredAt;
+    // ID of the history, allergy, medication or appointment link record
+    private UUID recordId;
+    private String title;
+    private String detail;
+    // Appointment ID in the schedule service, set on APPOINTMENT_LINKED only
+    private UUID referenceId;
+}
@@ -0,0 +1,38 @@
+package com.tintsteps.patientservice.dto;
+
+import com.tintsteps.patientservice.model.TimelineEventType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last entry of a timeline page. The feed is ordered by time, then event
+ * type, then ID within the type, so all three are needed to resume every source correctly.
+ */
+public record TimelineCursor(Instant occurredAt, TimelineEventType type, UUID id) {
+
+    public String encode() {
+        String position = occurredAt.getEpochSecond() + "." + occurredAt.getNano() + ":" + type.name() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}, null for the first page
+     */
+    public static TimelineCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 3);
+            int dot = position[0].indexOf('.');
+            Instant occurredAt = Instant.ofEpochSecond(
+                    Long.parseLong(position[0].substring(0, dot)), Long.parseLong(position[0].substring(dot + 1)));
+            return new TimelineCursor(occurredAt, TimelineEventType.valueOf(position[1]), UUID.fromString(position[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.tintsteps.patientservice.event;
+
+import com.tintsteps.patientservice.model.Patient;
+import com.tintsteps.patientservice.model.PatientOwned;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JPA entity listener on patients and their child records. Collects the IDs of every
+ * created patient and the owning patient IDs of every child record insert, update and
+ * delete in the current transaction, and publishes a single {@link PatientDataChangedEvent}
+ * once it has committed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PatientDataChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // A new patient needs its first risk profile, updates of the patient row itself feed no risk factor
+    @PostPersist
+    public void onPersist(Object entity) {
+        if (entity instanceof Patient patient) {
+            changed(patient, entity);
+        } else {
+            onChange(entity);
+        }
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof PatientOwned record) {
+            changed(record.getPatient(), record);
+        }
+    }
+
+    private void changed(Patient patient, Object record) {
+        if (patient == null || patient.getId() == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(new PatientDataChangedEvent(Set.of(patient.getId()), Set.of(Hibernate.getClass(record))));
+            return;
+        }
+
+        ChangedPatients changedPatients = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(ChangedPatients.class::isInstance)
+                .map(ChangedPatients.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    ChangedPatients registered = new ChangedPatients();
+                    TransactionSynchronizationManager.registerSynchronization(registered);
+                    return registered;
+                });
+        changedPatients.patientIds.add(patient.getId());
+        changedPatients.recordTypes.add(Hibernate.getClass(record));
+    }
+
+    private final class ChangedPatients implements TransactionSynchronization {
+
+        private final Set<UUID> patientIds = new LinkedHashSet<>();
+        private final Set<Class<?>> recordTypes = new HashSet<>();
+
+        @Override
+        public void afterCommit() {
+            log.debug("Clinical data changed for {} patients", patientIds.size());
+            eventPublisher.publishEvent(new PatientDataChangedEvent(Set.copyOf(patientIds), Set.copyOf(recordTypes)));
+        }
+    }
+}
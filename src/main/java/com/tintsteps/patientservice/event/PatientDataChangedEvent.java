@@ -0,0 +1,20 @@
+package com.tintsteps.patientservice.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published once per committed transaction that created patients or wrote their child
+ * records, with the IDs of every patient whose records changed and the changed record types.
+ */
+public record PatientDataChangedEvent(Set<UUID> patientIds, Set<Class<?>> recordTypes) {
+
+    public boolean affects(Class<?>... types) {
+        for (Class<?> type : types) {
+            if (recordTypes.contains(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
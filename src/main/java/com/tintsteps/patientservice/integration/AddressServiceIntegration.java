@@ -1,30 +1,44 @@
 package com.tintsteps.patientservice.integration;
 
+import com.tintsteps.patientservice.config.DownstreamClientSettings;
+import com.tintsteps.patientservice.config.WebClientConfig;
 import com.tintsteps.patientservice.integration.dto.AddressDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AddressServiceIntegration {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient addressServiceWebClient;
+    private final StaleWhileRevalidateCache<UUID, AddressDto> addresses;
+    private final BatchLoader<UUID, AddressDto> addressBatches;
+    private final RequestCoalescer<String, List<AddressDto>> userAddressLookups;
 
-    @Value("${services.address-service.base-url:http://ts-address-service}")
-    private String addressServiceBaseUrl;
+    public AddressServiceIntegration(WebClient addressServiceWebClient,
+                                     DownstreamClientSettings addressServiceClientSettings,
+                                     MeterRegistry meterRegistry) {
+        this.addressServiceWebClient = addressServiceWebClient;
+        DownstreamClientSettings.Batch batch = addressServiceClientSettings.getBatch();
+        BulkLookup<AddressDto> bulkLookup = new BulkLookup<>(WebClientConfig.ADDRESS_SERVICE, addressServiceWebClient, batch,
+                AddressDto.class, AddressDto::getId, this::fetchAddress);
+        this.addressBatches = new BatchLoader<>("address-by-id", bulkLookup, batch.getWindow(), batch.getMaxSize(), meterRegistry);
+        this.addresses = new StaleWhileRevalidateCache<>("remoteAddresses", addressServiceClientSettings.getCache(),
+                addressBatches::load, meterRegistry);
+        this.userAddressLookups = new RequestCoalescer<>("addresses-by-user", meterRegistry);
+    }
 
     @CircuitBreaker(name = "ts-address-service", fallbackMethod = "getAddressFallback")
     @Retry(name = "ts-address-service")
@@ -32,13 +46,19 @@ public class AddressServiceIntegration {
     public CompletableFuture<AddressDto> getAddressById(UUID addressId) {
         log.info("Fetching address by ID: {}", addressId);
         
-        return webClientBuilder.build()
-                .get()
-                .uri(addressServiceBaseUrl + "/api/v1/addresses/{id}", addressId)
-                .retrieve()
-                .bodyToMono(AddressDto.class)
-                .timeout(Duration.ofSeconds(5))
-                .toFuture();
+        return lookupAddress(addressId);
+    }
+
+    /**
+     * The cached, batched lookup behind getAddressById, without its resilience and fallback.
+     * Fails when the address cannot be resolved, for callers that report that themselves.
+     */
+    public CompletableFuture<AddressDto> lookupAddress(UUID addressId) {
+        return addresses.get(addressId);
+    }
+
+    public Optional<AddressDto> lastKnownAddress(UUID addressId) {
+        return addresses.lastKnown(addressId);
     }
 
     @CircuitBreaker(name = "ts-address-service", fallbackMethod = "getAddressesByUserIdFallback")
@@ -47,14 +67,14 @@ public class AddressServiceIntegration {
     public CompletableFuture<List<AddressDto>> getAddressesByUserId(String userId) {
         log.info("Fetching addresses for user ID: {}", userId);
         
-        return webClientBuilder.build()
+        return userAddressLookups.execute(userId, () -> addressServiceWebClient
                 .get()
-                .uri(addressServiceBaseUrl + "/api/v1/addresses/user/{userId}", userId)
+                .uri("/api/v1/addresses/user/{userId}", userId)
                 .retrieve()
                 .bodyToFlux(AddressDto.class)
                 .collectList()
                 .timeout(Duration.ofSeconds(10))
-                .toFuture();
+                .toFuture());
     }
 
     @CircuitBreaker(name = "ts-address-service", fallbackMethod = "getAddressesByUserIdAndTypeFallback")
@@ -63,9 +83,9 @@ public class AddressServiceIntegration {
     public CompletableFuture<List<AddressDto>> getAddressesByUserIdAndType(String userId, String type) {
         log.info("Fetching addresses for user ID: {} and type: {}", userId, type);
         
-        return webClientBuilder.build()
+        return addressServiceWebClient
                 .get()
-                .uri(addressServiceBaseUrl + "/api/v1/addresses/user/{userId}/type/{type}", userId, type)
+                .uri("/api/v1/addresses/user/{userId}/type/{type}", userId, type)
                 .retrieve()
                 .bodyToFlux(AddressDto.class)
                 .collectList()
@@ -79,9 +99,9 @@ public class AddressServiceIntegration {
     public CompletableFuture<AddressDto> createAddress(AddressDto addressDto) {
         log.info("Creating address for user ID: {}", addressDto.getUserId());
         
-        return webClientBuilder.build()
+        return addressServiceWebClient
                 .post()
-                .uri(addressServiceBaseUrl + "/api/v1/addresses")
+                .uri("/api/v1/addresses")
                 .bodyValue(addressDto)
                 .retrieve()
                 .bodyToMono(AddressDto.class)
@@ -95,13 +115,14 @@ public class AddressServiceIntegration {
     public CompletableFuture<AddressDto> updateAddress(UUID addressId, AddressDto addressDto) {
         log.info("Updating address ID: {}", addressId);
         
-        return webClientBuilder.build()
+        return addressServiceWebClient
                 .put()
-                .uri(addressServiceBaseUrl + "/api/v1/addresses/{id}", addressId)
+                .uri("/api/v1/addresses/{id}", addressId)
                 .bodyValue(addressDto)
                 .retrieve()
                 .bodyToMono(AddressDto.class)
                 .timeout(Duration.ofSeconds(10))
+                .doOnSuccess(updated -> addresses.invalidate(addressId))
                 .toFuture();
     }
 
@@ -111,12 +132,13 @@ public class AddressServiceIntegration {
     public CompletableFuture<Void> deleteAddress(UUID addressId) {
         log.info("Deleting address ID: {}", addressId);
         
-        return webClientBuilder.build()
+        return addressServiceWebClient
                 .delete()
-                .uri(addressServiceBaseUrl + "/api/v1/addresses/{id}", addressId)
+                .uri("/api/v1/addresses/{id}", addressId)
                 .retrieve()
                 .bodyToMono(Void.class)
                 .timeout(Duration.ofSeconds(5))
+                .doOnSuccess(deleted -> addresses.invalidate(addressId))
                 .toFuture();
     }
 
@@ -126,18 +148,31 @@ public class AddressServiceIntegration {
     public CompletableFuture<Boolean> validateAddress(UUID addressId) {
         log.info("Validating address: {}", addressId);
         
-        return webClientBuilder.build()
+        return addressServiceWebClient
                 .get()
-                .uri(addressServiceBaseUrl + "/api/v1/addresses/{id}/validate", addressId)
+                .uri("/api/v1/addresses/{id}/validate", addressId)
                 .retrieve()
                 .bodyToMono(Boolean.class)
                 .timeout(Duration.ofSeconds(3))
                 .toFuture();
     }
 
+    private Mono<AddressDto> fetchAddress(UUID addressId) {
+        return addressServiceWebClient
+                .get()
+                .uri("/api/v1/addresses/{id}", addressId)
+                .retrieve()
+                .bodyToMono(AddressDto.class)
+                .timeout(Duration.ofSeconds(5));
+    }
+
     // Fallback methods
     public CompletableFuture<AddressDto> getAddressFallback(UUID addressId, Exception ex) {
         log.warn("Address service fallback triggered for getAddressById: {}, error: {}", addressId, ex.getMessage());
+        Optional<AddressDto> lastKnown = lastKnownAddress(addressId);
+        if (lastKnown.isPresent()) {
+            return CompletableFuture.completedFuture(lastKnown.get());
+        }
         AddressDto fallbackAddress = new AddressDto();
         fallbackAddress.setId(addressId);
         fallbackAddress.setStreet("Unknown Address");
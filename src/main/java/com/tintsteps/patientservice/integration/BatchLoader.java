@@ -0,0 +1,117 @@
+package com.tintsteps.patientservice.integration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects single lookups and sends them downstream together. The first lookup of a batch opens a
+ * window, and the batch goes out when the window closes or the batch is full, whichever is first.
+ * Repeated keys within a batch are sent once. A key the batch call reports a failure for fails with
+ * that failure, and a key it returns nothing for fails with NoSuchElementException, as a single
+ * lookup answered 404 would.
+ * <p>
+ * Batch sizes are recorded under patient.integration.batch.size, tagged with the lookup name.
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<List<K>, CompletableFuture<Results<K, V>>> batchCall;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    private Disposable scheduledFlush;
+
+    public BatchLoader(String lookup, Function<List<K>, CompletableFuture<Results<K, V>>> batchCall,
+                       Duration window, int maxBatchSize, MeterRegistry meterRegistry) {
+        this.batchCall = batchCall;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = DistributionSummary.builder("patient.integration.batch.size")
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<V> load(K key) {
+        CompletableFuture<V> result;
+        Map<K, CompletableFuture<V>> full = null;
+        synchronized (this) {
+            result = pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = Schedulers.parallel().schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        // A copy, so a caller cancelling its lookup does not fail the same key for the others
+        return result.copy();
+    }
+
+    private void flush() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            // Cleared first, takePending must not dispose the task that is running it
+            scheduledFlush = null;
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private Map<K, CompletableFuture<V>> takePending() {
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        batchSizes.record(batch.size());
+        CompletableFuture<Results<K, V>> call;
+        try {
+            call = batchCall.apply(List.copyOf(batch.keySet()));
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((results, failure) -> batch.forEach((key, future) -> {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else if (results.found().containsKey(key)) {
+                future.complete(results.found().get(key));
+            } else if (results.failed().containsKey(key)) {
+                future.completeExceptionally(results.failed().get(key));
+            } else {
+                future.completeExceptionally(new NoSuchElementException("No result for " + key));
+            }
+        }));
+    }
+
+    /**
+     * What one batch call resolved: the records found by key, and the keys whose own lookup
+     * failed. Keys in neither were not found.
+     */
+    public record Results<K, V>(Map<K, V> found, Map<K, Throwable> failed) {
+
+        public static <K, V> Results<K, V> of(Map<K, V> found) {
+            return new Results<>(found, Map.of());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.tintsteps.patientservice.integration;
+
+import com.tintsteps.patientservice.config.DownstreamClientSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Fetches a batch of records by id: one POST of the ids to the service's bulk endpoint when it
+ * has one, otherwise the single lookups with bounded parallelism. A bulk endpoint answering as if
+ * it did not exist is given up on for the life of the application and the batch is retried singly.
+ * Ids the service has no record for are left out of the result. A single lookup failing for any
+ * other reason, such as a 5xx, a timeout or a refused connection, is reported as that id's failure.
+ */
+@Slf4j
+public class BulkLookup<V> implements Function<List<UUID>, CompletableFuture<BatchLoader.Results<UUID, V>>> {
+
+    private static final Set<Integer> MISSING_ENDPOINT = Set.of(
+            HttpStatus.NOT_FOUND.value(), HttpStatus.METHOD_NOT_ALLOWED.value(), HttpStatus.NOT_IMPLEMENTED.value());
+
+    private final String service;
+    private final WebClient webClient;
+    private final Class<V> type;
+    private final Function<V, UUID> idOf;
+    private final Function<UUID, Mono<V>> single;
+    private final int parallelism;
+    private volatile String bulkPath;
+
+    public BulkLookup(String service, WebClient webClient, DownstreamClientSettings.Batch settings,
+                      Class<V> type, Function<V, UUID> idOf, Function<UUID, Mono<V>> single) {
+        this.service = service;
+        this.webClient = webClient;
+        this.type = type;
+        this.idOf = idOf;
+        this.single = single;
+        this.parallelism = settings.getParallelism();
+        this.bulkPath = settings.getBulkPath() == null || settings.getBulkPath().isBlank() ? null : settings.getBulkPath();
+    }
+
+    @Override
+    public CompletableFuture<BatchLoader.Results<UUID, V>> apply(List<UUID> ids) {
+        String path = bulkPath;
+        Mono<BatchLoader.Results<UUID, V>> results = path == null ? fetchEach(ids) : fetchBulk(path, ids)
+                .collectMap(idOf)
+                .map(BatchLoader.Results::of)
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    if (!MISSING_ENDPOINT.contains(e.getStatusCode().value())) {
+                        return Mono.error(e);
+                    }
+                    log.warn("{} answered {} on bulk endpoint {}, falling back to single lookups",
+                            service, e.getStatusCode(), path);
+                    bulkPath = null;
+                    return fetchEach(ids);
+                });
+        return results.toFuture();
+    }
+
+    private Flux<V> fetchBulk(String path, List<UUID> ids) {
+        return webClient
+                .post()
+                .uri(path)
+                .bodyValue(ids)
+                .retrieve()
+                .bodyToFlux(type);
+    }
+
+    // A failed single lookup only fails its own id, the rest of the batch still resolves
+    private Mono<BatchLoader.Results<UUID, V>> fetchEach(List<UUID> ids) {
+        Map<UUID, V> found = new ConcurrentHashMap<>();
+        Map<UUID, Throwable> failed = new ConcurrentHashMap<>();
+        return Flux.fromIterable(ids)
+                .flatMap(id -> single.apply(id)
+                        .doOnNext(record -> found.put(id, record))
+                        .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                        .onErrorResume(e -> {
+                            log.debug("{} single lookup of {} failed: {}", service, id, e.getMessage());
+                            failed.put(id, e);
+                            return Mono.empty();
+                        }), parallelism)
+                .then(Mono.fromSupplier(() -> new BatchLoader.Results<>(found, failed)));
+    }
+}
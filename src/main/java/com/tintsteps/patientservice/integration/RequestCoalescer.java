@@ -0,0 +1,65 @@
+package com.tintsteps.patientservice.integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for downstream lookups: while a call for a key is in flight, further calls for the
+ * same key wait on it instead of sending their own. Every caller gets its own copy of the shared
+ * future, so a caller that times out and cancels does not cancel the call for the others.
+ * <p>
+ * Counts calls under patient.integration.coalesce, tagged with the lookup name and whether the
+ * call went downstream (leader) or waited on one already in flight (joined).
+ */
+public class RequestCoalescer<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter joined;
+
+    public RequestCoalescer(String lookup, MeterRegistry meterRegistry) {
+        this.leaders = counter(meterRegistry, lookup, "leader");
+        this.joined = counter(meterRegistry, lookup, "joined");
+        Gauge.builder("patient.integration.coalesce.in-flight", inFlight, Map::size)
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> shared = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            joined.increment();
+            return existing.copy();
+        }
+        leaders.increment();
+        try {
+            call.get().whenComplete((value, failure) -> {
+                // Removed before completing, so a call arriving after the result goes downstream afresh
+                inFlight.remove(key, shared);
+                if (failure != null) {
+                    shared.completeExceptionally(failure);
+                } else {
+                    shared.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(e);
+        }
+        return shared.copy();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String lookup, String role) {
+        return Counter.builder("patient.integration.coalesce")
+                .tag("lookup", lookup)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
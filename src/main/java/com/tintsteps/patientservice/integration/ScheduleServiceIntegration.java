@@ -1,12 +1,12 @@
 package com.tintsteps.patientservice.integration;
 
+import com.tintsteps.patientservice.config.DownstreamClientSettings;
 import com.tintsteps.patientservice.integration.dto.AppointmentDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -15,18 +15,26 @@ import org.springframework.web.reactive.function.client.WebClient;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ScheduleServiceIntegration {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient scheduleServiceWebClient;
+    private final StaleWhileRevalidateCache<UUID, AppointmentDto> appointments;
+    private final RequestCoalescer<UUID, List<AppointmentDto>> upcomingLookups;
 
-    @Value("${services.schedule-service.base-url:http://ts-schedule-service}")
-    private String scheduleServiceBaseUrl;
+    public ScheduleServiceIntegration(WebClient scheduleServiceWebClient,
+                                      DownstreamClientSettings scheduleServiceClientSettings,
+                                      MeterRegistry meterRegistry) {
+        this.scheduleServiceWebClient = scheduleServiceWebClient;
+        this.appointments = new StaleWhileRevalidateCache<>("remoteAppointments", scheduleServiceClientSettings.getCache(),
+                this::fetchAppointment, meterRegistry);
+        this.upcomingLookups = new RequestCoalescer<>("upcoming-appointments", meterRegistry);
+    }
 
     @CircuitBreaker(name = "ts-schedule-service", fallbackMethod = "getAppointmentFallback")
     @Retry(name = "ts-schedule-service")
@@ -34,13 +42,7 @@ public class ScheduleServiceIntegration {
     public CompletableFuture<AppointmentDto> getAppointmentById(UUID appointmentId) {
         log.info("Fetching appointment by ID: {}", appointmentId);
         
-        return webClientBuilder.build()
-                .get()
-                .uri(scheduleServiceBaseUrl + "/api/v1/appointments/{id}", appointmentId)
-                .retrieve()
-                .bodyToMono(AppointmentDto.class)
-                .timeout(Duration.ofSeconds(5))
-                .toFuture();
+        return appointments.get(appointmentId);
     }
 
     @CircuitBreaker(name = "ts-schedule-service", fallbackMethod = "getAppointmentsByPatientIdFallback")
@@ -49,9 +51,9 @@ public class ScheduleServiceIntegration {
     public CompletableFuture<List<AppointmentDto>> getAppointmentsByPatientId(UUID patientId) {
         log.info("Fetching appointments for patient ID: {}", patientId);
         
-        return webClientBuilder.build()
+        return scheduleServiceWebClient
                 .get()
-                .uri(scheduleServiceBaseUrl + "/api/v1/appointments/patient/{patientId}", patientId)
+                .uri("/api/v1/appointments/patient/{patientId}", patientId)
                 .retrieve()
                 .bodyToFlux(AppointmentDto.class)
                 .collectList()
@@ -65,14 +67,22 @@ public class ScheduleServiceIntegration {
     public CompletableFuture<List<AppointmentDto>> getUpcomingAppointments(UUID patientId) {
         log.info("Fetching upcoming appointments for patient ID: {}", patientId);
         
-        return webClientBuilder.build()
+        return lookupUpcomingAppointments(patientId);
+    }
+
+    /**
+     * The coalesced call behind getUpcomingAppointments, without its resilience and fallback, so
+     * a failure is not mistaken for a patient with no upcoming appointments.
+     */
+    public CompletableFuture<List<AppointmentDto>> lookupUpcomingAppointments(UUID patientId) {
+        return upcomingLookups.execute(patientId, () -> scheduleServiceWebClient
                 .get()
-                .uri(scheduleServiceBaseUrl + "/api/v1/appointments/patient/{patientId}/upcoming", patientId)
+                .uri("/api/v1/appointments/patient/{patientId}/upcoming", patientId)
                 .retrieve()
                 .bodyToFlux(AppointmentDto.class)
                 .collectList()
                 .timeout(Duration.ofSeconds(10))
-                .toFuture();
+                .toFuture());
     }
 
     @CircuitBreaker(name = "ts-schedule-service", fallbackMethod = "getPastAppointmentsFallback")
@@ -81,9 +91,9 @@ public class ScheduleServiceIntegration {
     public CompletableFuture<List<AppointmentDto>> getPastAppointments(UUID patientId) {
         log.info("Fetching past appointments for patient ID: {}", patientId);
         
-        return webClientBuilder.build()
+        return scheduleServiceWebClient
                 .get()
-                .uri(scheduleServiceBaseUrl + "/api/v1/appointments/patient/{patientId}/past", patientId)
+                .uri("/api/v1/appointments/patient/{patientId}/past", patientId)
                 .retrieve()
                 .bodyToFlux(AppointmentDto.class)
                 .collectList()
@@ -97,9 +107,9 @@ public class ScheduleServiceIntegration {
     public CompletableFuture<List<AppointmentDto>> getAppointmentsByStatus(UUID patientId, String status) {
         log.info("Fetching appointments for patient ID: {} with status: {}", patientId, status);
         
-        return webClientBuilder.build()
+        return scheduleServiceWebClient
                 .get()
-                .uri(scheduleServiceBaseUrl + "/api/v1/appointments/patient/{patientId}/status/{status}", patientId, status)
+                .uri("/api/v1/appointments/patient/{patientId}/status/{status}", patientId, status)
                 .retrieve()
                 .bodyToFlux(AppointmentDto.class)
                 .collectList()
@@ -113,10 +123,10 @@ public class ScheduleServiceIntegration {
     public CompletableFuture<List<AppointmentDto>> getAppointmentsByDateRange(UUID patientId, LocalDateTime startDate, LocalDateTime endDate) {
         log.info("Fetching appointments for patient ID: {} between {} and {}", patientId, startDate, endDate);
         
-        return webClientBuilder.build()
+        return scheduleServiceWebClient
                 .get()
                 .uri(uriBuilder -> uriBuilder
-                        .path(scheduleServiceBaseUrl + "/api/v1/appointments/patient/{patientId}/date-range")
+                        .path("/api/v1/appointments/patient/{patientId}/date-range")
                         .queryParam("startDate", startDate.toString())
                         .queryParam("endDate", endDate.toString())
                         .build(patientId))
@@ -133,9 +143,9 @@ public class ScheduleServiceIntegration {
     public CompletableFuture<AppointmentDto> createAppointment(AppointmentDto appointmentDto) {
         log.info("Creating appointment for patient ID: {}", appointmentDto.getPatientId());
         
-        return webClientBuilder.build()
+        return scheduleServiceWebClient
                 .post()
-                .uri(scheduleServiceBaseUrl + "/api/v1/appointments")
+                .uri("/api/v1/appointments")
                 .bodyValue(appointmentDto)
                 .retrieve()
                 .bodyToMono(AppointmentDto.class)
@@ -149,13 +159,14 @@ public class ScheduleServiceIntegration {
     public CompletableFuture<AppointmentDto> updateAppointment(UUID appointmentId, AppointmentDto appointmentDto) {
         log.info("Updating appointment ID: {}", appointmentId);
         
-        return webClientBuilder.build()
+        return scheduleServiceWebClient
                 .put()
-                .uri(scheduleServiceBaseUrl + "/api/v1/appointments/{id}", appointmentId)
+                .uri("/api/v1/appointments/{id}", appointmentId)
                 .bodyValue(appointmentDto)
                 .retrieve()
                 .bodyToMono(AppointmentDto.class)
                 .timeout(Duration.ofSeconds(10))
+                .doOnSuccess(updated -> appointments.invalidate(appointmentId))
                 .toFuture();
     }
 
@@ -165,12 +176,13 @@ public class ScheduleServiceIntegration {
     public CompletableFuture<AppointmentDto> cancelAppointment(UUID appointmentId) {
         log.info("Cancelling appointment ID: {}", appointmentId);
         
-        return webClientBuilder.build()
+        return scheduleServiceWebClient
                 .patch()
-                .uri(scheduleServiceBaseUrl + "/api/v1/appointments/{id}/cancel", appointmentId)
+                .uri("/api/v1/appointments/{id}/cancel", appointmentId)
                 .retrieve()
                 .bodyToMono(AppointmentDto.class)
                 .timeout(Duration.ofSeconds(5))
+                .doOnSuccess(cancelled -> appointments.invalidate(appointmentId))
                 .toFuture();
     }
 
@@ -180,18 +192,32 @@ public class ScheduleServiceIntegration {
     public CompletableFuture<Boolean> validateAppointment(UUID appointmentId) {
         log.info("Validating appointment: {}", appointmentId);
         
-        return webClientBuilder.build()
+        return scheduleServiceWebClient
                 .get()
-                .uri(scheduleServiceBaseUrl + "/api/v1/appointments/{id}/validate", appointmentId)
+                .uri("/api/v1/appointments/{id}/validate", appointmentId)
                 .retrieve()
                 .bodyToMono(Boolean.class)
                 .timeout(Duration.ofSeconds(3))
                 .toFuture();
     }
 
+    private CompletableFuture<AppointmentDto> fetchAppointment(UUID appointmentId) {
+        return scheduleServiceWebClient
+                .get()
+                .uri("/api/v1/appointments/{id}", appointmentId)
+                .retrieve()
+                .bodyToMono(AppointmentDto.class)
+                .timeout(Duration.ofSeconds(5))
+                .toFuture();
+    }
+
     // Fallback methods
     public CompletableFuture<AppointmentDto> getAppointmentFallback(UUID appointmentId, Exception ex) {
         log.warn("Schedule service fallback triggered for getAppointmentById: {}, error: {}", appointmentId, ex.getMessage());
+        Optional<AppointmentDto> lastKnown = appointments.lastKnown(appointmentId);
+        if (lastKnown.isPresent()) {
+            return CompletableFuture.completedFuture(lastKnown.get());
+        }
         AppointmentDto fallbackAppointment = new AppointmentDto();
         fallbackAppointment.setId(appointmentId);
         fallbackAppointment.setStatus("UNKNOWN");
@@ -0,0 +1,52 @@
+package com.tintsteps.patientservice.integration;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tintsteps.patientservice.config.DownstreamClientSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Local copies of records owned by another service. An entry younger than refresh-after is served
+ * as is; an older one is still served at once while a reload runs in the background, and a failed
+ * reload leaves it in place. Entries are dropped retain-for after their last successful load, until
+ * then they are the last known good answer for when the service cannot be reached.
+ * <p>
+ * Concurrent misses and reloads of one key share a single load.
+ */
+public class StaleWhileRevalidateCache<K, V> {
+
+    private final AsyncLoadingCache<K, V> cache;
+
+    public StaleWhileRevalidateCache(String name, DownstreamClientSettings.RecordCache settings,
+                                     Function<K, CompletableFuture<V>> loader, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .refreshAfterWrite(settings.getRefreshAfter())
+                .expireAfterWrite(settings.getRetainFor())
+                .recordStats()
+                .buildAsync((key, executor) -> loader.apply(key));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    // A copy, the time limiter cancels the future it is handed and that must not evict the entry
+    public CompletableFuture<V> get(K key) {
+        return cache.get(key).copy();
+    }
+
+    /**
+     * The cached record however old, without counting a hit or starting a reload.
+     */
+    public Optional<V> lastKnown(K key) {
+        return Optional.ofNullable(cache.synchronous().policy().getIfPresentQuietly(key));
+    }
+
+    // For changes made through this service, which would otherwise be served stale until refresh-after
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+}
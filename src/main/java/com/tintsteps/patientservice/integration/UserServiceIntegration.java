@@ -1,30 +1,44 @@
 package com.tintsteps.patientservice.integration;
 
+import com.tintsteps.patientservice.config.DownstreamClientSettings;
+import com.tintsteps.patientservice.config.WebClientConfig;
 import com.tintsteps.patientservice.integration.dto.UserDto;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserServiceIntegration {
 
-    private final WebClient.Builder webClientBuilder;
-
-    @Value("${services.user-service.base-url:http://ts-user-service}")
-    private String userServiceBaseUrl;
+    private final WebClient userServiceWebClient;
+    private final StaleWhileRevalidateCache<UUID, UserDto> users;
+    private final BatchLoader<UUID, UserDto> userBatches;
+    private final RequestCoalescer<String, UserDto> emailLookups;
+
+    public UserServiceIntegration(WebClient userServiceWebClient,
+                                  DownstreamClientSettings userServiceClientSettings,
+                                  MeterRegistry meterRegistry) {
+        this.userServiceWebClient = userServiceWebClient;
+        DownstreamClientSettings.Batch batch = userServiceClientSettings.getBatch();
+        BulkLookup<UserDto> bulkLookup = new BulkLookup<>(WebClientConfig.USER_SERVICE, userServiceWebClient, batch,
+                UserDto.class, UserDto::getId, this::fetchUser);
+        this.userBatches = new BatchLoader<>("user-by-id", bulkLookup, batch.getWindow(), batch.getMaxSize(), meterRegistry);
+        this.users = new StaleWhileRevalidateCache<>("remoteUsers", userServiceClientSettings.getCache(),
+                userBatches::load, meterRegistry);
+        this.emailLookups = new RequestCoalescer<>("user-by-email", meterRegistry);
+    }
 
     @CircuitBreaker(name = "ts-user-service", fallbackMethod = "getUserFallback")
     @Retry(name = "ts-user-service")
@@ -32,13 +46,7 @@ public class UserServiceIntegration {
     public CompletableFuture<UserDto> getUserById(UUID userId) {
         log.info("Fetching user by ID: {}", userId);
 
-        return webClientBuilder.build()
-                .get()
-                .uri(userServiceBaseUrl + "/api/v1/users/{id}", userId)
-                .retrieve()
-                .bodyToMono(UserDto.class)
-                .timeout(Duration.ofSeconds(5))
-                .toFuture();
+        return users.get(userId);
     }
 
     @CircuitBreaker(name = "ts-user-service", fallbackMethod = "getUserByEmailFallback")
@@ -47,13 +55,13 @@ public class UserServiceIntegration {
     public CompletableFuture<UserDto> getUserByEmail(String email) {
         log.info("Fetching user by email: {}", email);
 
-        return webClientBuilder.build()
+        return emailLookups.execute(email, () -> userServiceWebClient
                 .get()
-                .uri(userServiceBaseUrl + "/api/v1/users/email/{email}", email)
+                .uri("/api/v1/users/email/{email}", email)
                 .retrieve()
                 .bodyToMono(UserDto.class)
                 .timeout(Duration.ofSeconds(5))
-                .toFuture();
+                .toFuture());
     }
 
     @CircuitBreaker(name = "ts-user-service", fallbackMethod = "validateUserFallback")
@@ -62,9 +70,9 @@ public class UserServiceIntegration {
     public CompletableFuture<Boolean> validateUser(UUID userId) {
         log.info("Validating user: {}", userId);
 
-        return webClientBuilder.build()
+        return userServiceWebClient
                 .get()
-                .uri(userServiceBaseUrl + "/api/v1/users/{id}/validate", userId)
+                .uri("/api/v1/users/{id}/validate", userId)
                 .retrieve()
                 .bodyToMono(Boolean.class)
                 .timeout(Duration.ofSeconds(3))
@@ -77,9 +85,9 @@ public class UserServiceIntegration {
     public CompletableFuture<List<UserDto>> getUsersByRole(String role) {
         log.info("Fetching users by role: {}", role);
 
-        return webClientBuilder.build()
+        return userServiceWebClient
                 .get()
-                .uri(userServiceBaseUrl + "/api/v1/users/role/{role}", role)
+                .uri("/api/v1/users/role/{role}", role)
                 .retrieve()
                 .bodyToFlux(UserDto.class)
                 .collectList()
@@ -87,9 +95,22 @@ public class UserServiceIntegration {
                 .toFuture();
     }
 
+    private Mono<UserDto> fetchUser(UUID userId) {
+        return userServiceWebClient
+                .get()
+                .uri("/api/v1/users/{id}", userId)
+                .retrieve()
+                .bodyToMono(UserDto.class)
+                .timeout(Duration.ofSeconds(5));
+    }
+
     // Fallback methods
     public CompletableFuture<UserDto> getUserFallback(UUID userId, Exception ex) {
         log.warn("User service fallback triggered for getUserById: {}, error: {}", userId, ex.getMessage());
+        Optional<UserDto> lastKnown = users.lastKnown(userId);
+        if (lastKnown.isPresent()) {
+            return CompletableFuture.completedFuture(lastKnown.get());
+        }
         UserDto fallbackUser = new UserDto();
         fallbackUser.setId(userId);
         fallbackUser.setEmail("unknown@example.com");
@@ -2,6 +2,7 @@ package com.tintsteps.patientservice.mapper;
 
 import com.tintsteps.patientservice.dto.PatientAddressDto;
 import com.tintsteps.patientservice.model.PatientAddress;
+import com.tintsteps.patientservice.repository.PatientAddressView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -14,6 +15,8 @@ public interface PatientAddressMapper {
     @Mapping(source = "patient.id", target = "patientId")
     PatientAddressDto patientAddressToPatientAddressDto(PatientAddress patientAddress);
 
+    PatientAddressDto patientAddressViewToPatientAddressDto(PatientAddressView patientAddressView);
+
     @Mapping(source = "patientId", target = "patient.id")
     PatientAddress patientAddressDtoToPatientAddress(PatientAddressDto patientAddressDto);
 }
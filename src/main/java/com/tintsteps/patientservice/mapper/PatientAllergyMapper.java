@@ -2,6 +2,7 @@ package com.tintsteps.patientservice.mapper;
 
 import com.tintsteps.patientservice.dto.PatientAllergyDto;
 import com.tintsteps.patientservice.model.PatientAllergy;
+import com.tintsteps.patientservice.repository.PatientAllergyView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -14,6 +15,8 @@ public interface PatientAllergyMapper {
     @Mapping(source = "patient.id", target = "patientId")
     PatientAllergyDto patientAllergyToPatientAllergyDto(PatientAllergy patientAllergy);
 
+    PatientAllergyDto patientAllergyViewToPatientAllergyDto(PatientAllergyView patientAllergyView);
+
     @Mapping(source = "patientId", target = "patient.id")
     PatientAllergy patientAllergyDtoToPatientAllergy(PatientAllergyDto patientAllergyDto);
 }
@@ -2,6 +2,7 @@ package com.tintsteps.patientservice.mapper;
 
 import com.tintsteps.patientservice.dto.PatientAppointmentDto;
 import com.tintsteps.patientservice.model.PatientAppointment;
+import com.tintsteps.patientservice.repository.PatientAppointmentView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -14,6 +15,8 @@ public interface PatientAppointmentMapper {
     @Mapping(source = "patient.id", target = "patientId")
     PatientAppointmentDto patientAppointmentToPatientAppointmentDto(PatientAppointment patientAppointment);
 
+    PatientAppointmentDto patientAppointmentViewToPatientAppointmentDto(PatientAppointmentView patientAppointmentView);
+
     @Mapping(source = "patientId", target = "patient.id")
     PatientAppointment patientAppointmentDtoToPatientAppointment(PatientAppointmentDto patientAppointmentDto);
 }
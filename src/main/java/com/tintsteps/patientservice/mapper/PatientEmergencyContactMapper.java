@@ -2,6 +2,7 @@ package com.tintsteps.patientservice.mapper;
 
 import com.tintsteps.patientservice.dto.PatientEmergencyContactDto;
 import com.tintsteps.patientservice.model.PatientEmergencyContact;
+import com.tintsteps.patientservice.repository.PatientEmergencyContactView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -14,6 +15,8 @@ public interface PatientEmergencyContactMapper {
     @Mapping(source = "patient.id", target = "patientId")
     PatientEmergencyContactDto patientEmergencyContactToPatientEmergencyContactDto(PatientEmergencyContact patientEmergencyContact);
 
+    PatientEmergencyContactDto patientEmergencyContactViewToPatientEmergencyContactDto(PatientEmergencyContactView patientEmergencyContactView);
+
     @Mapping(source = "patientId", target = "patient.id")
     PatientEmergencyContact patientEmergencyContactDtoToPatientEmergencyContact(PatientEmergencyContactDto patientEmergencyContactDto);
 }
@@ -2,6 +2,7 @@ package com.tintsteps.patientservice.mapper;
 
 import com.tintsteps.patientservice.dto.PatientInsuranceDto;
 import com.tintsteps.patientservice.model.PatientInsurance;
+import com.tintsteps.patientservice.repository.PatientInsuranceView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -14,6 +15,8 @@ public interface PatientInsuranceMapper {
     @Mapping(source = "patient.id", target = "patientId")
     PatientInsuranceDto patientInsuranceToPatientInsuranceDto(PatientInsurance patientInsurance);
 
+    PatientInsuranceDto patientInsuranceViewToPatientInsuranceDto(PatientInsuranceView patientInsuranceView);
+
     @Mapping(source = "patientId", target = "patient.id")
     PatientInsurance patientInsuranceDtoToPatientInsurance(PatientInsuranceDto patientInsuranceDto);
 }
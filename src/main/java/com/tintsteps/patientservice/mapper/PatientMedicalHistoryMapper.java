@@ -2,6 +2,7 @@ package com.tintsteps.patientservice.mapper;
 
 import com.tintsteps.patientservice.dto.PatientMedicalHistoryDto;
 import com.tintsteps.patientservice.model.PatientMedicalHistory;
+import com.tintsteps.patientservice.repository.PatientMedicalHistoryView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -14,6 +15,8 @@ public interface PatientMedicalHistoryMapper {
     @Mapping(source = "patient.id", target = "patientId")
     PatientMedicalHistoryDto patientMedicalHistoryToPatientMedicalHistoryDto(PatientMedicalHistory patientMedicalHistory);
 
+    PatientMedicalHistoryDto patientMedicalHistoryViewToPatientMedicalHistoryDto(PatientMedicalHistoryView patientMedicalHistoryView);
+
     @Mapping(source = "patientId", target = "patient.id")
     PatientMedicalHistory patientMedicalHistoryDtoToPatientMedicalHistory(PatientMedicalHistoryDto patientMedicalHistoryDto);
 }
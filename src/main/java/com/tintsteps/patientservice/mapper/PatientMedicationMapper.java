@@ -2,6 +2,7 @@ package com.tintsteps.patientservice.mapper;
 
 import com.tintsteps.patientservice.dto.PatientMedicationDto;
 import com.tintsteps.patientservice.model.PatientMedication;
+import com.tintsteps.patientservice.repository.PatientMedicationView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -14,6 +15,8 @@ public interface PatientMedicationMapper {
     @Mapping(source = "patient.id", target = "patientId")
     PatientMedicationDto patientMedicationToPatientMedicationDto(PatientMedication patientMedication);
 
+    PatientMedicationDto patientMedicationViewToPatientMedicationDto(PatientMedicationView patientMedicationView);
+
     @Mapping(source = "patientId", target = "patient.id")
     PatientMedication patientMedicationDtoToPatientMedication(PatientMedicationDto patientMedicationDto);
 }
@@ -0,0 +1,31 @@
+package com.tintsteps.patientservice.model;
+
+import java.util.Arrays;
+
+public enum BulkIngestRecordType {
+    PATIENTS("patients"),
+    ALLERGIES("allergies"),
+    MEDICATIONS("medications"),
+    MEDICAL_HISTORY("medical-history"),
+    EMERGENCY_CONTACTS("emergency-contacts"),
+    INSURANCE("insurance"),
+    ADDRESSES("addresses"),
+    APPOINTMENTS("appointments");
+
+    private final String path;
+
+    BulkIngestRecordType(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public static BulkIngestRecordType fromPath(String path) {
+        return Arrays.stream(values())
+                .filter(type -> type.path.equals(path))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown bulk ingest record type: " + path));
+    }
+}
@@ -1,10 +1,14 @@
 package com.tintsteps.patientservice.model;
 
+import com.tintsteps.patientservice.config.SecondLevelCacheConfig;
+import com.tintsteps.patientservice.event.PatientDataChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -15,6 +19,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "patients")
+@EntityListeners(PatientDataChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PATIENT_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,6 +32,7 @@ public class Patient {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    // Unique through uk_patients_user_id (V5)
     @Column(nullable = false)
     private UUID userId;
 
@@ -40,6 +48,7 @@ public class Patient {
     private BigDecimal weightKg;
 
     @CreationTimestamp
+    @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
     @UpdateTimestamp
@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.model;
 
+import com.tintsteps.patientservice.event.PatientDataChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -9,18 +10,19 @@ import lombok.Setter;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(PatientDataChangeListener.class)
 @Table(name = "patient_addresses")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class PatientAddress {
+public class PatientAddress implements PatientOwned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id")
     private Patient patient;
 
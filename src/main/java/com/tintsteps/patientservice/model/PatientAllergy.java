@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.model;
 
+import com.tintsteps.patientservice.event.PatientDataChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -11,18 +12,19 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(PatientDataChangeListener.class)
 @Table(name = "patient_allergies")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class PatientAllergy {
+public class PatientAllergy implements PatientOwned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id")
     private Patient patient;
 
@@ -1,29 +1,38 @@
 package com.tintsteps.patientservice.model;
 
+import com.tintsteps.patientservice.event.PatientDataChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(PatientDataChangeListener.class)
 @Table(name = "patient_appointments")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class PatientAppointment {
+public class PatientAppointment implements PatientOwned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patient_id")
     private Patient patient;
 
     @Column(nullable = false)
     private UUID appointmentId;
+
+    // When the appointment was linked to the patient, places the link on the timeline
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
 }
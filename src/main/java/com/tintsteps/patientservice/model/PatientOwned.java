@@ -0,0 +1,10 @@
+package com.tintsteps.patientservice.model;
+
+/**
+ * Child record that belongs to a single patient
+ */
+public interface PatientOwned {
+    Patient getPatient();
+
+    void setPatient(Patient patient);
+}
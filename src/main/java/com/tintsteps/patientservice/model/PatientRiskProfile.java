@@ -0,0 +1,44 @@
+package com.tintsteps.patientservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Persisted risk index entry of a patient, written only by the risk index SQL
+ */
+@Entity
+@Table(name = "patient_risk_profiles")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientRiskProfile {
+
+    @Id
+    private UUID patientId;
+
+    // Bitmask of RiskFactor bits
+    @Column(nullable = false)
+    private int riskFactors;
+
+    @Column(nullable = false)
+    private int riskScore;
+
+    @Column(nullable = false)
+    private String riskLevel;
+
+    @Column(nullable = false)
+    private int activeMedicationCount;
+
+    private Instant updatedAt;
+
+    public boolean hasFactor(RiskFactor factor) {
+        return (riskFactors & factor.getBit()) != 0;
+    }
+}
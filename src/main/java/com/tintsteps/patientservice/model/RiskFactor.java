@@ -0,0 +1,53 @@
+package com.tintsteps.patientservice.model;
+
+import java.util.List;
+
+/**
+ * Patient risk factors with their score weight and bit in a risk factor mask.
+ * The cohort SQL in PatientRiskCohortRepository uses the same weights.
+ */
+public enum RiskFactor {
+    CRITICAL_ALLERGIES(1, 20),
+    CHRONIC_CONDITIONS(1 << 1, 15),
+    MULTIPLE_MEDICATIONS(1 << 2, 10),
+    MISSING_EMERGENCY_CONTACTS(1 << 3, 10),
+    MISSING_INSURANCE(1 << 4, 5);
+
+    // Allergens that require special attention, matched case-insensitively as substrings
+    public static final List<String> CRITICAL_ALLERGENS = List.of(
+            "penicillin", "peanuts", "shellfish", "latex", "bee venom", "eggs", "milk"
+    );
+
+    // More than this many active medications counts as multiple medications
+    public static final int MULTIPLE_MEDICATIONS_THRESHOLD = 3;
+
+    public static final int HIGH_RISK_SCORE = 40;
+    public static final int MEDIUM_RISK_SCORE = 20;
+
+    private final int bit;
+    private final int weight;
+
+    RiskFactor(int bit, int weight) {
+        this.bit = bit;
+        this.weight = weight;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public static String riskLevel(int riskScore) {
+        return riskScore >= HIGH_RISK_SCORE ? "HIGH" : riskScore >= MEDIUM_RISK_SCORE ? "MEDIUM" : "LOW";
+    }
+
+    /**
+     * PostgreSQL regular expression matching any critical allergen in a lower-cased allergen name
+     */
+    public static String criticalAllergenPattern() {
+        return String.join("|", CRITICAL_ALLERGENS);
+    }
+}
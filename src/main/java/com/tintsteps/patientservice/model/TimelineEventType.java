@@ -0,0 +1,13 @@
+package com.tintsteps.patientservice.model;
+
+/**
+ * Kinds of events in a patient timeline. Events at the same instant are listed
+ * in reverse declaration order, which is part of the timeline cursor.
+ */
+public enum TimelineEventType {
+    MEDICAL_HISTORY,
+    ALLERGY_RECORDED,
+    MEDICATION_STARTED,
+    MEDICATION_STOPPED,
+    APPOINTMENT_LINKED
+}
@@ -0,0 +1,144 @@
+package com.tintsteps.patientservice.repository;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Encodes rows in the PostgreSQL binary COPY format. Every row must write exactly
+ * the number of fields given to the constructor, in the order of the COPY column list.
+ */
+public final class BinaryCopyWriter {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final LocalDate POSTGRES_EPOCH = LocalDate.of(2000, 1, 1);
+    private static final int NUMERIC_NEGATIVE = 0x4000;
+    private static final int NUMERIC_POSITIVE = 0x0000;
+
+    private final DataOutputStream out;
+    private final short fieldCount;
+
+    BinaryCopyWriter(OutputStream out, int fieldCount) {
+        this.out = new DataOutputStream(out);
+        this.fieldCount = (short) fieldCount;
+    }
+
+    @FunctionalInterface
+    public interface RowEncoder<T> {
+        void encode(BinaryCopyWriter writer, T row) throws IOException;
+    }
+
+    void writeHeader() throws IOException {
+        out.write(SIGNATURE);
+        out.writeInt(0); // flags
+        out.writeInt(0); // header extension length
+    }
+
+    void startRow() throws IOException {
+        out.writeShort(fieldCount);
+    }
+
+    void writeTrailer() throws IOException {
+        out.writeShort(-1);
+        out.flush();
+    }
+
+    public void writeNull() throws IOException {
+        out.writeInt(-1);
+    }
+
+    public void writeUuid(UUID value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        out.writeInt(16);
+        out.writeLong(value.getMostSignificantBits());
+        out.writeLong(value.getLeastSignificantBits());
+    }
+
+    public void writeText(String value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public void writeText(Enum<?> value) throws IOException {
+        writeText(value == null ? null : value.name());
+    }
+
+    public void writeInt(Integer value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        out.writeInt(4);
+        out.writeInt(value);
+    }
+
+    // Calendar date in the JVM zone, the same day the JPA path stores for a java.util.Date
+    public void writeDate(Date value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        LocalDate date = value instanceof java.sql.Date sqlDate
+                ? sqlDate.toLocalDate()
+                : value.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        out.writeInt(4);
+        out.writeInt((int) ChronoUnit.DAYS.between(POSTGRES_EPOCH, date));
+    }
+
+    // numeric is sign, display scale, weight and base-10000 digits, most significant first
+    public void writeNumeric(BigDecimal value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        String plain = value.abs().toPlainString();
+        int point = plain.indexOf('.');
+        String integerPart = point < 0 ? plain : plain.substring(0, point);
+        String fractionPart = point < 0 ? "" : plain.substring(point + 1);
+        int displayScale = fractionPart.length();
+
+        integerPart = "0".repeat((4 - integerPart.length() % 4) % 4) + integerPart;
+        fractionPart = fractionPart + "0".repeat((4 - fractionPart.length() % 4) % 4);
+        String digits = integerPart + fractionPart;
+
+        int groups = digits.length() / 4;
+        int weight = integerPart.length() / 4 - 1;
+        int first = 0;
+        while (first < groups && Integer.parseInt(digits, first * 4, first * 4 + 4, 10) == 0) {
+            first++;
+            weight--;
+        }
+        int last = groups;
+        while (last > first && Integer.parseInt(digits, (last - 1) * 4, last * 4, 10) == 0) {
+            last--;
+        }
+        if (first == last) {
+            weight = 0;
+        }
+
+        int digitCount = last - first;
+        out.writeInt(8 + 2 * digitCount);
+        out.writeShort(digitCount);
+        out.writeShort(weight);
+        out.writeShort(value.signum() < 0 ? NUMERIC_NEGATIVE : NUMERIC_POSITIVE);
+        out.writeShort(displayScale);
+        for (int group = first; group < last; group++) {
+            out.writeShort(Integer.parseInt(digits, group * 4, group * 4 + 4, 10));
+        }
+    }
+}
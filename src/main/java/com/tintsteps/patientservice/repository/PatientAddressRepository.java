@@ -1,10 +1,12 @@
 package com.tintsteps.patientservice.repository;
 
 import com.tintsteps.patientservice.model.PatientAddress;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,16 +16,41 @@ import java.util.UUID;
 @Repository
 public interface PatientAddressRepository extends JpaRepository<PatientAddress, UUID> {
 
+    // Read paths select straight into PatientAddressView, pa.patient.id is the patient_id column
+    String SELECT_VIEW = "SELECT new com.tintsteps.patientservice.repository.PatientAddressView(pa.id, pa.patient.id, pa.addressId) FROM PatientAddress pa";
+
+    @Query(value = SELECT_VIEW, countQuery = "SELECT COUNT(pa) FROM PatientAddress pa")
+    Page<PatientAddressView> findAllViews(Pageable pageable);
+
     // Find by patient ID
-    List<PatientAddress> findByPatientId(UUID patientId);
-    Page<PatientAddress> findByPatientId(UUID patientId, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pa.patient.id = :patientId")
+    List<PatientAddressView> findByPatientId(@Param("patientId") UUID patientId);
+
+    @Query(value = SELECT_VIEW + " WHERE pa.patient.id = :patientId",
+            countQuery = "SELECT COUNT(pa) FROM PatientAddress pa WHERE pa.patient.id = :patientId")
+    Page<PatientAddressView> findByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query("SELECT pa.addressId FROM PatientAddress pa WHERE pa.patient.id = :patientId")
+    List<UUID> findAddressIdsByPatientId(@Param("patientId") UUID patientId);
+
+    // Keyset scroll in id order, the table has no created_at
+    @Query(SELECT_VIEW + " ORDER BY pa.id")
+    List<PatientAddressView> findAllByOrderByIdAsc(Limit limit);
+
+    @Query(SELECT_VIEW + " WHERE pa.id > :id ORDER BY pa.id")
+    List<PatientAddressView> findByIdGreaterThanOrderByIdAsc(@Param("id") UUID id, Limit limit);
 
     // Find by address ID
-    List<PatientAddress> findByAddressId(UUID addressId);
-    Page<PatientAddress> findByAddressId(UUID addressId, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pa.addressId = :addressId")
+    List<PatientAddressView> findByAddressId(@Param("addressId") UUID addressId);
+
+    @Query(value = SELECT_VIEW + " WHERE pa.addressId = :addressId",
+            countQuery = "SELECT COUNT(pa) FROM PatientAddress pa WHERE pa.addressId = :addressId")
+    Page<PatientAddressView> findByAddressId(@Param("addressId") UUID addressId, Pageable pageable);
 
     // Find by patient and address
-    List<PatientAddress> findByPatientIdAndAddressId(UUID patientId, UUID addressId);
+    @Query(SELECT_VIEW + " WHERE pa.patient.id = :patientId AND pa.addressId = :addressId")
+    List<PatientAddressView> findByPatientIdAndAddressId(@Param("patientId") UUID patientId, @Param("addressId") UUID addressId);
     Optional<PatientAddress> findFirstByPatientIdAndAddressId(UUID patientId, UUID addressId);
 
     // Validation methods
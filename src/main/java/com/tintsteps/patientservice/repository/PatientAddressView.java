@@ -0,0 +1,9 @@
+package com.tintsteps.patientservice.repository;
+
+import java.util.UUID;
+
+/**
+ * Address link as returned by list queries
+ */
+public record PatientAddressView(UUID id, UUID patientId, UUID addressId) {
+}
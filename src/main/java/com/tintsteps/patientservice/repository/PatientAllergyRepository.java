@@ -1,10 +1,16 @@
 package com.tintsteps.patientservice.repository;
 
+import com.tintsteps.patientservice.config.SecondLevelCacheConfig;
 import com.tintsteps.patientservice.model.PatientAllergy;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
@@ -14,24 +20,56 @@ import java.util.UUID;
 @Repository
 public interface PatientAllergyRepository extends JpaRepository<PatientAllergy, UUID> {
 
+    // Read paths select straight into PatientAllergyView, pa.patient.id is the patient_id column
+    String SELECT_VIEW = "SELECT new com.tintsteps.patientservice.repository.PatientAllergyView(pa.id, pa.patient.id, pa.allergen, pa.reaction) FROM PatientAllergy pa";
+    String ALLERGEN_LIKE = " WHERE LOWER(pa.allergen) LIKE LOWER(CONCAT('%', :#{escape(#allergen)}, '%')) ESCAPE :#{escapeCharacter()}";
+    String REACTION_LIKE = " WHERE LOWER(pa.reaction) LIKE LOWER(CONCAT('%', :#{escape(#reaction)}, '%')) ESCAPE :#{escapeCharacter()}";
+
+    @Query(value = SELECT_VIEW, countQuery = "SELECT COUNT(pa) FROM PatientAllergy pa")
+    Page<PatientAllergyView> findAllViews(Pageable pageable);
+
     // Find by patient ID
-    List<PatientAllergy> findByPatientId(UUID patientId);
-    Page<PatientAllergy> findByPatientId(UUID patientId, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pa.patient.id = :patientId")
+    List<PatientAllergyView> findByPatientId(@Param("patientId") UUID patientId);
+
+    @Query(value = SELECT_VIEW + " WHERE pa.patient.id = :patientId",
+            countQuery = "SELECT COUNT(pa) FROM PatientAllergy pa WHERE pa.patient.id = :patientId")
+    Page<PatientAllergyView> findByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query("SELECT pa.allergen FROM PatientAllergy pa WHERE pa.patient.id = :patientId")
+    List<String> findAllergensByPatientId(@Param("patientId") UUID patientId);
+
+    // Keyset scroll in id order, the table has no created_at
+    @Query(SELECT_VIEW + " ORDER BY pa.id")
+    List<PatientAllergyView> findAllByOrderByIdAsc(Limit limit);
+
+    @Query(SELECT_VIEW + " WHERE pa.id > :id ORDER BY pa.id")
+    List<PatientAllergyView> findByIdGreaterThanOrderByIdAsc(@Param("id") UUID id, Limit limit);
 
     // Find by allergen
-    List<PatientAllergy> findByAllergenContainingIgnoreCase(String allergen);
-    Page<PatientAllergy> findByAllergenContainingIgnoreCase(String allergen, Pageable pageable);
+    @Query(SELECT_VIEW + ALLERGEN_LIKE)
+    List<PatientAllergyView> findByAllergenContainingIgnoreCase(@Param("allergen") String allergen);
+
+    @Query(value = SELECT_VIEW + ALLERGEN_LIKE, countQuery = "SELECT COUNT(pa) FROM PatientAllergy pa" + ALLERGEN_LIKE)
+    Page<PatientAllergyView> findByAllergenContainingIgnoreCase(@Param("allergen") String allergen, Pageable pageable);
 
     // Find by reaction
-    List<PatientAllergy> findByReactionContainingIgnoreCase(String reaction);
-    Page<PatientAllergy> findByReactionContainingIgnoreCase(String reaction, Pageable pageable);
+    @Query(SELECT_VIEW + REACTION_LIKE)
+    List<PatientAllergyView> findByReactionContainingIgnoreCase(@Param("reaction") String reaction);
+
+    @Query(value = SELECT_VIEW + REACTION_LIKE, countQuery = "SELECT COUNT(pa) FROM PatientAllergy pa" + REACTION_LIKE)
+    Page<PatientAllergyView> findByReactionContainingIgnoreCase(@Param("reaction") String reaction, Pageable pageable);
 
-    // Find by patient and allergen
+    // Find by patient and allergen, loads entities for removal
     List<PatientAllergy> findByPatientIdAndAllergenContainingIgnoreCase(UUID patientId, String allergen);
 
     // Find by recorded date range
-    List<PatientAllergy> findByRecordedAtBetween(Instant startDate, Instant endDate);
-    Page<PatientAllergy> findByRecordedAtBetween(Instant startDate, Instant endDate, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pa.recordedAt BETWEEN :startDate AND :endDate")
+    List<PatientAllergyView> findByRecordedAtBetween(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+
+    @Query(value = SELECT_VIEW + " WHERE pa.recordedAt BETWEEN :startDate AND :endDate",
+            countQuery = "SELECT COUNT(pa) FROM PatientAllergy pa WHERE pa.recordedAt BETWEEN :startDate AND :endDate")
+    Page<PatientAllergyView> findByRecordedAtBetween(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate, Pageable pageable);
 
     // Validation methods
     boolean existsByPatientId(UUID patientId);
@@ -39,7 +77,9 @@ public interface PatientAllergyRepository extends JpaRepository<PatientAllergy,
 
     // Count methods
     long countByPatientId(UUID patientId);
-    long countByAllergenContainingIgnoreCase(String allergen);
+
+    @Query("SELECT COUNT(pa) FROM PatientAllergy pa" + ALLERGEN_LIKE)
+    long countByAllergenContainingIgnoreCase(@Param("allergen") String allergen);
 
     // Delete methods
     void deleteByPatientId(UUID patientId);
@@ -48,9 +88,26 @@ public interface PatientAllergyRepository extends JpaRepository<PatientAllergy,
     @Query("SELECT pa.allergen, COUNT(pa) FROM PatientAllergy pa GROUP BY pa.allergen ORDER BY COUNT(pa) DESC")
     List<Object[]> getAllergenStatistics();
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.DISTINCT_VALUES_REGION)
+    })
     @Query("SELECT DISTINCT pa.allergen FROM PatientAllergy pa WHERE pa.allergen IS NOT NULL ORDER BY pa.allergen")
     List<String> findDistinctAllergens();
 
     @Query("SELECT DISTINCT pa.reaction FROM PatientAllergy pa WHERE pa.reaction IS NOT NULL ORDER BY pa.reaction")
     List<String> findDistinctReactions();
+
+    // Timeline source: allergies before a (recorded_at, id) position, newest first, since a point in time or all of them
+    @Query("SELECT new com.tintsteps.patientservice.repository.PatientTimelineRow(pa.id, pa.recordedAt, pa.allergen, pa.reaction) FROM PatientAllergy pa"
+            + " WHERE pa.patient.id = :patientId AND pa.recordedAt >= :since AND (pa.recordedAt, pa.id) < (:before, :beforeId)"
+            + " ORDER BY pa.recordedAt DESC, pa.id DESC")
+    List<PatientTimelineRow> findTimelineRows(@Param("patientId") UUID patientId, @Param("since") Instant since,
+                                              @Param("before") Instant before, @Param("beforeId") UUID beforeId, Limit limit);
+
+    @Query("SELECT new com.tintsteps.patientservice.repository.PatientTimelineRow(pa.id, pa.recordedAt, pa.allergen, pa.reaction) FROM PatientAllergy pa"
+            + " WHERE pa.patient.id = :patientId AND (pa.recordedAt, pa.id) < (:before, :beforeId)"
+            + " ORDER BY pa.recordedAt DESC, pa.id DESC")
+    List<PatientTimelineRow> findAllTimelineRows(@Param("patientId") UUID patientId, @Param("before") Instant before,
+                                                 @Param("beforeId") UUID beforeId, Limit limit);
 }
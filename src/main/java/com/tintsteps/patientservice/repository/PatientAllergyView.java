@@ -0,0 +1,10 @@
+package com.tintsteps.patientservice.repository;
+
+import java.util.UUID;
+
+/**
+ * Allergy columns for list and search reads. Built by a JPQL constructor expression, so no
+ * entity is put in the persistence context and the patient is never fetched.
+ */
+public record PatientAllergyView(UUID id, UUID patientId, String allergen, String reaction) {
+}
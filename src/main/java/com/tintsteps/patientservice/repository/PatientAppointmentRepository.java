@@ -1,12 +1,15 @@
 package com.tintsteps.patientservice.repository;
 
 import com.tintsteps.patientservice.model.PatientAppointment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,13 +17,37 @@ import java.util.UUID;
 @Repository
 public interface PatientAppointmentRepository extends JpaRepository<PatientAppointment, UUID> {
 
+    // Read paths select straight into PatientAppointmentView, pa.patient.id is the patient_id column
+    String SELECT_VIEW = "SELECT new com.tintsteps.patientservice.repository.PatientAppointmentView(pa.id, pa.patient.id, pa.appointmentId) FROM PatientAppointment pa";
+
+    @Query(value = SELECT_VIEW, countQuery = "SELECT COUNT(pa) FROM PatientAppointment pa")
+    Page<PatientAppointmentView> findAllViews(Pageable pageable);
+
     // Find by patient ID
-    List<PatientAppointment> findByPatientId(UUID patientId);
-    Page<PatientAppointment> findByPatientId(UUID patientId, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pa.patient.id = :patientId")
+    List<PatientAppointmentView> findByPatientId(@Param("patientId") UUID patientId);
+
+    @Query(value = SELECT_VIEW + " WHERE pa.patient.id = :patientId",
+            countQuery = "SELECT COUNT(pa) FROM PatientAppointment pa WHERE pa.patient.id = :patientId")
+    Page<PatientAppointmentView> findByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query("SELECT pa.appointmentId FROM PatientAppointment pa WHERE pa.patient.id = :patientId")
+    List<UUID> findAppointmentIdsByPatientId(@Param("patientId") UUID patientId);
+
+    // Keyset scroll in id order, the table has no created_at
+    @Query(SELECT_VIEW + " ORDER BY pa.id")
+    List<PatientAppointmentView> findAllByOrderByIdAsc(Limit limit);
+
+    @Query(SELECT_VIEW + " WHERE pa.id > :id ORDER BY pa.id")
+    List<PatientAppointmentView> findByIdGreaterThanOrderByIdAsc(@Param("id") UUID id, Limit limit);
 
     // Find by appointment ID
-    List<PatientAppointment> findByAppointmentId(UUID appointmentId);
-    Page<PatientAppointment> findByAppointmentId(UUID appointmentId, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pa.appointmentId = :appointmentId")
+    List<PatientAppointmentView> findByAppointmentId(@Param("appointmentId") UUID appointmentId);
+
+    @Query(value = SELECT_VIEW + " WHERE pa.appointmentId = :appointmentId",
+            countQuery = "SELECT COUNT(pa) FROM PatientAppointment pa WHERE pa.appointmentId = :appointmentId")
+    Page<PatientAppointmentView> findByAppointmentId(@Param("appointmentId") UUID appointmentId, Pageable pageable);
 
     // Find by patient and appointment
     Optional<PatientAppointment> findByPatientIdAndAppointmentId(UUID patientId, UUID appointmentId);
@@ -56,4 +83,17 @@ public interface PatientAppointmentRepository extends JpaRepository<PatientAppoi
     // Find appointments linked to multiple patients (should not happen in normal cases)
     @Query("SELECT pa.appointmentId FROM PatientAppointment pa GROUP BY pa.appointmentId HAVING COUNT(pa) > 1")
     List<UUID> findAppointmentsWithMultiplePatients();
+
+    // Timeline source: appointment links before a (created_at, id) position, newest first, since a point in time or all of them
+    @Query("SELECT new com.tintsteps.patientservice.repository.PatientTimelineRow(pa.id, pa.createdAt, pa.appointmentId) FROM PatientAppointment pa"
+            + " WHERE pa.patient.id = :patientId AND pa.createdAt >= :since AND (pa.createdAt, pa.id) < (:before, :beforeId)"
+            + " ORDER BY pa.createdAt DESC, pa.id DESC")
+    List<PatientTimelineRow> findTimelineRows(@Param("patientId") UUID patientId, @Param("since") Instant since,
+                                              @Param("before") Instant before, @Param("beforeId") UUID beforeId, Limit limit);
+
+    @Query("SELECT new com.tintsteps.patientservice.repository.PatientTimelineRow(pa.id, pa.createdAt, pa.appointmentId) FROM PatientAppointment pa"
+            + " WHERE pa.patient.id = :patientId AND (pa.createdAt, pa.id) < (:before, :beforeId)"
+            + " ORDER BY pa.createdAt DESC, pa.id DESC")
+    List<PatientTimelineRow> findAllTimelineRows(@Param("patientId") UUID patientId, @Param("before") Instant before,
+                                                 @Param("beforeId") UUID beforeId, Limit limit);
 }
@@ -0,0 +1,9 @@
+package com.tintsteps.patientservice.repository;
+
+import java.util.UUID;
+
+/**
+ * Appointment link as returned by list queries
+ */
+public record PatientAppointmentView(UUID id, UUID patientId, UUID appointmentId) {
+}
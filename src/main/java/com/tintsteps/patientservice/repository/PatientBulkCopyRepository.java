@@ -0,0 +1,53 @@
+package com.tintsteps.patientservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes rows with {@code COPY ... FROM STDIN} in binary format. Runs on the connection
+ * of the current transaction, so a failed COPY rolls back with everything else in it.
+ * Column defaults apply to every table column that is not in the COPY column list.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PatientBulkCopyRepository {
+
+    // Bytes buffered before a CopyData message is sent
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public <T> long copy(String table, List<String> columns, Collection<T> rows, BinaryCopyWriter.RowEncoder<T> encoder) {
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN (FORMAT binary)";
+
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql, COPY_BUFFER_SIZE);
+            try {
+                BinaryCopyWriter writer = new BinaryCopyWriter(copy, columns.size());
+                writer.writeHeader();
+                for (T row : rows) {
+                    writer.startRow();
+                    encoder.encode(writer, row);
+                }
+                writer.writeTrailer();
+                return copy.endCopy();
+            } catch (IOException e) {
+                throw new DataAccessResourceFailureException("Failed to stream rows into " + table, e);
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+        return copied == null ? 0 : copied;
+    }
+}
@@ -1,10 +1,12 @@
 package com.tintsteps.patientservice.repository;
 
 import com.tintsteps.patientservice.model.PatientEmergencyContact;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,24 +15,60 @@ import java.util.UUID;
 @Repository
 public interface PatientEmergencyContactRepository extends JpaRepository<PatientEmergencyContact, UUID> {
 
+    // Read paths select straight into PatientEmergencyContactView, pec.patient.id is the patient_id column
+    String SELECT_VIEW = "SELECT new com.tintsteps.patientservice.repository.PatientEmergencyContactView(pec.id, pec.patient.id, pec.name, pec.relationship, pec.phone) FROM PatientEmergencyContact pec";
+    String NAME_LIKE = " WHERE LOWER(pec.name) LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE :#{escapeCharacter()}";
+    String RELATIONSHIP_LIKE = " WHERE LOWER(pec.relationship) LIKE LOWER(CONCAT('%', :#{escape(#relationship)}, '%')) ESCAPE :#{escapeCharacter()}";
+    String PHONE_LIKE = " WHERE pec.phone LIKE CONCAT('%', :#{escape(#phone)}, '%') ESCAPE :#{escapeCharacter()}";
+
+    @Query(value = SELECT_VIEW, countQuery = "SELECT COUNT(pec) FROM PatientEmergencyContact pec")
+    Page<PatientEmergencyContactView> findAllViews(Pageable pageable);
+
     // Find by patient ID
-    List<PatientEmergencyContact> findByPatientId(UUID patientId);
-    Page<PatientEmergencyContact> findByPatientId(UUID patientId, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pec.patient.id = :patientId")
+    List<PatientEmergencyContactView> findByPatientId(@Param("patientId") UUID patientId);
+
+    @Query(value = SELECT_VIEW + " WHERE pec.patient.id = :patientId",
+            countQuery = "SELECT COUNT(pec) FROM PatientEmergencyContact pec WHERE pec.patient.id = :patientId")
+    Page<PatientEmergencyContactView> findByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query("SELECT pec.phone FROM PatientEmergencyContact pec WHERE pec.patient.id = :patientId")
+    List<String> findPhonesByPatientId(@Param("patientId") UUID patientId);
+
+    // Keyset scroll in id order, the table has no created_at
+    @Query(SELECT_VIEW + " ORDER BY pec.id")
+    List<PatientEmergencyContactView> findAllByOrderByIdAsc(Limit limit);
+
+    @Query(SELECT_VIEW + " WHERE pec.id > :id ORDER BY pec.id")
+    List<PatientEmergencyContactView> findByIdGreaterThanOrderByIdAsc(@Param("id") UUID id, Limit limit);
 
     // Find by name
-    List<PatientEmergencyContact> findByNameContainingIgnoreCase(String name);
-    Page<PatientEmergencyContact> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    @Query(SELECT_VIEW + NAME_LIKE)
+    List<PatientEmergencyContactView> findByNameContainingIgnoreCase(@Param("name") String name);
+
+    @Query(value = SELECT_VIEW + NAME_LIKE, countQuery = "SELECT COUNT(pec) FROM PatientEmergencyContact pec" + NAME_LIKE)
+    Page<PatientEmergencyContactView> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
 
     // Find by relationship
-    List<PatientEmergencyContact> findByRelationshipContainingIgnoreCase(String relationship);
-    Page<PatientEmergencyContact> findByRelationshipContainingIgnoreCase(String relationship, Pageable pageable);
+    @Query(SELECT_VIEW + RELATIONSHIP_LIKE)
+    List<PatientEmergencyContactView> findByRelationshipContainingIgnoreCase(@Param("relationship") String relationship);
+
+    @Query(value = SELECT_VIEW + RELATIONSHIP_LIKE, countQuery = "SELECT COUNT(pec) FROM PatientEmergencyContact pec" + RELATIONSHIP_LIKE)
+    Page<PatientEmergencyContactView> findByRelationshipContainingIgnoreCase(@Param("relationship") String relationship, Pageable pageable);
 
     // Find by phone
-    List<PatientEmergencyContact> findByPhoneContaining(String phone);
-    Page<PatientEmergencyContact> findByPhoneContaining(String phone, Pageable pageable);
+    @Query(SELECT_VIEW + PHONE_LIKE)
+    List<PatientEmergencyContactView> findByPhoneContaining(@Param("phone") String phone);
+
+    @Query(value = SELECT_VIEW + PHONE_LIKE, countQuery = "SELECT COUNT(pec) FROM PatientEmergencyContact pec" + PHONE_LIKE)
+    Page<PatientEmergencyContactView> findByPhoneContaining(@Param("phone") String phone, Pageable pageable);
 
     // Find by patient and relationship
-    List<PatientEmergencyContact> findByPatientIdAndRelationshipContainingIgnoreCase(UUID patientId, String relationship);
+    @Query(SELECT_VIEW + RELATIONSHIP_LIKE + " AND pec.patient.id = :patientId")
+    List<PatientEmergencyContactView> findByPatientIdAndRelationshipContainingIgnoreCase(@Param("patientId") UUID patientId, @Param("relationship") String relationship);
+
+    // Find by patient and phone, loads entities for removal
+    List<PatientEmergencyContact> findByPatientIdAndPhone(UUID patientId, String phone);
 
     // Validation methods
     boolean existsByPatientId(UUID patientId);
@@ -0,0 +1,9 @@
+package com.tintsteps.patientservice.repository;
+
+import java.util.UUID;
+
+/**
+ * Emergency contact row as returned by list and search queries
+ */
+public record PatientEmergencyContactView(UUID id, UUID patientId, String name, String relationship, String phone) {
+}
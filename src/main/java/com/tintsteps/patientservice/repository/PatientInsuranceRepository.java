@@ -1,10 +1,12 @@
 package com.tintsteps.patientservice.repository;
 
 import com.tintsteps.patientservice.model.PatientInsurance;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,24 +15,60 @@ import java.util.UUID;
 @Repository
 public interface PatientInsuranceRepository extends JpaRepository<PatientInsurance, UUID> {
 
+    // Read paths select straight into PatientInsuranceView, pi.patient.id is the patient_id column
+    String SELECT_VIEW = "SELECT new com.tintsteps.patientservice.repository.PatientInsuranceView(pi.id, pi.patient.id, pi.provider, pi.policyNumber, pi.coverageDetails) FROM PatientInsurance pi";
+    String PROVIDER_LIKE = " WHERE LOWER(pi.provider) LIKE LOWER(CONCAT('%', :#{escape(#provider)}, '%')) ESCAPE :#{escapeCharacter()}";
+    String POLICY_NUMBER_LIKE = " WHERE LOWER(pi.policyNumber) LIKE LOWER(CONCAT('%', :#{escape(#policyNumber)}, '%')) ESCAPE :#{escapeCharacter()}";
+    String COVERAGE_LIKE = " WHERE LOWER(pi.coverageDetails) LIKE LOWER(CONCAT('%', :#{escape(#coverageDetails)}, '%')) ESCAPE :#{escapeCharacter()}";
+
+    @Query(value = SELECT_VIEW, countQuery = "SELECT COUNT(pi) FROM PatientInsurance pi")
+    Page<PatientInsuranceView> findAllViews(Pageable pageable);
+
     // Find by patient ID
-    List<PatientInsurance> findByPatientId(UUID patientId);
-    Page<PatientInsurance> findByPatientId(UUID patientId, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pi.patient.id = :patientId")
+    List<PatientInsuranceView> findByPatientId(@Param("patientId") UUID patientId);
+
+    @Query(value = SELECT_VIEW + " WHERE pi.patient.id = :patientId",
+            countQuery = "SELECT COUNT(pi) FROM PatientInsurance pi WHERE pi.patient.id = :patientId")
+    Page<PatientInsuranceView> findByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query("SELECT pi.provider FROM PatientInsurance pi WHERE pi.patient.id = :patientId")
+    List<String> findProvidersByPatientId(@Param("patientId") UUID patientId);
+
+    // Keyset scroll in id order, the table has no created_at
+    @Query(SELECT_VIEW + " ORDER BY pi.id")
+    List<PatientInsuranceView> findAllByOrderByIdAsc(Limit limit);
+
+    @Query(SELECT_VIEW + " WHERE pi.id > :id ORDER BY pi.id")
+    List<PatientInsuranceView> findByIdGreaterThanOrderByIdAsc(@Param("id") UUID id, Limit limit);
 
     // Find by provider
-    List<PatientInsurance> findByProviderContainingIgnoreCase(String provider);
-    Page<PatientInsurance> findByProviderContainingIgnoreCase(String provider, Pageable pageable);
+    @Query(SELECT_VIEW + PROVIDER_LIKE)
+    List<PatientInsuranceView> findByProviderContainingIgnoreCase(@Param("provider") String provider);
+
+    @Query(value = SELECT_VIEW + PROVIDER_LIKE, countQuery = "SELECT COUNT(pi) FROM PatientInsurance pi" + PROVIDER_LIKE)
+    Page<PatientInsuranceView> findByProviderContainingIgnoreCase(@Param("provider") String provider, Pageable pageable);
 
     // Find by policy number
-    List<PatientInsurance> findByPolicyNumberContainingIgnoreCase(String policyNumber);
-    Page<PatientInsurance> findByPolicyNumberContainingIgnoreCase(String policyNumber, Pageable pageable);
+    @Query(SELECT_VIEW + POLICY_NUMBER_LIKE)
+    List<PatientInsuranceView> findByPolicyNumberContainingIgnoreCase(@Param("policyNumber") String policyNumber);
+
+    @Query(value = SELECT_VIEW + POLICY_NUMBER_LIKE, countQuery = "SELECT COUNT(pi) FROM PatientInsurance pi" + POLICY_NUMBER_LIKE)
+    Page<PatientInsuranceView> findByPolicyNumberContainingIgnoreCase(@Param("policyNumber") String policyNumber, Pageable pageable);
 
     // Find by coverage details
-    List<PatientInsurance> findByCoverageDetailsContainingIgnoreCase(String coverageDetails);
-    Page<PatientInsurance> findByCoverageDetailsContainingIgnoreCase(String coverageDetails, Pageable pageable);
+    @Query(SELECT_VIEW + COVERAGE_LIKE)
+    List<PatientInsuranceView> findByCoverageDetailsContainingIgnoreCase(@Param("coverageDetails") String coverageDetails);
+
+    @Query(value = SELECT_VIEW + COVERAGE_LIKE, countQuery = "SELECT COUNT(pi) FROM PatientInsurance pi" + COVERAGE_LIKE)
+    Page<PatientInsuranceView> findByCoverageDetailsContainingIgnoreCase(@Param("coverageDetails") String coverageDetails, Pageable pageable);
 
     // Find by patient and provider
-    List<PatientInsurance> findByPatientIdAndProviderContainingIgnoreCase(UUID patientId, String provider);
+    @Query(SELECT_VIEW + PROVIDER_LIKE + " AND pi.patient.id = :patientId")
+    List<PatientInsuranceView> findByPatientIdAndProviderContainingIgnoreCase(@Param("patientId") UUID patientId, @Param("provider") String provider);
+
+    // Find by patient and policy number, loads entities for removal
+    List<PatientInsurance> findByPatientIdAndPolicyNumber(UUID patientId, String policyNumber);
 
     // Validation methods
     boolean existsByPatientId(UUID patientId);
@@ -39,7 +77,9 @@ public interface PatientInsuranceRepository extends JpaRepository<PatientInsuran
 
     // Count methods
     long countByPatientId(UUID patientId);
-    long countByProviderContainingIgnoreCase(String provider);
+
+    @Query("SELECT COUNT(pi) FROM PatientInsurance pi" + PROVIDER_LIKE)
+    long countByProviderContainingIgnoreCase(@Param("provider") String provider);
 
     // Delete methods
     void deleteByPatientId(UUID patientId);
@@ -0,0 +1,9 @@
+package com.tintsteps.patientservice.repository;
+
+import java.util.UUID;
+
+/**
+ * Insurance row as returned by list and search queries
+ */
+public record PatientInsuranceView(UUID id, UUID patientId, String provider, String policyNumber, String coverageDetails) {
+}
@@ -1,6 +1,7 @@
 package com.tintsteps.patientservice.repository;
 
 import com.tintsteps.patientservice.model.PatientMedicalHistory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -15,24 +16,57 @@ import java.util.UUID;
 @Repository
 public interface PatientMedicalHistoryRepository extends JpaRepository<PatientMedicalHistory, UUID> {
 
+    // Read paths select straight into PatientMedicalHistoryView, pmh.patient.id is the patient_id column
+    String SELECT_VIEW = "SELECT new com.tintsteps.patientservice.repository.PatientMedicalHistoryView(pmh.id, pmh.patient.id, pmh.condition, pmh.notes, pmh.recordedAt) FROM PatientMedicalHistory pmh";
+    String CONDITION_LIKE = " WHERE LOWER(pmh.condition) LIKE LOWER(CONCAT('%', :#{escape(#condition)}, '%')) ESCAPE :#{escapeCharacter()}";
+    String NOTES_LIKE = " WHERE LOWER(pmh.notes) LIKE LOWER(CONCAT('%', :#{escape(#notes)}, '%')) ESCAPE :#{escapeCharacter()}";
+
+    @Query(value = SELECT_VIEW, countQuery = "SELECT COUNT(pmh) FROM PatientMedicalHistory pmh")
+    Page<PatientMedicalHistoryView> findAllViews(Pageable pageable);
+
     // Find by patient ID
-    List<PatientMedicalHistory> findByPatientId(UUID patientId);
-    Page<PatientMedicalHistory> findByPatientId(UUID patientId, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pmh.patient.id = :patientId")
+    List<PatientMedicalHistoryView> findByPatientId(@Param("patientId") UUID patientId);
+
+    @Query(value = SELECT_VIEW + " WHERE pmh.patient.id = :patientId",
+            countQuery = "SELECT COUNT(pmh) FROM PatientMedicalHistory pmh WHERE pmh.patient.id = :patientId")
+    Page<PatientMedicalHistoryView> findByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query("SELECT pmh.condition FROM PatientMedicalHistory pmh WHERE pmh.patient.id = :patientId")
+    List<String> findConditionsByPatientId(@Param("patientId") UUID patientId);
+
+    // Keyset scroll in id order, the table has no created_at
+    @Query(SELECT_VIEW + " ORDER BY pmh.id")
+    List<PatientMedicalHistoryView> findAllByOrderByIdAsc(Limit limit);
+
+    @Query(SELECT_VIEW + " WHERE pmh.id > :id ORDER BY pmh.id")
+    List<PatientMedicalHistoryView> findByIdGreaterThanOrderByIdAsc(@Param("id") UUID id, Limit limit);
 
     // Find by condition
-    List<PatientMedicalHistory> findByConditionContainingIgnoreCase(String condition);
-    Page<PatientMedicalHistory> findByConditionContainingIgnoreCase(String condition, Pageable pageable);
+    @Query(SELECT_VIEW + CONDITION_LIKE)
+    List<PatientMedicalHistoryView> findByConditionContainingIgnoreCase(@Param("condition") String condition);
+
+    @Query(value = SELECT_VIEW + CONDITION_LIKE, countQuery = "SELECT COUNT(pmh) FROM PatientMedicalHistory pmh" + CONDITION_LIKE)
+    Page<PatientMedicalHistoryView> findByConditionContainingIgnoreCase(@Param("condition") String condition, Pageable pageable);
 
     // Find by notes
-    List<PatientMedicalHistory> findByNotesContainingIgnoreCase(String notes);
-    Page<PatientMedicalHistory> findByNotesContainingIgnoreCase(String notes, Pageable pageable);
+    @Query(SELECT_VIEW + NOTES_LIKE)
+    List<PatientMedicalHistoryView> findByNotesContainingIgnoreCase(@Param("notes") String notes);
+
+    @Query(value = SELECT_VIEW + NOTES_LIKE, countQuery = "SELECT COUNT(pmh) FROM PatientMedicalHistory pmh" + NOTES_LIKE)
+    Page<PatientMedicalHistoryView> findByNotesContainingIgnoreCase(@Param("notes") String notes, Pageable pageable);
 
-    // Find by patient and condition
+    // Find by patient and condition, loads entities for removal
     List<PatientMedicalHistory> findByPatientIdAndConditionContainingIgnoreCase(UUID patientId, String condition);
+    List<PatientMedicalHistory> findByPatientIdAndConditionIgnoreCase(UUID patientId, String condition);
 
     // Find by recorded date range
-    List<PatientMedicalHistory> findByRecordedAtBetween(Instant startDate, Instant endDate);
-    Page<PatientMedicalHistory> findByRecordedAtBetween(Instant startDate, Instant endDate, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pmh.recordedAt BETWEEN :startDate AND :endDate")
+    List<PatientMedicalHistoryView> findByRecordedAtBetween(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
+
+    @Query(value = SELECT_VIEW + " WHERE pmh.recordedAt BETWEEN :startDate AND :endDate",
+            countQuery = "SELECT COUNT(pmh) FROM PatientMedicalHistory pmh WHERE pmh.recordedAt BETWEEN :startDate AND :endDate")
+    Page<PatientMedicalHistoryView> findByRecordedAtBetween(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate, Pageable pageable);
 
     // Validation methods
     boolean existsByPatientId(UUID patientId);
@@ -40,7 +74,9 @@ public interface PatientMedicalHistoryRepository extends JpaRepository<PatientMe
 
     // Count methods
     long countByPatientId(UUID patientId);
-    long countByConditionContainingIgnoreCase(String condition);
+
+    @Query("SELECT COUNT(pmh) FROM PatientMedicalHistory pmh" + CONDITION_LIKE)
+    long countByConditionContainingIgnoreCase(@Param("condition") String condition);
 
     // Delete methods
     void deleteByPatientId(UUID patientId);
@@ -60,7 +96,39 @@ public interface PatientMedicalHistoryRepository extends JpaRepository<PatientMe
     @Query("SELECT p.id FROM Patient p WHERE p.id NOT IN (SELECT DISTINCT pmh.patient.id FROM PatientMedicalHistory pmh)")
     List<UUID> findPatientsWithoutMedicalHistory();
 
-    // Find recent medical history
-    @Query("SELECT pmh FROM PatientMedicalHistory pmh WHERE pmh.recordedAt >= :sinceDate ORDER BY pmh.recordedAt DESC")
-    List<PatientMedicalHistory> findRecentMedicalHistory(@Param("sinceDate") Instant sinceDate);
+    // One patient's history since a point in time, newest first, as a range scan on (patient_id, recorded_at, id)
+    @Query(SELECT_VIEW + " WHERE pmh.patient.id = :patientId AND pmh.recordedAt >= :since"
+            + " ORDER BY pmh.recordedAt DESC, pmh.id DESC")
+    List<PatientMedicalHistoryView> findByPatientIdRecordedSince(@Param("patientId") UUID patientId,
+                                                                 @Param("since") Instant since, Limit limit);
+
+    @Query(SELECT_VIEW + " WHERE pmh.patient.id = :patientId AND pmh.recordedAt >= :since"
+            + " AND (pmh.recordedAt, pmh.id) < (:recordedAt, :id) ORDER BY pmh.recordedAt DESC, pmh.id DESC")
+    List<PatientMedicalHistoryView> findByPatientIdRecordedSinceBefore(@Param("patientId") UUID patientId,
+                                                                       @Param("since") Instant since,
+                                                                       @Param("recordedAt") Instant recordedAt,
+                                                                       @Param("id") UUID id, Limit limit);
+
+    // The whole history, newest first; recorded_at is client supplied and may be any date
+    @Query(SELECT_VIEW + " WHERE pmh.patient.id = :patientId ORDER BY pmh.recordedAt DESC, pmh.id DESC")
+    List<PatientMedicalHistoryView> findByPatientIdNewestFirst(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(SELECT_VIEW + " WHERE pmh.patient.id = :patientId"
+            + " AND (pmh.recordedAt, pmh.id) < (:recordedAt, :id) ORDER BY pmh.recordedAt DESC, pmh.id DESC")
+    List<PatientMedicalHistoryView> findByPatientIdBefore(@Param("patientId") UUID patientId,
+                                                          @Param("recordedAt") Instant recordedAt,
+                                                          @Param("id") UUID id, Limit limit);
+
+    // Timeline source: history entries before a (recorded_at, id) position, newest first, since a point in time or all of them
+    @Query("SELECT new com.tintsteps.patientservice.repository.PatientTimelineRow(pmh.id, pmh.recordedAt, pmh.condition, pmh.notes) FROM PatientMedicalHistory pmh"
+            + " WHERE pmh.patient.id = :patientId AND pmh.recordedAt >= :since AND (pmh.recordedAt, pmh.id) < (:before, :beforeId)"
+            + " ORDER BY pmh.recordedAt DESC, pmh.id DESC")
+    List<PatientTimelineRow> findTimelineRows(@Param("patientId") UUID patientId, @Param("since") Instant since,
+                                              @Param("before") Instant before, @Param("beforeId") UUID beforeId, Limit limit);
+
+    @Query("SELECT new com.tintsteps.patientservice.repository.PatientTimelineRow(pmh.id, pmh.recordedAt, pmh.condition, pmh.notes) FROM PatientMedicalHistory pmh"
+            + " WHERE pmh.patient.id = :patientId AND (pmh.recordedAt, pmh.id) < (:before, :beforeId)"
+            + " ORDER BY pmh.recordedAt DESC, pmh.id DESC")
+    List<PatientTimelineRow> findAllTimelineRows(@Param("patientId") UUID patientId, @Param("before") Instant before,
+                                                 @Param("beforeId") UUID beforeId, Limit limit);
 }
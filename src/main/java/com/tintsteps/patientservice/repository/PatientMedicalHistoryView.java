@@ -0,0 +1,10 @@
+package com.tintsteps.patientservice.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Medical history row as returned by list and search queries
+ */
+public record PatientMedicalHistoryView(UUID id, UUID patientId, String condition, String notes, Instant recordedAt) {
+}
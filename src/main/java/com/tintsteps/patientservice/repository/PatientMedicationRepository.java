@@ -1,10 +1,16 @@
 package com.tintsteps.patientservice.repository;
 
+import com.tintsteps.patientservice.config.SecondLevelCacheConfig;
 import com.tintsteps.patientservice.model.PatientMedication;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
@@ -14,36 +20,78 @@ import java.util.UUID;
 @Repository
 public interface PatientMedicationRepository extends JpaRepository<PatientMedication, UUID> {
 
+    // Read paths select straight into PatientMedicationView, pm.patient.id is the patient_id column
+    String SELECT_VIEW = "SELECT new com.tintsteps.patientservice.repository.PatientMedicationView(pm.id, pm.patient.id, pm.medicationName, pm.dosage, pm.startDate, pm.endDate) FROM PatientMedication pm";
+    String NAME_LIKE = " WHERE LOWER(pm.medicationName) LIKE LOWER(CONCAT('%', :#{escape(#medicationName)}, '%')) ESCAPE :#{escapeCharacter()}";
+    String DOSAGE_LIKE = " WHERE LOWER(pm.dosage) LIKE LOWER(CONCAT('%', :#{escape(#dosage)}, '%')) ESCAPE :#{escapeCharacter()}";
+    String CURRENT = " WHERE pm.patient.id = :patientId AND (pm.endDate IS NULL OR pm.endDate > CURRENT_DATE)";
+
+    @Query(value = SELECT_VIEW, countQuery = "SELECT COUNT(pm) FROM PatientMedication pm")
+    Page<PatientMedicationView> findAllViews(Pageable pageable);
+
     // Find by patient ID
-    List<PatientMedication> findByPatientId(UUID patientId);
-    Page<PatientMedication> findByPatientId(UUID patientId, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pm.patient.id = :patientId")
+    List<PatientMedicationView> findByPatientId(@Param("patientId") UUID patientId);
+
+    @Query(value = SELECT_VIEW + " WHERE pm.patient.id = :patientId",
+            countQuery = "SELECT COUNT(pm) FROM PatientMedication pm WHERE pm.patient.id = :patientId")
+    Page<PatientMedicationView> findByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    // Keyset scroll of one patient's medications in id order
+    @Query(SELECT_VIEW + " WHERE pm.patient.id = :patientId ORDER BY pm.id")
+    List<PatientMedicationView> findByPatientIdOrderByIdAsc(@Param("patientId") UUID patientId, Limit limit);
+
+    @Query(SELECT_VIEW + " WHERE pm.patient.id = :patientId AND pm.id > :id ORDER BY pm.id")
+    List<PatientMedicationView> findByPatientIdAndIdGreaterThanOrderByIdAsc(@Param("patientId") UUID patientId, @Param("id") UUID id, Limit limit);
+
+    // Keyset scroll in id order, the table has no created_at
+    @Query(SELECT_VIEW + " ORDER BY pm.id")
+    List<PatientMedicationView> findAllByOrderByIdAsc(Limit limit);
+
+    @Query(SELECT_VIEW + " WHERE pm.id > :id ORDER BY pm.id")
+    List<PatientMedicationView> findByIdGreaterThanOrderByIdAsc(@Param("id") UUID id, Limit limit);
 
     // Find by medication name
-    List<PatientMedication> findByMedicationNameContainingIgnoreCase(String medicationName);
-    Page<PatientMedication> findByMedicationNameContainingIgnoreCase(String medicationName, Pageable pageable);
+    @Query(SELECT_VIEW + NAME_LIKE)
+    List<PatientMedicationView> findByMedicationNameContainingIgnoreCase(@Param("medicationName") String medicationName);
+
+    @Query(value = SELECT_VIEW + NAME_LIKE, countQuery = "SELECT COUNT(pm) FROM PatientMedication pm" + NAME_LIKE)
+    Page<PatientMedicationView> findByMedicationNameContainingIgnoreCase(@Param("medicationName") String medicationName, Pageable pageable);
 
     // Find by dosage
-    List<PatientMedication> findByDosageContainingIgnoreCase(String dosage);
-    Page<PatientMedication> findByDosageContainingIgnoreCase(String dosage, Pageable pageable);
+    @Query(SELECT_VIEW + DOSAGE_LIKE)
+    List<PatientMedicationView> findByDosageContainingIgnoreCase(@Param("dosage") String dosage);
+
+    @Query(value = SELECT_VIEW + DOSAGE_LIKE, countQuery = "SELECT COUNT(pm) FROM PatientMedication pm" + DOSAGE_LIKE)
+    Page<PatientMedicationView> findByDosageContainingIgnoreCase(@Param("dosage") String dosage, Pageable pageable);
 
-    // Find by patient and medication
+    // Find by patient and medication, loads entities for stopping a medication
     List<PatientMedication> findByPatientIdAndMedicationNameContainingIgnoreCase(UUID patientId, String medicationName);
 
     // Find by date ranges
-    List<PatientMedication> findByStartDateBetween(Date startDate, Date endDate);
-    List<PatientMedication> findByEndDateBetween(Date startDate, Date endDate);
-    Page<PatientMedication> findByStartDateBetween(Date startDate, Date endDate, Pageable pageable);
+    @Query(SELECT_VIEW + " WHERE pm.startDate BETWEEN :startDate AND :endDate")
+    List<PatientMedicationView> findByStartDateBetween(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+    @Query(SELECT_VIEW + " WHERE pm.endDate BETWEEN :startDate AND :endDate")
+    List<PatientMedicationView> findByEndDateBetween(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+    @Query(value = SELECT_VIEW + " WHERE pm.startDate BETWEEN :startDate AND :endDate",
+            countQuery = "SELECT COUNT(pm) FROM PatientMedication pm WHERE pm.startDate BETWEEN :startDate AND :endDate")
+    Page<PatientMedicationView> findByStartDateBetween(@Param("startDate") Date startDate, @Param("endDate") Date endDate, Pageable pageable);
 
     // Find current medications (no end date or end date in future)
-    @Query("SELECT pm FROM PatientMedication pm WHERE pm.patient.id = :patientId AND (pm.endDate IS NULL OR pm.endDate > CURRENT_DATE)")
-    List<PatientMedication> findCurrentMedicationsByPatientId(UUID patientId);
+    @Query(SELECT_VIEW + CURRENT)
+    List<PatientMedicationView> findCurrentMedicationsByPatientId(@Param("patientId") UUID patientId);
 
-    @Query("SELECT pm FROM PatientMedication pm WHERE pm.patient.id = :patientId AND (pm.endDate IS NULL OR pm.endDate > CURRENT_DATE)")
-    Page<PatientMedication> findCurrentMedicationsByPatientId(UUID patientId, Pageable pageable);
+    @Query(value = SELECT_VIEW + CURRENT, countQuery = "SELECT COUNT(pm) FROM PatientMedication pm" + CURRENT)
+    Page<PatientMedicationView> findCurrentMedicationsByPatientId(@Param("patientId") UUID patientId, Pageable pageable);
+
+    @Query("SELECT pm.medicationName FROM PatientMedication pm" + CURRENT)
+    List<String> findCurrentMedicationNamesByPatientId(@Param("patientId") UUID patientId);
 
     // Find past medications
-    @Query("SELECT pm FROM PatientMedication pm WHERE pm.patient.id = :patientId AND pm.endDate IS NOT NULL AND pm.endDate <= CURRENT_DATE")
-    List<PatientMedication> findPastMedicationsByPatientId(UUID patientId);
+    @Query(SELECT_VIEW + " WHERE pm.patient.id = :patientId AND pm.endDate IS NOT NULL AND pm.endDate <= CURRENT_DATE")
+    List<PatientMedicationView> findPastMedicationsByPatientId(@Param("patientId") UUID patientId);
 
     // Validation methods
     boolean existsByPatientId(UUID patientId);
@@ -51,10 +99,12 @@ public interface PatientMedicationRepository extends JpaRepository<PatientMedica
 
     // Count methods
     long countByPatientId(UUID patientId);
-    long countByMedicationNameContainingIgnoreCase(String medicationName);
 
-    @Query("SELECT COUNT(pm) FROM PatientMedication pm WHERE pm.patient.id = :patientId AND (pm.endDate IS NULL OR pm.endDate > CURRENT_DATE)")
-    long countCurrentMedicationsByPatientId(UUID patientId);
+    @Query("SELECT COUNT(pm) FROM PatientMedication pm" + NAME_LIKE)
+    long countByMedicationNameContainingIgnoreCase(@Param("medicationName") String medicationName);
+
+    @Query("SELECT COUNT(pm) FROM PatientMedication pm" + CURRENT)
+    long countCurrentMedicationsByPatientId(@Param("patientId") UUID patientId);
 
     // Delete methods
     void deleteByPatientId(UUID patientId);
@@ -63,9 +113,39 @@ public interface PatientMedicationRepository extends JpaRepository<PatientMedica
     @Query("SELECT pm.medicationName, COUNT(pm) FROM PatientMedication pm GROUP BY pm.medicationName ORDER BY COUNT(pm) DESC")
     List<Object[]> getMedicationStatistics();
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.DISTINCT_VALUES_REGION)
+    })
     @Query("SELECT DISTINCT pm.medicationName FROM PatientMedication pm WHERE pm.medicationName IS NOT NULL ORDER BY pm.medicationName")
     List<String> findDistinctMedicationNames();
 
     @Query("SELECT DISTINCT pm.dosage FROM PatientMedication pm WHERE pm.dosage IS NOT NULL ORDER BY pm.dosage")
     List<String> findDistinctDosages();
+
+    // Timeline sources: medication starts and stops before a (date, id) position, newest first, since a point in time or all of them.
+    // The row comparison is never true for a NULL date, so open-ended medications only appear once.
+    @Query("SELECT new com.tintsteps.patientservice.repository.PatientTimelineRow(pm.id, pm.startDate, pm.medicationName, pm.dosage) FROM PatientMedication pm"
+            + " WHERE pm.patient.id = :patientId AND pm.startDate >= :since AND (pm.startDate, pm.id) < (:before, :beforeId)"
+            + " ORDER BY pm.startDate DESC, pm.id DESC")
+    List<PatientTimelineRow> findStartTimelineRows(@Param("patientId") UUID patientId, @Param("since") Date since,
+                                                   @Param("before") Date before, @Param("beforeId") UUID beforeId, Limit limit);
+
+    @Query("SELECT new com.tintsteps.patientservice.repository.PatientTimelineRow(pm.id, pm.endDate, pm.medicationName, pm.dosage) FROM PatientMedication pm"
+            + " WHERE pm.patient.id = :patientId AND pm.endDate >= :since AND (pm.endDate, pm.id) < (:before, :beforeId)"
+            + " ORDER BY pm.endDate DESC, pm.id DESC")
+    List<PatientTimelineRow> findStopTimelineRows(@Param("patientId") UUID patientId, @Param("since") Date since,
+                                                  @Param("before") Date before, @Param("beforeId") UUID beforeId, Limit limit);
+
+    @Query("SELECT new com.tintsteps.patientservice.repository.PatientTimelineRow(pm.id, pm.startDate, pm.medicationName, pm.dosage) FROM PatientMedication pm"
+            + " WHERE pm.patient.id = :patientId AND (pm.startDate, pm.id) < (:before, :beforeId)"
+            + " ORDER BY pm.startDate DESC, pm.id DESC")
+    List<PatientTimelineRow> findAllStartTimelineRows(@Param("patientId") UUID patientId, @Param("before") Date before,
+                                                      @Param("beforeId") UUID beforeId, Limit limit);
+
+    @Query("SELECT new com.tintsteps.patientservice.repository.PatientTimelineRow(pm.id, pm.endDate, pm.medicationName, pm.dosage) FROM PatientMedication pm"
+            + " WHERE pm.patient.id = :patientId AND (pm.endDate, pm.id) < (:before, :beforeId)"
+            + " ORDER BY pm.endDate DESC, pm.id DESC")
+    List<PatientTimelineRow> findAllStopTimelineRows(@Param("patientId") UUID patientId, @Param("before") Date before,
+                                                     @Param("beforeId") UUID beforeId, Limit limit);
 }
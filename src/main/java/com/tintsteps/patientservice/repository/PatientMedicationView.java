@@ -0,0 +1,10 @@
+package com.tintsteps.patientservice.repository;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Medication row as returned by list and search queries
+ */
+public record PatientMedicationView(UUID id, UUID patientId, String medicationName, String dosage, Date startDate, Date endDate) {
+}
@@ -1,25 +1,40 @@
 package com.tintsteps.patientservice.repository;
 
+import com.tintsteps.patientservice.config.SecondLevelCacheConfig;
 import com.tintsteps.patientservice.model.Gender;
 import com.tintsteps.patientservice.model.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface PatientRepository extends JpaRepository<Patient, UUID> {
+public interface PatientRepository extends JpaRepository<Patient, UUID>, JpaSpecificationExecutor<Patient> {
 
     // Find by user ID
     Optional<Patient> findByUserId(UUID userId);
 
+    // Keyset scroll in (created_at, id) order, backed by idx_patients_created_at_id
+    List<Patient> findAllByOrderByCreatedAtAscIdAsc(Limit limit);
+
+    @Query("SELECT p FROM Patient p WHERE (p.createdAt, p.id) > (:createdAt, :id) ORDER BY p.createdAt, p.id")
+    List<Patient> findAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Limit limit);
+
     // Find by gender
     List<Patient> findByGender(Gender gender);
     Page<Patient> findByGender(Gender gender, Pageable pageable);
@@ -28,13 +43,6 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
     List<Patient> findByBloodGroup(String bloodGroup);
     Page<Patient> findByBloodGroup(String bloodGroup, Pageable pageable);
 
-    // Find by age range (calculated from date of birth)
-    @Query("SELECT p FROM Patient p WHERE YEAR(CURRENT_DATE) - YEAR(p.dateOfBirth) BETWEEN :minAge AND :maxAge")
-    List<Patient> findByAgeBetween(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge);
-
-    @Query("SELECT p FROM Patient p WHERE YEAR(CURRENT_DATE) - YEAR(p.dateOfBirth) BETWEEN :minAge AND :maxAge")
-    Page<Patient> findByAgeBetween(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge, Pageable pageable);
-
     // Find by height range
     List<Patient> findByHeightCmBetween(Integer minHeight, Integer maxHeight);
     Page<Patient> findByHeightCmBetween(Integer minHeight, Integer maxHeight, Pageable pageable);
@@ -50,13 +58,17 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
     // Validation methods
     boolean existsByUserId(UUID userId);
 
+    // Set-based existence checks, one statement for a whole batch of IDs
+    @Query("SELECT p.id FROM Patient p WHERE p.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT p.userId FROM Patient p WHERE p.userId IN :userIds")
+    List<UUID> findExistingUserIds(@Param("userIds") Collection<UUID> userIds);
+
     // Count methods
     long countByGender(Gender gender);
     long countByBloodGroup(String bloodGroup);
 
-    @Query("SELECT COUNT(p) FROM Patient p WHERE YEAR(CURRENT_DATE) - YEAR(p.dateOfBirth) BETWEEN :minAge AND :maxAge")
-    long countByAgeBetween(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge);
-
     // Statistics methods
     @Query("SELECT p.bloodGroup, COUNT(p) FROM Patient p WHERE p.bloodGroup IS NOT NULL GROUP BY p.bloodGroup ORDER BY COUNT(p) DESC")
     List<Object[]> getBloodGroupStatistics();
@@ -64,9 +76,20 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
     @Query("SELECT p.gender, COUNT(p) FROM Patient p WHERE p.gender IS NOT NULL GROUP BY p.gender")
     List<Object[]> getGenderStatistics();
 
-    @Query("SELECT AVG(YEAR(CURRENT_DATE) - YEAR(p.dateOfBirth)) FROM Patient p WHERE p.dateOfBirth IS NOT NULL")
+    // Exact ages, read from idx_patients_date_of_birth without touching the table
+    @Query(value = "SELECT AVG(date_part('year', age(CURRENT_DATE, date_of_birth::date))) FROM patients WHERE date_of_birth IS NOT NULL",
+            nativeQuery = true)
     Double getAverageAge();
 
+    @Query(value = """
+            SELECT CAST(date_part('year', age(CURRENT_DATE, date_of_birth::date)) AS int) AS age, COUNT(*)
+            FROM patients
+            WHERE date_of_birth IS NOT NULL
+            GROUP BY 1
+            ORDER BY 1
+            """, nativeQuery = true)
+    List<Object[]> getAgeStatistics();
+
     @Query("SELECT AVG(p.heightCm) FROM Patient p WHERE p.heightCm IS NOT NULL")
     Double getAverageHeight();
 
@@ -74,12 +97,14 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
     BigDecimal getAverageWeight();
 
     // Find distinct values
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.DISTINCT_VALUES_REGION)
+    })
     @Query("SELECT DISTINCT p.bloodGroup FROM Patient p WHERE p.bloodGroup IS NOT NULL ORDER BY p.bloodGroup")
     List<String> findDistinctBloodGroups();
 
     // Additional search methods
-    @Query("SELECT p FROM Patient p WHERE (YEAR(CURRENT_DATE) - YEAR(p.dateOfBirth)) BETWEEN :minAge AND :maxAge")
-    Page<Patient> findByAgeRange(@Param("minAge") Integer minAge, @Param("maxAge") Integer maxAge, Pageable pageable);
     @Query("SELECT p FROM Patient p WHERE p.heightCm BETWEEN :minHeight AND :maxHeight")
     List<Patient> findByHeightRange(@Param("minHeight") Integer minHeight, @Param("maxHeight") Integer maxHeight);
 
@@ -97,4 +122,81 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
 
     @Query("SELECT p FROM Patient p WHERE p.dateOfBirth BETWEEN :startDate AND :endDate")
     Page<Patient> findByDateOfBirthRange(@Param("startDate") Date startDate, @Param("endDate") Date endDate, Pageable pageable);
+
+    // JSON fragments shared by the health summary and the export, correlated on patients p
+    String PATIENT_JSON = """
+            json_build_object(
+                    'id', p.id, 'userId', p.user_id, 'dateOfBirth', p.date_of_birth, 'gender', p.gender,
+                    'bloodGroup', p.blood_group, 'heightCm', p.height_cm, 'weightKg', p.weight_kg)""";
+
+    String ALLERGIES_JSON = """
+            COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', a.id, 'patientId', a.patient_id, 'allergen', a.allergen, 'reaction', a.reaction) ORDER BY a.id)
+                    FROM patient_allergies a WHERE a.patient_id = p.id), '[]'::json)""";
+
+    // Aggregate over patient_medications m, filtered by the caller
+    String MEDICATIONS_JSON_AGG = """
+            json_agg(json_build_object(
+                        'id', m.id, 'patientId', m.patient_id, 'medicationName', m.medication_name, 'dosage', m.dosage,
+                        'startDate', m.start_date, 'endDate', m.end_date) ORDER BY m.id)""";
+
+    String ALL_MEDICATIONS_JSON = "COALESCE((SELECT " + MEDICATIONS_JSON_AGG
+            + " FROM patient_medications m WHERE m.patient_id = p.id), '[]'::json)";
+
+    String MEDICAL_HISTORY_JSON = """
+            COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', h.id, 'patientId', h.patient_id, 'condition', h.condition, 'notes', h.notes,
+                        'recordedAt', extract(epoch FROM h.recorded_at::timestamptz)) ORDER BY h.id)
+                    FROM patient_medical_history h WHERE h.patient_id = p.id), '[]'::json)""";
+
+    // Aggregate health summary: patient and all child collections as one JSON document in a single statement
+    @Query(value = "SELECT json_build_object("
+            + " 'patient', " + PATIENT_JSON + ","
+            + " 'allergies', " + ALLERGIES_JSON + ","
+            + " 'currentMedications', COALESCE((SELECT " + MEDICATIONS_JSON_AGG + " FROM patient_medications m"
+            + " WHERE m.patient_id = p.id AND (m.end_date IS NULL OR m.end_date > CURRENT_DATE)), '[]'::json),"
+            + " 'allMedications', " + ALL_MEDICATIONS_JSON + ","
+            + " 'medicalHistory', " + MEDICAL_HISTORY_JSON + ","
+            + """
+                'emergencyContacts', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', c.id, 'patientId', c.patient_id, 'name', c.name, 'relationship', c.relationship,
+                        'phone', c.phone) ORDER BY c.id)
+                    FROM patient_emergency_contacts c WHERE c.patient_id = p.id), '[]'::json),
+                'insurance', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', i.id, 'patientId', i.patient_id, 'provider', i.provider, 'policyNumber', i.policy_number,
+                        'coverageDetails', i.coverage_details) ORDER BY i.id)
+                    FROM patient_insurance i WHERE i.patient_id = p.id), '[]'::json),
+                'addresses', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', ad.id, 'patientId', ad.patient_id, 'addressId', ad.address_id) ORDER BY ad.id)
+                    FROM patient_addresses ad WHERE ad.patient_id = p.id), '[]'::json),
+                'appointments', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', ap.id, 'patientId', ap.patient_id, 'appointmentId', ap.appointment_id) ORDER BY ap.id)
+                    FROM patient_appointments ap WHERE ap.patient_id = p.id), '[]'::json)
+            )::text
+            FROM patients p
+            WHERE p.id = :patientId
+            """, nativeQuery = true)
+    Optional<String> findHealthSummaryJson(@Param("patientId") UUID patientId);
+
+    // Rows fetched per round trip while streaming an export through a server-side cursor
+    String EXPORT_FETCH_SIZE = "500";
+
+    // Export: one JSON document per patient, child sections only when requested.
+    // No ORDER BY, a sort would build every row before the first one could be sent
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(value = "SELECT json_build_object("
+            + " 'patient', " + PATIENT_JSON + ","
+            + " 'allergies', CASE WHEN :includeAllergies THEN " + ALLERGIES_JSON + " END,"
+            + " 'medications', CASE WHEN :includeMedications THEN " + ALL_MEDICATIONS_JSON + " END,"
+            + " 'medicalHistory', CASE WHEN :includeMedicalHistory THEN " + MEDICAL_HISTORY_JSON + " END"
+            + ")::text FROM patients p", nativeQuery = true)
+    Stream<String> streamExportJson(@Param("includeAllergies") boolean includeAllergies,
+                                    @Param("includeMedications") boolean includeMedications,
+                                    @Param("includeMedicalHistory") boolean includeMedicalHistory);
 }
@@ -0,0 +1,108 @@
+package com.tintsteps.patientservice.repository;
+
+import com.tintsteps.patientservice.model.Patient;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+/**
+ * Set-based risk factor computation over all patients.
+ * Every factor is derived in one pass with EXISTS probes and a grouped medication count,
+ * weights, bits and thresholds are read from {@link com.tintsteps.patientservice.model.RiskFactor}.
+ */
+public interface PatientRiskCohortRepository extends Repository<Patient, UUID> {
+
+    // Risk factors of every patient, medications counted in one grouped pass
+    String RISK_FACTORS_SELECT = """
+            SELECT p.id AS patient_id,
+                   EXISTS (SELECT 1 FROM patient_allergies a
+                           WHERE a.patient_id = p.id AND lower(a.allergen) ~ :criticalAllergenPattern) AS critical_allergies,
+                   EXISTS (SELECT 1 FROM patient_medical_history h WHERE h.patient_id = p.id) AS chronic_conditions,
+                   COALESCE(m.active_count, 0) AS active_medication_count,
+                   EXISTS (SELECT 1 FROM patient_emergency_contacts c WHERE c.patient_id = p.id) AS has_emergency_contacts,
+                   EXISTS (SELECT 1 FROM patient_insurance i WHERE i.patient_id = p.id) AS has_insurance
+            FROM patients p
+            LEFT JOIN (SELECT patient_id, COUNT(*) AS active_count
+                       FROM patient_medications
+                       WHERE end_date IS NULL OR end_date > CURRENT_DATE
+                       GROUP BY patient_id) m ON m.patient_id = p.id
+            """;
+
+    // RiskFactor weights, bits and thresholds, bound as SpEL parameters so the SQL cannot drift from the enum.
+    // Each factor prefix is completed with ".weight}" or ".bit}"
+    String RISK_FACTOR = "T(com.tintsteps.patientservice.model.RiskFactor)";
+    String CRITICAL_ALLERGIES = ":#{" + RISK_FACTOR + ".CRITICAL_ALLERGIES";
+    String CHRONIC_CONDITIONS = ":#{" + RISK_FACTOR + ".CHRONIC_CONDITIONS";
+    String MULTIPLE_MEDICATIONS = ":#{" + RISK_FACTOR + ".MULTIPLE_MEDICATIONS";
+    String MISSING_EMERGENCY_CONTACTS = ":#{" + RISK_FACTOR + ".MISSING_EMERGENCY_CONTACTS";
+    String MISSING_INSURANCE = ":#{" + RISK_FACTOR + ".MISSING_INSURANCE";
+    String HAS_MULTIPLE_MEDICATIONS = "f.active_medication_count > :#{" + RISK_FACTOR + ".MULTIPLE_MEDICATIONS_THRESHOLD}";
+    String HIGH_RISK_SCORE = ":#{" + RISK_FACTOR + ".HIGH_RISK_SCORE}";
+    String MEDIUM_RISK_SCORE = ":#{" + RISK_FACTOR + ".MEDIUM_RISK_SCORE}";
+
+    // Score, factor bitmask and clinical factor count on top of a "factors" CTE
+    String SCORED_CTE = "scored AS (\n"
+            + "    SELECT f.*,\n"
+            + "           (CASE WHEN f.critical_allergies THEN " + CRITICAL_ALLERGIES + ".weight} ELSE 0 END\n"
+            + "            + CASE WHEN f.chronic_conditions THEN " + CHRONIC_CONDITIONS + ".weight} ELSE 0 END\n"
+            + "            + CASE WHEN " + HAS_MULTIPLE_MEDICATIONS + " THEN " + MULTIPLE_MEDICATIONS + ".weight} ELSE 0 END\n"
+            + "            + CASE WHEN NOT f.has_emergency_contacts THEN " + MISSING_EMERGENCY_CONTACTS + ".weight} ELSE 0 END\n"
+            + "            + CASE WHEN NOT f.has_insurance THEN " + MISSING_INSURANCE + ".weight} ELSE 0 END) AS risk_score,\n"
+            + "           (CASE WHEN f.critical_allergies THEN " + CRITICAL_ALLERGIES + ".bit} ELSE 0 END\n"
+            + "            + CASE WHEN f.chronic_conditions THEN " + CHRONIC_CONDITIONS + ".bit} ELSE 0 END\n"
+            + "            + CASE WHEN " + HAS_MULTIPLE_MEDICATIONS + " THEN " + MULTIPLE_MEDICATIONS + ".bit} ELSE 0 END\n"
+            + "            + CASE WHEN NOT f.has_emergency_contacts THEN " + MISSING_EMERGENCY_CONTACTS + ".bit} ELSE 0 END\n"
+            + "            + CASE WHEN NOT f.has_insurance THEN " + MISSING_INSURANCE + ".bit} ELSE 0 END) AS risk_factors,\n"
+            + "           (CASE WHEN f.critical_allergies THEN 1 ELSE 0 END\n"
+            + "            + CASE WHEN f.chronic_conditions THEN 1 ELSE 0 END\n"
+            + "            + CASE WHEN " + HAS_MULTIPLE_MEDICATIONS + " THEN 1 ELSE 0 END) AS clinical_factor_count\n"
+            + "    FROM factors f\n"
+            + ")\n";
+
+    String RISK_FACTORS_CTE = "WITH factors AS (" + RISK_FACTORS_SELECT + "), " + SCORED_CTE;
+
+    String COHORT_FILTER = """
+            WHERE s.clinical_factor_count >= :minClinicalFactors
+              AND (:requireCriticalAllergies = false OR s.critical_allergies)
+              AND (:requireChronicConditions = false OR s.chronic_conditions)
+              AND s.active_medication_count >= :minActiveMedications
+            """;
+
+    @Query(value = RISK_FACTORS_CTE + """
+            SELECT s.patient_id AS "patientId",
+                   s.critical_allergies AS "criticalAllergies",
+                   s.chronic_conditions AS "chronicConditions",
+                   s.active_medication_count AS "activeMedicationCount",
+                   s.has_emergency_contacts AS "hasEmergencyContacts",
+                   s.has_insurance AS "hasInsurance",
+                   s.risk_score AS "riskScore"
+            FROM scored s
+            """ + COHORT_FILTER + """
+            ORDER BY s.risk_score DESC, s.patient_id
+            """,
+            countQuery = RISK_FACTORS_CTE + "SELECT COUNT(*) FROM scored s " + COHORT_FILTER,
+            nativeQuery = true)
+    Page<PatientRiskFactors> findCohort(@Param("criticalAllergenPattern") String criticalAllergenPattern,
+                                        @Param("minClinicalFactors") int minClinicalFactors,
+                                        @Param("requireCriticalAllergies") boolean requireCriticalAllergies,
+                                        @Param("requireChronicConditions") boolean requireChronicConditions,
+                                        @Param("minActiveMedications") long minActiveMedications,
+                                        Pageable pageable);
+
+    /**
+     * Risk factors of one patient as computed by the cohort query
+     */
+    interface PatientRiskFactors {
+        UUID getPatientId();
+        boolean getCriticalAllergies();
+        boolean getChronicConditions();
+        long getActiveMedicationCount();
+        boolean getHasEmergencyContacts();
+        boolean getHasInsurance();
+        int getRiskScore();
+    }
+}
@@ -0,0 +1,70 @@
+package com.tintsteps.patientservice.repository;
+
+import com.tintsteps.patientservice.model.PatientRiskProfile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface PatientRiskProfileRepository extends JpaRepository<PatientRiskProfile, UUID> {
+
+    // Risk factors of the given patients only, medications counted per patient
+    String PATIENT_RISK_FACTORS_SELECT = """
+            SELECT p.id AS patient_id,
+                   EXISTS (SELECT 1 FROM patient_allergies a
+                           WHERE a.patient_id = p.id AND lower(a.allergen) ~ :criticalAllergenPattern) AS critical_allergies,
+                   EXISTS (SELECT 1 FROM patient_medical_history h WHERE h.patient_id = p.id) AS chronic_conditions,
+                   (SELECT COUNT(*) FROM patient_medications m
+                    WHERE m.patient_id = p.id AND (m.end_date IS NULL OR m.end_date > CURRENT_DATE)) AS active_medication_count,
+                   EXISTS (SELECT 1 FROM patient_emergency_contacts c WHERE c.patient_id = p.id) AS has_emergency_contacts,
+                   EXISTS (SELECT 1 FROM patient_insurance i WHERE i.patient_id = p.id) AS has_insurance
+            FROM patients p
+            WHERE p.id IN (:patientIds)
+            """;
+
+    // Risk levels split at the RiskFactor thresholds, see RiskFactor.riskLevel
+    String UPSERT_FROM_SCORED = """
+            INSERT INTO patient_risk_profiles (patient_id, risk_factors, risk_score, risk_level, active_medication_count, updated_at)
+            SELECT s.patient_id, s.risk_factors, s.risk_score,
+                   CASE WHEN s.risk_score >= """ + PatientRiskCohortRepository.HIGH_RISK_SCORE + " THEN 'HIGH' WHEN s.risk_score >= "
+            + PatientRiskCohortRepository.MEDIUM_RISK_SCORE + """
+             THEN 'MEDIUM' ELSE 'LOW' END,
+                   s.active_medication_count, CURRENT_TIMESTAMP
+            FROM scored s
+            ON CONFLICT (patient_id) DO UPDATE SET
+                risk_factors = EXCLUDED.risk_factors,
+                risk_score = EXCLUDED.risk_score,
+                risk_level = EXCLUDED.risk_level,
+                active_medication_count = EXCLUDED.active_medication_count,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    // Recompute the profiles of the given patients
+    // Without declared spaces Hibernate treats native writes as touching every table and drops all cached queries
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "patient_risk_profiles"))
+    @Query(value = "WITH factors AS (" + PATIENT_RISK_FACTORS_SELECT + "), "
+            + PatientRiskCohortRepository.SCORED_CTE + UPSERT_FROM_SCORED, nativeQuery = true)
+    int refreshProfiles(@Param("patientIds") Collection<UUID> patientIds,
+                        @Param("criticalAllergenPattern") String criticalAllergenPattern);
+
+    // Recompute the profiles of all patients in one set-based pass
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "patient_risk_profiles"))
+    @Query(value = PatientRiskCohortRepository.RISK_FACTORS_CTE + UPSERT_FROM_SCORED, nativeQuery = true)
+    int rebuildAllProfiles(@Param("criticalAllergenPattern") String criticalAllergenPattern);
+
+    // Risk level lookups as a range scan on the score index
+    @Query("SELECT r FROM PatientRiskProfile r WHERE r.riskScore >= :minScore AND r.riskScore < :maxScore ORDER BY r.riskScore DESC, r.patientId")
+    Page<PatientRiskProfile> findByRiskScoreRange(@Param("minScore") int minScore, @Param("maxScore") int maxScore, Pageable pageable);
+}
@@ -0,0 +1,125 @@
+package com.tintsteps.patientservice.repository;
+
+import com.tintsteps.patientservice.dto.PatientSearchCriteria;
+import com.tintsteps.patientservice.model.Gender;
+import com.tintsteps.patientservice.model.Patient;
+import com.tintsteps.patientservice.model.PatientAllergy;
+import com.tintsteps.patientservice.model.PatientMedicalHistory;
+import com.tintsteps.patientservice.model.PatientMedication;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Specifications over {@link Patient}. Child table criteria are EXISTS subqueries
+ * correlated on patient_id, so a patient matches at most once and no rows are joined in.
+ */
+public final class PatientSpecifications {
+
+    private PatientSpecifications() {
+    }
+
+    public static Specification<Patient> matching(PatientSearchCriteria criteria) {
+        Specification<Patient> specification = (root, query, cb) -> cb.conjunction();
+
+        if (criteria.getMedicalCondition() != null) {
+            specification = specification.and(hasMedicalCondition(criteria.getMedicalCondition()));
+        }
+        if (criteria.getMedication() != null) {
+            specification = specification.and(takesMedication(criteria.getMedication()));
+        }
+        if (criteria.getAllergen() != null) {
+            specification = specification.and(hasAllergy(criteria.getAllergen()));
+        }
+        if (criteria.getGender() != null) {
+            specification = specification.and(hasGender(criteria.getGender()));
+        }
+        if (criteria.getBloodGroup() != null) {
+            specification = specification.and(hasBloodGroup(criteria.getBloodGroup()));
+        }
+        if (criteria.getMinAge() != null) {
+            specification = specification.and(agedAtLeast(criteria.getMinAge()));
+        }
+        if (criteria.getMaxAge() != null) {
+            specification = specification.and(agedAtMost(criteria.getMaxAge()));
+        }
+        return specification;
+    }
+
+    public static Specification<Patient> hasMedicalCondition(String condition) {
+        return (root, query, cb) -> {
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<PatientMedicalHistory> history = subquery.from(PatientMedicalHistory.class);
+            subquery.select(cb.literal(1)).where(
+                    cb.equal(history.get("patient"), root),
+                    cb.like(cb.lower(history.<String>get("condition")), containsPattern(condition), '\\'));
+            return cb.exists(subquery);
+        };
+    }
+
+    public static Specification<Patient> takesMedication(String medicationName) {
+        return (root, query, cb) -> {
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<PatientMedication> medication = subquery.from(PatientMedication.class);
+            subquery.select(cb.literal(1)).where(
+                    cb.equal(medication.get("patient"), root),
+                    cb.like(cb.lower(medication.<String>get("medicationName")), containsPattern(medicationName), '\\'));
+            return cb.exists(subquery);
+        };
+    }
+
+    public static Specification<Patient> hasAllergy(String allergen) {
+        return (root, query, cb) -> {
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<PatientAllergy> allergy = subquery.from(PatientAllergy.class);
+            subquery.select(cb.literal(1)).where(
+                    cb.equal(allergy.get("patient"), root),
+                    cb.like(cb.lower(allergy.<String>get("allergen")), containsPattern(allergen), '\\'));
+            return cb.exists(subquery);
+        };
+    }
+
+    public static Specification<Patient> hasGender(Gender gender) {
+        return (root, query, cb) -> cb.equal(root.get("gender"), gender);
+    }
+
+    public static Specification<Patient> hasBloodGroup(String bloodGroup) {
+        return (root, query, cb) -> cb.equal(root.get("bloodGroup"), bloodGroup);
+    }
+
+    // Exact age as a range on date_of_birth so an index on the column stays usable
+    public static Specification<Patient> agedAtLeast(int minAge) {
+        return (root, query, cb) -> cb.lessThan(root.<Date>get("dateOfBirth"), dateOfBirthBoundForAge(minAge));
+    }
+
+    public static Specification<Patient> agedAtMost(int maxAge) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<Date>get("dateOfBirth"), dateOfBirthBoundForAge(maxAge + 1));
+    }
+
+    public static Specification<Patient> agedBetween(int minAge, int maxAge) {
+        return agedAtLeast(minAge).and(agedAtMost(maxAge));
+    }
+
+    /**
+     * Exclusive upper bound on the date of birth of a patient who is at least the given age today,
+     * the start of the day after their latest possible birthday. date_of_birth may carry a time of day,
+     * so the bound is the next midnight rather than the birthday itself.
+     */
+    public static Date dateOfBirthBoundForAge(int age) {
+        LocalDate bound = LocalDate.now().minusYears(age).plusDays(1);
+        return Date.from(bound.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static String containsPattern(String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,24 @@
+package com.tintsteps.patientservice.repository;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * One event read from a timeline source. Medication dates arrive as java.util.Date and
+ * appointment links carry the appointment ID instead of a title.
+ */
+public record PatientTimelineRow(UUID id, Instant occurredAt, String title, String detail, UUID referenceId) {
+
+    public PatientTimelineRow(UUID id, Instant occurredAt, String title, String detail) {
+        this(id, occurredAt, title, detail, null);
+    }
+
+    public PatientTimelineRow(UUID id, Date occurredOn, String title, String detail) {
+        this(id, Instant.ofEpochMilli(occurredOn.getTime()), title, detail, null);
+    }
+
+    public PatientTimelineRow(UUID id, Instant occurredAt, UUID referenceId) {
+        this(id, occurredAt, null, null, referenceId);
+    }
+}
@@ -0,0 +1,28 @@
+package com.tintsteps.patientservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Monthly partitions of the tables range partitioned on recorded_at. The partitions are
+ * created by the ensure_recorded_at_partitions function that V9 installs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RecordedAtPartitionRepository {
+
+    public static final List<String> PARTITIONED_TABLES = List.of("patient_medical_history", "patient_allergies");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Returns the number of partitions created, months that already have one are left alone
+    public int ensurePartitions(String table, int monthsAhead) {
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT ensure_recorded_at_partitions(CAST(? AS regclass), LOCALTIMESTAMP, LOCALTIMESTAMP + make_interval(months => ?))",
+                Integer.class, table, monthsAhead);
+        return created == null ? 0 : created;
+    }
+}
@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.service;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientAddressDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +16,7 @@ public interface PatientAddressService {
     PatientAddressDto findById(UUID id);
     List<PatientAddressDto> findByPatientId(UUID patientId);
     Page<PatientAddressDto> findAll(Pageable pageable);
+    CursorPageDto<PatientAddressDto> scroll(String cursor, int size);
     PatientAddressDto update(UUID id, PatientAddressDto patientAddressDto);
     PatientAddressDto partialUpdate(UUID id, PatientAddressDto patientAddressDto);
     void delete(UUID id);
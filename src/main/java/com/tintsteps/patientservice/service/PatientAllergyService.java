@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.service;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientAllergyDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +15,7 @@ public interface PatientAllergyService {
     PatientAllergyDto create(PatientAllergyDto patientAllergyDto);
     PatientAllergyDto findById(UUID id);
     Page<PatientAllergyDto> findAll(Pageable pageable);
+    CursorPageDto<PatientAllergyDto> scroll(String cursor, int size);
     PatientAllergyDto update(UUID id, PatientAllergyDto patientAllergyDto);
     PatientAllergyDto partialUpdate(UUID id, PatientAllergyDto patientAllergyDto);
     void delete(UUID id);
@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.service;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientAppointmentDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +16,7 @@ public interface PatientAppointmentService {
     PatientAppointmentDto findById(UUID id);
     List<PatientAppointmentDto> findByPatientId(UUID patientId);
     Page<PatientAppointmentDto> findAll(Pageable pageable);
+    CursorPageDto<PatientAppointmentDto> scroll(String cursor, int size);
     PatientAppointmentDto update(UUID id, PatientAppointmentDto patientAppointmentDto);
     PatientAppointmentDto partialUpdate(UUID id, PatientAppointmentDto patientAppointmentDto);
     void delete(UUID id);
@@ -0,0 +1,94 @@
+package com.tintsteps.patientservice.service;
+
+import com.tintsteps.patientservice.exception.PatientNotFoundException;
+import com.tintsteps.patientservice.model.Patient;
+import com.tintsteps.patientservice.model.PatientOwned;
+import com.tintsteps.patientservice.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Binds the child records of a batch to their patients. Every distinct patient ID is checked
+ * with set queries and children get lazy references, so a batch costs lookups per distinct
+ * patient rather than a full patient SELECT per row.
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientBatchBinder {
+
+    // Upper bound of bind parameters in one IN (...) list
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
+    private final PatientRepository patientRepository;
+
+    /**
+     * Map each DTO to its entity and attach the patient it references.
+     * Must run inside the transaction that saves the entities.
+     *
+     * @throws PatientNotFoundException listing every missing patient ID, before anything is mapped
+     */
+    public <D, E extends PatientOwned> List<E> bind(List<D> dtos, Function<D, UUID> patientId, Function<D, E> mapper) {
+        Set<UUID> patientIds = new LinkedHashSet<>();
+        for (D dto : dtos) {
+            UUID id = patientId.apply(dto);
+            if (id == null) {
+                throw new IllegalArgumentException("Patient ID is required for every record in the batch");
+            }
+            patientIds.add(id);
+        }
+
+        Set<UUID> existingIds = findExistingIds(patientIds);
+        List<UUID> missingIds = patientIds.stream()
+                .filter(id -> !existingIds.contains(id))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new PatientNotFoundException("Patients not found with ids: " + missingIds);
+        }
+
+        Map<UUID, Patient> references = new HashMap<>(patientIds.size());
+        patientIds.forEach(id -> references.put(id, patientRepository.getReferenceById(id)));
+
+        List<E> entities = new ArrayList<>(dtos.size());
+        for (D dto : dtos) {
+            E entity = mapper.apply(dto);
+            entity.setPatient(references.get(patientId.apply(dto)));
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    public Set<UUID> findExistingIds(Collection<UUID> ids) {
+        return new HashSet<>(inChunks(ids, patientRepository::findExistingIds));
+    }
+
+    public Set<UUID> findExistingUserIds(Collection<UUID> userIds) {
+        return new HashSet<>(inChunks(userIds, patientRepository::findExistingUserIds));
+    }
+
+    /**
+     * Load the patients with the given IDs, in no particular order. Unknown IDs are skipped.
+     */
+    public List<Patient> findPatients(Collection<UUID> ids) {
+        return inChunks(ids, patientRepository::findAllById);
+    }
+
+    private <T> List<T> inChunks(Collection<UUID> ids, Function<List<UUID>, List<T>> lookup) {
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<T> results = new ArrayList<>(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            results.addAll(lookup.apply(distinctIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctIds.size()))));
+        }
+        return results;
+    }
+}
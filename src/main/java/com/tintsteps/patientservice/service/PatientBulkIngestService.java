@@ -0,0 +1,17 @@
+package com.tintsteps.patientservice.service;
+
+import com.tintsteps.patientservice.dto.BulkIngestReportDto;
+import com.tintsteps.patientservice.model.BulkIngestRecordType;
+
+import java.io.InputStream;
+
+public interface PatientBulkIngestService {
+
+    /**
+     * Load newline-delimited JSON records of one type with PostgreSQL binary COPY.
+     * Records are validated row by row and written in chunks, each chunk in its own
+     * transaction, so a failed row or chunk does not undo the chunks before it.
+     * Child records must reference existing patients by patientId.
+     */
+    BulkIngestReportDto ingest(BulkIngestRecordType recordType, InputStream input);
+}
@@ -0,0 +1,11 @@
+package com.tintsteps.patientservice.service;
+
+import com.tintsteps.patientservice.dto.PatientClinicalSnapshotDto;
+
+import java.util.UUID;
+
+public interface PatientClinicalSnapshotService {
+
+    PatientClinicalSnapshotDto getSnapshot(UUID patientId);
+    void evict(UUID patientId);
+}
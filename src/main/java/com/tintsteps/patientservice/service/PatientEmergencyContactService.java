@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.service;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientEmergencyContactDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +15,7 @@ public interface PatientEmergencyContactService {
     PatientEmergencyContactDto findById(UUID id);
     List<PatientEmergencyContactDto> findByPatientId(UUID patientId);
     Page<PatientEmergencyContactDto> findAll(Pageable pageable);
+    CursorPageDto<PatientEmergencyContactDto> scroll(String cursor, int size);
     PatientEmergencyContactDto update(UUID id, PatientEmergencyContactDto patientEmergencyContactDto);
     PatientEmergencyContactDto partialUpdate(UUID id, PatientEmergencyContactDto patientEmergencyContactDto);
     void delete(UUID id);
@@ -0,0 +1,14 @@
+package com.tintsteps.patientservice.service;
+
+import java.io.OutputStream;
+
+public interface PatientExportService {
+
+    /**
+     * Write every patient as newline-delimited JSON, optionally with child records.
+     * Rows are streamed from the database and flushed as they are written,
+     * so memory use does not grow with the number of patients.
+     */
+    long exportPatients(boolean includeAllergies, boolean includeMedications, boolean includeMedicalHistory,
+                        OutputStream output);
+}
@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.service;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientInsuranceDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +15,7 @@ public interface PatientInsuranceService {
     PatientInsuranceDto findById(UUID id);
     List<PatientInsuranceDto> findByPatientId(UUID patientId);
     Page<PatientInsuranceDto> findAll(Pageable pageable);
+    CursorPageDto<PatientInsuranceDto> scroll(String cursor, int size);
     PatientInsuranceDto update(UUID id, PatientInsuranceDto patientInsuranceDto);
     PatientInsuranceDto partialUpdate(UUID id, PatientInsuranceDto patientInsuranceDto);
     void delete(UUID id);
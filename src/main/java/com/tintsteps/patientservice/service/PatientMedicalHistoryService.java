@@ -1,10 +1,10 @@
 package com.tintsteps.patientservice.service;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientMedicalHistoryDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
-import java.time.Instant;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -16,6 +16,8 @@ public interface PatientMedicalHistoryService {
     PatientMedicalHistoryDto findById(UUID id);
     List<PatientMedicalHistoryDto> findByPatientId(UUID patientId);
     Page<PatientMedicalHistoryDto> findAll(Pageable pageable);
+    CursorPageDto<PatientMedicalHistoryDto> scroll(String cursor, int size);
+    CursorPageDto<PatientMedicalHistoryDto> scrollByPatientId(UUID patientId, Instant since, String cursor, int size);
     PatientMedicalHistoryDto update(UUID id, PatientMedicalHistoryDto patientMedicalHistoryDto);
     PatientMedicalHistoryDto partialUpdate(UUID id, PatientMedicalHistoryDto patientMedicalHistoryDto);
     void delete(UUID id);
@@ -1,5 +1,6 @@
 package com.tintsteps.patientservice.service;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientMedicationDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,6 +15,8 @@ public interface PatientMedicationService {
     PatientMedicationDto create(PatientMedicationDto patientMedicationDto);
     PatientMedicationDto findById(UUID id);
     Page<PatientMedicationDto> findAll(Pageable pageable);
+    CursorPageDto<PatientMedicationDto> scroll(String cursor, int size);
+    CursorPageDto<PatientMedicationDto> scrollByPatientId(UUID patientId, String cursor, int size);
     PatientMedicationDto update(UUID id, PatientMedicationDto patientMedicationDto);
     PatientMedicationDto partialUpdate(UUID id, PatientMedicationDto patientMedicationDto);
     void delete(UUID id);
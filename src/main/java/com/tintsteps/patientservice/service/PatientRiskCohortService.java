@@ -0,0 +1,14 @@
+package com.tintsteps.patientservice.service;
+
+import com.tintsteps.patientservice.dto.PatientRiskCohortMemberDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface PatientRiskCohortService {
+
+    // Cohorts are ordered by risk score (highest first), then patient ID
+    Page<PatientRiskCohortMemberDto> findHighRiskPatients(Pageable pageable);
+    Page<PatientRiskCohortMemberDto> findPatientsWithCriticalAllergies(Pageable pageable);
+    Page<PatientRiskCohortMemberDto> findPatientsWithChronicConditions(Pageable pageable);
+    Page<PatientRiskCohortMemberDto> findPatientsWithMultipleMedications(int minimumMedications, Pageable pageable);
+}
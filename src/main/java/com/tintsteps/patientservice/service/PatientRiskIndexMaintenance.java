@@ -0,0 +1,50 @@
+package com.tintsteps.patientservice.service;
+
+import com.tintsteps.patientservice.event.PatientDataChangedEvent;
+import com.tintsteps.patientservice.model.Patient;
+import com.tintsteps.patientservice.model.PatientAllergy;
+import com.tintsteps.patientservice.model.PatientEmergencyContact;
+import com.tintsteps.patientservice.model.PatientInsurance;
+import com.tintsteps.patientservice.model.PatientMedicalHistory;
+import com.tintsteps.patientservice.model.PatientMedication;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the persisted risk index current: refreshes the affected patients after every
+ * committed clinical data change and rebuilds the whole index on a schedule as a backfill.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PatientRiskIndexMaintenance {
+
+    // New patients and the child records that feed a risk factor
+    private static final Class<?>[] RISK_RECORD_TYPES = {
+            Patient.class, PatientAllergy.class, PatientMedicalHistory.class, PatientMedication.class,
+            PatientEmergencyContact.class, PatientInsurance.class
+    };
+
+    private final PatientRiskIndexService patientRiskIndexService;
+
+    @EventListener
+    public void onPatientDataChanged(PatientDataChangedEvent event) {
+        if (!event.affects(RISK_RECORD_TYPES)) {
+            return;
+        }
+        try {
+            patientRiskIndexService.refresh(event.patientIds());
+        } catch (Exception e) {
+            // The data change is already committed, the next rebuild corrects the index
+            log.error("Error refreshing risk profiles of patients {}: {}", event.patientIds(), e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${patient.risk-index.rebuild-cron:0 30 2 * * *}")
+    public void rebuild() {
+        patientRiskIndexService.rebuildAll();
+    }
+}
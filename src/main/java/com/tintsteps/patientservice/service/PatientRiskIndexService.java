@@ -0,0 +1,19 @@
+package com.tintsteps.patientservice.service;
+
+import com.tintsteps.patientservice.dto.PatientRiskAssessmentDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface PatientRiskIndexService {
+
+    // Read Operations
+    PatientRiskAssessmentDto getRiskAssessment(UUID patientId);
+    Page<PatientRiskAssessmentDto> findByRiskLevel(String riskLevel, Pageable pageable);
+
+    // Maintenance Operations
+    void refresh(Collection<UUID> patientIds);
+    int rebuildAll();
+}
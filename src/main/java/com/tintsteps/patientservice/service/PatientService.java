@@ -1,12 +1,16 @@
 package com.tintsteps.patientservice.service;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
 import com.tintsteps.patientservice.dto.PatientDto;
+import com.tintsteps.patientservice.dto.PatientHealthSummaryDto;
+import com.tintsteps.patientservice.dto.PatientSearchCriteria;
 import com.tintsteps.patientservice.model.Gender;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -16,8 +20,10 @@ public interface PatientService {
     // CRUD Operations
     PatientDto create(PatientDto patientDto);
     PatientDto findById(UUID id);
+    List<PatientDto> findByIds(Collection<UUID> ids);
     PatientDto findByUserId(UUID userId);
     Page<PatientDto> findAll(Pageable pageable);
+    CursorPageDto<PatientDto> scroll(String cursor, int size);
     PatientDto update(UUID id, PatientDto patientDto);
     PatientDto partialUpdate(UUID id, PatientDto patientDto);
     void delete(UUID id);
@@ -29,8 +35,12 @@ public interface PatientService {
     Page<PatientDto> findByGender(Gender gender, Pageable pageable);
     Page<PatientDto> findByBloodGroup(String bloodGroup, Pageable pageable);
     Page<PatientDto> findByAgeBetween(Integer minAge, Integer maxAge, Pageable pageable);
+    Page<PatientDto> search(PatientSearchCriteria criteria, Pageable pageable);
     List<PatientDto> findAll();
 
+    // Aggregate Operations
+    PatientHealthSummaryDto getHealthSummary(UUID patientId);
+
     // Business Operations
     PatientDto updateMedicalInfo(UUID id, Integer heightCm, BigDecimal weightKg, String bloodGroup);
     PatientDto updatePersonalInfo(UUID id, Date dateOfBirth, Gender gender);
@@ -40,6 +50,7 @@ public interface PatientService {
     // Statistics Operations - Only keep used methods
     long countAll();
     Double getAverageAge();
+    List<Object[]> getAgeStatistics();
     Double getAverageHeight();
     BigDecimal getAverageWeight();
     List<Object[]> getGenderStatistics();
@@ -0,0 +1,177 @@
+package com.tintsteps.patientservice.service;
+
+import com.tintsteps.patientservice.exception.PatientServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Assembles composite patient views from independent sections.
+ * Every section runs on its own virtual thread inside its own read-only transaction,
+ * and all sections of one assembly share a single deadline, so a composite endpoint
+ * is as slow as its slowest section rather than the sum of all of them.
+ * <p>
+ * Each running section holds a pooled connection, so the number running at once across
+ * all assemblies is capped by patient.summary.max-concurrent-sections; sections over the
+ * cap wait for a slot within the deadline. The first failing section fails the assembly,
+ * and a failed or timed out assembly interrupts its remaining sections, whose statements
+ * are also bounded by the deadline through the transaction timeout.
+ */
+@Slf4j
+@Component
+public class PatientSummaryAssembler {
+
+    private final ExecutorService executor;
+    private final PlatformTransactionManager transactionManager;
+    private final Duration deadline;
+    private final Semaphore sectionPermits;
+
+    public PatientSummaryAssembler(@Qualifier("patientSummaryExecutor") ExecutorService executor,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${patient.summary.deadline:5s}") Duration deadline,
+                                   @Value("${patient.summary.max-concurrent-sections:5}") int maxConcurrentSections) {
+        this.executor = executor;
+        this.transactionManager = transactionManager;
+        this.deadline = deadline;
+        this.sectionPermits = new Semaphore(maxConcurrentSections, true);
+    }
+
+    /**
+     * Start a new assembly. The deadline starts counting from this call.
+     */
+    public Assembly begin() {
+        return new Assembly(System.nanoTime() + deadline.toNanos());
+    }
+
+    public final class Assembly {
+
+        private final long deadlineNanos;
+        private final List<CompletableFuture<?>> sections = new ArrayList<>();
+        private final List<Future<?>> tasks = new ArrayList<>();
+        // Completed exceptionally by the first section that fails, never completed normally
+        private final CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        private volatile boolean cancelled;
+
+        private Assembly(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Schedule a section. The loader starts on its own virtual thread as soon as a
+         * section slot is free.
+         */
+        public <T> Section<T> fork(Supplier<T> loader) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            result.whenComplete((value, failure) -> {
+                if (failure != null) {
+                    firstFailure.completeExceptionally(failure);
+                }
+            });
+            sections.add(result);
+            tasks.add(executor.submit(() -> run(loader, result)));
+            return new Section<>(result);
+        }
+
+        /**
+         * Wait for every forked section, failing as a whole as soon as any section fails
+         * or when the deadline passes first.
+         */
+        public void join() {
+            CompletableFuture<Object> outcome = CompletableFuture.anyOf(
+                    CompletableFuture.allOf(sections.toArray(CompletableFuture[]::new)), firstFailure);
+            try {
+                outcome.get(remainingNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                cancelPending();
+                log.warn("Patient summary assembly exceeded deadline of {}", deadline);
+                throw new PatientServiceException("Patient summary assembly exceeded deadline of " + deadline);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelPending();
+                throw new PatientServiceException("Patient summary assembly interrupted", e);
+            } catch (ExecutionException e) {
+                cancelPending();
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new PatientServiceException("Failed to assemble patient summary", e.getCause());
+            }
+        }
+
+        private <T> void run(Supplier<T> loader, CompletableFuture<T> result) {
+            try {
+                if (!sectionPermits.tryAcquire(remainingNanos(), TimeUnit.NANOSECONDS)) {
+                    throw new PatientServiceException("No free slot for a patient summary section within deadline of " + deadline);
+                }
+                try {
+                    if (cancelled) {
+                        result.cancel(false);
+                        return;
+                    }
+                    result.complete(sectionTransaction().execute(status -> loader.get()));
+                } finally {
+                    sectionPermits.release();
+                }
+            } catch (InterruptedException e) {
+                result.cancel(false);
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        // Read-only, separate from the caller's transaction, and timed out with the assembly
+        private TransactionTemplate sectionTransaction() {
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            template.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos() + TimeUnit.SECONDS.toNanos(1) - 1)));
+            return template;
+        }
+
+        private long remainingNanos() {
+            return Math.max(0, deadlineNanos - System.nanoTime());
+        }
+
+        // Interrupts sections waiting for a slot or blocked on a statement, so they give up
+        // their connection instead of finishing work nobody will read
+        private void cancelPending() {
+            cancelled = true;
+            tasks.forEach(task -> task.cancel(true));
+            sections.forEach(section -> section.cancel(false));
+        }
+    }
+    public static final class Section<T> {
+
+        private final CompletableFuture<T> future;
+
+        private Section(CompletableFuture<T> future) {
+            this.future = future;
+        }
+
+        /**
+         * Result of the section. Only valid after {@link Assembly#join()} returned.
+         */
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("Section read before the assembly was joined");
+            }
+            return future.join();
+        }
+    }
+}
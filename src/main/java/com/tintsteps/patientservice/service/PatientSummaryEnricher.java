@@ -0,0 +1,148 @@
+package com.tintsteps.patientservice.service;
+
+import com.tintsteps.patientservice.dto.EnrichedPatientHealthSummaryDto;
+import com.tintsteps.patientservice.dto.PatientAddressDto;
+import com.tintsteps.patientservice.dto.PatientHealthSummaryDto;
+import com.tintsteps.patientservice.integration.AddressServiceIntegration;
+import com.tintsteps.patientservice.integration.ScheduleServiceIntegration;
+import com.tintsteps.patientservice.integration.dto.AddressDto;
+import com.tintsteps.patientservice.integration.dto.AppointmentDto;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Resolves the remote records a health summary only holds ids for. The upcoming appointments are
+ * requested before the summary is read and every linked address as soon as it is, and all of it
+ * shares the patient.summary deadline.
+ * <p>
+ * Lookups go through each service's circuit breaker but not the integrations' fallbacks, which
+ * answer a failure with placeholders or an empty list that would pass for real data. A lookup that
+ * fails, is refused by an open circuit or misses the deadline flags its section as degraded; an
+ * address is then filled in from its last known copy where there is one and left out otherwise.
+ * An address the service answers does not exist has been deleted and is left out without a flag.
+ */
+@Slf4j
+@Component
+public class PatientSummaryEnricher {
+
+    private final PatientService patientService;
+    private final AddressServiceIntegration addressServiceIntegration;
+    private final ScheduleServiceIntegration scheduleServiceIntegration;
+    private final CircuitBreaker addressServiceCircuitBreaker;
+    private final CircuitBreaker scheduleServiceCircuitBreaker;
+    private final Duration deadline;
+
+    public PatientSummaryEnricher(PatientService patientService,
+                                  AddressServiceIntegration addressServiceIntegration,
+                                  ScheduleServiceIntegration scheduleServiceIntegration,
+                                  CircuitBreaker addressServiceCircuitBreaker,
+                                  CircuitBreaker scheduleServiceCircuitBreaker,
+                                  @Value("${patient.summary.deadline:5s}") Duration deadline) {
+        this.patientService = patientService;
+        this.addressServiceIntegration = addressServiceIntegration;
+        this.scheduleServiceIntegration = scheduleServiceIntegration;
+        this.addressServiceCircuitBreaker = addressServiceCircuitBreaker;
+        this.scheduleServiceCircuitBreaker = scheduleServiceCircuitBreaker;
+        this.deadline = deadline;
+    }
+
+    public EnrichedPatientHealthSummaryDto getEnrichedHealthSummary(UUID patientId) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        CompletableFuture<List<AppointmentDto>> upcoming = guarded(scheduleServiceCircuitBreaker,
+                () -> scheduleServiceIntegration.lookupUpcomingAppointments(patientId));
+        try {
+            PatientHealthSummaryDto summary = patientService.getHealthSummary(patientId);
+            // Requested together so the address lookups go out as one batch
+            List<PatientAddressDto> links = summary.getAddresses() == null ? List.of() : summary.getAddresses();
+            Map<UUID, CompletableFuture<Optional<AddressDto>>> addressLookups = new LinkedHashMap<>();
+            links.stream()
+                    .map(PatientAddressDto::getAddressId)
+                    .filter(Objects::nonNull)
+                    .forEach(addressId -> addressLookups.computeIfAbsent(addressId, id -> guarded(addressServiceCircuitBreaker,
+                            () -> lookupAddress(id))));
+
+            List<AddressDto> addresses = new ArrayList<>(addressLookups.size());
+            boolean addressesDegraded = false;
+            for (Map.Entry<UUID, CompletableFuture<Optional<AddressDto>>> lookup : addressLookups.entrySet()) {
+                Optional<Optional<AddressDto>> answer = await(lookup.getValue(), deadlineNanos);
+                Optional<AddressDto> address;
+                if (answer.isPresent()) {
+                    address = answer.get();
+                } else {
+                    addressesDegraded = true;
+                    address = addressServiceIntegration.lastKnownAddress(lookup.getKey());
+                }
+                address.ifPresent(addresses::add);
+            }
+            Optional<List<AppointmentDto>> upcomingAppointments = await(upcoming, deadlineNanos);
+            boolean appointmentsDegraded = upcomingAppointments.isEmpty();
+
+            if (addressesDegraded || appointmentsDegraded) {
+                log.warn("Enriched summary for patient ID: {} degraded, addresses: {}, appointments: {}",
+                        patientId, addressesDegraded, appointmentsDegraded);
+            }
+            return EnrichedPatientHealthSummaryDto.builder()
+                    .summary(summary)
+                    .addresses(addresses)
+                    .upcomingAppointments(upcomingAppointments.orElse(List.of()))
+                    .addressesDegraded(addressesDegraded)
+                    .appointmentsDegraded(appointmentsDegraded)
+                    .build();
+        } finally {
+            // Already done unless the summary read failed, then nobody is waiting for it
+            upcoming.cancel(false);
+        }
+    }
+
+    // Not found is an answer rather than a failure, for the circuit breaker as much as for the summary
+    private CompletableFuture<Optional<AddressDto>> lookupAddress(UUID addressId) {
+        return addressServiceIntegration.lookupAddress(addressId)
+                .thenApply(Optional::of)
+                .exceptionallyCompose(e -> (e instanceof CompletionException ? e.getCause() : e) instanceof NoSuchElementException
+                        ? CompletableFuture.completedFuture(Optional.empty())
+                        : CompletableFuture.failedFuture(e));
+    }
+
+    // Recorded by the circuit breaker, refused while it is open. A lookup that throws before
+    // returning its future is a missing entry, not a failed summary.
+    private static <T> CompletableFuture<T> guarded(CircuitBreaker circuitBreaker, Supplier<CompletableFuture<T>> lookup) {
+        try {
+            return circuitBreaker.<T>decorateCompletionStage(lookup::get).get().toCompletableFuture();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <T> Optional<T> await(CompletableFuture<T> lookup, long deadlineNanos) {
+        try {
+            return Optional.ofNullable(lookup.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            lookup.cancel(false);
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            log.debug("Summary enrichment lookup failed: {}", e.getCause().getMessage());
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.tintsteps.patientservice.service;
+
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.PatientTimelineEntryDto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface PatientTimelineService {
+
+    // Newest first, events after now are left out; since may be null for the whole history
+    CursorPageDto<PatientTimelineEntryDto> getTimeline(UUID patientId, Instant since, String cursor, int size);
+}
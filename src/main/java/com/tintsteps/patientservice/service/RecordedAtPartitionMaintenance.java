@@ -0,0 +1,43 @@
+package com.tintsteps.patientservice.service;
+
+import com.tintsteps.patientservice.repository.RecordedAtPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps monthly partitions of medical history and allergies created ahead of time, so new
+ * records land in their month instead of the default partition. Runs at startup and daily.
+ */
+@Slf4j
+@Component
+public class RecordedAtPartitionMaintenance {
+
+    private final RecordedAtPartitionRepository recordedAtPartitionRepository;
+    private final int monthsAhead;
+
+    public RecordedAtPartitionMaintenance(RecordedAtPartitionRepository recordedAtPartitionRepository,
+                                          @Value("${patient.partitions.months-ahead:3}") int monthsAhead) {
+        this.recordedAtPartitionRepository = recordedAtPartitionRepository;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${patient.partitions.maintenance-cron:0 15 2 * * *}")
+    public void ensurePartitions() {
+        for (String table : RecordedAtPartitionRepository.PARTITIONED_TABLES) {
+            try {
+                int created = recordedAtPartitionRepository.ensurePartitions(table, monthsAhead);
+                if (created > 0) {
+                    log.info("Created {} monthly partitions of {}", created, table);
+                }
+            } catch (Exception e) {
+                // Rows still land in the default partition, the next run tries again
+                log.error("Error creating partitions of {}: {}", table, e.getMessage(), e);
+            }
+        }
+    }
+}
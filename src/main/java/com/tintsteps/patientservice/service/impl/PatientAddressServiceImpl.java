@@ -1,5 +1,7 @@
 package com.tintsteps.patientservice.service.impl;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.KeysetCursor;
 import com.tintsteps.patientservice.dto.PatientAddressDto;
 import com.tintsteps.patientservice.exception.PatientNotFoundException;
 import com.tintsteps.patientservice.exception.PatientServiceException;
@@ -7,10 +9,13 @@ import com.tintsteps.patientservice.mapper.PatientAddressMapper;
 import com.tintsteps.patientservice.model.Patient;
 import com.tintsteps.patientservice.model.PatientAddress;
 import com.tintsteps.patientservice.repository.PatientAddressRepository;
+import com.tintsteps.patientservice.repository.PatientAddressView;
 import com.tintsteps.patientservice.repository.PatientRepository;
 import com.tintsteps.patientservice.service.PatientAddressService;
+import com.tintsteps.patientservice.service.PatientBatchBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +32,7 @@ public class PatientAddressServiceImpl implements PatientAddressService {
 
     private final PatientAddressRepository patientAddressRepository;
     private final PatientRepository patientRepository;
+    private final PatientBatchBinder patientBatchBinder;
     private final PatientAddressMapper patientAddressMapper = PatientAddressMapper.INSTANCE;
 
     @Override
@@ -83,9 +89,9 @@ public class PatientAddressServiceImpl implements PatientAddressService {
     public List<PatientAddressDto> findByPatientId(UUID patientId) {
         log.info("Finding patient addresses by patient ID: {}", patientId);
 
-        List<PatientAddress> addresses = patientAddressRepository.findByPatientId(patientId);
+        List<PatientAddressView> addresses = patientAddressRepository.findByPatientId(patientId);
         return addresses.stream()
-                .map(patientAddressMapper::patientAddressToPatientAddressDto)
+                .map(patientAddressMapper::patientAddressViewToPatientAddressDto)
                 .collect(Collectors.toList());
     }
 
@@ -94,8 +100,21 @@ public class PatientAddressServiceImpl implements PatientAddressService {
     public Page<PatientAddressDto> findAll(Pageable pageable) {
         log.info("Finding all patient addresses with pagination");
 
-        Page<PatientAddress> addresses = patientAddressRepository.findAll(pageable);
-        return addresses.map(patientAddressMapper::patientAddressToPatientAddressDto);
+        Page<PatientAddressView> addresses = patientAddressRepository.findAllViews(pageable);
+        return addresses.map(patientAddressMapper::patientAddressViewToPatientAddressDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientAddressDto> scroll(String cursor, int size) {
+        log.info("Scrolling patient addresses after cursor: {}", cursor);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = CursorPageDto.fetchLimit(size);
+        List<PatientAddressView> rows = after == null
+                ? patientAddressRepository.findAllByOrderByIdAsc(limit)
+                : patientAddressRepository.findByIdGreaterThanOrderByIdAsc(after.id(), limit);
+        return CursorPageDto.of(rows, size, patientAddressMapper::patientAddressViewToPatientAddressDto, row -> KeysetCursor.after(row.id()));
     }
 
     @Override
@@ -150,9 +169,9 @@ public class PatientAddressServiceImpl implements PatientAddressService {
     public List<PatientAddressDto> findByAddressId(UUID addressId) {
         log.info("Finding patient addresses by address ID: {}", addressId);
 
-        List<PatientAddress> addresses = patientAddressRepository.findByAddressId(addressId);
+        List<PatientAddressView> addresses = patientAddressRepository.findByAddressId(addressId);
         return addresses.stream()
-                .map(patientAddressMapper::patientAddressToPatientAddressDto)
+                .map(patientAddressMapper::patientAddressViewToPatientAddressDto)
                 .collect(Collectors.toList());
     }
 
@@ -161,8 +180,8 @@ public class PatientAddressServiceImpl implements PatientAddressService {
     public Page<PatientAddressDto> findByPatientId(UUID patientId, Pageable pageable) {
         log.info("Finding patient addresses by patient ID: {} with pagination", patientId);
 
-        Page<PatientAddress> addresses = patientAddressRepository.findByPatientId(patientId, pageable);
-        return addresses.map(patientAddressMapper::patientAddressToPatientAddressDto);
+        Page<PatientAddressView> addresses = patientAddressRepository.findByPatientId(patientId, pageable);
+        return addresses.map(patientAddressMapper::patientAddressViewToPatientAddressDto);
     }
 
 
@@ -172,8 +191,8 @@ public class PatientAddressServiceImpl implements PatientAddressService {
         log.info("Searching patient addresses with multiple criteria");
 
         // For now, implement basic search - can be enhanced with Specifications
-        Page<PatientAddress> addresses = patientAddressRepository.findAll(pageable);
-        return addresses.map(patientAddressMapper::patientAddressToPatientAddressDto);
+        Page<PatientAddressView> addresses = patientAddressRepository.findAllViews(pageable);
+        return addresses.map(patientAddressMapper::patientAddressViewToPatientAddressDto);
     }
 
     // Business Operations
@@ -298,17 +317,10 @@ public class PatientAddressServiceImpl implements PatientAddressService {
     public List<PatientAddressDto> createBatch(List<PatientAddressDto> patientAddressDtos) {
         log.info("Creating batch of {} patient addresses", patientAddressDtos.size());
 
-        try {
-            List<PatientAddress> addresses = patientAddressDtos.stream()
-                    .map(dto -> {
-                        Patient patient = patientRepository.findById(dto.getPatientId())
-                                .orElseThrow(() -> new PatientNotFoundException(dto.getPatientId()));
-                        PatientAddress address = patientAddressMapper.patientAddressDtoToPatientAddress(dto);
-                        address.setPatient(patient);
-                        return address;
-                    })
-                    .collect(Collectors.toList());
+        List<PatientAddress> addresses = patientBatchBinder.bind(patientAddressDtos, PatientAddressDto::getPatientId,
+                patientAddressMapper::patientAddressDtoToPatientAddress);
 
+        try {
             List<PatientAddress> savedAddresses = patientAddressRepository.saveAll(addresses);
             return savedAddresses.stream()
                     .map(patientAddressMapper::patientAddressToPatientAddressDto)
@@ -350,10 +362,7 @@ public class PatientAddressServiceImpl implements PatientAddressService {
     @Override
     @Transactional(readOnly = true)
     public List<UUID> getAddressIds(UUID patientId) {
-        List<PatientAddress> addresses = patientAddressRepository.findByPatientId(patientId);
-        return addresses.stream()
-                .map(PatientAddress::getAddressId)
-                .collect(Collectors.toList());
+        return patientAddressRepository.findAddressIdsByPatientId(patientId);
     }
 
 }
@@ -1,22 +1,27 @@
 package com.tintsteps.patientservice.service.impl;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.KeysetCursor;
 import com.tintsteps.patientservice.dto.PatientAllergyDto;
 import com.tintsteps.patientservice.exception.PatientNotFoundException;
 import com.tintsteps.patientservice.exception.PatientServiceException;
 import com.tintsteps.patientservice.mapper.PatientAllergyMapper;
 import com.tintsteps.patientservice.model.Patient;
 import com.tintsteps.patientservice.model.PatientAllergy;
+import com.tintsteps.patientservice.model.RiskFactor;
 import com.tintsteps.patientservice.repository.PatientAllergyRepository;
+import com.tintsteps.patientservice.repository.PatientAllergyView;
 import com.tintsteps.patientservice.repository.PatientRepository;
 import com.tintsteps.patientservice.service.PatientAllergyService;
+import com.tintsteps.patientservice.service.PatientBatchBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -28,13 +33,9 @@ public class PatientAllergyServiceImpl implements PatientAllergyService {
 
     private final PatientAllergyRepository patientAllergyRepository;
     private final PatientRepository patientRepository;
+    private final PatientBatchBinder patientBatchBinder;
     private final PatientAllergyMapper patientAllergyMapper = PatientAllergyMapper.INSTANCE;
 
-    // Critical allergies that require special attention
-    private static final List<String> CRITICAL_ALLERGENS = Arrays.asList(
-            "penicillin", "peanuts", "shellfish", "latex", "bee venom", "eggs", "milk"
-    );
-
     @Override
     @Transactional
     public PatientAllergyDto create(PatientAllergyDto patientAllergyDto) {
@@ -49,8 +50,8 @@ public class PatientAllergyServiceImpl implements PatientAllergyService {
                 throw new IllegalArgumentException("Allergen is required");
             }
 
-            // Verify patient exists
-            if (!patientRepository.existsById(patientAllergyDto.getPatientId())) {
+            // Verify patient exists, findById is answered from the second-level cache where existsById always queries
+            if (patientRepository.findById(patientAllergyDto.getPatientId()).isEmpty()) {
                 throw new PatientNotFoundException(patientAllergyDto.getPatientId());
             }
 
@@ -81,8 +82,21 @@ public class PatientAllergyServiceImpl implements PatientAllergyService {
     public Page<PatientAllergyDto> findAll(Pageable pageable) {
         log.info("Finding all patient allergies with pagination: {}", pageable);
 
-        Page<PatientAllergy> allergies = patientAllergyRepository.findAll(pageable);
-        return allergies.map(patientAllergyMapper::patientAllergyToPatientAllergyDto);
+        Page<PatientAllergyView> allergies = patientAllergyRepository.findAllViews(pageable);
+        return allergies.map(patientAllergyMapper::patientAllergyViewToPatientAllergyDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientAllergyDto> scroll(String cursor, int size) {
+        log.info("Scrolling patient allergies after cursor: {}", cursor);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = CursorPageDto.fetchLimit(size);
+        List<PatientAllergyView> rows = after == null
+                ? patientAllergyRepository.findAllByOrderByIdAsc(limit)
+                : patientAllergyRepository.findByIdGreaterThanOrderByIdAsc(after.id(), limit);
+        return CursorPageDto.of(rows, size, patientAllergyMapper::patientAllergyViewToPatientAllergyDto, row -> KeysetCursor.after(row.id()));
     }
 
     @Override
@@ -145,9 +159,9 @@ public class PatientAllergyServiceImpl implements PatientAllergyService {
     public List<PatientAllergyDto> findByPatientId(UUID patientId) {
         log.info("Finding allergies for patient ID: {}", patientId);
 
-        List<PatientAllergy> allergies = patientAllergyRepository.findByPatientId(patientId);
+        List<PatientAllergyView> allergies = patientAllergyRepository.findByPatientId(patientId);
         return allergies.stream()
-                .map(patientAllergyMapper::patientAllergyToPatientAllergyDto)
+                .map(patientAllergyMapper::patientAllergyViewToPatientAllergyDto)
                 .collect(Collectors.toList());
     }
 
@@ -156,8 +170,8 @@ public class PatientAllergyServiceImpl implements PatientAllergyService {
     public Page<PatientAllergyDto> findByPatientId(UUID patientId, Pageable pageable) {
         log.info("Finding allergies for patient ID: {} with pagination", patientId);
 
-        Page<PatientAllergy> allergies = patientAllergyRepository.findByPatientId(patientId, pageable);
-        return allergies.map(patientAllergyMapper::patientAllergyToPatientAllergyDto);
+        Page<PatientAllergyView> allergies = patientAllergyRepository.findByPatientId(patientId, pageable);
+        return allergies.map(patientAllergyMapper::patientAllergyViewToPatientAllergyDto);
     }
 
     @Override
@@ -165,9 +179,9 @@ public class PatientAllergyServiceImpl implements PatientAllergyService {
     public List<PatientAllergyDto> findByAllergen(String allergen) {
         log.info("Finding allergies by allergen: {}", allergen);
 
-        List<PatientAllergy> allergies = patientAllergyRepository.findByAllergenContainingIgnoreCase(allergen);
+        List<PatientAllergyView> allergies = patientAllergyRepository.findByAllergenContainingIgnoreCase(allergen);
         return allergies.stream()
-                .map(patientAllergyMapper::patientAllergyToPatientAllergyDto)
+                .map(patientAllergyMapper::patientAllergyViewToPatientAllergyDto)
                 .collect(Collectors.toList());
     }
 
@@ -176,8 +190,8 @@ public class PatientAllergyServiceImpl implements PatientAllergyService {
     public Page<PatientAllergyDto> findByAllergen(String allergen, Pageable pageable) {
         log.info("Finding allergies by allergen: {} with pagination", allergen);
 
-        Page<PatientAllergy> allergies = patientAllergyRepository.findByAllergenContainingIgnoreCase(allergen, pageable);
-        return allergies.map(patientAllergyMapper::patientAllergyToPatientAllergyDto);
+        Page<PatientAllergyView> allergies = patientAllergyRepository.findByAllergenContainingIgnoreCase(allergen, pageable);
+        return allergies.map(patientAllergyMapper::patientAllergyViewToPatientAllergyDto);
     }
 
 
@@ -279,11 +293,10 @@ public class PatientAllergyServiceImpl implements PatientAllergyService {
     public List<PatientAllergyDto> createBatch(List<PatientAllergyDto> patientAllergyDtos) {
         log.info("Creating batch of {} patient allergies", patientAllergyDtos.size());
 
-        try {
-            List<PatientAllergy> allergies = patientAllergyDtos.stream()
-                    .map(patientAllergyMapper::patientAllergyDtoToPatientAllergy)
-                    .collect(Collectors.toList());
+        List<PatientAllergy> allergies = patientBatchBinder.bind(patientAllergyDtos, PatientAllergyDto::getPatientId,
+                patientAllergyMapper::patientAllergyDtoToPatientAllergy);
 
+        try {
             List<PatientAllergy> savedAllergies = patientAllergyRepository.saveAll(allergies);
 
             return savedAllergies.stream()
@@ -326,11 +339,10 @@ public class PatientAllergyServiceImpl implements PatientAllergyService {
     public List<String> getCriticalAllergies(UUID patientId) {
         log.info("Getting critical allergies for patient ID: {}", patientId);
 
-        List<PatientAllergy> allergies = patientAllergyRepository.findByPatientId(patientId);
+        List<String> allergens = patientAllergyRepository.findAllergensByPatientId(patientId);
 
-        return allergies.stream()
-                .map(PatientAllergy::getAllergen)
-                .filter(allergen -> CRITICAL_ALLERGENS.stream()
+        return allergens.stream()
+                .filter(allergen -> RiskFactor.CRITICAL_ALLERGENS.stream()
                         .anyMatch(critical -> allergen.toLowerCase().contains(critical.toLowerCase())))
                 .collect(Collectors.toList());
     }
@@ -350,10 +362,7 @@ public class PatientAllergyServiceImpl implements PatientAllergyService {
     @Override
     @Transactional(readOnly = true)
     public List<String> getAllergens(UUID patientId) {
-        List<PatientAllergy> allergies = patientAllergyRepository.findByPatientId(patientId);
-        return allergies.stream()
-                .map(PatientAllergy::getAllergen)
-                .collect(Collectors.toList());
+        return patientAllergyRepository.findAllergensByPatientId(patientId);
     }
 
 }
@@ -1,5 +1,7 @@
 package com.tintsteps.patientservice.service.impl;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.KeysetCursor;
 import com.tintsteps.patientservice.dto.PatientAppointmentDto;
 import com.tintsteps.patientservice.exception.PatientNotFoundException;
 import com.tintsteps.patientservice.exception.PatientServiceException;
@@ -7,10 +9,13 @@ import com.tintsteps.patientservice.mapper.PatientAppointmentMapper;
 import com.tintsteps.patientservice.model.Patient;
 import com.tintsteps.patientservice.model.PatientAppointment;
 import com.tintsteps.patientservice.repository.PatientAppointmentRepository;
+import com.tintsteps.patientservice.repository.PatientAppointmentView;
 import com.tintsteps.patientservice.repository.PatientRepository;
 import com.tintsteps.patientservice.service.PatientAppointmentService;
+import com.tintsteps.patientservice.service.PatientBatchBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +32,7 @@ public class PatientAppointmentServiceImpl implements PatientAppointmentService
 
     private final PatientAppointmentRepository patientAppointmentRepository;
     private final PatientRepository patientRepository;
+    private final PatientBatchBinder patientBatchBinder;
     private final PatientAppointmentMapper patientAppointmentMapper = PatientAppointmentMapper.INSTANCE;
 
     @Override
@@ -83,9 +89,9 @@ public class PatientAppointmentServiceImpl implements PatientAppointmentService
     public List<PatientAppointmentDto> findByPatientId(UUID patientId) {
         log.info("Finding patient appointments by patient ID: {}", patientId);
 
-        List<PatientAppointment> appointments = patientAppointmentRepository.findByPatientId(patientId);
+        List<PatientAppointmentView> appointments = patientAppointmentRepository.findByPatientId(patientId);
         return appointments.stream()
-                .map(patientAppointmentMapper::patientAppointmentToPatientAppointmentDto)
+                .map(patientAppointmentMapper::patientAppointmentViewToPatientAppointmentDto)
                 .collect(Collectors.toList());
     }
 
@@ -94,8 +100,21 @@ public class PatientAppointmentServiceImpl implements PatientAppointmentService
     public Page<PatientAppointmentDto> findAll(Pageable pageable) {
         log.info("Finding all patient appointments with pagination");
 
-        Page<PatientAppointment> appointments = patientAppointmentRepository.findAll(pageable);
-        return appointments.map(patientAppointmentMapper::patientAppointmentToPatientAppointmentDto);
+        Page<PatientAppointmentView> appointments = patientAppointmentRepository.findAllViews(pageable);
+        return appointments.map(patientAppointmentMapper::patientAppointmentViewToPatientAppointmentDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientAppointmentDto> scroll(String cursor, int size) {
+        log.info("Scrolling patient appointments after cursor: {}", cursor);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = CursorPageDto.fetchLimit(size);
+        List<PatientAppointmentView> rows = after == null
+                ? patientAppointmentRepository.findAllByOrderByIdAsc(limit)
+                : patientAppointmentRepository.findByIdGreaterThanOrderByIdAsc(after.id(), limit);
+        return CursorPageDto.of(rows, size, patientAppointmentMapper::patientAppointmentViewToPatientAppointmentDto, row -> KeysetCursor.after(row.id()));
     }
 
     @Override
@@ -150,9 +169,9 @@ public class PatientAppointmentServiceImpl implements PatientAppointmentService
     public List<PatientAppointmentDto> findByAppointmentId(UUID appointmentId) {
         log.info("Finding patient appointments by appointment ID: {}", appointmentId);
 
-        List<PatientAppointment> appointments = patientAppointmentRepository.findByAppointmentId(appointmentId);
+        List<PatientAppointmentView> appointments = patientAppointmentRepository.findByAppointmentId(appointmentId);
         return appointments.stream()
-                .map(patientAppointmentMapper::patientAppointmentToPatientAppointmentDto)
+                .map(patientAppointmentMapper::patientAppointmentViewToPatientAppointmentDto)
                 .collect(Collectors.toList());
     }
 
@@ -161,8 +180,8 @@ public class PatientAppointmentServiceImpl implements PatientAppointmentService
     public Page<PatientAppointmentDto> findByPatientId(UUID patientId, Pageable pageable) {
         log.info("Finding patient appointments by patient ID: {} with pagination", patientId);
 
-        Page<PatientAppointment> appointments = patientAppointmentRepository.findByPatientId(patientId, pageable);
-        return appointments.map(patientAppointmentMapper::patientAppointmentToPatientAppointmentDto);
+        Page<PatientAppointmentView> appointments = patientAppointmentRepository.findByPatientId(patientId, pageable);
+        return appointments.map(patientAppointmentMapper::patientAppointmentViewToPatientAppointmentDto);
     }
 
 
@@ -172,8 +191,8 @@ public class PatientAppointmentServiceImpl implements PatientAppointmentService
         log.info("Searching patient appointments with multiple criteria");
 
         // For now, implement basic search - can be enhanced with Specifications
-        Page<PatientAppointment> appointments = patientAppointmentRepository.findAll(pageable);
-        return appointments.map(patientAppointmentMapper::patientAppointmentToPatientAppointmentDto);
+        Page<PatientAppointmentView> appointments = patientAppointmentRepository.findAllViews(pageable);
+        return appointments.map(patientAppointmentMapper::patientAppointmentViewToPatientAppointmentDto);
     }
 
     // Business Operations
@@ -301,17 +320,10 @@ public class PatientAppointmentServiceImpl implements PatientAppointmentService
     public List<PatientAppointmentDto> createBatch(List<PatientAppointmentDto> patientAppointmentDtos) {
         log.info("Creating batch of {} patient appointments", patientAppointmentDtos.size());
 
-        try {
-            List<PatientAppointment> appointments = patientAppointmentDtos.stream()
-                    .map(dto -> {
-                        Patient patient = patientRepository.findById(dto.getPatientId())
-                                .orElseThrow(() -> new PatientNotFoundException(dto.getPatientId()));
-                        PatientAppointment appointment = patientAppointmentMapper.patientAppointmentDtoToPatientAppointment(dto);
-                        appointment.setPatient(patient);
-                        return appointment;
-                    })
-                    .collect(Collectors.toList());
+        List<PatientAppointment> appointments = patientBatchBinder.bind(patientAppointmentDtos, PatientAppointmentDto::getPatientId,
+                patientAppointmentMapper::patientAppointmentDtoToPatientAppointment);
 
+        try {
             List<PatientAppointment> savedAppointments = patientAppointmentRepository.saveAll(appointments);
             return savedAppointments.stream()
                     .map(patientAppointmentMapper::patientAppointmentToPatientAppointmentDto)
@@ -354,10 +366,7 @@ public class PatientAppointmentServiceImpl implements PatientAppointmentService
     @Transactional(readOnly = true)
     @Override
     public List<UUID> getAppointmentIds(UUID patientId) {
-        List<PatientAppointment> appointments = patientAppointmentRepository.findByPatientId(patientId);
-        return appointments.stream()
-                .map(PatientAppointment::getAppointmentId)
-                .collect(Collectors.toList());
+        return patientAppointmentRepository.findAppointmentIdsByPatientId(patientId);
     }
 
 }
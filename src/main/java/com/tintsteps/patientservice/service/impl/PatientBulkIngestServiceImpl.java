@@ -0,0 +1,405 @@
+package com.tintsteps.patientservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.tintsteps.patientservice.config.SecondLevelCacheConfig;
+import com.tintsteps.patientservice.dto.BulkIngestReportDto;
+import com.tintsteps.patientservice.dto.PatientAddressDto;
+import com.tintsteps.patientservice.dto.PatientAllergyDto;
+import com.tintsteps.patientservice.dto.PatientAppointmentDto;
+import com.tintsteps.patientservice.dto.PatientDto;
+import com.tintsteps.patientservice.dto.PatientEmergencyContactDto;
+import com.tintsteps.patientservice.dto.PatientInsuranceDto;
+import com.tintsteps.patientservice.dto.PatientMedicalHistoryDto;
+import com.tintsteps.patientservice.dto.PatientMedicationDto;
+import com.tintsteps.patientservice.event.PatientDataChangedEvent;
+import com.tintsteps.patientservice.exception.PatientServiceException;
+import com.tintsteps.patientservice.model.BulkIngestRecordType;
+import com.tintsteps.patientservice.model.Patient;
+import com.tintsteps.patientservice.model.PatientAddress;
+import com.tintsteps.patientservice.model.PatientAllergy;
+import com.tintsteps.patientservice.model.PatientAppointment;
+import com.tintsteps.patientservice.model.PatientEmergencyContact;
+import com.tintsteps.patientservice.model.PatientInsurance;
+import com.tintsteps.patientservice.model.PatientMedicalHistory;
+import com.tintsteps.patientservice.model.PatientMedication;
+import com.tintsteps.patientservice.repository.BinaryCopyWriter;
+import com.tintsteps.patientservice.repository.PatientBulkCopyRepository;
+import com.tintsteps.patientservice.service.PatientBatchBinder;
+import com.tintsteps.patientservice.service.PatientBulkIngestService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class PatientBulkIngestServiceImpl implements PatientBulkIngestService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // weight_kg is DECIMAL(5,2)
+    private static final BigDecimal MAX_WEIGHT_KG = new BigDecimal("1000");
+
+    private final PatientBatchBinder patientBatchBinder;
+    private final PatientBulkCopyRepository bulkCopyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int chunkSize;
+    private final Map<BulkIngestRecordType, Target<?>> targets = new EnumMap<>(BulkIngestRecordType.class);
+
+    public PatientBulkIngestServiceImpl(PatientBatchBinder patientBatchBinder,
+                                        PatientBulkCopyRepository bulkCopyRepository,
+                                        TransactionTemplate transactionTemplate,
+                                        ApplicationEventPublisher eventPublisher,
+                                        ObjectMapper objectMapper,
+                                        EntityManagerFactory entityManagerFactory,
+                                        @Value("${patient.bulk-ingest.chunk-size:5000}") int chunkSize) {
+        this.patientBatchBinder = patientBatchBinder;
+        this.bulkCopyRepository = bulkCopyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.chunkSize = chunkSize;
+
+        targets.put(BulkIngestRecordType.PATIENTS, new Target<>(PatientDto.class, Patient.class, PatientDto::getId,
+                "patients", List.of("id", "user_id", "date_of_birth", "gender", "blood_group", "height_cm", "weight_kg"),
+                patient -> firstProblem(
+                        required(patient.getUserId(), "userId"),
+                        maxLength(patient.getBloodGroup(), 5, "bloodGroup"),
+                        patient.getWeightKg() != null && patient.getWeightKg().abs().compareTo(MAX_WEIGHT_KG) >= 0
+                                ? "weightKg must be below " + MAX_WEIGHT_KG : null),
+                this::acceptPatients,
+                (writer, patient) -> {
+                    writer.writeUuid(patient.getId());
+                    writer.writeUuid(patient.getUserId());
+                    writer.writeDate(patient.getDateOfBirth());
+                    writer.writeText(patient.getGender());
+                    writer.writeText(patient.getBloodGroup());
+                    writer.writeInt(patient.getHeightCm());
+                    writer.writeNumeric(patient.getWeightKg());
+                }));
+
+        targets.put(BulkIngestRecordType.ALLERGIES, childTarget(PatientAllergyDto.class, PatientAllergy.class, PatientAllergyDto::getPatientId,
+                "patient_allergies", List.of("id", "patient_id", "allergen", "reaction"),
+                allergy -> firstProblem(
+                        required(allergy.getPatientId(), "patientId"),
+                        required(allergy.getAllergen(), "allergen"),
+                        maxLength(allergy.getAllergen(), 100, "allergen"),
+                        maxLength(allergy.getReaction(), 255, "reaction")),
+                (writer, allergy) -> {
+                    writer.writeUuid(UUID.randomUUID());
+                    writer.writeUuid(allergy.getPatientId());
+                    writer.writeText(allergy.getAllergen());
+                    writer.writeText(allergy.getReaction());
+                }));
+
+        targets.put(BulkIngestRecordType.MEDICATIONS, childTarget(PatientMedicationDto.class, PatientMedication.class, PatientMedicationDto::getPatientId,
+                "patient_medications", List.of("id", "patient_id", "medication_name", "dosage", "start_date", "end_date"),
+                medication -> firstProblem(
+                        required(medication.getPatientId(), "patientId"),
+                        required(medication.getMedicationName(), "medicationName"),
+                        maxLength(medication.getMedicationName(), 100, "medicationName"),
+                        maxLength(medication.getDosage(), 50, "dosage")),
+                (writer, medication) -> {
+                    writer.writeUuid(UUID.randomUUID());
+                    writer.writeUuid(medication.getPatientId());
+                    writer.writeText(medication.getMedicationName());
+                    writer.writeText(medication.getDosage());
+                    writer.writeDate(medication.getStartDate());
+                    writer.writeDate(medication.getEndDate());
+                }));
+
+        // recorded_at is left to the column default, as the JPA path sets it on insert
+        targets.put(BulkIngestRecordType.MEDICAL_HISTORY, childTarget(PatientMedicalHistoryDto.class, PatientMedicalHistory.class, PatientMedicalHistoryDto::getPatientId,
+                "patient_medical_history", List.of("id", "patient_id", "condition", "notes"),
+                history -> firstProblem(
+                        required(history.getPatientId(), "patientId"),
+                        required(history.getCondition(), "condition"),
+                        maxLength(history.getCondition(), 255, "condition")),
+                (writer, history) -> {
+                    writer.writeUuid(UUID.randomUUID());
+                    writer.writeUuid(history.getPatientId());
+                    writer.writeText(history.getCondition());
+                    writer.writeText(history.getNotes());
+                }));
+
+        targets.put(BulkIngestRecordType.EMERGENCY_CONTACTS, childTarget(PatientEmergencyContactDto.class, PatientEmergencyContact.class, PatientEmergencyContactDto::getPatientId,
+                "patient_emergency_contacts", List.of("id", "patient_id", "name", "relationship", "phone"),
+                contact -> firstProblem(
+                        required(contact.getPatientId(), "patientId"),
+                        required(contact.getName(), "name"),
+                        required(contact.getPhone(), "phone"),
+                        maxLength(contact.getName(), 100, "name"),
+                        maxLength(contact.getRelationship(), 50, "relationship"),
+                        maxLength(contact.getPhone(), 20, "phone")),
+                (writer, contact) -> {
+                    writer.writeUuid(UUID.randomUUID());
+                    writer.writeUuid(contact.getPatientId());
+                    writer.writeText(contact.getName());
+                    writer.writeText(contact.getRelationship());
+                    writer.writeText(contact.getPhone());
+                }));
+
+        targets.put(BulkIngestRecordType.INSURANCE, childTarget(PatientInsuranceDto.class, PatientInsurance.class, PatientInsuranceDto::getPatientId,
+                "patient_insurance", List.of("id", "patient_id", "provider", "policy_number", "coverage_details"),
+                insurance -> firstProblem(
+                        required(insurance.getPatientId(), "patientId"),
+                        maxLength(insurance.getProvider(), 100, "provider"),
+                        maxLength(insurance.getPolicyNumber(), 50, "policyNumber")),
+                (writer, insurance) -> {
+                    writer.writeUuid(UUID.randomUUID());
+                    writer.writeUuid(insurance.getPatientId());
+                    writer.writeText(insurance.getProvider());
+                    writer.writeText(insurance.getPolicyNumber());
+                    writer.writeText(insurance.getCoverageDetails());
+                }));
+
+        targets.put(BulkIngestRecordType.ADDRESSES, childTarget(PatientAddressDto.class, PatientAddress.class, PatientAddressDto::getPatientId,
+                "patient_addresses", List.of("id", "patient_id", "address_id"),
+                address -> firstProblem(
+                        required(address.getPatientId(), "patientId"),
+                        required(address.getAddressId(), "addressId")),
+                (writer, address) -> {
+                    writer.writeUuid(UUID.randomUUID());
+                    writer.writeUuid(address.getPatientId());
+                    writer.writeUuid(address.getAddressId());
+                }));
+
+        targets.put(BulkIngestRecordType.APPOINTMENTS, childTarget(PatientAppointmentDto.class, PatientAppointment.class, PatientAppointmentDto::getPatientId,
+                "patient_appointments", List.of("id", "patient_id", "appointment_id"),
+                appointment -> firstProblem(
+                        required(appointment.getPatientId(), "patientId"),
+                        required(appointment.getAppointmentId(), "appointmentId")),
+                (writer, appointment) -> {
+                    writer.writeUuid(UUID.randomUUID());
+                    writer.writeUuid(appointment.getPatientId());
+                    writer.writeUuid(appointment.getAppointmentId());
+                }));
+    }
+
+    @Override
+    public BulkIngestReportDto ingest(BulkIngestRecordType recordType, InputStream input) {
+        log.info("Bulk ingesting {} in chunks of {}", recordType.getPath(), chunkSize);
+        return ingest(recordType, targets.get(recordType), input);
+    }
+
+    private <T> BulkIngestReportDto ingest(BulkIngestRecordType recordType, Target<T> target, InputStream input) {
+        ObjectReader reader = objectMapper.readerFor(target.dtoClass());
+        Progress progress = new Progress();
+        List<Row<T>> chunk = new ArrayList<>(chunkSize);
+        long start = System.nanoTime();
+
+        long lineNumber = 0;
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.received++;
+
+                T record;
+                try {
+                    record = reader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    progress.reject(lineNumber, "Invalid record: " + e.getOriginalMessage());
+                    continue;
+                }
+                String problem = record == null ? "Empty record" : target.validator().apply(record);
+                if (problem != null) {
+                    progress.reject(lineNumber, problem);
+                    continue;
+                }
+
+                chunk.add(new Row<>(lineNumber, record));
+                if (chunk.size() == chunkSize) {
+                    writeChunk(target, chunk, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(target, chunk, progress);
+            }
+        } catch (IOException e) {
+            // Chunks written so far stay committed
+            log.error("Bulk ingest of {} failed reading line {} after {} inserted rows: {}",
+                    recordType.getPath(), lineNumber + 1, progress.inserted, e.getMessage(), e);
+            throw new PatientServiceException("Failed to read bulk ingest input", e);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        log.info("Bulk ingested {} {}: {} inserted, {} failed, {} chunks in {} ms",
+                progress.received, recordType.getPath(), progress.inserted, progress.failed, progress.chunks,
+                elapsedNanos / 1_000_000);
+
+        return BulkIngestReportDto.builder()
+                .recordType(recordType)
+                .received(progress.received)
+                .inserted(progress.inserted)
+                .failed(progress.failed)
+                .chunks(progress.chunks)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .rowsPerSecond(elapsedNanos == 0 ? 0 : progress.inserted * 1_000_000_000.0 / elapsedNanos)
+                .errors(progress.errors)
+                .errorsTruncated(progress.failed > progress.errors.size())
+                .build();
+    }
+
+    // One transaction per chunk: resolve references, then COPY the rows that passed
+    private <T> void writeChunk(Target<T> target, List<Row<T>> chunk, Progress progress) {
+        progress.chunks++;
+        List<Row<T>> accepted = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                accepted.addAll(target.resolver().accept(chunk, progress));
+                if (!accepted.isEmpty()) {
+                    List<T> records = accepted.stream().map(Row::record).collect(Collectors.toList());
+                    bulkCopyRepository.copy(target.table(), target.columns(), records, target.encoder());
+                }
+            });
+        } catch (DataAccessException e) {
+            String message = "Chunk rejected by the database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Bulk ingest chunk of {} rows into {} failed: {}", accepted.size(), target.table(), e.getMessage());
+            accepted.forEach(row -> progress.reject(row.line(), message));
+            return;
+        }
+        progress.inserted += accepted.size();
+        if (!accepted.isEmpty()) {
+            // Hibernate does not see COPY either, so its cached distinct-value lists are dropped by hand
+            entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                    .evictQueryRegion(SecondLevelCacheConfig.DISTINCT_VALUES_REGION);
+        }
+
+        // COPY bypasses the JPA listeners, publish the change for the risk index and snapshot caches here
+        if (!accepted.isEmpty()) {
+            Set<UUID> patientIds = accepted.stream()
+                    .map(row -> target.patientId().apply(row.record()))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            eventPublisher.publishEvent(new PatientDataChangedEvent(Set.copyOf(patientIds), Set.of(target.recordClass())));
+        }
+    }
+
+    // New patients keep a client supplied ID so child files can reference them, and need a unique ID and user ID
+    private List<Row<PatientDto>> acceptPatients(List<Row<PatientDto>> rows, Progress progress) {
+        rows.stream()
+                .filter(row -> row.record().getId() == null)
+                .forEach(row -> row.record().setId(UUID.randomUUID()));
+
+        Set<UUID> existingIds = patientBatchBinder.findExistingIds(
+                rows.stream().map(row -> row.record().getId()).toList());
+        Set<UUID> existingUserIds = patientBatchBinder.findExistingUserIds(
+                rows.stream().map(row -> row.record().getUserId()).toList());
+
+        Set<UUID> chunkIds = new HashSet<>();
+        Set<UUID> chunkUserIds = new HashSet<>();
+        List<Row<PatientDto>> accepted = new ArrayList<>(rows.size());
+        for (Row<PatientDto> row : rows) {
+            PatientDto patient = row.record();
+            if (existingIds.contains(patient.getId()) || !chunkIds.add(patient.getId())) {
+                progress.reject(row.line(), "Patient already exists with ID: " + patient.getId());
+            } else if (existingUserIds.contains(patient.getUserId()) || !chunkUserIds.add(patient.getUserId())) {
+                progress.reject(row.line(), "Patient already exists for user ID: " + patient.getUserId());
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private <T> List<Row<T>> acceptChildren(List<Row<T>> rows, Progress progress, Function<T, UUID> patientId) {
+        Set<UUID> existingPatientIds = patientBatchBinder.findExistingIds(
+                rows.stream().map(row -> patientId.apply(row.record())).toList());
+
+        List<Row<T>> accepted = new ArrayList<>(rows.size());
+        for (Row<T> row : rows) {
+            UUID id = patientId.apply(row.record());
+            if (existingPatientIds.contains(id)) {
+                accepted.add(row);
+            } else {
+                progress.reject(row.line(), "Patient not found with ID: " + id);
+            }
+        }
+        return accepted;
+    }
+
+    private <T> Target<T> childTarget(Class<T> dtoClass, Class<?> recordClass, Function<T, UUID> patientId,
+                                      String table, List<String> columns, Function<T, String> validator,
+                                      BinaryCopyWriter.RowEncoder<T> encoder) {
+        return new Target<>(dtoClass, recordClass, patientId, table, columns, validator,
+                (rows, progress) -> acceptChildren(rows, progress, patientId), encoder);
+    }
+
+    private static String firstProblem(String... problems) {
+        for (String problem : problems) {
+            if (problem != null) {
+                return problem;
+            }
+        }
+        return null;
+    }
+
+    private static String required(Object value, String field) {
+        return value == null || (value instanceof String text && text.isBlank()) ? field + " is required" : null;
+    }
+
+    private static String maxLength(String value, int maxLength, String field) {
+        return value != null && value.length() > maxLength ? field + " must be at most " + maxLength + " characters" : null;
+    }
+
+    private record Row<T>(long line, T record) {
+    }
+
+    @FunctionalInterface
+    private interface ChunkResolver<T> {
+        List<Row<T>> accept(List<Row<T>> rows, Progress progress);
+    }
+
+    private record Target<T>(Class<T> dtoClass, Class<?> recordClass, Function<T, UUID> patientId,
+                             String table, List<String> columns,
+                             Function<T, String> validator, ChunkResolver<T> resolver,
+                             BinaryCopyWriter.RowEncoder<T> encoder) {
+    }
+
+    private static final class Progress {
+
+        private long received;
+        private long inserted;
+        private long failed;
+        private int chunks;
+        private final List<BulkIngestReportDto.RowError> errors = new ArrayList<>();
+
+        private void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkIngestReportDto.RowError(line, message));
+            }
+        }
+    }
+}
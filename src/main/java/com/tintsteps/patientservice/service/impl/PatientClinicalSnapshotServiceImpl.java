@@ -0,0 +1,96 @@
+package com.tintsteps.patientservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tintsteps.patientservice.config.PrimaryReads;
+import com.tintsteps.patientservice.dto.PatientClinicalSnapshotDto;
+import com.tintsteps.patientservice.dto.PatientMedicationDto;
+import com.tintsteps.patientservice.event.PatientDataChangedEvent;
+import com.tintsteps.patientservice.service.PatientAllergyService;
+import com.tintsteps.patientservice.service.PatientClinicalSnapshotService;
+import com.tintsteps.patientservice.service.PatientMedicalHistoryService;
+import com.tintsteps.patientservice.service.PatientMedicationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bounded per-patient cache of clinical snapshots. Entries are evicted after every committed
+ * write to a patient's child records on this node, and expire after a fixed time so that
+ * date-dependent facts such as current medications roll over.
+ */
+@Slf4j
+@Service
+public class PatientClinicalSnapshotServiceImpl implements PatientClinicalSnapshotService {
+
+    private final PatientAllergyService patientAllergyService;
+    private final PatientMedicationService patientMedicationService;
+    private final PatientMedicalHistoryService patientMedicalHistoryService;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Cache<UUID, PatientClinicalSnapshotDto> snapshots;
+
+    public PatientClinicalSnapshotServiceImpl(PatientAllergyService patientAllergyService,
+                                              PatientMedicationService patientMedicationService,
+                                              PatientMedicalHistoryService patientMedicalHistoryService,
+                                              PlatformTransactionManager transactionManager,
+                                              MeterRegistry meterRegistry,
+                                              @Value("${patient.snapshot-cache.maximum-size:10000}") long maximumSize,
+                                              @Value("${patient.snapshot-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.patientAllergyService = patientAllergyService;
+        this.patientMedicationService = patientMedicationService;
+        this.patientMedicalHistoryService = patientMedicalHistoryService;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "patientClinicalSnapshots");
+    }
+
+    @Override
+    public PatientClinicalSnapshotDto getSnapshot(UUID patientId) {
+        // Only a miss opens a transaction, hits never touch the connection pool. The miss reads the
+        // primary, a replica still behind the write that evicted the entry would refill it stale
+        return snapshots.get(patientId, id -> PrimaryReads.call(() -> readOnlyTransactionTemplate.execute(status -> load(id))));
+    }
+
+    @Override
+    public void evict(UUID patientId) {
+        snapshots.invalidate(patientId);
+    }
+
+    @EventListener
+    public void onPatientDataChanged(PatientDataChangedEvent event) {
+        log.debug("Evicting clinical snapshots of {} patients", event.patientIds().size());
+        snapshots.invalidateAll(event.patientIds());
+    }
+
+    private PatientClinicalSnapshotDto load(UUID patientId) {
+        log.info("Loading clinical snapshot for patient ID: {}", patientId);
+
+        List<PatientMedicationDto> currentMedications = patientMedicationService.getCurrentMedicationsForPatient(patientId);
+
+        // Snapshots are shared between requests, so every list is immutable
+        return PatientClinicalSnapshotDto.builder()
+                .patientId(patientId)
+                .allergens(List.copyOf(patientAllergyService.getAllergens(patientId)))
+                .criticalAllergies(List.copyOf(patientAllergyService.getCriticalAllergies(patientId)))
+                .currentMedications(List.copyOf(currentMedications))
+                .activeMedicationNames(currentMedications.stream()
+                        .map(PatientMedicationDto::getMedicationName)
+                        .toList())
+                .chronicConditions(List.copyOf(patientMedicalHistoryService.getChronicConditions(patientId)))
+                .build();
+    }
+}
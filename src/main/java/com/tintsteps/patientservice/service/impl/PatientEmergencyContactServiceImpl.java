@@ -1,5 +1,7 @@
 package com.tintsteps.patientservice.service.impl;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.KeysetCursor;
 import com.tintsteps.patientservice.dto.PatientEmergencyContactDto;
 import com.tintsteps.patientservice.exception.PatientNotFoundException;
 import com.tintsteps.patientservice.exception.PatientServiceException;
@@ -7,10 +9,13 @@ import com.tintsteps.patientservice.mapper.PatientEmergencyContactMapper;
 import com.tintsteps.patientservice.model.Patient;
 import com.tintsteps.patientservice.model.PatientEmergencyContact;
 import com.tintsteps.patientservice.repository.PatientEmergencyContactRepository;
+import com.tintsteps.patientservice.repository.PatientEmergencyContactView;
 import com.tintsteps.patientservice.repository.PatientRepository;
+import com.tintsteps.patientservice.service.PatientBatchBinder;
 import com.tintsteps.patientservice.service.PatientEmergencyContactService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +32,7 @@ public class PatientEmergencyContactServiceImpl implements PatientEmergencyConta
 
     private final PatientEmergencyContactRepository patientEmergencyContactRepository;
     private final PatientRepository patientRepository;
+    private final PatientBatchBinder patientBatchBinder;
     private final PatientEmergencyContactMapper patientEmergencyContactMapper = PatientEmergencyContactMapper.INSTANCE;
 
     @Override
@@ -74,9 +80,9 @@ public class PatientEmergencyContactServiceImpl implements PatientEmergencyConta
     public List<PatientEmergencyContactDto> findByPatientId(UUID patientId) {
         log.info("Finding emergency contacts by patient ID: {}", patientId);
 
-        List<PatientEmergencyContact> contacts = patientEmergencyContactRepository.findByPatientId(patientId);
+        List<PatientEmergencyContactView> contacts = patientEmergencyContactRepository.findByPatientId(patientId);
         return contacts.stream()
-                .map(patientEmergencyContactMapper::patientEmergencyContactToPatientEmergencyContactDto)
+                .map(patientEmergencyContactMapper::patientEmergencyContactViewToPatientEmergencyContactDto)
                 .collect(Collectors.toList());
     }
 
@@ -85,8 +91,21 @@ public class PatientEmergencyContactServiceImpl implements PatientEmergencyConta
     public Page<PatientEmergencyContactDto> findAll(Pageable pageable) {
         log.info("Finding all emergency contacts with pagination");
 
-        Page<PatientEmergencyContact> contacts = patientEmergencyContactRepository.findAll(pageable);
-        return contacts.map(patientEmergencyContactMapper::patientEmergencyContactToPatientEmergencyContactDto);
+        Page<PatientEmergencyContactView> contacts = patientEmergencyContactRepository.findAllViews(pageable);
+        return contacts.map(patientEmergencyContactMapper::patientEmergencyContactViewToPatientEmergencyContactDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientEmergencyContactDto> scroll(String cursor, int size) {
+        log.info("Scrolling emergency contacts after cursor: {}", cursor);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = CursorPageDto.fetchLimit(size);
+        List<PatientEmergencyContactView> rows = after == null
+                ? patientEmergencyContactRepository.findAllByOrderByIdAsc(limit)
+                : patientEmergencyContactRepository.findByIdGreaterThanOrderByIdAsc(after.id(), limit);
+        return CursorPageDto.of(rows, size, patientEmergencyContactMapper::patientEmergencyContactViewToPatientEmergencyContactDto, row -> KeysetCursor.after(row.id()));
     }
 
     @Override
@@ -146,8 +165,8 @@ public class PatientEmergencyContactServiceImpl implements PatientEmergencyConta
     @Override
     @Transactional(readOnly = true)
     public Page<PatientEmergencyContactDto> findByRelationship(String relationship, Pageable pageable) {
-        Page<PatientEmergencyContact> contacts = patientEmergencyContactRepository.findByRelationshipContainingIgnoreCase(relationship, pageable);
-        return contacts.map(patientEmergencyContactMapper::patientEmergencyContactToPatientEmergencyContactDto);
+        Page<PatientEmergencyContactView> contacts = patientEmergencyContactRepository.findByRelationshipContainingIgnoreCase(relationship, pageable);
+        return contacts.map(patientEmergencyContactMapper::patientEmergencyContactViewToPatientEmergencyContactDto);
     }
 
 
@@ -155,8 +174,8 @@ public class PatientEmergencyContactServiceImpl implements PatientEmergencyConta
     @Override
     @Transactional(readOnly = true)
     public Page<PatientEmergencyContactDto> findByPatientId(UUID patientId, Pageable pageable) {
-        Page<PatientEmergencyContact> contacts = patientEmergencyContactRepository.findByPatientId(patientId, pageable);
-        return contacts.map(patientEmergencyContactMapper::patientEmergencyContactToPatientEmergencyContactDto);
+        Page<PatientEmergencyContactView> contacts = patientEmergencyContactRepository.findByPatientId(patientId, pageable);
+        return contacts.map(patientEmergencyContactMapper::patientEmergencyContactViewToPatientEmergencyContactDto);
     }
 
 
@@ -164,8 +183,8 @@ public class PatientEmergencyContactServiceImpl implements PatientEmergencyConta
     @Transactional(readOnly = true)
     public Page<PatientEmergencyContactDto> searchContacts(UUID patientId, String name, String relationship, String phone, Pageable pageable) {
         // For now, implement basic search - can be enhanced with Specifications
-        Page<PatientEmergencyContact> contacts = patientEmergencyContactRepository.findAll(pageable);
-        return contacts.map(patientEmergencyContactMapper::patientEmergencyContactToPatientEmergencyContactDto);
+        Page<PatientEmergencyContactView> contacts = patientEmergencyContactRepository.findAllViews(pageable);
+        return contacts.map(patientEmergencyContactMapper::patientEmergencyContactViewToPatientEmergencyContactDto);
     }
 
     // Business Operations
@@ -199,10 +218,7 @@ public class PatientEmergencyContactServiceImpl implements PatientEmergencyConta
     public void removeEmergencyContact(UUID patientId, String phone) {
         log.info("Removing emergency contact for patient ID: {} with phone: {}", patientId, phone);
 
-        List<PatientEmergencyContact> contacts = patientEmergencyContactRepository.findByPatientId(patientId);
-        List<PatientEmergencyContact> contactsToDelete = contacts.stream()
-                .filter(contact -> contact.getPhone().equals(phone))
-                .collect(Collectors.toList());
+        List<PatientEmergencyContact> contactsToDelete = patientEmergencyContactRepository.findByPatientIdAndPhone(patientId, phone);
 
         if (!contactsToDelete.isEmpty()) {
             patientEmergencyContactRepository.deleteAll(contactsToDelete);
@@ -283,17 +299,10 @@ public class PatientEmergencyContactServiceImpl implements PatientEmergencyConta
     public List<PatientEmergencyContactDto> createBatch(List<PatientEmergencyContactDto> patientEmergencyContactDtos) {
         log.info("Creating batch of {} emergency contacts", patientEmergencyContactDtos.size());
 
-        try {
-            List<PatientEmergencyContact> contacts = patientEmergencyContactDtos.stream()
-                    .map(dto -> {
-                        Patient patient = patientRepository.findById(dto.getPatientId())
-                                .orElseThrow(() -> new PatientNotFoundException(dto.getPatientId()));
-                        PatientEmergencyContact contact = patientEmergencyContactMapper.patientEmergencyContactDtoToPatientEmergencyContact(dto);
-                        contact.setPatient(patient);
-                        return contact;
-                    })
-                    .collect(Collectors.toList());
+        List<PatientEmergencyContact> contacts = patientBatchBinder.bind(patientEmergencyContactDtos, PatientEmergencyContactDto::getPatientId,
+                patientEmergencyContactMapper::patientEmergencyContactDtoToPatientEmergencyContact);
 
+        try {
             List<PatientEmergencyContact> savedContacts = patientEmergencyContactRepository.saveAll(contacts);
             return savedContacts.stream()
                     .map(patientEmergencyContactMapper::patientEmergencyContactToPatientEmergencyContactDto)
@@ -322,10 +331,7 @@ public class PatientEmergencyContactServiceImpl implements PatientEmergencyConta
     @Override
     @Transactional(readOnly = true)
     public List<String> getEmergencyContactPhones(UUID patientId) {
-        List<PatientEmergencyContact> contacts = patientEmergencyContactRepository.findByPatientId(patientId);
-        return contacts.stream()
-                .map(PatientEmergencyContact::getPhone)
-                .collect(Collectors.toList());
+        return patientEmergencyContactRepository.findPhonesByPatientId(patientId);
     }
 
     @Override
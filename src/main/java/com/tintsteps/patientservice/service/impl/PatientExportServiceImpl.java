@@ -0,0 +1,76 @@
+package com.tintsteps.patientservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tintsteps.patientservice.dto.PatientExportDto;
+import com.tintsteps.patientservice.exception.PatientServiceException;
+import com.tintsteps.patientservice.repository.PatientRepository;
+import com.tintsteps.patientservice.service.PatientExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class PatientExportServiceImpl implements PatientExportService {
+
+    // Flush after this many lines so the client receives data while the export is running
+    private static final int FLUSH_EVERY_LINES = 100;
+
+    private final PatientRepository patientRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader exportReader;
+    private final ObjectWriter exportWriter;
+
+    public PatientExportServiceImpl(PatientRepository patientRepository, ObjectMapper objectMapper) {
+        this.patientRepository = patientRepository;
+        this.objectMapper = objectMapper;
+        // Dates come back as stored, yyyy-MM-dd or a timestamp without zone if Hibernate widened
+        // the column; read them in the JVM zone like the JPA path does
+        this.exportReader = objectMapper.readerFor(PatientExportDto.class).with(TimeZone.getDefault());
+        this.exportWriter = objectMapper.writerFor(PatientExportDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // The PostgreSQL driver only uses a server-side cursor inside a transaction
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPatients(boolean includeAllergies, boolean includeMedications, boolean includeMedicalHistory,
+                               OutputStream output) {
+        log.info("Exporting patients (allergies: {}, medications: {}, medical history: {})",
+                includeAllergies, includeMedications, includeMedicalHistory);
+
+        long lines = 0;
+        try (Stream<String> rows = patientRepository.streamExportJson(includeAllergies, includeMedications, includeMedicalHistory);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<String> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                PatientExportDto line = exportReader.readValue(iterator.next());
+                exportWriter.writeValue(generator, line);
+                generator.writeRaw('\n');
+                // Flush the first line at once for a fast first byte, then in batches
+                if (++lines == 1 || lines % FLUSH_EVERY_LINES == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            log.error("Patient export failed after {} lines: {}", lines, e.getMessage(), e);
+            throw new PatientServiceException("Failed to export patients", e);
+        }
+
+        log.info("Exported {} patients", lines);
+        return lines;
+    }
+}
@@ -1,5 +1,7 @@
 package com.tintsteps.patientservice.service.impl;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.KeysetCursor;
 import com.tintsteps.patientservice.dto.PatientInsuranceDto;
 import com.tintsteps.patientservice.exception.PatientNotFoundException;
 import com.tintsteps.patientservice.exception.PatientServiceException;
@@ -7,10 +9,13 @@ import com.tintsteps.patientservice.mapper.PatientInsuranceMapper;
 import com.tintsteps.patientservice.model.Patient;
 import com.tintsteps.patientservice.model.PatientInsurance;
 import com.tintsteps.patientservice.repository.PatientInsuranceRepository;
+import com.tintsteps.patientservice.repository.PatientInsuranceView;
 import com.tintsteps.patientservice.repository.PatientRepository;
+import com.tintsteps.patientservice.service.PatientBatchBinder;
 import com.tintsteps.patientservice.service.PatientInsuranceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,6 +32,7 @@ public class PatientInsuranceServiceImpl implements PatientInsuranceService {
 
     private final PatientInsuranceRepository patientInsuranceRepository;
     private final PatientRepository patientRepository;
+    private final PatientBatchBinder patientBatchBinder;
     private final PatientInsuranceMapper patientInsuranceMapper = PatientInsuranceMapper.INSTANCE;
 
     @Override
@@ -74,9 +80,9 @@ public class PatientInsuranceServiceImpl implements PatientInsuranceService {
     public List<PatientInsuranceDto> findByPatientId(UUID patientId) {
         log.info("Finding insurance by patient ID: {}", patientId);
 
-        List<PatientInsurance> insurances = patientInsuranceRepository.findByPatientId(patientId);
+        List<PatientInsuranceView> insurances = patientInsuranceRepository.findByPatientId(patientId);
         return insurances.stream()
-                .map(patientInsuranceMapper::patientInsuranceToPatientInsuranceDto)
+                .map(patientInsuranceMapper::patientInsuranceViewToPatientInsuranceDto)
                 .collect(Collectors.toList());
     }
 
@@ -85,8 +91,21 @@ public class PatientInsuranceServiceImpl implements PatientInsuranceService {
     public Page<PatientInsuranceDto> findAll(Pageable pageable) {
         log.info("Finding all insurance with pagination");
 
-        Page<PatientInsurance> insurances = patientInsuranceRepository.findAll(pageable);
-        return insurances.map(patientInsuranceMapper::patientInsuranceToPatientInsuranceDto);
+        Page<PatientInsuranceView> insurances = patientInsuranceRepository.findAllViews(pageable);
+        return insurances.map(patientInsuranceMapper::patientInsuranceViewToPatientInsuranceDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientInsuranceDto> scroll(String cursor, int size) {
+        log.info("Scrolling insurance after cursor: {}", cursor);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = CursorPageDto.fetchLimit(size);
+        List<PatientInsuranceView> rows = after == null
+                ? patientInsuranceRepository.findAllByOrderByIdAsc(limit)
+                : patientInsuranceRepository.findByIdGreaterThanOrderByIdAsc(after.id(), limit);
+        return CursorPageDto.of(rows, size, patientInsuranceMapper::patientInsuranceViewToPatientInsuranceDto, row -> KeysetCursor.after(row.id()));
     }
 
     @Override
@@ -145,25 +164,25 @@ public class PatientInsuranceServiceImpl implements PatientInsuranceService {
     @Override
     @Transactional(readOnly = true)
     public List<PatientInsuranceDto> findByProvider(String provider) {
-        List<PatientInsurance> insurances = patientInsuranceRepository.findByProviderContainingIgnoreCase(provider);
+        List<PatientInsuranceView> insurances = patientInsuranceRepository.findByProviderContainingIgnoreCase(provider);
         return insurances.stream()
-                .map(patientInsuranceMapper::patientInsuranceToPatientInsuranceDto)
+                .map(patientInsuranceMapper::patientInsuranceViewToPatientInsuranceDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<PatientInsuranceDto> findByProvider(String provider, Pageable pageable) {
-        Page<PatientInsurance> insurances = patientInsuranceRepository.findByProviderContainingIgnoreCase(provider, pageable);
-        return insurances.map(patientInsuranceMapper::patientInsuranceToPatientInsuranceDto);
+        Page<PatientInsuranceView> insurances = patientInsuranceRepository.findByProviderContainingIgnoreCase(provider, pageable);
+        return insurances.map(patientInsuranceMapper::patientInsuranceViewToPatientInsuranceDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<PatientInsuranceDto> searchInsurance(UUID patientId, String provider, String policyNumber, String coverageDetails, Pageable pageable) {
         // For now, implement basic search - can be enhanced with Specifications
-        Page<PatientInsurance> insurances = patientInsuranceRepository.findAll(pageable);
-        return insurances.map(patientInsuranceMapper::patientInsuranceToPatientInsuranceDto);
+        Page<PatientInsuranceView> insurances = patientInsuranceRepository.findAllViews(pageable);
+        return insurances.map(patientInsuranceMapper::patientInsuranceViewToPatientInsuranceDto);
     }
 
     // Business Operations
@@ -197,10 +216,7 @@ public class PatientInsuranceServiceImpl implements PatientInsuranceService {
     public void removeInsurance(UUID patientId, String policyNumber) {
         log.info("Removing insurance for patient ID: {} with policy: {}", patientId, policyNumber);
 
-        List<PatientInsurance> insurances = patientInsuranceRepository.findByPatientId(patientId);
-        List<PatientInsurance> insurancesToDelete = insurances.stream()
-                .filter(insurance -> insurance.getPolicyNumber().equals(policyNumber))
-                .collect(Collectors.toList());
+        List<PatientInsurance> insurancesToDelete = patientInsuranceRepository.findByPatientIdAndPolicyNumber(patientId, policyNumber);
 
         if (!insurancesToDelete.isEmpty()) {
             patientInsuranceRepository.deleteAll(insurancesToDelete);
@@ -280,17 +296,10 @@ public class PatientInsuranceServiceImpl implements PatientInsuranceService {
     public List<PatientInsuranceDto> createBatch(List<PatientInsuranceDto> patientInsuranceDtos) {
         log.info("Creating batch of {} insurances", patientInsuranceDtos.size());
 
-        try {
-            List<PatientInsurance> insurances = patientInsuranceDtos.stream()
-                    .map(dto -> {
-                        Patient patient = patientRepository.findById(dto.getPatientId())
-                                .orElseThrow(() -> new PatientNotFoundException(dto.getPatientId()));
-                        PatientInsurance insurance = patientInsuranceMapper.patientInsuranceDtoToPatientInsurance(dto);
-                        insurance.setPatient(patient);
-                        return insurance;
-                    })
-                    .collect(Collectors.toList());
+        List<PatientInsurance> insurances = patientBatchBinder.bind(patientInsuranceDtos, PatientInsuranceDto::getPatientId,
+                patientInsuranceMapper::patientInsuranceDtoToPatientInsurance);
 
+        try {
             List<PatientInsurance> savedInsurances = patientInsuranceRepository.saveAll(insurances);
             return savedInsurances.stream()
                     .map(patientInsuranceMapper::patientInsuranceToPatientInsuranceDto)
@@ -319,10 +328,7 @@ public class PatientInsuranceServiceImpl implements PatientInsuranceService {
     @Override
     @Transactional(readOnly = true)
     public List<String> getInsuranceProviders(UUID patientId) {
-        List<PatientInsurance> insurances = patientInsuranceRepository.findByPatientId(patientId);
-        return insurances.stream()
-                .map(PatientInsurance::getProvider)
-                .collect(Collectors.toList());
+        return patientInsuranceRepository.findProvidersByPatientId(patientId);
     }
 
     @Override
@@ -1,5 +1,7 @@
 package com.tintsteps.patientservice.service.impl;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.KeysetCursor;
 import com.tintsteps.patientservice.dto.PatientMedicalHistoryDto;
 import com.tintsteps.patientservice.exception.PatientNotFoundException;
 import com.tintsteps.patientservice.exception.PatientServiceException;
@@ -7,10 +9,13 @@ import com.tintsteps.patientservice.mapper.PatientMedicalHistoryMapper;
 import com.tintsteps.patientservice.model.Patient;
 import com.tintsteps.patientservice.model.PatientMedicalHistory;
 import com.tintsteps.patientservice.repository.PatientMedicalHistoryRepository;
+import com.tintsteps.patientservice.repository.PatientMedicalHistoryView;
 import com.tintsteps.patientservice.repository.PatientRepository;
+import com.tintsteps.patientservice.service.PatientBatchBinder;
 import com.tintsteps.patientservice.service.PatientMedicalHistoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -29,6 +34,7 @@ public class PatientMedicalHistoryServiceImpl implements PatientMedicalHistorySe
 
     private final PatientMedicalHistoryRepository patientMedicalHistoryRepository;
     private final PatientRepository patientRepository;
+    private final PatientBatchBinder patientBatchBinder;
     private final PatientMedicalHistoryMapper patientMedicalHistoryMapper = PatientMedicalHistoryMapper.INSTANCE;
 
     @Override
@@ -81,9 +87,9 @@ public class PatientMedicalHistoryServiceImpl implements PatientMedicalHistorySe
     public List<PatientMedicalHistoryDto> findByPatientId(UUID patientId) {
         log.info("Finding medical history by patient ID: {}", patientId);
 
-        List<PatientMedicalHistory> histories = patientMedicalHistoryRepository.findByPatientId(patientId);
+        List<PatientMedicalHistoryView> histories = patientMedicalHistoryRepository.findByPatientId(patientId);
         return histories.stream()
-                .map(patientMedicalHistoryMapper::patientMedicalHistoryToPatientMedicalHistoryDto)
+                .map(patientMedicalHistoryMapper::patientMedicalHistoryViewToPatientMedicalHistoryDto)
                 .collect(Collectors.toList());
     }
 
@@ -92,8 +98,46 @@ public class PatientMedicalHistoryServiceImpl implements PatientMedicalHistorySe
     public Page<PatientMedicalHistoryDto> findAll(Pageable pageable) {
         log.info("Finding all medical history with pagination");
 
-        Page<PatientMedicalHistory> histories = patientMedicalHistoryRepository.findAll(pageable);
-        return histories.map(patientMedicalHistoryMapper::patientMedicalHistoryToPatientMedicalHistoryDto);
+        Page<PatientMedicalHistoryView> histories = patientMedicalHistoryRepository.findAllViews(pageable);
+        return histories.map(patientMedicalHistoryMapper::patientMedicalHistoryViewToPatientMedicalHistoryDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientMedicalHistoryDto> scroll(String cursor, int size) {
+        log.info("Scrolling medical history after cursor: {}", cursor);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = CursorPageDto.fetchLimit(size);
+        List<PatientMedicalHistoryView> rows = after == null
+                ? patientMedicalHistoryRepository.findAllByOrderByIdAsc(limit)
+                : patientMedicalHistoryRepository.findByIdGreaterThanOrderByIdAsc(after.id(), limit);
+        return CursorPageDto.of(rows, size, patientMedicalHistoryMapper::patientMedicalHistoryViewToPatientMedicalHistoryDto, row -> KeysetCursor.after(row.id()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientMedicalHistoryDto> scrollByPatientId(UUID patientId, Instant since, String cursor, int size) {
+        log.info("Scrolling medical history of patient ID: {} since {} after cursor: {}", patientId, since, cursor);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after != null && after.createdAt() == null) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        Limit limit = CursorPageDto.fetchLimit(size);
+        List<PatientMedicalHistoryView> rows;
+        if (since == null) {
+            // The whole history, backdated entries included
+            rows = after == null
+                    ? patientMedicalHistoryRepository.findByPatientIdNewestFirst(patientId, limit)
+                    : patientMedicalHistoryRepository.findByPatientIdBefore(patientId, after.createdAt(), after.id(), limit);
+        } else {
+            rows = after == null
+                    ? patientMedicalHistoryRepository.findByPatientIdRecordedSince(patientId, since, limit)
+                    : patientMedicalHistoryRepository.findByPatientIdRecordedSinceBefore(patientId, since, after.createdAt(), after.id(), limit);
+        }
+        return CursorPageDto.of(rows, size, patientMedicalHistoryMapper::patientMedicalHistoryViewToPatientMedicalHistoryDto,
+                row -> new KeysetCursor(row.recordedAt(), row.id()));
     }
 
     @Override
@@ -152,24 +196,24 @@ public class PatientMedicalHistoryServiceImpl implements PatientMedicalHistorySe
     @Override
     @Transactional(readOnly = true)
     public List<PatientMedicalHistoryDto> findByCondition(String condition) {
-        List<PatientMedicalHistory> histories = patientMedicalHistoryRepository.findByConditionContainingIgnoreCase(condition);
+        List<PatientMedicalHistoryView> histories = patientMedicalHistoryRepository.findByConditionContainingIgnoreCase(condition);
         return histories.stream()
-                .map(patientMedicalHistoryMapper::patientMedicalHistoryToPatientMedicalHistoryDto)
+                .map(patientMedicalHistoryMapper::patientMedicalHistoryViewToPatientMedicalHistoryDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<PatientMedicalHistoryDto> findByCondition(String condition, Pageable pageable) {
-        Page<PatientMedicalHistory> histories = patientMedicalHistoryRepository.findByConditionContainingIgnoreCase(condition, pageable);
-        return histories.map(patientMedicalHistoryMapper::patientMedicalHistoryToPatientMedicalHistoryDto);
+        Page<PatientMedicalHistoryView> histories = patientMedicalHistoryRepository.findByConditionContainingIgnoreCase(condition, pageable);
+        return histories.map(patientMedicalHistoryMapper::patientMedicalHistoryViewToPatientMedicalHistoryDto);
     }
 
 
     @Transactional(readOnly = true)
     public Page<PatientMedicalHistoryDto> findByPatientId(UUID patientId, Pageable pageable) {
-        Page<PatientMedicalHistory> histories = patientMedicalHistoryRepository.findByPatientId(patientId, pageable);
-        return histories.map(patientMedicalHistoryMapper::patientMedicalHistoryToPatientMedicalHistoryDto);
+        Page<PatientMedicalHistoryView> histories = patientMedicalHistoryRepository.findByPatientId(patientId, pageable);
+        return histories.map(patientMedicalHistoryMapper::patientMedicalHistoryViewToPatientMedicalHistoryDto);
     }
 
 
@@ -178,8 +222,8 @@ public class PatientMedicalHistoryServiceImpl implements PatientMedicalHistorySe
     public Page<PatientMedicalHistoryDto> searchMedicalHistory(UUID patientId, String condition, String notes,
                                                               Instant startDate, Instant endDate, Pageable pageable) {
         // For now, implement basic search - can be enhanced with Specifications
-        Page<PatientMedicalHistory> histories = patientMedicalHistoryRepository.findAll(pageable);
-        return histories.map(patientMedicalHistoryMapper::patientMedicalHistoryToPatientMedicalHistoryDto);
+        Page<PatientMedicalHistoryView> histories = patientMedicalHistoryRepository.findAllViews(pageable);
+        return histories.map(patientMedicalHistoryMapper::patientMedicalHistoryViewToPatientMedicalHistoryDto);
     }
 
     // Business Operations
@@ -213,10 +257,8 @@ public class PatientMedicalHistoryServiceImpl implements PatientMedicalHistorySe
     public void removeMedicalHistory(UUID patientId, String condition) {
         log.info("Removing medical history for patient ID: {} with condition: {}", patientId, condition);
 
-        List<PatientMedicalHistory> histories = patientMedicalHistoryRepository.findByPatientId(patientId);
-        List<PatientMedicalHistory> historiesToDelete = histories.stream()
-                .filter(history -> history.getCondition().equalsIgnoreCase(condition))
-                .collect(Collectors.toList());
+        List<PatientMedicalHistory> historiesToDelete = patientMedicalHistoryRepository
+                .findByPatientIdAndConditionIgnoreCase(patientId, condition);
 
         if (!historiesToDelete.isEmpty()) {
             patientMedicalHistoryRepository.deleteAll(historiesToDelete);
@@ -296,20 +338,16 @@ public class PatientMedicalHistoryServiceImpl implements PatientMedicalHistorySe
     public List<PatientMedicalHistoryDto> createBatch(List<PatientMedicalHistoryDto> patientMedicalHistoryDtos) {
         log.info("Creating batch of {} medical histories", patientMedicalHistoryDtos.size());
 
-        try {
-            List<PatientMedicalHistory> histories = patientMedicalHistoryDtos.stream()
-                    .map(dto -> {
-                        Patient patient = patientRepository.findById(dto.getPatientId())
-                                .orElseThrow(() -> new PatientNotFoundException(dto.getPatientId()));
-                        PatientMedicalHistory history = patientMedicalHistoryMapper.patientMedicalHistoryDtoToPatientMedicalHistory(dto);
-                        history.setPatient(patient);
-                        if (history.getRecordedAt() == null) {
-                            history.setRecordedAt(Instant.now());
-                        }
-                        return history;
-                    })
-                    .collect(Collectors.toList());
+        List<PatientMedicalHistory> histories = patientBatchBinder.bind(patientMedicalHistoryDtos, PatientMedicalHistoryDto::getPatientId,
+                dto -> {
+                    PatientMedicalHistory history = patientMedicalHistoryMapper.patientMedicalHistoryDtoToPatientMedicalHistory(dto);
+                    if (history.getRecordedAt() == null) {
+                        history.setRecordedAt(Instant.now());
+                    }
+                    return history;
+                });
 
+        try {
             List<PatientMedicalHistory> savedHistories = patientMedicalHistoryRepository.saveAll(histories);
             return savedHistories.stream()
                     .map(patientMedicalHistoryMapper::patientMedicalHistoryToPatientMedicalHistoryDto)
@@ -343,9 +381,8 @@ public class PatientMedicalHistoryServiceImpl implements PatientMedicalHistorySe
     @Override
     @Transactional(readOnly = true)
     public List<String> getMedicalConditions(UUID patientId) {
-        List<PatientMedicalHistory> histories = patientMedicalHistoryRepository.findByPatientId(patientId);
-        return histories.stream()
-                .map(PatientMedicalHistory::getCondition)
+        List<String> conditions = patientMedicalHistoryRepository.findConditionsByPatientId(patientId);
+        return conditions.stream()
                 .distinct()
                 .collect(Collectors.toList());
     }
@@ -360,11 +397,11 @@ public class PatientMedicalHistoryServiceImpl implements PatientMedicalHistorySe
     @Transactional(readOnly = true)
     public List<PatientMedicalHistoryDto> getRecentMedicalHistory(UUID patientId, int daysBack) {
         Instant sinceDate = Instant.now().minus(Duration.ofDays(daysBack));
-        List<PatientMedicalHistory> recentHistories = patientMedicalHistoryRepository.findRecentMedicalHistory(sinceDate);
+        List<PatientMedicalHistoryView> recentHistories = patientMedicalHistoryRepository
+                .findByPatientIdRecordedSince(patientId, sinceDate, Limit.unlimited());
 
         return recentHistories.stream()
-                .filter(history -> history.getPatient().getId().equals(patientId))
-                .map(patientMedicalHistoryMapper::patientMedicalHistoryToPatientMedicalHistoryDto)
+                .map(patientMedicalHistoryMapper::patientMedicalHistoryViewToPatientMedicalHistoryDto)
                 .collect(Collectors.toList());
     }
 
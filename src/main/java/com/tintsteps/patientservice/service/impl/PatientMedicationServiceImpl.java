@@ -1,5 +1,7 @@
 package com.tintsteps.patientservice.service.impl;
 
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.KeysetCursor;
 import com.tintsteps.patientservice.dto.PatientMedicationDto;
 import com.tintsteps.patientservice.exception.PatientNotFoundException;
 import com.tintsteps.patientservice.exception.PatientServiceException;
@@ -7,10 +9,13 @@ import com.tintsteps.patientservice.mapper.PatientMedicationMapper;
 import com.tintsteps.patientservice.model.Patient;
 import com.tintsteps.patientservice.model.PatientMedication;
 import com.tintsteps.patientservice.repository.PatientMedicationRepository;
+import com.tintsteps.patientservice.repository.PatientMedicationView;
 import com.tintsteps.patientservice.repository.PatientRepository;
+import com.tintsteps.patientservice.service.PatientBatchBinder;
 import com.tintsteps.patientservice.service.PatientMedicationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,6 +35,7 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
 
     private final PatientMedicationRepository patientMedicationRepository;
     private final PatientRepository patientRepository;
+    private final PatientBatchBinder patientBatchBinder;
     private final PatientMedicationMapper patientMedicationMapper = PatientMedicationMapper.INSTANCE;
 
     @Override
@@ -77,9 +83,9 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
     public List<PatientMedicationDto> findByPatientId(UUID patientId) {
         log.info("Finding patient medications by patient ID: {}", patientId);
 
-        List<PatientMedication> medications = patientMedicationRepository.findByPatientId(patientId);
+        List<PatientMedicationView> medications = patientMedicationRepository.findByPatientId(patientId);
         return medications.stream()
-                .map(patientMedicationMapper::patientMedicationToPatientMedicationDto)
+                .map(patientMedicationMapper::patientMedicationViewToPatientMedicationDto)
                 .collect(Collectors.toList());
     }
 
@@ -88,8 +94,34 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
     public Page<PatientMedicationDto> findAll(Pageable pageable) {
         log.info("Finding all patient medications with pagination");
 
-        Page<PatientMedication> medications = patientMedicationRepository.findAll(pageable);
-        return medications.map(patientMedicationMapper::patientMedicationToPatientMedicationDto);
+        Page<PatientMedicationView> medications = patientMedicationRepository.findAllViews(pageable);
+        return medications.map(patientMedicationMapper::patientMedicationViewToPatientMedicationDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientMedicationDto> scroll(String cursor, int size) {
+        log.info("Scrolling patient medications after cursor: {}", cursor);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = CursorPageDto.fetchLimit(size);
+        List<PatientMedicationView> rows = after == null
+                ? patientMedicationRepository.findAllByOrderByIdAsc(limit)
+                : patientMedicationRepository.findByIdGreaterThanOrderByIdAsc(after.id(), limit);
+        return CursorPageDto.of(rows, size, patientMedicationMapper::patientMedicationViewToPatientMedicationDto, row -> KeysetCursor.after(row.id()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientMedicationDto> scrollByPatientId(UUID patientId, String cursor, int size) {
+        log.info("Scrolling patient medications by patient ID: {} after cursor: {}", patientId, cursor);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Limit limit = CursorPageDto.fetchLimit(size);
+        List<PatientMedicationView> rows = after == null
+                ? patientMedicationRepository.findByPatientIdOrderByIdAsc(patientId, limit)
+                : patientMedicationRepository.findByPatientIdAndIdGreaterThanOrderByIdAsc(patientId, after.id(), limit);
+        return CursorPageDto.of(rows, size, patientMedicationMapper::patientMedicationViewToPatientMedicationDto, row -> KeysetCursor.after(row.id()));
     }
 
     @Override
@@ -152,9 +184,9 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
     public List<PatientMedicationDto> findByMedicationName(String medicationName) {
         log.info("Finding patient medications by medication name: {}", medicationName);
 
-        List<PatientMedication> medications = patientMedicationRepository.findByMedicationNameContainingIgnoreCase(medicationName);
+        List<PatientMedicationView> medications = patientMedicationRepository.findByMedicationNameContainingIgnoreCase(medicationName);
         return medications.stream()
-                .map(patientMedicationMapper::patientMedicationToPatientMedicationDto)
+                .map(patientMedicationMapper::patientMedicationViewToPatientMedicationDto)
                 .collect(Collectors.toList());
     }
 
@@ -163,8 +195,8 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
     public Page<PatientMedicationDto> findByMedicationName(String medicationName, Pageable pageable) {
         log.info("Finding patient medications by medication name: {} with pagination", medicationName);
 
-        Page<PatientMedication> medications = patientMedicationRepository.findByMedicationNameContainingIgnoreCase(medicationName, pageable);
-        return medications.map(patientMedicationMapper::patientMedicationToPatientMedicationDto);
+        Page<PatientMedicationView> medications = patientMedicationRepository.findByMedicationNameContainingIgnoreCase(medicationName, pageable);
+        return medications.map(patientMedicationMapper::patientMedicationViewToPatientMedicationDto);
     }
 
 
@@ -173,8 +205,8 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
     public Page<PatientMedicationDto> findByDosage(String dosage, Pageable pageable) {
         log.info("Finding patient medications by dosage: {} with pagination", dosage);
 
-        Page<PatientMedication> medications = patientMedicationRepository.findByDosageContainingIgnoreCase(dosage, pageable);
-        return medications.map(patientMedicationMapper::patientMedicationToPatientMedicationDto);
+        Page<PatientMedicationView> medications = patientMedicationRepository.findByDosageContainingIgnoreCase(dosage, pageable);
+        return medications.map(patientMedicationMapper::patientMedicationViewToPatientMedicationDto);
     }
 
     @Override
@@ -182,8 +214,8 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
     public Page<PatientMedicationDto> findByPatientId(UUID patientId, Pageable pageable) {
         log.info("Finding patient medications by patient ID: {} with pagination", patientId);
 
-        Page<PatientMedication> medications = patientMedicationRepository.findByPatientId(patientId, pageable);
-        return medications.map(patientMedicationMapper::patientMedicationToPatientMedicationDto);
+        Page<PatientMedicationView> medications = patientMedicationRepository.findByPatientId(patientId, pageable);
+        return medications.map(patientMedicationMapper::patientMedicationViewToPatientMedicationDto);
     }
 
     @Override
@@ -193,8 +225,8 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
         log.info("Searching patient medications with multiple criteria");
 
         // For now, implement basic search - can be enhanced with Specifications
-        Page<PatientMedication> medications = patientMedicationRepository.findAll(pageable);
-        return medications.map(patientMedicationMapper::patientMedicationToPatientMedicationDto);
+        Page<PatientMedicationView> medications = patientMedicationRepository.findAllViews(pageable);
+        return medications.map(patientMedicationMapper::patientMedicationViewToPatientMedicationDto);
     }
 
     // Business Operations
@@ -270,9 +302,9 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
     public List<PatientMedicationDto> getCurrentMedicationsForPatient(UUID patientId) {
         log.info("Getting current medications for patient ID: {}", patientId);
 
-        List<PatientMedication> medications = patientMedicationRepository.findCurrentMedicationsByPatientId(patientId);
+        List<PatientMedicationView> medications = patientMedicationRepository.findCurrentMedicationsByPatientId(patientId);
         return medications.stream()
-                .map(patientMedicationMapper::patientMedicationToPatientMedicationDto)
+                .map(patientMedicationMapper::patientMedicationViewToPatientMedicationDto)
                 .collect(Collectors.toList());
     }
 
@@ -333,17 +365,10 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
     public List<PatientMedicationDto> createBatch(List<PatientMedicationDto> patientMedicationDtos) {
         log.info("Creating batch of {} patient medications", patientMedicationDtos.size());
 
-        try {
-            List<PatientMedication> medications = patientMedicationDtos.stream()
-                    .map(dto -> {
-                        Patient patient = patientRepository.findById(dto.getPatientId())
-                                .orElseThrow(() -> new PatientNotFoundException(dto.getPatientId()));
-                        PatientMedication medication = patientMedicationMapper.patientMedicationDtoToPatientMedication(dto);
-                        medication.setPatient(patient);
-                        return medication;
-                    })
-                    .collect(Collectors.toList());
+        List<PatientMedication> medications = patientBatchBinder.bind(patientMedicationDtos, PatientMedicationDto::getPatientId,
+                patientMedicationMapper::patientMedicationDtoToPatientMedication);
 
+        try {
             List<PatientMedication> savedMedications = patientMedicationRepository.saveAll(medications);
             return savedMedications.stream()
                     .map(patientMedicationMapper::patientMedicationToPatientMedicationDto)
@@ -373,10 +398,7 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
     public List<String> getActiveMedicationNames(UUID patientId) {
         log.info("Getting active medication names for patient ID: {}", patientId);
 
-        List<PatientMedication> medications = patientMedicationRepository.findCurrentMedicationsByPatientId(patientId);
-        return medications.stream()
-                .map(PatientMedication::getMedicationName)
-                .collect(Collectors.toList());
+        return patientMedicationRepository.findCurrentMedicationNamesByPatientId(patientId);
     }
     @Override
     @Transactional(readOnly = true)
@@ -459,11 +481,11 @@ public class PatientMedicationServiceImpl implements PatientMedicationService {
         LocalDate futureDate = LocalDate.now().plusDays(daysAhead);
         Date endDate = Date.from(futureDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
 
-        List<PatientMedication> currentMedications = patientMedicationRepository.findCurrentMedicationsByPatientId(patientId);
+        List<PatientMedicationView> currentMedications = patientMedicationRepository.findCurrentMedicationsByPatientId(patientId);
 
         return currentMedications.stream()
-                .filter(med -> med.getEndDate() != null && med.getEndDate().before(endDate))
-                .map(patientMedicationMapper::patientMedicationToPatientMedicationDto)
+                .filter(med -> med.endDate() != null && med.endDate().before(endDate))
+                .map(patientMedicationMapper::patientMedicationViewToPatientMedicationDto)
                 .collect(Collectors.toList());
     }
 }
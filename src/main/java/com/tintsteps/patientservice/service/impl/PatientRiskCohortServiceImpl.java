@@ -0,0 +1,99 @@
+package com.tintsteps.patientservice.service.impl;
+
+import com.tintsteps.patientservice.dto.PatientDto;
+import com.tintsteps.patientservice.dto.PatientRiskCohortMemberDto;
+import com.tintsteps.patientservice.mapper.PatientMapper;
+import com.tintsteps.patientservice.model.Patient;
+import com.tintsteps.patientservice.model.RiskFactor;
+import com.tintsteps.patientservice.repository.PatientRepository;
+import com.tintsteps.patientservice.repository.PatientRiskCohortRepository;
+import com.tintsteps.patientservice.repository.PatientRiskCohortRepository.PatientRiskFactors;
+import com.tintsteps.patientservice.service.PatientRiskCohortService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PatientRiskCohortServiceImpl implements PatientRiskCohortService {
+
+    // A patient with at least this many clinical risk factors is high-risk
+    private static final int HIGH_RISK_CLINICAL_FACTORS = 2;
+
+    private final PatientRiskCohortRepository patientRiskCohortRepository;
+    private final PatientRepository patientRepository;
+    private final PatientMapper patientMapper = PatientMapper.INSTANCE;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PatientRiskCohortMemberDto> findHighRiskPatients(Pageable pageable) {
+        log.info("Finding high-risk patients with pagination: {}", pageable);
+        return findCohort(HIGH_RISK_CLINICAL_FACTORS, false, false, 0, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PatientRiskCohortMemberDto> findPatientsWithCriticalAllergies(Pageable pageable) {
+        log.info("Finding patients with critical allergies with pagination: {}", pageable);
+        return findCohort(0, true, false, 0, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PatientRiskCohortMemberDto> findPatientsWithChronicConditions(Pageable pageable) {
+        log.info("Finding patients with chronic conditions with pagination: {}", pageable);
+        return findCohort(0, false, true, 0, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PatientRiskCohortMemberDto> findPatientsWithMultipleMedications(int minimumMedications, Pageable pageable) {
+        log.info("Finding patients with {} or more medications with pagination: {}", minimumMedications, pageable);
+        return findCohort(0, false, false, minimumMedications, pageable);
+    }
+
+    private Page<PatientRiskCohortMemberDto> findCohort(int minClinicalFactors, boolean requireCriticalAllergies,
+                                                        boolean requireChronicConditions, int minActiveMedications,
+                                                        Pageable pageable) {
+        // Cohort order is fixed by risk score, client sorts are not applied to the native query
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+
+        Page<PatientRiskFactors> factors = patientRiskCohortRepository.findCohort(
+                RiskFactor.criticalAllergenPattern(), minClinicalFactors, requireCriticalAllergies,
+                requireChronicConditions, minActiveMedications, page);
+
+        List<UUID> patientIds = factors.getContent().stream()
+                .map(PatientRiskFactors::getPatientId)
+                .collect(Collectors.toList());
+        Map<UUID, Patient> patients = patientRepository.findAllById(patientIds).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+
+        return factors.map(row -> toMember(row, patients.get(row.getPatientId())));
+    }
+
+    private PatientRiskCohortMemberDto toMember(PatientRiskFactors row, Patient patient) {
+        PatientDto patientDto = patient != null ? patientMapper.patientToPatientDto(patient) : null;
+        return PatientRiskCohortMemberDto.builder()
+                .patient(patientDto)
+                .riskScore(row.getRiskScore())
+                .riskLevel(RiskFactor.riskLevel(row.getRiskScore()))
+                .activeMedicationCount((int) row.getActiveMedicationCount())
+                .hasCriticalAllergies(row.getCriticalAllergies())
+                .hasChronicConditions(row.getChronicConditions())
+                .hasMultipleMedications(row.getActiveMedicationCount() > RiskFactor.MULTIPLE_MEDICATIONS_THRESHOLD)
+                .missingEmergencyContacts(!row.getHasEmergencyContacts())
+                .missingInsurance(!row.getHasInsurance())
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package com.tintsteps.patientservice.service.impl;
+
+import com.tintsteps.patientservice.config.PrimaryReads;
+import com.tintsteps.patientservice.dto.PatientRiskAssessmentDto;
+import com.tintsteps.patientservice.exception.PatientNotFoundException;
+import com.tintsteps.patientservice.exception.PatientServiceException;
+import com.tintsteps.patientservice.model.PatientRiskProfile;
+import com.tintsteps.patientservice.model.RiskFactor;
+import com.tintsteps.patientservice.repository.PatientRepository;
+import com.tintsteps.patientservice.repository.PatientRiskProfileRepository;
+import com.tintsteps.patientservice.service.PatientRiskIndexService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class PatientRiskIndexServiceImpl implements PatientRiskIndexService {
+
+    private final PatientRiskProfileRepository patientRiskProfileRepository;
+    private final PatientRepository patientRepository;
+    // Through the proxy, so a rebuild on a miss gets the write transaction of refresh
+    private final PatientRiskIndexService self;
+    private final TransactionTemplate newReadOnlyTransactionTemplate;
+
+    public PatientRiskIndexServiceImpl(PatientRiskProfileRepository patientRiskProfileRepository,
+                                       PatientRepository patientRepository,
+                                       @Lazy PatientRiskIndexService self,
+                                       PlatformTransactionManager transactionManager) {
+        this.patientRiskProfileRepository = patientRiskProfileRepository;
+        this.patientRepository = patientRepository;
+        this.self = self;
+        this.newReadOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newReadOnlyTransactionTemplate.setReadOnly(true);
+        this.newReadOnlyTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PatientRiskAssessmentDto getRiskAssessment(UUID patientId) {
+        log.info("Getting indexed risk assessment for patient ID: {}", patientId);
+
+        PatientRiskProfile profile = patientRiskProfileRepository.findById(patientId)
+                .orElseGet(() -> {
+                    // Not indexed yet (new patient without clinical records, or before the first rebuild)
+                    if (!patientRepository.existsById(patientId)) {
+                        throw new PatientNotFoundException(patientId);
+                    }
+                    self.refresh(List.of(patientId));
+                    // This transaction may sit on a replica that has not seen the rebuilt profile yet
+                    return PrimaryReads.call(() -> newReadOnlyTransactionTemplate.execute(status ->
+                            patientRiskProfileRepository.findById(patientId)
+                                    .orElseThrow(() -> new PatientNotFoundException(patientId))));
+                });
+
+        return toAssessment(profile);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PatientRiskAssessmentDto> findByRiskLevel(String riskLevel, Pageable pageable) {
+        log.info("Finding patients with risk level: {} with pagination: {}", riskLevel, pageable);
+
+        int minScore;
+        int maxScore;
+        switch (riskLevel.toUpperCase()) {
+            case "HIGH" -> {
+                minScore = RiskFactor.HIGH_RISK_SCORE;
+                maxScore = Integer.MAX_VALUE;
+            }
+            case "MEDIUM" -> {
+                minScore = RiskFactor.MEDIUM_RISK_SCORE;
+                maxScore = RiskFactor.HIGH_RISK_SCORE;
+            }
+            case "LOW" -> {
+                minScore = 0;
+                maxScore = RiskFactor.MEDIUM_RISK_SCORE;
+            }
+            default -> throw new IllegalArgumentException("Unknown risk level: " + riskLevel);
+        }
+
+        // Order is fixed by the score index
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return patientRiskProfileRepository.findByRiskScoreRange(minScore, maxScore, page)
+                .map(this::toAssessment);
+    }
+
+    // Called after the writing transaction committed, so it always needs a transaction of its own
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refresh(Collection<UUID> patientIds) {
+        if (patientIds.isEmpty()) {
+            return;
+        }
+        int refreshed = patientRiskProfileRepository.refreshProfiles(patientIds, RiskFactor.criticalAllergenPattern());
+        log.debug("Refreshed risk profiles of {} patients", refreshed);
+    }
+
+    @Override
+    @Transactional
+    public int rebuildAll() {
+        log.info("Rebuilding risk profiles of all patients");
+
+        try {
+            int rebuilt = patientRiskProfileRepository.rebuildAllProfiles(RiskFactor.criticalAllergenPattern());
+            log.info("Rebuilt {} risk profiles", rebuilt);
+            return rebuilt;
+        } catch (Exception e) {
+            log.error("Error rebuilding risk profiles: {}", e.getMessage(), e);
+            throw new PatientServiceException("Failed to rebuild risk profiles", e);
+        }
+    }
+
+    private PatientRiskAssessmentDto toAssessment(PatientRiskProfile profile) {
+        return PatientRiskAssessmentDto.builder()
+                .patientId(profile.getPatientId())
+                .riskScore(profile.getRiskScore())
+                .riskLevel(profile.getRiskLevel())
+                .hasCriticalAllergies(profile.hasFactor(RiskFactor.CRITICAL_ALLERGIES))
+                .hasChronicConditions(profile.hasFactor(RiskFactor.CHRONIC_CONDITIONS))
+                .hasMultipleMedications(profile.hasFactor(RiskFactor.MULTIPLE_MEDICATIONS))
+                .missingEmergencyContacts(profile.hasFactor(RiskFactor.MISSING_EMERGENCY_CONTACTS))
+                .missingInsurance(profile.hasFactor(RiskFactor.MISSING_INSURANCE))
+                .build();
+    }
+}
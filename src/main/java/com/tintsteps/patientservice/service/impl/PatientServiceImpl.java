@@ -1,15 +1,24 @@
 package com.tintsteps.patientservice.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.KeysetCursor;
 import com.tintsteps.patientservice.dto.PatientDto;
+import com.tintsteps.patientservice.dto.PatientHealthSummaryDto;
+import com.tintsteps.patientservice.dto.PatientSearchCriteria;
 import com.tintsteps.patientservice.exception.PatientNotFoundException;
 import com.tintsteps.patientservice.exception.PatientServiceException;
 import com.tintsteps.patientservice.mapper.PatientMapper;
 import com.tintsteps.patientservice.model.Gender;
 import com.tintsteps.patientservice.model.Patient;
 import com.tintsteps.patientservice.repository.PatientRepository;
+import com.tintsteps.patientservice.repository.PatientSpecifications;
+import com.tintsteps.patientservice.service.PatientBatchBinder;
 import com.tintsteps.patientservice.service.PatientService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -21,8 +30,13 @@ import java.time.LocalDate;
 import java.time.Period;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -32,6 +46,9 @@ import java.util.stream.Collectors;
 public class PatientServiceImpl implements PatientService {
 
     private final PatientRepository patientRepository;
+    private final PatientBatchBinder patientBatchBinder;
+
+    private final ObjectMapper objectMapper;
     private final PatientMapper patientMapper = PatientMapper.INSTANCE;
 
     @Override
@@ -70,6 +87,22 @@ public class PatientServiceImpl implements PatientService {
         return patientMapper.patientToPatientDto(patient);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<PatientDto> findByIds(Collection<UUID> ids) {
+        log.info("Finding {} patients by ID", ids.size());
+
+        Map<UUID, Patient> patientsById = patientBatchBinder.findPatients(ids).stream()
+                .collect(Collectors.toMap(Patient::getId, patient -> patient));
+
+        // Distinct IDs in input order, unknown IDs are skipped
+        return new LinkedHashSet<>(ids).stream()
+                .map(patientsById::get)
+                .filter(Objects::nonNull)
+                .map(patientMapper::patientToPatientDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PatientDto findByUserId(UUID userId) {
@@ -90,6 +123,23 @@ public class PatientServiceImpl implements PatientService {
         return patients.map(patientMapper::patientToPatientDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientDto> scroll(String cursor, int size) {
+        log.info("Scrolling patients after cursor: {}", cursor);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after != null && after.createdAt() == null) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        Limit limit = CursorPageDto.fetchLimit(size);
+        List<Patient> rows = after == null
+                ? patientRepository.findAllByOrderByCreatedAtAscIdAsc(limit)
+                : patientRepository.findAfter(after.createdAt(), after.id(), limit);
+        return CursorPageDto.of(rows, size, patientMapper::patientToPatientDto,
+                row -> new KeysetCursor(row.getCreatedAt(), row.getId()));
+    }
+
     @Override
     @Transactional
     public PatientDto update(UUID id, PatientDto patientDto) {
@@ -172,6 +222,18 @@ public class PatientServiceImpl implements PatientService {
         return patients.map(patientMapper::patientToPatientDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PatientDto> search(PatientSearchCriteria criteria, Pageable pageable) {
+        log.info("Searching patients by criteria: {} with pagination: {}", criteria, pageable);
+
+        if (criteria.getMinAge() != null && criteria.getMaxAge() != null && criteria.getMinAge() > criteria.getMaxAge()) {
+            throw new IllegalArgumentException("Minimum age cannot be greater than maximum age");
+        }
+
+        Page<Patient> patients = patientRepository.findAll(PatientSpecifications.matching(criteria), pageable);
+        return patients.map(patientMapper::patientToPatientDto);
+    }
 
     @Override
     public List<PatientDto> findAll() {
@@ -180,6 +242,26 @@ public class PatientServiceImpl implements PatientService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PatientHealthSummaryDto getHealthSummary(UUID patientId) {
+        log.info("Getting aggregate health summary for patient ID: {}", patientId);
+
+        String json = patientRepository.findHealthSummaryJson(patientId)
+                .orElseThrow(() -> new PatientNotFoundException(patientId));
+
+        try {
+            // Dates come back as stored, yyyy-MM-dd or a timestamp without zone if Hibernate widened
+            // the column; read them in the JVM zone like the JPA path does
+            return objectMapper.readerFor(PatientHealthSummaryDto.class)
+                    .with(TimeZone.getDefault())
+                    .readValue(json);
+        } catch (JsonProcessingException e) {
+            log.error("Error decoding health summary for patient ID {}: {}", patientId, e.getMessage(), e);
+            throw new PatientServiceException("Failed to decode health summary", e);
+        }
+    }
+
     @Override
     @Transactional
     public PatientDto updateMedicalInfo(UUID id, Integer heightCm, BigDecimal weightKg, String bloodGroup) {
@@ -275,7 +357,8 @@ public class PatientServiceImpl implements PatientService {
 
     @Transactional(readOnly = true)
     public boolean existsById(UUID id) {
-        return patientRepository.existsById(id);
+        // Goes through the patient cache region, unlike the repository's existsById query
+        return patientRepository.findById(id).isPresent();
     }
 
     @Transactional(readOnly = true)
@@ -325,6 +408,12 @@ public class PatientServiceImpl implements PatientService {
         return patientRepository.getAverageWeight();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> getAgeStatistics() {
+        return patientRepository.getAgeStatistics();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Object[]> getGenderStatistics() {
@@ -416,8 +505,7 @@ public class PatientServiceImpl implements PatientService {
     @Override
     @Transactional(readOnly = true)
     public Page<PatientDto> findByAgeRange(Integer minAge, Integer maxAge, Pageable pageable) {
-        Page<Patient> patients = patientRepository.findByAgeRange(minAge, maxAge, pageable);
-        return patients.map(patientMapper::patientToPatientDto);
+        return findByAgeBetween(minAge, maxAge, pageable);
     }
 
 
@@ -444,7 +532,10 @@ public class PatientServiceImpl implements PatientService {
     @Override
     @Transactional(readOnly = true)
     public Page<PatientDto> findByAgeBetween(Integer minAge, Integer maxAge, Pageable pageable) {
-        Page<Patient> patients = patientRepository.findByAgeBetween(minAge, maxAge, pageable);
+        if (minAge > maxAge) {
+            throw new IllegalArgumentException("Minimum age cannot be greater than maximum age");
+        }
+        Page<Patient> patients = patientRepository.findAll(PatientSpecifications.agedBetween(minAge, maxAge), pageable);
         return patients.map(patientMapper::patientToPatientDto);
     }
 }
@@ -0,0 +1,196 @@
+package com.tintsteps.patientservice.service.impl;
+
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.PatientTimelineEntryDto;
+import com.tintsteps.patientservice.dto.TimelineCursor;
+import com.tintsteps.patientservice.model.TimelineEventType;
+import com.tintsteps.patientservice.repository.PatientAllergyRepository;
+import com.tintsteps.patientservice.repository.PatientAppointmentRepository;
+import com.tintsteps.patientservice.repository.PatientMedicalHistoryRepository;
+import com.tintsteps.patientservice.repository.PatientMedicationRepository;
+import com.tintsteps.patientservice.repository.PatientTimelineRow;
+import com.tintsteps.patientservice.service.PatientTimelineService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Merges the time-ordered sources of a patient's records into one feed, newest first. Every
+ * source is read as a keyset range scan before a (time, id) position and only as deep as the
+ * merge gets, so a page costs what it shows rather than the size of the patient's history.
+ */
+@Slf4j
+@Service
+public class PatientTimelineServiceImpl implements PatientTimelineService {
+
+    // The lowest and highest UUID in PostgreSQL's byte order
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+    private static final int MIN_BATCH_SIZE = 8;
+
+    private static final Comparator<SourceReader> NEWEST_FIRST = Comparator
+            .comparing((SourceReader reader) -> reader.current.occurredAt(), Comparator.reverseOrder())
+            .thenComparing(reader -> reader.type, Comparator.reverseOrder());
+
+    private final Map<TimelineEventType, TimelineSource> sources = new EnumMap<>(TimelineEventType.class);
+
+    public PatientTimelineServiceImpl(PatientMedicalHistoryRepository patientMedicalHistoryRepository,
+                                      PatientAllergyRepository patientAllergyRepository,
+                                      PatientMedicationRepository patientMedicationRepository,
+                                      PatientAppointmentRepository patientAppointmentRepository) {
+        // Recorded and medication dates are client supplied and may lie far back, so without since
+        // the sources are read with no lower bound at all
+        sources.put(TimelineEventType.MEDICAL_HISTORY, (patientId, since, before, beforeId, limit) -> since == null
+                ? patientMedicalHistoryRepository.findAllTimelineRows(patientId, before, beforeId, limit)
+                : patientMedicalHistoryRepository.findTimelineRows(patientId, since, before, beforeId, limit));
+        sources.put(TimelineEventType.ALLERGY_RECORDED, (patientId, since, before, beforeId, limit) -> since == null
+                ? patientAllergyRepository.findAllTimelineRows(patientId, before, beforeId, limit)
+                : patientAllergyRepository.findTimelineRows(patientId, since, before, beforeId, limit));
+        sources.put(TimelineEventType.MEDICATION_STARTED, (patientId, since, before, beforeId, limit) -> since == null
+                ? patientMedicationRepository.findAllStartTimelineRows(patientId, Date.from(before), beforeId, limit)
+                : patientMedicationRepository.findStartTimelineRows(patientId, Date.from(since), Date.from(before), beforeId, limit));
+        sources.put(TimelineEventType.MEDICATION_STOPPED, (patientId, since, before, beforeId, limit) -> since == null
+                ? patientMedicationRepository.findAllStopTimelineRows(patientId, Date.from(before), beforeId, limit)
+                : patientMedicationRepository.findStopTimelineRows(patientId, Date.from(since), Date.from(before), beforeId, limit));
+        sources.put(TimelineEventType.APPOINTMENT_LINKED, (patientId, since, before, beforeId, limit) -> since == null
+                ? patientAppointmentRepository.findAllTimelineRows(patientId, before, beforeId, limit)
+                : patientAppointmentRepository.findTimelineRows(patientId, since, before, beforeId, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatientTimelineEntryDto> getTimeline(UUID patientId, Instant since, String cursor, int size) {
+        log.info("Getting timeline for patient ID: {} since {} after cursor: {}", patientId, since, cursor);
+
+        int wanted = CursorPageDto.fetchLimit(size).max();
+        TimelineCursor after = TimelineCursor.decode(cursor);
+        int batchSize = Math.min(wanted, Math.max(MIN_BATCH_SIZE, Math.ceilDiv(wanted, sources.size())));
+
+        PriorityQueue<SourceReader> heads = new PriorityQueue<>(NEWEST_FIRST);
+        Instant now = Instant.now();
+        sources.forEach((type, source) -> {
+            SourceReader reader = new SourceReader(type, source, patientId, since, batchSize, wanted);
+            startAfter(reader, after, now);
+            if (reader.advance()) {
+                heads.add(reader);
+            }
+        });
+
+        List<PatientTimelineEntryDto> entries = new ArrayList<>(wanted);
+        while (entries.size() < wanted && !heads.isEmpty()) {
+            SourceReader reader = heads.poll();
+            entries.add(toEntry(reader.type, reader.current));
+            if (reader.advance()) {
+                heads.add(reader);
+            }
+        }
+
+        boolean hasNext = entries.size() > size;
+        List<PatientTimelineEntryDto> page = hasNext ? entries.subList(0, size) : entries;
+        String nextCursor = null;
+        if (hasNext) {
+            PatientTimelineEntryDto last = page.get(size - 1);
+            nextCursor = new TimelineCursor(last.getOccurredAt(), last.getType(), last.getRecordId()).encode();
+        }
+        return CursorPageDto.<PatientTimelineEntryDto>builder()
+                .content(List.copyOf(page))
+                .size(page.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    // Place a source just past the cursor in feed order. At the cursor's instant, types below the
+    // cursor's come later in the feed and keep all their events, types above it keep none.
+    private static void startAfter(SourceReader reader, TimelineCursor after, Instant now) {
+        if (after == null) {
+            reader.before = now;
+            reader.beforeId = MAX_ID;
+            return;
+        }
+        int order = reader.type.compareTo(after.type());
+        reader.before = after.occurredAt();
+        reader.beforeId = order == 0 ? after.id() : order < 0 ? MAX_ID : MIN_ID;
+    }
+
+    private static PatientTimelineEntryDto toEntry(TimelineEventType type, PatientTimelineRow row) {
+        return PatientTimelineEntryDto.builder()
+                .type(type)
+                .occurredAt(row.occurredAt())
+                .recordId(row.id())
+                .title(row.title())
+                .detail(row.detail())
+                .referenceId(row.referenceId())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface TimelineSource {
+
+        // Events at or after since, or all of them when since is null, and strictly before (before, beforeId), newest first
+        List<PatientTimelineRow> find(UUID patientId, Instant since, Instant before, UUID beforeId, Limit limit);
+    }
+
+    // Walks one source newest first, fetching a doubling batch whenever the previous one is used up
+    private static final class SourceReader {
+
+        private final TimelineEventType type;
+        private final TimelineSource source;
+        private final UUID patientId;
+        private final Instant since;
+        // No source can contribute more than one page plus the look-ahead row
+        private final int maxRows;
+        private int batchSize;
+        private int read;
+        private boolean exhausted;
+        private Instant before;
+        private UUID beforeId;
+        private Iterator<PatientTimelineRow> batch = Collections.emptyIterator();
+        private PatientTimelineRow current;
+
+        private SourceReader(TimelineEventType type, TimelineSource source, UUID patientId, Instant since,
+                             int batchSize, int maxRows) {
+            this.type = type;
+            this.source = source;
+            this.patientId = patientId;
+            this.since = since;
+            this.batchSize = batchSize;
+            this.maxRows = maxRows;
+        }
+
+        private boolean advance() {
+            if (!batch.hasNext()) {
+                if (exhausted || read >= maxRows) {
+                    return false;
+                }
+                int limit = Math.min(batchSize, maxRows - read);
+                List<PatientTimelineRow> rows = source.find(patientId, since, before, beforeId, Limit.of(limit));
+                exhausted = rows.size() < limit;
+                batchSize = Math.min(batchSize * 2, maxRows);
+                if (rows.isEmpty()) {
+                    return false;
+                }
+                PatientTimelineRow last = rows.get(rows.size() - 1);
+                before = last.occurredAt();
+                beforeId = last.id();
+                batch = rows.iterator();
+            }
+            current = batch.next();
+            read++;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- Persisted risk index, maintained incrementally on clinical data writes and rebuilt nightly
+CREATE TABLE patient_risk_profiles (
+                                       patient_id UUID PRIMARY KEY REFERENCES patients(id) ON DELETE CASCADE,
+                                       risk_factors INT NOT NULL,           -- RiskFactor bitmask
+                                       risk_score INT NOT NULL,
+                                       risk_level VARCHAR(10) NOT NULL,     -- LOW, MEDIUM, HIGH
+                                       active_medication_count INT NOT NULL,
+                                       updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Risk level lookups are range scans on the score
+CREATE INDEX idx_patient_risk_profiles_score ON patient_risk_profiles (risk_score DESC, patient_id);
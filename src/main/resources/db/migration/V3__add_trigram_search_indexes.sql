@@ -0,0 +1,9 @@
+-- Trigram indexes for case-insensitive substring search (LOWER(column) LIKE '%term%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_patient_allergies_allergen_trgm ON patient_allergies USING gin (lower(allergen) gin_trgm_ops);
+CREATE INDEX idx_patient_allergies_reaction_trgm ON patient_allergies USING gin (lower(reaction) gin_trgm_ops);
+CREATE INDEX idx_patient_medications_name_trgm ON patient_medications USING gin (lower(medication_name) gin_trgm_ops);
+CREATE INDEX idx_patient_medical_history_condition_trgm ON patient_medical_history USING gin (lower(condition) gin_trgm_ops);
+CREATE INDEX idx_patient_insurance_provider_trgm ON patient_insurance USING gin (lower(provider) gin_trgm_ops);
+CREATE INDEX idx_patient_emergency_contacts_name_trgm ON patient_emergency_contacts USING gin (lower(name) gin_trgm_ops);
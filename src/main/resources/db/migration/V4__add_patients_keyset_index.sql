@@ -0,0 +1,5 @@
+-- Keyset pagination walks patients in (created_at, id) order
+UPDATE patients SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE patients ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX idx_patients_created_at_id ON patients (created_at, id);
@@ -0,0 +1,44 @@
+-- B-tree indexes for the access paths the repositories use.
+-- Every child table is read, counted and cascade-deleted by patient_id.
+
+-- One patient record per user. Earlier schemas did not enforce this, so stop with the offending
+-- user_ids instead of a bare unique violation. Remediation: for each listed user_id, keep the
+-- patient the user service refers to, move or delete the child records of the others (they
+-- cascade on delete), delete the other patients, and rerun the migration.
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(user_id || ' (' || patient_count || ' patients)', ', ' ORDER BY user_id)
+    INTO duplicates
+    FROM (SELECT user_id, COUNT(*) AS patient_count
+          FROM patients
+          GROUP BY user_id
+          HAVING COUNT(*) > 1
+          LIMIT 100) d;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'Cannot create uk_patients_user_id, user_ids with more than one patient: %', duplicates
+            USING HINT = 'Merge or delete the duplicate patients of each user_id, then rerun the migration';
+    END IF;
+END
+$$;
+
+CREATE UNIQUE INDEX uk_patients_user_id ON patients (user_id);
+
+CREATE INDEX idx_patient_addresses_patient_address ON patient_addresses (patient_id, address_id);
+CREATE INDEX idx_patient_addresses_address_id ON patient_addresses (address_id);
+
+CREATE INDEX idx_patient_appointments_patient_appointment ON patient_appointments (patient_id, appointment_id);
+CREATE INDEX idx_patient_appointments_appointment_id ON patient_appointments (appointment_id);
+
+CREATE INDEX idx_patient_emergency_contacts_patient_id ON patient_emergency_contacts (patient_id);
+CREATE INDEX idx_patient_insurance_patient_id ON patient_insurance (patient_id);
+
+-- Current and past medications filter on end_date within one patient
+CREATE INDEX idx_patient_medications_patient_end_date ON patient_medications (patient_id, end_date);
+
+CREATE INDEX idx_patient_medical_history_patient_id ON patient_medical_history (patient_id);
+CREATE INDEX idx_patient_medical_history_recorded_at ON patient_medical_history (recorded_at);
+
+CREATE INDEX idx_patient_allergies_patient_id ON patient_allergies (patient_id);
+CREATE INDEX idx_patient_allergies_recorded_at ON patient_allergies (recorded_at);
@@ -0,0 +1,2 @@
+-- Age filters are ranges on date_of_birth, age statistics read it with an index-only scan
+CREATE INDEX idx_patients_date_of_birth ON patients (date_of_birth);
@@ -0,0 +1,11 @@
+-- A patient's history is read newest first, optionally from a point in time and after a
+-- (recorded_at, id) cursor. Both JPA and COPY inserts fill recorded_at, so it can be NOT NULL
+-- and the keyset comparison never has to deal with NULLs.
+UPDATE patient_medical_history SET recorded_at = CURRENT_TIMESTAMP WHERE recorded_at IS NULL;
+ALTER TABLE patient_medical_history ALTER COLUMN recorded_at SET NOT NULL;
+
+CREATE INDEX idx_patient_medical_history_patient_recorded
+    ON patient_medical_history (patient_id, recorded_at DESC, id DESC);
+
+-- patient_id lookups, counts and cascade deletes use the leading column of the new index
+DROP INDEX idx_patient_medical_history_patient_id;
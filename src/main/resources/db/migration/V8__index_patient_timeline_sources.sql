@@ -0,0 +1,16 @@
+-- Every timeline source is read per patient, newest first, before a (timestamp, id) position.
+
+-- Allergies get the same NOT NULL recorded_at and composite index as medical history (V7)
+UPDATE patient_allergies SET recorded_at = CURRENT_TIMESTAMP WHERE recorded_at IS NULL;
+ALTER TABLE patient_allergies ALTER COLUMN recorded_at SET NOT NULL;
+CREATE INDEX idx_patient_allergies_patient_recorded ON patient_allergies (patient_id, recorded_at DESC, id DESC);
+DROP INDEX idx_patient_allergies_patient_id;
+
+-- Medication starts and stops; the end_date index also serves the current and past medication filters
+CREATE INDEX idx_patient_medications_patient_start ON patient_medications (patient_id, start_date DESC, id DESC);
+CREATE INDEX idx_patient_medications_patient_end ON patient_medications (patient_id, end_date DESC, id DESC);
+DROP INDEX idx_patient_medications_patient_end_date;
+
+-- Appointment links had no timestamp of their own, existing links are dated to this migration
+ALTER TABLE patient_appointments ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+CREATE INDEX idx_patient_appointments_patient_created ON patient_appointments (patient_id, created_at DESC, id DESC);
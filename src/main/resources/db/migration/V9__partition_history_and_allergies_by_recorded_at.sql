@@ -0,0 +1,96 @@
+-- patient_medical_history and patient_allergies become monthly range partitions on recorded_at.
+-- Filters on recorded_at only read the months they overlap, and retention can drop a month at a
+-- time. A primary key must contain the partition key, so it becomes (id, recorded_at); ids stay
+-- unique as random UUIDs, and a lookup by id alone probes each partition's key index once.
+
+-- Creates the partition for the month containing month_start unless it exists. Rows of that month
+-- already sitting in the default partition are moved over first, otherwise ATTACH would refuse.
+CREATE FUNCTION ensure_recorded_at_partition(parent regclass, month_start timestamp) RETURNS boolean
+    LANGUAGE plpgsql AS $$
+DECLARE
+    parent_name text := (SELECT relname FROM pg_class WHERE oid = parent);
+    range_start timestamp := date_trunc('month', month_start);
+    range_end timestamp := date_trunc('month', month_start) + interval '1 month';
+    partition_name text := parent_name || '_' || to_char(date_trunc('month', month_start), 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE %s INCLUDING DEFAULTS)', partition_name, parent);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE recorded_at >= %L AND recorded_at < %L RETURNING *) '
+                       || 'INSERT INTO %I SELECT * FROM moved',
+                   parent_name || '_default', range_start, range_end, partition_name);
+    -- A matching check constraint spares ATTACH its validation scan of the new table
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (recorded_at >= %L AND recorded_at < %L)',
+                   partition_name, partition_name || '_range', range_start, range_end);
+    EXECUTE format('ALTER TABLE %s ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, partition_name, range_start, range_end);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', partition_name, partition_name || '_range');
+    RETURN true;
+END $$;
+
+-- Makes sure every month from range_start up to and including range_end has a partition
+CREATE FUNCTION ensure_recorded_at_partitions(parent regclass, range_start timestamp, range_end timestamp) RETURNS integer
+    LANGUAGE plpgsql AS $$
+DECLARE
+    next_month timestamp := date_trunc('month', range_start);
+    created integer := 0;
+BEGIN
+    WHILE next_month <= range_end LOOP
+        IF ensure_recorded_at_partition(parent, next_month) THEN
+            created := created + 1;
+        END IF;
+        next_month := next_month + interval '1 month';
+    END LOOP;
+    RETURN created;
+END $$;
+
+-- Medical history: move the rows into a partitioned table of the same shape, then rebuild the indexes
+ALTER TABLE patient_medical_history RENAME TO patient_medical_history_unpartitioned;
+
+CREATE TABLE patient_medical_history (
+                                         id UUID NOT NULL DEFAULT uuid_generate_v4(),
+                                         patient_id UUID REFERENCES patients(id) ON DELETE CASCADE,
+                                         condition VARCHAR(255) NOT NULL,
+                                         notes TEXT,
+                                         recorded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (recorded_at);
+-- Catches rows outside every monthly range until their month is created
+CREATE TABLE patient_medical_history_default PARTITION OF patient_medical_history DEFAULT;
+
+SELECT ensure_recorded_at_partitions('patient_medical_history',
+                                     COALESCE((SELECT min(recorded_at) FROM patient_medical_history_unpartitioned), LOCALTIMESTAMP),
+                                     LOCALTIMESTAMP + interval '3 months');
+INSERT INTO patient_medical_history (id, patient_id, condition, notes, recorded_at)
+SELECT id, patient_id, condition, notes, recorded_at FROM patient_medical_history_unpartitioned;
+DROP TABLE patient_medical_history_unpartitioned;
+
+ALTER TABLE patient_medical_history ADD PRIMARY KEY (id, recorded_at);
+CREATE INDEX idx_patient_medical_history_patient_recorded ON patient_medical_history (patient_id, recorded_at DESC, id DESC);
+CREATE INDEX idx_patient_medical_history_recorded_at ON patient_medical_history (recorded_at);
+CREATE INDEX idx_patient_medical_history_condition_trgm ON patient_medical_history USING gin (lower(condition) gin_trgm_ops);
+
+-- Allergies, the same way
+ALTER TABLE patient_allergies RENAME TO patient_allergies_unpartitioned;
+
+CREATE TABLE patient_allergies (
+                                   id UUID NOT NULL DEFAULT uuid_generate_v4(),
+                                   patient_id UUID REFERENCES patients(id) ON DELETE CASCADE,
+                                   allergen VARCHAR(100) NOT NULL,
+                                   reaction VARCHAR(255),
+                                   recorded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (recorded_at);
+CREATE TABLE patient_allergies_default PARTITION OF patient_allergies DEFAULT;
+
+SELECT ensure_recorded_at_partitions('patient_allergies',
+                                     COALESCE((SELECT min(recorded_at) FROM patient_allergies_unpartitioned), LOCALTIMESTAMP),
+                                     LOCALTIMESTAMP + interval '3 months');
+INSERT INTO patient_allergies (id, patient_id, allergen, reaction, recorded_at)
+SELECT id, patient_id, allergen, reaction, recorded_at FROM patient_allergies_unpartitioned;
+DROP TABLE patient_allergies_unpartitioned;
+
+ALTER TABLE patient_allergies ADD PRIMARY KEY (id, recorded_at);
+CREATE INDEX idx_patient_allergies_patient_recorded ON patient_allergies (patient_id, recorded_at DESC, id DESC);
+CREATE INDEX idx_patient_allergies_recorded_at ON patient_allergies (recorded_at);
+CREATE INDEX idx_patient_allergies_allergen_trgm ON patient_allergies USING gin (lower(allergen) gin_trgm_ops);
+CREATE INDEX idx_patient_allergies_reaction_trgm ON patient_allergies USING gin (lower(reaction) gin_trgm_ops);
@@ -0,0 +1,230 @@
+package com.tintsteps.patientservice;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.tintsteps.patientservice.config.DownstreamClientSettings;
+import com.tintsteps.patientservice.integration.BatchLoader;
+import com.tintsteps.patientservice.integration.BulkLookup;
+import com.tintsteps.patientservice.integration.dto.AddressDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs batched address lookups against a stub address service on a local port, with and without a
+ * bulk endpoint, and checks what reaches the service and what each caller gets back.
+ */
+class BatchLoaderTests {
+
+    private static final String BULK_PATH = "/api/v1/addresses/bulk";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<UUID>> bulkRequests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger singleRequests = new AtomicInteger();
+    private final AtomicInteger singlesInFlight = new AtomicInteger();
+    private final AtomicInteger maxSinglesInFlight = new AtomicInteger();
+    // Ids the stub has no address for, and ids it fails to look up singly
+    private final Set<UUID> unknown = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> failing = ConcurrentHashMap.newKeySet();
+
+    private HttpServer server;
+    private WebClient webClient;
+    private volatile boolean bulkEndpoint = true;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/addresses/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(32));
+        server.start();
+        webClient = WebClient.builder().baseUrl("http://localhost:" + server.getAddress().getPort()).build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void lookupsWithinTheWindowGoOutAsOneBulkRequest() {
+        BatchLoader<UUID, AddressDto> loader = loader(BULK_PATH, Duration.ofMillis(50), 100);
+        List<UUID> ids = randomIds(20);
+        List<CompletableFuture<AddressDto>> results = new ArrayList<>();
+        ids.forEach(id -> results.add(loader.load(id)));
+        // Asked for twice, sent once
+        results.add(loader.load(ids.get(0)));
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(ids.get(i), results.get(i).join().getId());
+        }
+        assertEquals(ids.get(0), results.get(ids.size()).join().getId());
+        assertEquals(List.of(ids), bulkRequests);
+        assertEquals(0, singleRequests.get());
+    }
+
+    @Test
+    void fullBatchesGoOutWithoutWaitingForTheWindow() {
+        BatchLoader<UUID, AddressDto> loader = loader(BULK_PATH, Duration.ofMinutes(1), 8);
+        List<CompletableFuture<AddressDto>> results = randomIds(16).stream().map(loader::load).toList();
+
+        results.forEach(CompletableFuture::join);
+        assertEquals(2, bulkRequests.size());
+        assertTrue(bulkRequests.stream().allMatch(batch -> batch.size() == 8));
+    }
+
+    @Test
+    void withoutBulkPathLookupsGoOutSinglyWithBoundedParallelism() {
+        BatchLoader<UUID, AddressDto> loader = loader(null, Duration.ofMillis(20), 100);
+        List<UUID> ids = randomIds(24);
+        List<CompletableFuture<AddressDto>> results = ids.stream().map(loader::load).toList();
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(ids.get(i), results.get(i).join().getId());
+        }
+        assertEquals(24, singleRequests.get());
+        assertTrue(maxSinglesInFlight.get() <= 4, () -> "Single lookups in flight: " + maxSinglesInFlight.get());
+        assertTrue(bulkRequests.isEmpty());
+    }
+
+    @Test
+    void missingBulkEndpointFallsBackToSingleLookups() {
+        bulkEndpoint = false;
+        BatchLoader<UUID, AddressDto> loader = loader(BULK_PATH, Duration.ofMillis(20), 100);
+
+        UUID first = UUID.randomUUID();
+        assertEquals(first, loader.load(first).join().getId());
+        UUID second = UUID.randomUUID();
+        assertEquals(second, loader.load(second).join().getId());
+
+        // The 404 is only taken once, the second batch goes straight to single lookups
+        assertEquals(1, bulkRequests.size());
+        assertEquals(2, singleRequests.get());
+    }
+
+    @Test
+    void idsWithoutARecordFailAlone() {
+        BatchLoader<UUID, AddressDto> loader = loader(BULK_PATH, Duration.ofMillis(20), 100);
+        UUID known = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        unknown.add(missing);
+
+        CompletableFuture<AddressDto> knownResult = loader.load(known);
+        CompletableFuture<AddressDto> missingResult = loader.load(missing);
+        assertEquals(known, knownResult.join().getId());
+        assertInstanceOf(NoSuchElementException.class, assertThrows(CompletionException.class, missingResult::join).getCause());
+    }
+
+    @Test
+    void singleLookupErrorsOtherThanNotFoundFailTheirOwnId() {
+        BatchLoader<UUID, AddressDto> loader = loader(null, Duration.ofMillis(20), 100);
+        UUID known = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID broken = UUID.randomUUID();
+        unknown.add(missing);
+        failing.add(broken);
+
+        CompletableFuture<AddressDto> knownResult = loader.load(known);
+        CompletableFuture<AddressDto> missingResult = loader.load(missing);
+        CompletableFuture<AddressDto> brokenResult = loader.load(broken);
+        assertEquals(known, knownResult.join().getId());
+        assertInstanceOf(NoSuchElementException.class, assertThrows(CompletionException.class, missingResult::join).getCause());
+        // A 5xx is not reported as a missing record
+        assertInstanceOf(WebClientResponseException.InternalServerError.class,
+                assertThrows(CompletionException.class, brokenResult::join).getCause());
+    }
+
+    private BatchLoader<UUID, AddressDto> loader(String bulkPath, Duration window, int maxSize) {
+        DownstreamClientSettings.Batch settings = new DownstreamClientSettings.Batch();
+        settings.setBulkPath(bulkPath);
+        settings.setParallelism(4);
+        BulkLookup<AddressDto> bulkLookup = new BulkLookup<>("stub-address-service", webClient, settings,
+                AddressDto.class, AddressDto::getId, id -> webClient.get()
+                        .uri("/api/v1/addresses/{id}", id)
+                        .retrieve()
+                        .bodyToMono(AddressDto.class));
+        return new BatchLoader<>("address-by-id", bulkLookup, window, maxSize, meterRegistry);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals(BULK_PATH) && "POST".equals(exchange.getRequestMethod())) {
+            List<UUID> ids = objectMapper.readValue(exchange.getRequestBody(), new TypeReference<>() {});
+            bulkRequests.add(ids);
+            if (!bulkEndpoint) {
+                respond(exchange, 404, new byte[0]);
+                return;
+            }
+            List<AddressDto> addresses = ids.stream().filter(id -> !unknown.contains(id)).map(BatchLoaderTests::address).toList();
+            respond(exchange, 200, objectMapper.writeValueAsBytes(addresses));
+            return;
+        }
+
+        singleRequests.incrementAndGet();
+        int inFlight = singlesInFlight.incrementAndGet();
+        maxSinglesInFlight.accumulateAndGet(inFlight, Math::max);
+        try {
+            // Long enough for unbounded parallelism to show up in the count
+            Thread.sleep(20);
+            UUID id = UUID.fromString(path.substring(path.lastIndexOf('/') + 1));
+            if (unknown.contains(id)) {
+                respond(exchange, 404, new byte[0]);
+            } else if (failing.contains(id)) {
+                respond(exchange, 500, new byte[0]);
+            } else {
+                respond(exchange, 200, objectMapper.writeValueAsBytes(address(id)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            singlesInFlight.decrementAndGet();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static AddressDto address(UUID id) {
+        AddressDto address = new AddressDto();
+        address.setId(id);
+        address.setCity("City " + id);
+        return address;
+    }
+
+    private static List<UUID> randomIds(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,144 @@
+package com.tintsteps.patientservice;
+
+import com.tintsteps.patientservice.repository.PatientAllergyRepository;
+import com.tintsteps.patientservice.repository.PatientMedicalHistoryRepository;
+import com.tintsteps.patientservice.repository.RecordedAtPartitionRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against PostgreSQL. Explains the SQL Hibernate sends for recorded_at range reads with
+ * concrete parameter values and checks that only the overlapping monthly partitions are scanned,
+ * and that partition maintenance moves stray rows out of the default partition.
+ */
+@SpringBootTest
+@PostgresTest
+class PartitionPruningTests {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final List<String> capturedSql = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer capturingStatementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                capturedSql.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private PatientMedicalHistoryRepository historyRepository;
+    @Autowired private PatientAllergyRepository allergyRepository;
+    @Autowired private RecordedAtPartitionRepository partitionRepository;
+
+    private final YearMonth thisMonth = YearMonth.now();
+    private final Timestamp monthStart = Timestamp.valueOf(thisMonth.atDay(1).atStartOfDay());
+    private final Timestamp midMonth = Timestamp.valueOf(thisMonth.atDay(10).atStartOfDay());
+
+    @Test
+    void rangeReadsScanOnlyTheirMonth() {
+        String historySql = capture(() -> historyRepository.findByRecordedAtBetween(
+                monthStart.toInstant(), midMonth.toInstant()));
+        assertOnlyPartitions(explain(historySql, monthStart, midMonth), "patient_medical_history", thisMonth);
+
+        String allergySql = capture(() -> allergyRepository.findByRecordedAtBetween(
+                monthStart.toInstant(), midMonth.toInstant()));
+        assertOnlyPartitions(explain(allergySql, monthStart, midMonth), "patient_allergies", thisMonth);
+    }
+
+    @Test
+    void patientHistorySinceSkipsEarlierMonths() {
+        UUID patientId = UUID.randomUUID();
+        String sql = capture(() -> historyRepository.findByPatientIdRecordedSince(patientId, monthStart.toInstant(), Limit.of(20)));
+        String plan = explain(sql, patientId, monthStart, 20);
+
+        assertTrue(plan.contains(partition("patient_medical_history", thisMonth)), plan);
+        assertFalse(plan.contains(partition("patient_medical_history", thisMonth.minusMonths(1))), plan);
+    }
+
+    @Test
+    void maintenanceCreatesFutureMonthsAndMovesStrayRows() {
+        partitionRepository.ensurePartitions("patient_medical_history", 3);
+        for (int ahead = 0; ahead <= 3; ahead++) {
+            String name = partition("patient_medical_history", thisMonth.plusMonths(ahead));
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM pg_class WHERE relname = ?", Integer.class, name));
+        }
+
+        // Far enough ahead that no partition exists yet, so the row lands in the default partition
+        YearMonth strayMonth = thisMonth.plusYears(20);
+        UUID patientId = UUID.randomUUID();
+        UUID historyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO patients (id, user_id, created_at, updated_at) VALUES (?, ?, now(), now())", patientId, UUID.randomUUID());
+        try {
+            jdbcTemplate.update("INSERT INTO patient_medical_history (id, patient_id, condition, recorded_at) VALUES (?, ?, 'stray', ?)",
+                    historyId, patientId, Timestamp.valueOf(strayMonth.atDay(2).atStartOfDay()));
+            assertEquals("patient_medical_history_default", partitionOf(historyId));
+
+            jdbcTemplate.queryForObject("SELECT ensure_recorded_at_partition('patient_medical_history', ?)", Boolean.class,
+                    Timestamp.valueOf(strayMonth.atDay(1).atStartOfDay()));
+            assertEquals(partition("patient_medical_history", strayMonth), partitionOf(historyId));
+        } finally {
+            jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patientId);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition("patient_medical_history", strayMonth));
+        }
+    }
+
+    private static void assertOnlyPartitions(String plan, String table, YearMonth month) {
+        assertTrue(plan.contains(partition(table, month)), plan);
+        assertFalse(plan.contains(partition(table, month.minusMonths(1))), plan);
+        assertFalse(plan.contains(partition(table, month.plusMonths(1))), plan);
+        assertFalse(plan.contains(table + "_default"), plan);
+    }
+
+    private static String partition(String table, YearMonth month) {
+        return table + "_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private String partitionOf(UUID historyId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM patient_medical_history WHERE id = ?", String.class, historyId);
+    }
+
+    // Run the query in a rolled back transaction and return the statement it sent
+    private String capture(Runnable query) {
+        capturedSql.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            query.run();
+            status.setRollbackOnly();
+        });
+        assertEquals(1, capturedSql.size(), () -> "Statements sent:\n" + String.join("\n", capturedSql));
+        return capturedSql.get(0);
+    }
+
+    // Bound parameters give a custom plan, so pruning shows up as the partitions left in the plan
+    private String explain(String sql, Object... parameters) {
+        List<String> lines = new ArrayList<>(jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+        return String.join("\n", lines);
+    }
+}
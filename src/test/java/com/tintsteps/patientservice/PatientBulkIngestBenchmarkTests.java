@@ -0,0 +1,121 @@
+package com.tintsteps.patientservice;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tintsteps.patientservice.dto.BulkIngestReportDto;
+import com.tintsteps.patientservice.dto.PatientAllergyDto;
+import com.tintsteps.patientservice.dto.PatientDto;
+import com.tintsteps.patientservice.model.BulkIngestRecordType;
+import com.tintsteps.patientservice.model.Gender;
+import com.tintsteps.patientservice.service.PatientAllergyService;
+import com.tintsteps.patientservice.service.PatientBulkIngestService;
+import com.tintsteps.patientservice.service.PatientService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares binary COPY ingestion against the saveAll based createBatch path.
+ * Runs against PostgreSQL when -Dbenchmark=true is also given.
+ */
+@Slf4j
+@SpringBootTest
+@PostgresTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PatientBulkIngestBenchmarkTests {
+
+    private static final int PATIENTS = 20_000;
+    private static final String SEED_MARKER = "BI";
+
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PatientService patientService;
+    @Autowired private PatientAllergyService patientAllergyService;
+    @Autowired private PatientBulkIngestService patientBulkIngestService;
+
+    @AfterEach
+    void removeSeed() {
+        jdbcTemplate.update("DELETE FROM patients WHERE blood_group = ?", SEED_MARKER);
+    }
+
+    @Test
+    void copyIngestStoresTheSameRowsFasterThanSaveAll() throws JsonProcessingException {
+        long saveAllStart = System.nanoTime();
+        List<PatientDto> saved = patientService.createBatch(patients());
+        List<PatientAllergyDto> savedAllergies = new ArrayList<>();
+        for (PatientDto patient : saved) {
+            savedAllergies.add(allergy(patient.getId()));
+        }
+        patientAllergyService.createBatch(savedAllergies);
+        long saveAllNanos = System.nanoTime() - saveAllStart;
+
+        List<PatientDto> ingested = patients();
+        ingested.forEach(patient -> patient.setId(UUID.randomUUID()));
+        List<PatientAllergyDto> ingestedAllergies = ingested.stream().map(patient -> allergy(patient.getId())).toList();
+        long copyStart = System.nanoTime();
+        BulkIngestReportDto patientReport = patientBulkIngestService.ingest(BulkIngestRecordType.PATIENTS, ndjson(ingested));
+        BulkIngestReportDto allergyReport = patientBulkIngestService.ingest(BulkIngestRecordType.ALLERGIES, ndjson(ingestedAllergies));
+        long copyNanos = System.nanoTime() - copyStart;
+
+        assertEquals(PATIENTS, patientReport.getInserted());
+        assertEquals(PATIENTS, allergyReport.getInserted());
+        assertEquals(2 * PATIENTS, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM patients WHERE blood_group = ?", Long.class, SEED_MARKER));
+        assertEquals(2 * PATIENTS, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM patient_allergies a JOIN patients p ON p.id = a.patient_id WHERE p.blood_group = ?",
+                Long.class, SEED_MARKER));
+
+        log.info("Bulk ingest, {} patients and {} allergies: saveAll {} rows/s, COPY {} rows/s",
+                PATIENTS, PATIENTS,
+                Math.round(2 * PATIENTS / (saveAllNanos / 1_000_000_000.0)),
+                Math.round(2 * PATIENTS / (copyNanos / 1_000_000_000.0)));
+        assertTrue(copyNanos < saveAllNanos,
+                () -> "COPY took " + copyNanos / 1_000_000 + " ms, saveAll " + saveAllNanos / 1_000_000 + " ms");
+    }
+
+    private List<PatientDto> patients() {
+        List<PatientDto> patients = new ArrayList<>(PATIENTS);
+        for (int i = 0; i < PATIENTS; i++) {
+            PatientDto patient = new PatientDto();
+            patient.setUserId(UUID.randomUUID());
+            patient.setDateOfBirth(new Date());
+            patient.setGender(Gender.OTHER);
+            patient.setBloodGroup(SEED_MARKER);
+            patient.setHeightCm(170);
+            patient.setWeightKg(new BigDecimal("72.50"));
+            patients.add(patient);
+        }
+        return patients;
+    }
+
+    private static PatientAllergyDto allergy(UUID patientId) {
+        PatientAllergyDto allergy = new PatientAllergyDto();
+        allergy.setPatientId(patientId);
+        allergy.setAllergen("peanuts");
+        allergy.setReaction("rash");
+        return allergy;
+    }
+
+    private ByteArrayInputStream ndjson(List<?> records) throws JsonProcessingException {
+        StringBuilder lines = new StringBuilder();
+        for (Object record : records) {
+            lines.append(objectMapper.writeValueAsString(record)).append('\n');
+        }
+        return new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
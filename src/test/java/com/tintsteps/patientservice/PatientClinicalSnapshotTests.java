@@ -0,0 +1,169 @@
+package com.tintsteps.patientservice;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tintsteps.patientservice.dto.PatientAllergyDto;
+import com.tintsteps.patientservice.dto.PatientMedicalHistoryDto;
+import com.tintsteps.patientservice.dto.PatientMedicationDto;
+import com.tintsteps.patientservice.model.BulkIngestRecordType;
+import com.tintsteps.patientservice.service.PatientAllergyService;
+import com.tintsteps.patientservice.service.PatientBulkIngestService;
+import com.tintsteps.patientservice.service.PatientClinicalSnapshotService;
+import com.tintsteps.patientservice.service.PatientMedicalHistoryService;
+import com.tintsteps.patientservice.service.PatientMedicationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs against PostgreSQL. Reads a patient's clinical snapshot, writes one of their records through
+ * the services or bulk ingest, and reads the snapshot again: every committed write must show up in
+ * the next read, while a change made behind the application's back stays cached.
+ */
+@SpringBootTest
+@PostgresTest
+class PatientClinicalSnapshotTests {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private PatientClinicalSnapshotService patientClinicalSnapshotService;
+    @Autowired private PatientAllergyService patientAllergyService;
+    @Autowired private PatientMedicationService patientMedicationService;
+    @Autowired private PatientMedicalHistoryService patientMedicalHistoryService;
+    @Autowired private PatientBulkIngestService patientBulkIngestService;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void seed() {
+        patientId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO patients (id, user_id, created_at, updated_at) VALUES (?, ?, now(), now())",
+                patientId, UUID.randomUUID());
+    }
+
+    @AfterEach
+    void removeSeed() {
+        jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patientId);
+        patientClinicalSnapshotService.evict(patientId);
+    }
+
+    @Test
+    void writesOutsideTheApplicationAreNotSeenUntilEvicted() {
+        assertEquals(List.of(), allergens());
+        jdbcTemplate.update("INSERT INTO patient_allergies (id, patient_id, allergen, recorded_at) VALUES (?, ?, ?, now())",
+                UUID.randomUUID(), patientId, "peanuts");
+
+        // Proves the reads below come from the cache, so only eviction can make them fresh
+        assertEquals(List.of(), allergens());
+        patientClinicalSnapshotService.evict(patientId);
+        assertEquals(List.of("peanuts"), allergens());
+    }
+
+    @Test
+    void allergyWritesAreReadBack() {
+        assertEquals(List.of(), allergens());
+
+        PatientAllergyDto allergy = new PatientAllergyDto();
+        allergy.setPatientId(patientId);
+        allergy.setAllergen("peanuts");
+        UUID allergyId = patientAllergyService.create(allergy).getId();
+        assertEquals(List.of("peanuts"), allergens());
+        assertEquals(List.of("peanuts"), patientClinicalSnapshotService.getSnapshot(patientId).getCriticalAllergies());
+
+        PatientAllergyDto change = new PatientAllergyDto();
+        change.setAllergen("pollen");
+        patientAllergyService.update(allergyId, change);
+        assertEquals(List.of("pollen"), allergens());
+        assertEquals(List.of(), patientClinicalSnapshotService.getSnapshot(patientId).getCriticalAllergies());
+
+        patientAllergyService.delete(allergyId);
+        assertEquals(List.of(), allergens());
+    }
+
+    @Test
+    void medicationWritesAreReadBack() {
+        assertEquals(List.of(), activeMedicationNames());
+
+        PatientMedicationDto medication = new PatientMedicationDto();
+        medication.setPatientId(patientId);
+        medication.setMedicationName("ibuprofen");
+        medication.setStartDate(date(LocalDate.now().minusDays(10)));
+        UUID medicationId = patientMedicationService.create(medication).getId();
+        assertEquals(List.of("ibuprofen"), activeMedicationNames());
+
+        PatientMedicationDto stopped = new PatientMedicationDto();
+        stopped.setEndDate(date(LocalDate.now().minusDays(1)));
+        patientMedicationService.update(medicationId, stopped);
+        assertEquals(List.of(), activeMedicationNames());
+
+        PatientMedicationDto restarted = new PatientMedicationDto();
+        restarted.setEndDate(date(LocalDate.now().plusDays(30)));
+        patientMedicationService.update(medicationId, restarted);
+        assertEquals(List.of("ibuprofen"), activeMedicationNames());
+
+        patientMedicationService.delete(medicationId);
+        assertEquals(List.of(), activeMedicationNames());
+    }
+
+    @Test
+    void medicalHistoryWritesAreReadBack() {
+        assertEquals(List.of(), chronicConditions());
+
+        PatientMedicalHistoryDto history = new PatientMedicalHistoryDto();
+        history.setPatientId(patientId);
+        history.setCondition("asthma");
+        UUID historyId = patientMedicalHistoryService.create(history).getId();
+        assertEquals(List.of("asthma"), chronicConditions());
+
+        PatientMedicalHistoryDto change = new PatientMedicalHistoryDto();
+        change.setCondition("hypertension");
+        patientMedicalHistoryService.update(historyId, change);
+        assertEquals(List.of("hypertension"), chronicConditions());
+
+        patientMedicalHistoryService.delete(historyId);
+        assertEquals(List.of(), chronicConditions());
+    }
+
+    @Test
+    void bulkIngestedRecordsAreReadBack() throws JsonProcessingException {
+        assertEquals(List.of(), allergens());
+
+        PatientAllergyDto allergy = new PatientAllergyDto();
+        allergy.setPatientId(patientId);
+        allergy.setAllergen("latex");
+        String line = objectMapper.writeValueAsString(allergy) + "\n";
+        assertEquals(1, patientBulkIngestService.ingest(BulkIngestRecordType.ALLERGIES,
+                new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8))).getInserted());
+
+        assertEquals(List.of("latex"), allergens());
+    }
+
+    private List<String> allergens() {
+        return patientClinicalSnapshotService.getSnapshot(patientId).getAllergens();
+    }
+
+    private List<String> activeMedicationNames() {
+        return patientClinicalSnapshotService.getSnapshot(patientId).getActiveMedicationNames();
+    }
+
+    private List<String> chronicConditions() {
+        return patientClinicalSnapshotService.getSnapshot(patientId).getChronicConditions();
+    }
+
+    private static Date date(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,136 @@
+package com.tintsteps.patientservice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tintsteps.patientservice.service.PatientExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against PostgreSQL. Seeds a few patients, one of them with a record in every child section,
+ * exports with each combination of sections and checks that there is one well-formed line per
+ * patient carrying exactly the requested sections, and that lines reach the output while the
+ * export is still reading.
+ */
+@SpringBootTest
+@PostgresTest
+class PatientExportTests {
+
+    private static final int PATIENTS = 3;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private PatientExportService patientExportService;
+
+    private final List<UUID> seeded = new ArrayList<>();
+    private UUID withRecords;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < PATIENTS; i++) {
+            UUID id = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO patients (id, user_id, blood_group, created_at, updated_at) VALUES (?, ?, ?, now(), now())",
+                    id, UUID.randomUUID(), "A+");
+            seeded.add(id);
+        }
+        withRecords = seeded.get(0);
+        jdbcTemplate.update("INSERT INTO patient_allergies (id, patient_id, allergen, recorded_at) VALUES (?, ?, ?, now())",
+                UUID.randomUUID(), withRecords, "peanuts");
+        jdbcTemplate.update("INSERT INTO patient_medications (id, patient_id, medication_name, start_date) VALUES (?, ?, ?, ?)",
+                UUID.randomUUID(), withRecords, "ibuprofen", Date.valueOf(LocalDate.now().minusDays(10)));
+        jdbcTemplate.update("INSERT INTO patient_medical_history (id, patient_id, condition, recorded_at) VALUES (?, ?, ?, now())",
+                UUID.randomUUID(), withRecords, "asthma");
+    }
+
+    @AfterEach
+    void removeSeed() {
+        seeded.forEach(id -> jdbcTemplate.update("DELETE FROM patients WHERE id = ?", id));
+    }
+
+    @Test
+    void everyPatientIsOneLineWithTheRequestedSections() throws IOException {
+        for (boolean allergies : new boolean[]{false, true}) {
+            for (boolean medications : new boolean[]{false, true}) {
+                for (boolean medicalHistory : new boolean[]{false, true}) {
+                    String sections = "allergies " + allergies + ", medications " + medications + ", medical history " + medicalHistory;
+                    long patients = jdbcTemplate.queryForObject("SELECT count(*) FROM patients", Long.class);
+
+                    ByteArrayOutputStream output = new ByteArrayOutputStream();
+                    long exported = patientExportService.exportPatients(allergies, medications, medicalHistory, output);
+                    List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+
+                    assertEquals(patients, exported, sections);
+                    assertEquals(patients, lines.size(), sections);
+                    JsonNode seededLine = null;
+                    for (String line : lines) {
+                        JsonNode node = objectMapper.readTree(line);
+                        assertTrue(node.hasNonNull("patient"), sections);
+                        assertEquals(allergies, node.has("allergies"), sections);
+                        assertEquals(medications, node.has("medications"), sections);
+                        assertEquals(medicalHistory, node.has("medicalHistory"), sections);
+                        if (withRecords.toString().equals(node.path("patient").path("id").asText())) {
+                            seededLine = node;
+                        }
+                    }
+
+                    assertNotNull(seededLine, sections);
+                    assertEquals("A+", seededLine.path("patient").path("bloodGroup").asText());
+                    if (allergies) {
+                        assertEquals("peanuts", seededLine.path("allergies").path(0).path("allergen").asText());
+                        assertEquals(1, seededLine.path("allergies").size());
+                    }
+                    if (medications) {
+                        assertEquals("ibuprofen", seededLine.path("medications").path(0).path("medicationName").asText());
+                        assertEquals(1, seededLine.path("medications").size());
+                    }
+                    if (medicalHistory) {
+                        assertEquals("asthma", seededLine.path("medicalHistory").path(0).path("condition").asText());
+                        assertEquals(1, seededLine.path("medicalHistory").size());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void firstLineIsFlushedBeforeTheRestIsRead() {
+        FlushRecordingOutputStream output = new FlushRecordingOutputStream();
+        long exported = patientExportService.exportPatients(true, true, true, output);
+
+        assertTrue(exported >= PATIENTS);
+        assertFalse(output.flushedSizes.isEmpty());
+        // The first flush carries exactly one complete line, while further rows were still to come
+        String firstFlush = new String(output.toByteArray(), 0, output.flushedSizes.get(0), StandardCharsets.UTF_8);
+        assertEquals(1, firstFlush.chars().filter(c -> c == '\n').count());
+        assertTrue(firstFlush.endsWith("\n"));
+    }
+
+    // Remembers how much had been written at every flush
+    private static final class FlushRecordingOutputStream extends ByteArrayOutputStream {
+
+        private final List<Integer> flushedSizes = new ArrayList<>();
+
+        @Override
+        public void flush() {
+            flushedSizes.add(size());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.tintsteps.patientservice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tintsteps.patientservice.dto.*;
+import com.tintsteps.patientservice.service.*;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the single statement health summary against the per-service path.
+ * Runs against PostgreSQL when -Dbenchmark=true is also given.
+ */
+@Slf4j
+@SpringBootTest
+@PostgresTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PatientHealthSummaryBenchmarkTests {
+
+    private static final int CHILDREN_PER_SECTION = 10;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1000;
+
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private PatientService patientService;
+    @Autowired private PatientAllergyService patientAllergyService;
+    @Autowired private PatientMedicationService patientMedicationService;
+    @Autowired private PatientEmergencyContactService patientEmergencyContactService;
+    @Autowired private PatientInsuranceService patientInsuranceService;
+    @Autowired private PatientMedicalHistoryService patientMedicalHistoryService;
+    @Autowired private PatientAddressService patientAddressService;
+    @Autowired private PatientAppointmentService patientAppointmentService;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void seedPatient() {
+        PatientDto patient = new PatientDto();
+        patient.setUserId(UUID.randomUUID());
+        patient.setDateOfBirth(new Date());
+        patient.setBloodGroup("O+");
+        patientId = patientService.create(patient).getId();
+
+        for (int i = 0; i < CHILDREN_PER_SECTION; i++) {
+            PatientAllergyDto allergy = new PatientAllergyDto();
+            allergy.setPatientId(patientId);
+            allergy.setAllergen("allergen-" + i);
+            patientAllergyService.create(allergy);
+
+            PatientMedicationDto medication = new PatientMedicationDto();
+            medication.setPatientId(patientId);
+            medication.setMedicationName("medication-" + i);
+            medication.setStartDate(new Date());
+            patientMedicationService.create(medication);
+
+            PatientEmergencyContactDto contact = new PatientEmergencyContactDto();
+            contact.setPatientId(patientId);
+            contact.setName("contact-" + i);
+            contact.setPhone("555-000" + i);
+            patientEmergencyContactService.create(contact);
+
+            PatientInsuranceDto insurance = new PatientInsuranceDto();
+            insurance.setPatientId(patientId);
+            insurance.setProvider("provider-" + i);
+            patientInsuranceService.create(insurance);
+
+            PatientMedicalHistoryDto history = new PatientMedicalHistoryDto();
+            history.setPatientId(patientId);
+            history.setCondition("condition-" + i);
+            patientMedicalHistoryService.create(history);
+
+            PatientAddressDto address = new PatientAddressDto();
+            address.setPatientId(patientId);
+            address.setAddressId(UUID.randomUUID());
+            patientAddressService.create(address);
+
+            PatientAppointmentDto appointment = new PatientAppointmentDto();
+            appointment.setPatientId(patientId);
+            appointment.setAppointmentId(UUID.randomUUID());
+            patientAppointmentService.create(appointment);
+        }
+    }
+
+    @AfterEach
+    void removePatient() {
+        patientService.delete(patientId);
+    }
+
+    @Test
+    void aggregateSummaryMatchesAndOutperformsPerServicePath() {
+        PatientHealthSummaryDto aggregate = patientService.getHealthSummary(patientId);
+        PatientHealthSummaryDto perService = loadPerService();
+
+        assertEquals(objectMapper.valueToTree(perService.getPatient()), objectMapper.valueToTree(aggregate.getPatient()));
+        assertEquals(nodes(perService.getAllergies()), nodes(aggregate.getAllergies()));
+        assertEquals(nodes(perService.getAllMedications()), nodes(aggregate.getAllMedications()));
+        assertEquals(nodes(perService.getCurrentMedications()), nodes(aggregate.getCurrentMedications()));
+        assertEquals(nodes(perService.getEmergencyContacts()), nodes(aggregate.getEmergencyContacts()));
+        assertEquals(nodes(perService.getInsurance()), nodes(aggregate.getInsurance()));
+        assertEquals(nodes(perService.getMedicalHistory()), nodes(aggregate.getMedicalHistory()));
+        assertEquals(nodes(perService.getAddresses()), nodes(aggregate.getAddresses()));
+        assertEquals(nodes(perService.getAppointments()), nodes(aggregate.getAppointments()));
+
+        long perServiceNanos = measure(this::loadPerService);
+        long aggregateNanos = measure(() -> patientService.getHealthSummary(patientId));
+
+        log.info("Health summary, {} iterations: per-service {} us/op, aggregate {} us/op",
+                MEASURED_ITERATIONS,
+                "%.1f".formatted(perServiceNanos / 1_000.0 / MEASURED_ITERATIONS),
+                "%.1f".formatted(aggregateNanos / 1_000.0 / MEASURED_ITERATIONS));
+    }
+
+    private PatientHealthSummaryDto loadPerService() {
+        return PatientHealthSummaryDto.builder()
+                .patient(patientService.findById(patientId))
+                .allergies(patientAllergyService.findByPatientId(patientId))
+                .currentMedications(patientMedicationService.getCurrentMedicationsForPatient(patientId))
+                .allMedications(patientMedicationService.findByPatientId(patientId))
+                .emergencyContacts(patientEmergencyContactService.findByPatientId(patientId))
+                .insurance(patientInsuranceService.findByPatientId(patientId))
+                .medicalHistory(patientMedicalHistoryService.findByPatientId(patientId))
+                .addresses(patientAddressService.findByPatientId(patientId))
+                .appointments(patientAppointmentService.findByPatientId(patientId))
+                .build();
+    }
+
+    // Compare sections as JSON so java.sql and java.util dates with the same instant are equal
+    private Set<JsonNode> nodes(List<?> section) {
+        return section.stream().map(objectMapper::<JsonNode>valueToTree).collect(Collectors.toSet());
+    }
+
+    private long measure(Supplier<PatientHealthSummaryDto> path) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            path.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            path.get();
+        }
+        return System.nanoTime() - start;
+    }
+}
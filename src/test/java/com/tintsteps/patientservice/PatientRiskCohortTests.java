@@ -0,0 +1,195 @@
+package com.tintsteps.patientservice;
+
+import com.tintsteps.patientservice.dto.PatientRiskCohortMemberDto;
+import com.tintsteps.patientservice.service.PatientRiskCohortService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against PostgreSQL. Seeds patients on either side of every risk rule: two or more of the
+ * three clinical factors, more than three active medications, and a critical allergen anywhere in
+ * the allergen name in any case, then checks who each cohort holds and with which score.
+ */
+@SpringBootTest
+@PostgresTest
+class PatientRiskCohortTests {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PatientRiskCohortService patientRiskCohortService;
+
+    private final List<UUID> seeded = new ArrayList<>();
+
+    // Critical allergy and chronic condition, covered: two clinical factors, score 20 + 15
+    private UUID allergicAndChronic;
+    // Critical allergy only, uncovered: one clinical factor, score 20 + 10 + 5
+    private UUID allergyOnly;
+    // Non-critical allergy, covered: no factor at all
+    private UUID nonCriticalAllergy;
+    // Chronic condition and four active medications next to an ended one, covered: score 15 + 10
+    private UUID chronicOnFourMedications;
+    // Three active medications and two ended ones, covered: at the threshold, not over it
+    private UUID threeMedications;
+    // Every factor: score 20 + 15 + 10 + 10 + 5
+    private UUID everyFactor;
+
+    @BeforeEach
+    void seed() {
+        allergicAndChronic = patient(true);
+        allergy(allergicAndChronic, "Penicillin G");
+        history(allergicAndChronic);
+
+        allergyOnly = patient(false);
+        allergy(allergyOnly, "Severe PEANUTS");
+
+        nonCriticalAllergy = patient(true);
+        allergy(nonCriticalAllergy, "pollen");
+
+        chronicOnFourMedications = patient(true);
+        history(chronicOnFourMedications);
+        activeMedications(chronicOnFourMedications, 4);
+        medication(chronicOnFourMedications, LocalDate.now().minusDays(1));
+
+        threeMedications = patient(true);
+        activeMedications(threeMedications, 3);
+        medication(threeMedications, LocalDate.now().minusDays(1));
+        medication(threeMedications, LocalDate.now());
+
+        everyFactor = patient(false);
+        allergy(everyFactor, "latex gloves");
+        history(everyFactor);
+        activeMedications(everyFactor, 4);
+    }
+
+    @AfterEach
+    void removeSeed() {
+        seeded.forEach(id -> jdbcTemplate.update("DELETE FROM patients WHERE id = ?", id));
+    }
+
+    @Test
+    void highRiskNeedsTwoOfTheThreeClinicalFactors() {
+        Map<UUID, PatientRiskCohortMemberDto> members = seededMembers(patientRiskCohortService::findHighRiskPatients);
+
+        assertEquals(List.of(everyFactor, allergicAndChronic, chronicOnFourMedications), List.copyOf(members.keySet()));
+        assertMember(members.get(everyFactor), 60, "HIGH", 4, true, true, true, true, true);
+        assertMember(members.get(allergicAndChronic), 35, "MEDIUM", 0, true, true, false, false, false);
+        assertMember(members.get(chronicOnFourMedications), 25, "MEDIUM", 4, false, true, true, false, false);
+    }
+
+    @Test
+    void criticalAllergiesMatchAnyCaseAnywhereInTheAllergen() {
+        Map<UUID, PatientRiskCohortMemberDto> members = seededMembers(patientRiskCohortService::findPatientsWithCriticalAllergies);
+
+        assertEquals(Set.of(allergicAndChronic, allergyOnly, everyFactor), members.keySet());
+        assertMember(members.get(allergyOnly), 35, "MEDIUM", 0, true, false, false, true, true);
+    }
+
+    @Test
+    void chronicConditionsHoldEveryPatientWithHistory() {
+        Map<UUID, PatientRiskCohortMemberDto> members = seededMembers(patientRiskCohortService::findPatientsWithChronicConditions);
+
+        assertEquals(Set.of(allergicAndChronic, chronicOnFourMedications, everyFactor), members.keySet());
+    }
+
+    @Test
+    void multipleMedicationsCountOnlyActiveOnes() {
+        Map<UUID, PatientRiskCohortMemberDto> atLeastThree = seededMembers(
+                pageable -> patientRiskCohortService.findPatientsWithMultipleMedications(3, pageable));
+        assertEquals(Set.of(chronicOnFourMedications, threeMedications, everyFactor), atLeastThree.keySet());
+        // Three is the threshold, only more than three is the risk factor
+        assertMember(atLeastThree.get(threeMedications), 0, "LOW", 3, false, false, false, false, false);
+
+        Map<UUID, PatientRiskCohortMemberDto> atLeastFour = seededMembers(
+                pageable -> patientRiskCohortService.findPatientsWithMultipleMedications(4, pageable));
+        assertEquals(Set.of(chronicOnFourMedications, everyFactor), atLeastFour.keySet());
+    }
+
+    // The seeded members of a cohort in cohort order, read page by page past any other patients in the database
+    private Map<UUID, PatientRiskCohortMemberDto> seededMembers(Function<Pageable, Page<PatientRiskCohortMemberDto>> cohort) {
+        Map<UUID, PatientRiskCohortMemberDto> members = new LinkedHashMap<>();
+        Page<PatientRiskCohortMemberDto> page = cohort.apply(PageRequest.of(0, 500));
+        while (true) {
+            int previousScore = Integer.MAX_VALUE;
+            for (PatientRiskCohortMemberDto member : page.getContent()) {
+                assertTrue(member.getRiskScore() <= previousScore, "Cohort is not ordered by risk score");
+                previousScore = member.getRiskScore();
+                if (seeded.contains(member.getPatient().getId())) {
+                    members.put(member.getPatient().getId(), member);
+                }
+            }
+            if (!page.hasNext()) {
+                return members;
+            }
+            page = cohort.apply(page.nextPageable());
+        }
+    }
+
+    private static void assertMember(PatientRiskCohortMemberDto member, int riskScore, String riskLevel,
+                                     int activeMedications, boolean criticalAllergies, boolean chronicConditions,
+                                     boolean multipleMedications, boolean missingEmergencyContacts, boolean missingInsurance) {
+        assertEquals(riskScore, member.getRiskScore());
+        assertEquals(riskLevel, member.getRiskLevel());
+        assertEquals(activeMedications, member.getActiveMedicationCount());
+        assertEquals(criticalAllergies, member.isHasCriticalAllergies());
+        assertEquals(chronicConditions, member.isHasChronicConditions());
+        assertEquals(multipleMedications, member.isHasMultipleMedications());
+        assertEquals(missingEmergencyContacts, member.isMissingEmergencyContacts());
+        assertEquals(missingInsurance, member.isMissingInsurance());
+    }
+
+    private UUID patient(boolean covered) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO patients (id, user_id, created_at, updated_at) VALUES (?, ?, now(), now())",
+                id, UUID.randomUUID());
+        seeded.add(id);
+        if (covered) {
+            jdbcTemplate.update("INSERT INTO patient_emergency_contacts (id, patient_id, name, phone) VALUES (?, ?, ?, ?)",
+                    UUID.randomUUID(), id, "Contact", "555-0100");
+            jdbcTemplate.update("INSERT INTO patient_insurance (id, patient_id, provider) VALUES (?, ?, ?)",
+                    UUID.randomUUID(), id, "Provider");
+        }
+        return id;
+    }
+
+    private void allergy(UUID patientId, String allergen) {
+        jdbcTemplate.update("INSERT INTO patient_allergies (id, patient_id, allergen, recorded_at) VALUES (?, ?, ?, now())",
+                UUID.randomUUID(), patientId, allergen);
+    }
+
+    private void history(UUID patientId) {
+        jdbcTemplate.update("INSERT INTO patient_medical_history (id, patient_id, condition, recorded_at) VALUES (?, ?, ?, now())",
+                UUID.randomUUID(), patientId, "hypertension");
+    }
+
+    // Half of them open-ended, half ending in the future
+    private void activeMedications(UUID patientId, int count) {
+        for (int i = 0; i < count; i++) {
+            medication(patientId, i % 2 == 0 ? null : LocalDate.now().plusDays(30));
+        }
+    }
+
+    private void medication(UUID patientId, LocalDate endDate) {
+        jdbcTemplate.update("INSERT INTO patient_medications (id, patient_id, medication_name, start_date, end_date) VALUES (?, ?, ?, ?, ?)",
+                UUID.randomUUID(), patientId, "medication", Date.valueOf(LocalDate.now().minusYears(1)),
+                endDate == null ? null : Date.valueOf(endDate));
+    }
+}
@@ -0,0 +1,136 @@
+package com.tintsteps.patientservice;
+
+import com.tintsteps.patientservice.exception.PatientServiceException;
+import com.tintsteps.patientservice.service.PatientSummaryAssembler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Forks sections that sleep, fail or block until interrupted, on virtual threads and a mocked
+ * transaction manager, and checks how many run at once and how the assembly ends.
+ */
+class PatientSummaryAssemblerTests {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void sectionsRunningAtOnceAreCapped() {
+        PatientSummaryAssembler.Assembly assembly = assembler(Duration.ofSeconds(5), 2).begin();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<PatientSummaryAssembler.Section<Integer>> sections = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int value = i;
+            sections.add(assembly.fork(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(Duration.ofMillis(50));
+                running.decrementAndGet();
+                return value;
+            }));
+        }
+
+        assembly.join();
+        for (int i = 0; i < sections.size(); i++) {
+            assertEquals(i, sections.get(i).get());
+        }
+        assertTrue(maxRunning.get() <= 2, () -> "Sections running at once: " + maxRunning.get());
+    }
+
+    @Test
+    void firstFailureFailsTheAssemblyAndInterruptsTheRest() throws InterruptedException {
+        PatientSummaryAssembler.Assembly assembly = assembler(Duration.ofSeconds(30), 5).begin();
+        IllegalStateException failure = new IllegalStateException("section failed");
+        CountDownLatch interrupted = new CountDownLatch(1);
+        assembly.fork(() -> blockUntilInterrupted(interrupted));
+        assembly.fork(() -> {
+            throw failure;
+        });
+
+        long start = System.nanoTime();
+        assertSame(failure, assertThrows(IllegalStateException.class, assembly::join));
+        // Not held up by the section still running
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void deadlineInterruptsRunningSectionsAndDropsWaitingOnes() throws InterruptedException {
+        Duration deadline = Duration.ofMillis(200);
+        PatientSummaryAssembler.Assembly assembly = assembler(deadline, 1).begin();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicBoolean waitingSectionRan = new AtomicBoolean();
+        assembly.fork(() -> blockUntilInterrupted(interrupted));
+        assembly.fork(() -> waitingSectionRan.getAndSet(true));
+
+        long start = System.nanoTime();
+        assertThrows(PatientServiceException.class, assembly::join);
+        assertTrue(System.nanoTime() - start < deadline.multipliedBy(5).toNanos());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        // Give the dropped section time to have run if it was going to
+        Thread.sleep(100);
+        assertFalse(waitingSectionRan.get());
+    }
+
+    @Test
+    void sectionTransactionsAreReadOnlyAndTimeOutWithTheDeadline() {
+        PatientSummaryAssembler.Assembly assembly = assembler(Duration.ofSeconds(3), 5).begin();
+        assembly.fork(() -> 1);
+        assembly.join();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, atLeastOnce()).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+        assertTrue(definition.getValue().getTimeout() >= 1 && definition.getValue().getTimeout() <= 3,
+                () -> "Transaction timeout: " + definition.getValue().getTimeout());
+    }
+
+    private PatientSummaryAssembler assembler(Duration deadline, int maxConcurrentSections) {
+        return new PatientSummaryAssembler(executor, transactionManager, deadline, maxConcurrentSections);
+    }
+
+    private static Integer blockUntilInterrupted(CountDownLatch interrupted) {
+        try {
+            Thread.sleep(Duration.ofMinutes(1));
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return 0;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.tintsteps.patientservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.tintsteps.patientservice.config.DownstreamClientSettings;
+import com.tintsteps.patientservice.dto.EnrichedPatientHealthSummaryDto;
+import com.tintsteps.patientservice.dto.PatientAddressDto;
+import com.tintsteps.patientservice.dto.PatientHealthSummaryDto;
+import com.tintsteps.patientservice.exception.PatientNotFoundException;
+import com.tintsteps.patientservice.integration.AddressServiceIntegration;
+import com.tintsteps.patientservice.integration.ScheduleServiceIntegration;
+import com.tintsteps.patientservice.integration.dto.AddressDto;
+import com.tintsteps.patientservice.integration.dto.AppointmentDto;
+import com.tintsteps.patientservice.service.PatientService;
+import com.tintsteps.patientservice.service.PatientSummaryEnricher;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the enricher over the real address and schedule integrations, pointed at a stub service on
+ * a local port that answers, fails, has no record or stalls, and checks which sections come back and which are
+ * flagged, all within the deadline.
+ */
+class PatientSummaryEnricherTests {
+
+    private static final Duration DEADLINE = Duration.ofMillis(500);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PatientService patientService = mock(PatientService.class);
+    private final CircuitBreaker addressServiceCircuitBreaker = CircuitBreaker.ofDefaults("address");
+    private final CircuitBreaker scheduleServiceCircuitBreaker = CircuitBreaker.ofDefaults("schedule");
+    // Ids and paths the stub answers with a 500, a 404, or only after the deadline
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();
+    private final Set<String> stalled = ConcurrentHashMap.newKeySet();
+
+    private final UUID patientId = UUID.randomUUID();
+    private final UUID homeId = UUID.randomUUID();
+    private final UUID workId = UUID.randomUUID();
+
+    private HttpServer server;
+    private AddressServiceIntegration addressServiceIntegration;
+    private PatientSummaryEnricher enricher;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+        WebClient webClient = WebClient.builder().baseUrl("http://localhost:" + server.getAddress().getPort()).build();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        addressServiceIntegration = new AddressServiceIntegration(webClient, new DownstreamClientSettings(), meterRegistry);
+        ScheduleServiceIntegration scheduleServiceIntegration =
+                new ScheduleServiceIntegration(webClient, new DownstreamClientSettings(), meterRegistry);
+        enricher = new PatientSummaryEnricher(patientService, addressServiceIntegration, scheduleServiceIntegration,
+                addressServiceCircuitBreaker, scheduleServiceCircuitBreaker, DEADLINE);
+
+        when(patientService.getHealthSummary(patientId)).thenReturn(PatientHealthSummaryDto.builder()
+                .addresses(List.of(link(homeId), link(workId), link(homeId)))
+                .build());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void resolvedSectionsAreNotDegraded() {
+        EnrichedPatientHealthSummaryDto enriched = enricher.getEnrichedHealthSummary(patientId);
+        assertEquals(List.of(homeId, workId), addressIds(enriched));
+        assertEquals(1, enriched.getUpcomingAppointments().size());
+        assertFalse(enriched.isAddressesDegraded());
+        assertFalse(enriched.isAppointmentsDegraded());
+    }
+
+    @Test
+    void failedAddressIsLeftOutAndFlagged() {
+        failing.add(workId.toString());
+
+        EnrichedPatientHealthSummaryDto enriched = enricher.getEnrichedHealthSummary(patientId);
+        assertEquals(List.of(homeId), addressIds(enriched));
+        assertTrue(enriched.isAddressesDegraded());
+        assertFalse(enriched.isAppointmentsDegraded());
+    }
+
+    @Test
+    void deletedAddressIsLeftOutWithoutDegrading() {
+        assertEquals(List.of(homeId, workId), addressIds(enricher.getEnrichedHealthSummary(patientId)));
+        missing.add(workId.toString());
+
+        // Gone rather than unavailable, so its last known copy is not served either
+        EnrichedPatientHealthSummaryDto enriched = enricher.getEnrichedHealthSummary(patientId);
+        assertEquals(List.of(homeId), addressIds(enriched));
+        assertFalse(enriched.isAddressesDegraded());
+        assertEquals(CircuitBreaker.State.CLOSED, addressServiceCircuitBreaker.getState());
+        assertEquals(0, addressServiceCircuitBreaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void failedSummaryIsNotHeldUpByTheScheduleService() {
+        UUID unknownPatientId = UUID.randomUUID();
+        when(patientService.getHealthSummary(unknownPatientId)).thenThrow(new PatientNotFoundException("Patient not found"));
+        stalled.add("upcoming");
+
+        long start = System.nanoTime();
+        assertThrows(PatientNotFoundException.class, () -> enricher.getEnrichedHealthSummary(unknownPatientId));
+        assertTrue(System.nanoTime() - start < DEADLINE.toNanos());
+    }
+
+    @Test
+    void failedScheduleServiceIsNotReportedAsNoAppointments() {
+        failing.add("upcoming");
+
+        EnrichedPatientHealthSummaryDto enriched = enricher.getEnrichedHealthSummary(patientId);
+        assertEquals(List.of(), enriched.getUpcomingAppointments());
+        assertTrue(enriched.isAppointmentsDegraded());
+        assertFalse(enriched.isAddressesDegraded());
+    }
+
+    @Test
+    void lookupsMissingTheDeadlineAreLeftOutAndFlagged() {
+        stalled.add(workId.toString());
+        stalled.add("upcoming");
+
+        long start = System.nanoTime();
+        EnrichedPatientHealthSummaryDto enriched = enricher.getEnrichedHealthSummary(patientId);
+        // One deadline for the whole stage, not one per lookup
+        assertTrue(System.nanoTime() - start < DEADLINE.multipliedBy(2).toNanos());
+
+        assertEquals(List.of(homeId), addressIds(enriched));
+        assertTrue(enriched.isAddressesDegraded());
+        assertEquals(List.of(), enriched.getUpcomingAppointments());
+        assertTrue(enriched.isAppointmentsDegraded());
+    }
+
+    @Test
+    void openCircuitServesLastKnownAddressesAsDegraded() {
+        assertFalse(enricher.getEnrichedHealthSummary(patientId).isAddressesDegraded());
+        addressServiceCircuitBreaker.transitionToOpenState();
+
+        EnrichedPatientHealthSummaryDto enriched = enricher.getEnrichedHealthSummary(patientId);
+        assertEquals(List.of(homeId, workId), addressIds(enriched));
+        assertTrue(enriched.isAddressesDegraded());
+        assertFalse(enriched.isAppointmentsDegraded());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String key = path.substring(path.lastIndexOf('/') + 1);
+        if (failing.contains(key)) {
+            respond(exchange, 500, new byte[0]);
+            return;
+        }
+        if (missing.contains(key)) {
+            respond(exchange, 404, new byte[0]);
+            return;
+        }
+        if (stalled.contains(key)) {
+            try {
+                Thread.sleep(DEADLINE.multipliedBy(3).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (key.equals("upcoming")) {
+            AppointmentDto appointment = new AppointmentDto();
+            appointment.setId(UUID.randomUUID());
+            respond(exchange, 200, objectMapper.writeValueAsBytes(List.of(appointment)));
+        } else {
+            AddressDto address = new AddressDto();
+            address.setId(UUID.fromString(key));
+            respond(exchange, 200, objectMapper.writeValueAsBytes(address));
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static List<UUID> addressIds(EnrichedPatientHealthSummaryDto enriched) {
+        return enriched.getAddresses().stream().map(AddressDto::getId).toList();
+    }
+
+    private static PatientAddressDto link(UUID addressId) {
+        PatientAddressDto link = new PatientAddressDto();
+        link.setAddressId(addressId);
+        return link;
+    }
+}
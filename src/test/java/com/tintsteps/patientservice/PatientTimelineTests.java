@@ -0,0 +1,130 @@
+package com.tintsteps.patientservice;
+
+import com.tintsteps.patientservice.dto.CursorPageDto;
+import com.tintsteps.patientservice.dto.PatientTimelineEntryDto;
+import com.tintsteps.patientservice.model.TimelineEventType;
+import com.tintsteps.patientservice.service.PatientTimelineService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against PostgreSQL. Seeds one patient with every kind of timeline event, several of them
+ * at the same instant, and checks that paging through the merged feed in small steps yields the
+ * same entries in the same order as reading it in one page.
+ */
+@SpringBootTest
+@PostgresTest
+class PatientTimelineTests {
+
+    private static final int EVENT_DAYS = 12;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PatientTimelineService patientTimelineService;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void seed() {
+        patientId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO patients (id, user_id, created_at, updated_at) VALUES (?, ?, now(), now())",
+                patientId, UUID.randomUUID());
+        for (int day = 1; day <= EVENT_DAYS; day++) {
+            // Midnight, so the medication dates fall on the same instant as the other events
+            LocalDate date = LocalDate.now().minusDays(day);
+            Timestamp midnight = Timestamp.valueOf(date.atStartOfDay());
+            jdbcTemplate.update("INSERT INTO patient_medical_history (id, patient_id, condition, recorded_at) VALUES (?, ?, ?, ?)",
+                    UUID.randomUUID(), patientId, "condition " + day, midnight);
+            jdbcTemplate.update("INSERT INTO patient_medical_history (id, patient_id, condition, recorded_at) VALUES (?, ?, ?, ?)",
+                    UUID.randomUUID(), patientId, "second condition " + day, midnight);
+            jdbcTemplate.update("INSERT INTO patient_allergies (id, patient_id, allergen, recorded_at) VALUES (?, ?, ?, ?)",
+                    UUID.randomUUID(), patientId, "allergen " + day, midnight);
+            jdbcTemplate.update("INSERT INTO patient_medications (id, patient_id, medication_name, start_date, end_date) VALUES (?, ?, ?, ?, ?)",
+                    UUID.randomUUID(), patientId, "medication " + day, java.sql.Date.valueOf(date.minusDays(3)),
+                    day % 2 == 0 ? java.sql.Date.valueOf(date) : null);
+            jdbcTemplate.update("INSERT INTO patient_appointments (id, patient_id, appointment_id, created_at) VALUES (?, ?, ?, ?)",
+                    UUID.randomUUID(), patientId, UUID.randomUUID(), midnight);
+        }
+    }
+
+    @AfterEach
+    void removeSeed() {
+        jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patientId);
+    }
+
+    @Test
+    void smallPagesReproduceTheFullFeed() {
+        CursorPageDto<PatientTimelineEntryDto> full = patientTimelineService.getTimeline(patientId, null, null, CursorPageDto.MAX_SIZE);
+        assertFalse(full.isHasNext());
+        // Two history entries, an allergy, a start and an appointment per day, plus a stop every other day
+        assertEquals(EVENT_DAYS * 5 + EVENT_DAYS / 2, full.getContent().size());
+
+        for (int size : new int[]{1, 2, 3, 7}) {
+            List<PatientTimelineEntryDto> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                CursorPageDto<PatientTimelineEntryDto> page = patientTimelineService.getTimeline(patientId, null, cursor, size);
+                assertTrue(page.getContent().size() <= size);
+                paged.addAll(page.getContent());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            assertEquals(full.getContent(), paged, "Feed paged by " + size);
+        }
+    }
+
+    @Test
+    void entriesAreNewestFirstAndTypesOrderedWithinAnInstant() {
+        List<PatientTimelineEntryDto> entries = patientTimelineService.getTimeline(patientId, null, null, CursorPageDto.MAX_SIZE).getContent();
+        for (int i = 1; i < entries.size(); i++) {
+            PatientTimelineEntryDto previous = entries.get(i - 1);
+            PatientTimelineEntryDto entry = entries.get(i);
+            assertFalse(entry.getOccurredAt().isAfter(previous.getOccurredAt()));
+            if (entry.getOccurredAt().equals(previous.getOccurredAt())) {
+                assertTrue(entry.getType().compareTo(previous.getType()) <= 0);
+            }
+        }
+        assertEquals(TimelineEventType.APPOINTMENT_LINKED, entries.get(0).getType());
+    }
+
+    @Test
+    void eventsBeforeTheEpochAreInTheFullFeed() {
+        LocalDate started = LocalDate.of(1962, 3, 1);
+        UUID historyId = UUID.randomUUID();
+        UUID medicationId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO patient_medical_history (id, patient_id, condition, recorded_at) VALUES (?, ?, ?, ?)",
+                historyId, patientId, "backdated condition", Timestamp.valueOf(started.atStartOfDay()));
+        jdbcTemplate.update("INSERT INTO patient_medications (id, patient_id, medication_name, start_date, end_date) VALUES (?, ?, ?, ?, ?)",
+                medicationId, patientId, "long-running medication", java.sql.Date.valueOf(started), java.sql.Date.valueOf(started.plusYears(5)));
+
+        List<PatientTimelineEntryDto> entries = patientTimelineService.getTimeline(patientId, null, null, CursorPageDto.MAX_SIZE).getContent();
+        assertEquals(EVENT_DAYS * 5 + EVENT_DAYS / 2 + 3, entries.size());
+        List<PatientTimelineEntryDto> backdated = entries.subList(entries.size() - 3, entries.size());
+        assertEquals(List.of(TimelineEventType.MEDICATION_STOPPED, TimelineEventType.MEDICATION_STARTED, TimelineEventType.MEDICAL_HISTORY),
+                backdated.stream().map(PatientTimelineEntryDto::getType).toList());
+        assertEquals(List.of(medicationId, medicationId, historyId),
+                backdated.stream().map(PatientTimelineEntryDto::getRecordId).toList());
+    }
+
+    @Test
+    void sinceBoundsEverySource() {
+        Instant since = LocalDate.now().minusDays(3).atStartOfDay(ZoneId.systemDefault()).toInstant();
+        List<PatientTimelineEntryDto> entries = patientTimelineService.getTimeline(patientId, since, null, CursorPageDto.MAX_SIZE).getContent();
+        assertFalse(entries.isEmpty());
+        assertTrue(entries.stream().noneMatch(entry -> entry.getOccurredAt().isBefore(since)));
+    }
+}
@@ -0,0 +1,27 @@
+package com.tintsteps.patientservice;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test that runs against the PostgreSQL database named by PATIENT_TEST_DB_URL, with
+ * PATIENT_TEST_DB_USERNAME and PATIENT_TEST_DB_PASSWORD, and is skipped when it is not set.
+ * Goes alongside the test's own {@code @SpringBootTest}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@EnabledIfEnvironmentVariable(named = "PATIENT_TEST_DB_URL", matches = ".+")
+@TestPropertySource(properties = {
+        "spring.datasource.url=${PATIENT_TEST_DB_URL}",
+        "spring.datasource.username=${PATIENT_TEST_DB_USERNAME:postgres}",
+        "spring.datasource.password=${PATIENT_TEST_DB_PASSWORD:}"
+})
+public @interface PostgresTest {
+}
@@ -0,0 +1,130 @@
+package com.tintsteps.patientservice;
+
+import com.tintsteps.patientservice.config.PrimaryReads;
+import com.tintsteps.patientservice.config.ReadYourWritesTracker;
+import com.tintsteps.patientservice.config.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a PostgreSQL primary and a streaming replica of it. Read-only transactions
+ * must land on the replica (pg_is_in_recovery() is true there), writes and the writer's
+ * reads within the read-your-writes window on the primary.
+ */
+@SpringBootTest(properties = {
+        "patient.datasource.replicas.enabled=true",
+        "patient.datasource.read-your-writes-window=1m"
+})
+@PostgresTest
+@EnabledIfEnvironmentVariable(named = "PATIENT_TEST_REPLICA_URL", matches = ".+")
+class ReadReplicaRoutingTests {
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        registry.add("patient.datasource.replicas.urls", () -> System.getenv("PATIENT_TEST_REPLICA_URL"));
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private HikariDataSource primaryDataSource;
+    @Autowired private ReplicaRoutingDataSource replicaRoutingDataSource;
+    @Autowired @Qualifier("patientSummaryExecutor") private ExecutorService patientSummaryExecutor;
+
+    @BeforeEach
+    void waitForReplica() {
+        replicaRoutingDataSource.checkHealth();
+        assertTrue(replicaRoutingDataSource.hasHealthyReplica(), "Replica failed its health check");
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertTrue(inRecovery(readOnly()));
+        assertFalse(inRecovery(readWrite()));
+    }
+
+    @Test
+    void writerReadsFromThePrimaryWithinTheWindow() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("writer", null, "ROLE_USER"));
+        readWrite().executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+        assertFalse(inRecovery(readOnly()));
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("reader", null, "ROLE_USER"));
+        assertTrue(inRecovery(readOnly()));
+    }
+
+    @Test
+    void writerSummarySectionsReadFromThePrimary() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("section-writer", null, "ROLE_USER"));
+        readWrite().executeWithoutResult(status -> jdbcTemplate.execute("SELECT 1"));
+        assertFalse(patientSummaryExecutor.submit(() -> inRecovery(readOnly())).get());
+    }
+
+    @Test
+    void pinnedReadsUseThePrimary() {
+        assertFalse(PrimaryReads.call(() -> inRecovery(readOnly())));
+        assertTrue(inRecovery(readOnly()));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() throws SQLException {
+        HikariDataSource unreachable = new HikariDataSource();
+        unreachable.setJdbcUrl("jdbc:postgresql://localhost:1/patients");
+        unreachable.setConnectionTimeout(250);
+        unreachable.setInitializationFailTimeout(-1);
+
+        try (ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, List.of(unreachable),
+                new ReadYourWritesTracker(Duration.ZERO), Duration.ofSeconds(10))) {
+            routing.checkHealth();
+            assertFalse(routing.hasHealthyReplica());
+            try (Connection connection = routing.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT pg_is_in_recovery()")) {
+                resultSet.next();
+                assertFalse(resultSet.getBoolean(1));
+            }
+        }
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private TransactionTemplate readWrite() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private Boolean inRecovery(TransactionTemplate template) {
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+}
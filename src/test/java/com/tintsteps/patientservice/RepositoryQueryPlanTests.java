@@ -0,0 +1,333 @@
+package com.tintsteps.patientservice;
+
+import com.tintsteps.patientservice.model.RiskFactor;
+import com.tintsteps.patientservice.repository.*;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the repository methods behind the service layer against a seeded PostgreSQL 16+ database,
+ * captures the SQL Hibernate sends and fails if any statement plans a sequential scan, or if a
+ * search or keyset scroll plans without the index it was given.
+ * Sequential scans are disabled while planning, so one is only chosen when no index fits.
+ * Whole-table statistics, distinct-value lists and leading-wildcard searches on columns
+ * without a trigram index read every row by design and are not listed here.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@PostgresTest
+class RepositoryQueryPlanTests {
+
+    private static final int SEEDED_PATIENTS = 2000;
+    private static final String SEED_MARKER = "QP";
+
+    private static final Pattern PATIENTS_TABLE = Pattern.compile("\\bpatients\\b");
+
+    private static final List<String> capturedSql = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer capturingStatementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                capturedSql.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired private DataSourceProperties dataSourceProperties;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private PatientAllergyRepository allergyRepository;
+    @Autowired private PatientMedicationRepository medicationRepository;
+    @Autowired private PatientMedicalHistoryRepository historyRepository;
+    @Autowired private PatientEmergencyContactRepository contactRepository;
+    @Autowired private PatientInsuranceRepository insuranceRepository;
+    @Autowired private PatientAddressRepository addressRepository;
+    @Autowired private PatientAppointmentRepository appointmentRepository;
+    @Autowired private PatientRiskProfileRepository riskProfileRepository;
+
+    private UUID patientId;
+    // Simple query protocol, so $n placeholders reach the planner instead of being bound by the driver
+    private Connection explainConnection;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        String url = dataSourceProperties.getUrl();
+        explainConnection = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + "preferQueryMode=simple",
+                dataSourceProperties.getUsername(), dataSourceProperties.getPassword());
+        try (Statement statement = explainConnection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+
+        jdbcTemplate.update("""
+                INSERT INTO patients (id, user_id, blood_group, created_at, updated_at)
+                SELECT gen_random_uuid(), gen_random_uuid(), ?, now(), now() FROM generate_series(1, ?)
+                """, SEED_MARKER, SEEDED_PATIENTS);
+        String seededPatients = "SELECT id FROM patients WHERE blood_group = '" + SEED_MARKER + "'";
+        jdbcTemplate.execute("INSERT INTO patient_allergies (id, patient_id, allergen, reaction, recorded_at) "
+                + "SELECT gen_random_uuid(), id, 'peanuts', 'rash', now() FROM (" + seededPatients + ") p");
+        jdbcTemplate.execute("INSERT INTO patient_medications (id, patient_id, medication_name, dosage, start_date) "
+                + "SELECT gen_random_uuid(), id, 'ibuprofen', '200mg', now() FROM (" + seededPatients + ") p");
+        jdbcTemplate.execute("INSERT INTO patient_medical_history (id, patient_id, condition, recorded_at) "
+                + "SELECT gen_random_uuid(), id, 'asthma', now() FROM (" + seededPatients + ") p");
+        jdbcTemplate.execute("INSERT INTO patient_emergency_contacts (id, patient_id, name, relationship, phone) "
+                + "SELECT gen_random_uuid(), id, 'contact', 'parent', '555-0100' FROM (" + seededPatients + ") p");
+        jdbcTemplate.execute("INSERT INTO patient_insurance (id, patient_id, provider, policy_number) "
+                + "SELECT gen_random_uuid(), id, 'health co', 'POL-1' FROM (" + seededPatients + ") p");
+        jdbcTemplate.execute("INSERT INTO patient_addresses (id, patient_id, address_id) "
+                + "SELECT gen_random_uuid(), id, gen_random_uuid() FROM (" + seededPatients + ") p");
+        jdbcTemplate.execute("INSERT INTO patient_appointments (id, patient_id, appointment_id) "
+                + "SELECT gen_random_uuid(), id, gen_random_uuid() FROM (" + seededPatients + ") p");
+        jdbcTemplate.execute("ANALYZE");
+
+        patientId = jdbcTemplate.queryForObject(seededPatients + " LIMIT 1", UUID.class);
+    }
+
+    @AfterAll
+    void removeSeed() throws SQLException {
+        jdbcTemplate.update("DELETE FROM patients WHERE blood_group = ?", SEED_MARKER);
+        explainConnection.close();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        UUID otherId = UUID.randomUUID();
+        Instant now = Instant.now();
+        Instant weekAgo = now.minus(7, ChronoUnit.DAYS);
+        PageRequest firstPage = PageRequest.of(0, 20);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("PatientRepository.findByUserId", () -> patientRepository.findByUserId(otherId));
+        queries.put("PatientRepository.existsByUserId", () -> patientRepository.existsByUserId(otherId));
+        queries.put("PatientRepository.findAllByOrderByCreatedAtAscIdAsc", () -> patientRepository.findAllByOrderByCreatedAtAscIdAsc(Limit.of(20)));
+        queries.put("PatientRepository.findAfter", () -> patientRepository.findAfter(weekAgo, otherId, Limit.of(20)));
+        queries.put("PatientRepository.findAll(agedBetween)", () -> patientRepository.findAll(PatientSpecifications.agedBetween(30, 40), firstPage));
+        // Age statistics cover every patient but only need idx_patients_date_of_birth
+        queries.put("PatientRepository.getAverageAge", () -> patientRepository.getAverageAge());
+        queries.put("PatientRepository.getAgeStatistics", () -> patientRepository.getAgeStatistics());
+
+        queries.put("PatientAllergyRepository.findByPatientId", () -> allergyRepository.findByPatientId(patientId));
+        queries.put("PatientAllergyRepository.findByPatientId(Pageable)", () -> allergyRepository.findByPatientId(patientId, firstPage));
+        queries.put("PatientAllergyRepository.findAllergensByPatientId", () -> allergyRepository.findAllergensByPatientId(patientId));
+        queries.put("PatientAllergyRepository.findByPatientIdAndAllergenContainingIgnoreCase", () -> allergyRepository.findByPatientIdAndAllergenContainingIgnoreCase(patientId, "nut"));
+        queries.put("PatientAllergyRepository.findByAllergenContainingIgnoreCase", () -> allergyRepository.findByAllergenContainingIgnoreCase("nut"));
+        queries.put("PatientAllergyRepository.findByRecordedAtBetween", () -> allergyRepository.findByRecordedAtBetween(weekAgo, now));
+        queries.put("PatientAllergyRepository.existsByPatientIdAndAllergen", () -> allergyRepository.existsByPatientIdAndAllergen(patientId, "peanuts"));
+        queries.put("PatientAllergyRepository.countByPatientId", () -> allergyRepository.countByPatientId(patientId));
+        queries.put("PatientAllergyRepository.deleteByPatientId", () -> allergyRepository.deleteByPatientId(patientId));
+
+        queries.put("PatientMedicationRepository.findByPatientId(Pageable)", () -> medicationRepository.findByPatientId(patientId, firstPage));
+        queries.put("PatientMedicationRepository.findByPatientIdOrderByIdAsc", () -> medicationRepository.findByPatientIdOrderByIdAsc(patientId, Limit.of(20)));
+        queries.put("PatientMedicationRepository.findCurrentMedicationsByPatientId", () -> medicationRepository.findCurrentMedicationsByPatientId(patientId));
+        queries.put("PatientMedicationRepository.findCurrentMedicationNamesByPatientId", () -> medicationRepository.findCurrentMedicationNamesByPatientId(patientId));
+        queries.put("PatientMedicationRepository.findPastMedicationsByPatientId", () -> medicationRepository.findPastMedicationsByPatientId(patientId));
+        queries.put("PatientMedicationRepository.countCurrentMedicationsByPatientId", () -> medicationRepository.countCurrentMedicationsByPatientId(patientId));
+        queries.put("PatientMedicationRepository.existsByPatientIdAndMedicationName", () -> medicationRepository.existsByPatientIdAndMedicationName(patientId, "ibuprofen"));
+        queries.put("PatientMedicationRepository.findByMedicationNameContainingIgnoreCase", () -> medicationRepository.findByMedicationNameContainingIgnoreCase("profen"));
+        queries.put("PatientMedicationRepository.findByIdGreaterThanOrderByIdAsc", () -> medicationRepository.findByIdGreaterThanOrderByIdAsc(otherId, Limit.of(20)));
+
+        queries.put("PatientMedicalHistoryRepository.findByPatientId", () -> historyRepository.findByPatientId(patientId));
+        queries.put("PatientMedicalHistoryRepository.findConditionsByPatientId", () -> historyRepository.findConditionsByPatientId(patientId));
+        queries.put("PatientMedicalHistoryRepository.findByPatientIdAndConditionIgnoreCase", () -> historyRepository.findByPatientIdAndConditionIgnoreCase(patientId, "asthma"));
+        queries.put("PatientMedicalHistoryRepository.findByPatientIdRecordedSince", () -> historyRepository.findByPatientIdRecordedSince(patientId, weekAgo, Limit.of(20)));
+        queries.put("PatientMedicalHistoryRepository.findByPatientIdRecordedSinceBefore", () -> historyRepository.findByPatientIdRecordedSinceBefore(patientId, weekAgo, now, otherId, Limit.of(20)));
+        queries.put("PatientMedicalHistoryRepository.findByPatientIdNewestFirst", () -> historyRepository.findByPatientIdNewestFirst(patientId, Limit.of(20)));
+        queries.put("PatientMedicalHistoryRepository.findByPatientIdBefore", () -> historyRepository.findByPatientIdBefore(patientId, now, otherId, Limit.of(20)));
+        // Timeline sources
+        queries.put("PatientMedicalHistoryRepository.findTimelineRows", () -> historyRepository.findTimelineRows(patientId, weekAgo, now, otherId, Limit.of(20)));
+        queries.put("PatientAllergyRepository.findTimelineRows", () -> allergyRepository.findTimelineRows(patientId, weekAgo, now, otherId, Limit.of(20)));
+        queries.put("PatientMedicationRepository.findStartTimelineRows", () -> medicationRepository.findStartTimelineRows(patientId, Date.from(weekAgo), Date.from(now), otherId, Limit.of(20)));
+        queries.put("PatientMedicationRepository.findStopTimelineRows", () -> medicationRepository.findStopTimelineRows(patientId, Date.from(weekAgo), Date.from(now), otherId, Limit.of(20)));
+        queries.put("PatientAppointmentRepository.findTimelineRows", () -> appointmentRepository.findTimelineRows(patientId, weekAgo, now, otherId, Limit.of(20)));
+        queries.put("PatientMedicalHistoryRepository.findAllTimelineRows", () -> historyRepository.findAllTimelineRows(patientId, now, otherId, Limit.of(20)));
+        queries.put("PatientAllergyRepository.findAllTimelineRows", () -> allergyRepository.findAllTimelineRows(patientId, now, otherId, Limit.of(20)));
+        queries.put("PatientMedicationRepository.findAllStartTimelineRows", () -> medicationRepository.findAllStartTimelineRows(patientId, Date.from(now), otherId, Limit.of(20)));
+        queries.put("PatientMedicationRepository.findAllStopTimelineRows", () -> medicationRepository.findAllStopTimelineRows(patientId, Date.from(now), otherId, Limit.of(20)));
+        queries.put("PatientAppointmentRepository.findAllTimelineRows", () -> appointmentRepository.findAllTimelineRows(patientId, now, otherId, Limit.of(20)));
+        queries.put("PatientMedicalHistoryRepository.findByRecordedAtBetween", () -> historyRepository.findByRecordedAtBetween(weekAgo, now));
+        queries.put("PatientMedicalHistoryRepository.existsByPatientIdAndCondition", () -> historyRepository.existsByPatientIdAndCondition(patientId, "asthma"));
+        queries.put("PatientMedicalHistoryRepository.findByConditionContainingIgnoreCase", () -> historyRepository.findByConditionContainingIgnoreCase("asth"));
+
+        queries.put("PatientEmergencyContactRepository.findByPatientId", () -> contactRepository.findByPatientId(patientId));
+        queries.put("PatientEmergencyContactRepository.findByPatientIdAndPhone", () -> contactRepository.findByPatientIdAndPhone(patientId, "555-0100"));
+        queries.put("PatientEmergencyContactRepository.existsByPatientIdAndPhone", () -> contactRepository.existsByPatientIdAndPhone(patientId, "555-0100"));
+        queries.put("PatientEmergencyContactRepository.countByPatientId", () -> contactRepository.countByPatientId(patientId));
+
+        queries.put("PatientInsuranceRepository.findByPatientId", () -> insuranceRepository.findByPatientId(patientId));
+        queries.put("PatientInsuranceRepository.findByPatientIdAndPolicyNumber", () -> insuranceRepository.findByPatientIdAndPolicyNumber(patientId, "POL-1"));
+        queries.put("PatientInsuranceRepository.existsByPatientIdAndPolicyNumber", () -> insuranceRepository.existsByPatientIdAndPolicyNumber(patientId, "POL-1"));
+        queries.put("PatientInsuranceRepository.findByProviderContainingIgnoreCase", () -> insuranceRepository.findByProviderContainingIgnoreCase("health"));
+
+        queries.put("PatientAddressRepository.findByPatientId", () -> addressRepository.findByPatientId(patientId));
+        queries.put("PatientAddressRepository.findAddressIdsByPatientId", () -> addressRepository.findAddressIdsByPatientId(patientId));
+        queries.put("PatientAddressRepository.findByAddressId", () -> addressRepository.findByAddressId(otherId));
+        queries.put("PatientAddressRepository.existsByAddressId", () -> addressRepository.existsByAddressId(otherId));
+        queries.put("PatientAddressRepository.findFirstByPatientIdAndAddressId", () -> addressRepository.findFirstByPatientIdAndAddressId(patientId, otherId));
+
+        queries.put("PatientAppointmentRepository.findByPatientId", () -> appointmentRepository.findByPatientId(patientId));
+        queries.put("PatientAppointmentRepository.findAppointmentIdsByPatientId", () -> appointmentRepository.findAppointmentIdsByPatientId(patientId));
+        queries.put("PatientAppointmentRepository.findByAppointmentId", () -> appointmentRepository.findByAppointmentId(otherId));
+        queries.put("PatientAppointmentRepository.findByPatientIdAndAppointmentId", () -> appointmentRepository.findByPatientIdAndAppointmentId(patientId, otherId));
+
+        queries.put("PatientRiskProfileRepository.refreshProfiles", () -> riskProfileRepository.refreshProfiles(List.of(patientId), RiskFactor.criticalAllergenPattern()));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertNoSequentialScan(query.getValue())));
+    }
+
+    // Leading-wildcard searches need their trigram index, a partitioned table the same index on each partition
+    @TestFactory
+    Stream<DynamicTest> searchesUseTrigramIndexes() {
+        Map<String, Map.Entry<String, Runnable>> queries = new LinkedHashMap<>();
+        queries.put("PatientAllergyRepository.findByAllergenContainingIgnoreCase",
+                Map.entry("idx_patient_allergies_allergen_trgm", () -> allergyRepository.findByAllergenContainingIgnoreCase("nut")));
+        queries.put("PatientMedicationRepository.findByMedicationNameContainingIgnoreCase",
+                Map.entry("idx_patient_medications_name_trgm", () -> medicationRepository.findByMedicationNameContainingIgnoreCase("cillin")));
+        queries.put("PatientMedicalHistoryRepository.findByConditionContainingIgnoreCase",
+                Map.entry("idx_patient_medical_history_condition_trgm", () -> historyRepository.findByConditionContainingIgnoreCase("diab")));
+        queries.put("PatientInsuranceRepository.findByProviderContainingIgnoreCase",
+                Map.entry("idx_patient_insurance_provider_trgm", () -> insuranceRepository.findByProviderContainingIgnoreCase("health")));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+                    List<String> indexes = jdbcTemplate.queryForList(
+                            "SELECT relid::regclass::text FROM pg_partition_tree(?::regclass)", String.class, query.getValue().getKey());
+                    for (String sql : capture(query.getValue().getValue())) {
+                        String plan = explain(sql);
+                        assertTrue(indexes.stream().anyMatch(plan::contains),
+                                () -> "Expected one of " + indexes + " in plan of:\n" + sql + "\n" + plan);
+                    }
+                }));
+    }
+
+    @Test
+    void patientKeysetScrollSeeksWithoutSorting() throws SQLException {
+        // The seeded table still favours bitmap scan plus sort, a large one the ordered index scan checked here
+        try (Statement statement = explainConnection.createStatement()) {
+            statement.execute("SET enable_bitmapscan = off");
+        }
+        try {
+            for (String sql : capture(() -> patientRepository.findAfter(Instant.EPOCH, new UUID(0, 0), Limit.of(101)))) {
+                String plan = explain(sql);
+                assertTrue(plan.contains("Index Scan using idx_patients_created_at_id") && !plan.contains("Sort"),
+                        () -> "Expected an ordered index scan in plan of:\n" + sql + "\n" + plan);
+            }
+        } finally {
+            try (Statement statement = explainConnection.createStatement()) {
+                statement.execute("RESET enable_bitmapscan");
+            }
+        }
+    }
+
+    // Child list reads select into view records and never touch the patients table
+    @TestFactory
+    Stream<DynamicTest> childReadPathsDoNotLoadPatients() {
+        PageRequest firstPage = PageRequest.of(0, 20);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("PatientAllergyRepository.findByPatientId", () -> allergyRepository.findByPatientId(patientId));
+        queries.put("PatientAllergyRepository.findAllViews", () -> allergyRepository.findAllViews(firstPage));
+        queries.put("PatientMedicationRepository.findByMedicationNameContainingIgnoreCase", () -> medicationRepository.findByMedicationNameContainingIgnoreCase("profen"));
+        queries.put("PatientMedicationRepository.findAllByOrderByIdAsc", () -> medicationRepository.findAllByOrderByIdAsc(Limit.of(20)));
+        queries.put("PatientMedicalHistoryRepository.findByConditionContainingIgnoreCase", () -> historyRepository.findByConditionContainingIgnoreCase("asth"));
+        queries.put("PatientMedicalHistoryRepository.findByPatientIdNewestFirst", () -> historyRepository.findByPatientIdNewestFirst(patientId, Limit.of(20)));
+        queries.put("PatientEmergencyContactRepository.findByPatientId(Pageable)", () -> contactRepository.findByPatientId(patientId, firstPage));
+        queries.put("PatientInsuranceRepository.findByProviderContainingIgnoreCase", () -> insuranceRepository.findByProviderContainingIgnoreCase("health"));
+        queries.put("PatientAddressRepository.findByPatientId", () -> addressRepository.findByPatientId(patientId));
+        queries.put("PatientAppointmentRepository.findByPatientId", () -> appointmentRepository.findByPatientId(patientId));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+                    List<String> statements = capture(query.getValue());
+                    assertFalse(statements.isEmpty(), "No SQL was captured");
+                    for (String sql : statements) {
+                        assertFalse(PATIENTS_TABLE.matcher(sql).find(), () -> "Patients read by:\n" + sql);
+                    }
+                }));
+    }
+
+    private void assertNoSequentialScan(Runnable query) throws SQLException {
+        List<String> statements = capture(query);
+        assertFalse(statements.isEmpty(), "No SQL was captured");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("Seq Scan"), () -> "Sequential scan in plan of:\n" + sql + "\n" + plan);
+        }
+    }
+
+    // Run the query in a rolled back transaction and return the statements it sent
+    private List<String> capture(Runnable query) {
+        capturedSql.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            query.run();
+            status.setRollbackOnly();
+        });
+        return new ArrayList<>(capturedSql);
+    }
+
+    // Plan the statement with its parameters left open, as a prepared statement would be planned
+    private String explain(String sql) throws SQLException {
+        String parameterized = toNumberedParameters(sql.replaceAll("(?s)/\\*.*?\\*/", ""));
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = explainConnection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + parameterized)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String toNumberedParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
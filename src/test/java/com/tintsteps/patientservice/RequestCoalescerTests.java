@@ -0,0 +1,77 @@
+package com.tintsteps.patientservice;
+
+import com.tintsteps.patientservice.integration.RequestCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Concurrent lookups of one key share a single downstream call, and a caller giving up on its
+ * copy leaves the call running for the rest.
+ */
+class RequestCoalescerTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer<String, String> coalescer = new RequestCoalescer<>("test", meterRegistry);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void concurrentCallsForOneKeyShareTheDownstreamCall() {
+        CompletableFuture<String> downstream = new CompletableFuture<>();
+        CompletableFuture<String> first = coalescer.execute("a", () -> count(downstream));
+        CompletableFuture<String> second = coalescer.execute("a", () -> count(new CompletableFuture<>()));
+        CompletableFuture<String> other = coalescer.execute("b", () -> count(CompletableFuture.completedFuture("b")));
+
+        downstream.complete("a");
+        assertEquals("a", first.join());
+        assertEquals("a", second.join());
+        assertEquals("b", other.join());
+        assertEquals(2, calls.get());
+        assertEquals(2, meterRegistry.get("patient.integration.coalesce").tag("role", "leader").counter().count());
+        assertEquals(1, meterRegistry.get("patient.integration.coalesce").tag("role", "joined").counter().count());
+    }
+
+    @Test
+    void completedCallsAreNotReused() {
+        coalescer.execute("a", () -> count(CompletableFuture.completedFuture("first"))).join();
+        assertEquals("second", coalescer.execute("a", () -> count(CompletableFuture.completedFuture("second"))).join());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void cancellingOneCallerLeavesTheOthersWaiting() {
+        CompletableFuture<String> downstream = new CompletableFuture<>();
+        CompletableFuture<String> first = coalescer.execute("a", () -> count(downstream));
+        CompletableFuture<String> second = coalescer.execute("a", () -> count(new CompletableFuture<>()));
+
+        first.cancel(true);
+        downstream.complete("a");
+        assertTrue(first.isCancelled());
+        assertEquals("a", second.join());
+    }
+
+    @Test
+    void failuresReachEveryWaiter() {
+        CompletableFuture<String> downstream = new CompletableFuture<>();
+        CompletableFuture<String> first = coalescer.execute("a", () -> count(downstream));
+        CompletableFuture<String> second = coalescer.execute("a", () -> count(new CompletableFuture<>()));
+
+        IllegalStateException failure = new IllegalStateException("down");
+        downstream.completeExceptionally(failure);
+        assertSame(failure, assertThrows(CompletionException.class, first::join).getCause());
+        assertSame(failure, assertThrows(CompletionException.class, second::join).getCause());
+    }
+
+    private CompletableFuture<String> count(CompletableFuture<String> result) {
+        calls.incrementAndGet();
+        return result;
+    }
+}
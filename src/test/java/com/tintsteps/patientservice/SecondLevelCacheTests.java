@@ -0,0 +1,95 @@
+package com.tintsteps.patientservice;
+
+import com.tintsteps.patientservice.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against PostgreSQL and counts the statements Hibernate sends: a patient read in three
+ * separate transactions, as the security check, the service and the mapper of one request do,
+ * must reach the database once, and a committed change must not be served stale afterwards.
+ */
+@SpringBootTest
+@PostgresTest
+class SecondLevelCacheTests {
+
+    private static final List<String> capturedSql = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer capturingStatementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                capturedSql.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private PatientRepository patientRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private UUID patientId;
+
+    @BeforeEach
+    void seed() {
+        patientId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO patients (id, user_id, blood_group, created_at, updated_at) VALUES (?, ?, 'L2', now(), now())",
+                patientId, UUID.randomUUID());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        capturedSql.clear();
+    }
+
+    @AfterEach
+    void removeSeed() {
+        jdbcTemplate.update("DELETE FROM patients WHERE id = ?", patientId);
+    }
+
+    @Test
+    void repeatedPatientReadsHitTheDatabaseOnce() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(transactionTemplate.execute(status -> patientRepository.findById(patientId)).isPresent());
+        }
+        assertEquals(1, capturedSql.size(), () -> "Statements sent:\n" + String.join("\n", capturedSql));
+    }
+
+    @Test
+    void committedChangesReplaceTheCachedPatient() {
+        transactionTemplate.executeWithoutResult(status -> patientRepository.findById(patientId).orElseThrow().setBloodGroup("L2+"));
+        String bloodGroup = transactionTemplate.execute(status -> patientRepository.findById(patientId).orElseThrow().getBloodGroup());
+        assertEquals("L2+", bloodGroup);
+    }
+
+    @Test
+    void distinctValueListsAreCachedUntilTheTableChanges() {
+        transactionTemplate.execute(status -> patientRepository.findDistinctBloodGroups());
+        transactionTemplate.execute(status -> patientRepository.findDistinctBloodGroups());
+        assertEquals(1, capturedSql.size(), () -> "Statements sent:\n" + String.join("\n", capturedSql));
+
+        transactionTemplate.executeWithoutResult(status -> patientRepository.findById(patientId).orElseThrow().setBloodGroup("L2-"));
+        List<String> bloodGroups = transactionTemplate.execute(status -> patientRepository.findDistinctBloodGroups());
+        assertTrue(bloodGroups.contains("L2-"), () -> "Stale distinct values: " + bloodGroups);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tintsteps.patientservice;
+
+import com.tintsteps.patientservice.config.DownstreamClientSettings;
+import com.tintsteps.patientservice.integration.StaleWhileRevalidateCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the cache with a loader whose answers the test completes by hand, across a short
+ * refresh-after, to see what callers get while reloads are pending, succeed and fail.
+ */
+class StaleWhileRevalidateCacheTests {
+
+    private static final Duration REFRESH_AFTER = Duration.ofMillis(100);
+
+    private final Queue<CompletableFuture<String>> loads = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger loadCount = new AtomicInteger();
+    private StaleWhileRevalidateCache<String, String> cache;
+
+    @BeforeEach
+    void createCache() {
+        DownstreamClientSettings.RecordCache settings = new DownstreamClientSettings.RecordCache();
+        settings.setRefreshAfter(REFRESH_AFTER);
+        settings.setRetainFor(Duration.ofMinutes(1));
+        cache = new StaleWhileRevalidateCache<>("test", settings, key -> {
+            loadCount.incrementAndGet();
+            CompletableFuture<String> load = new CompletableFuture<>();
+            loads.add(load);
+            return load;
+        }, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void freshEntriesAreServedWithoutLoading() {
+        CompletableFuture<String> first = cache.get("a");
+        loads.remove().complete("v1");
+        assertEquals("v1", first.join());
+
+        assertEquals("v1", cache.get("a").join());
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    void staleEntriesAreServedAtOnceWhileTheyReload() throws InterruptedException {
+        cache.get("a");
+        loads.remove().complete("v1");
+        Thread.sleep(REFRESH_AFTER.multipliedBy(2).toMillis());
+
+        CompletableFuture<String> stale = cache.get("a");
+        assertTrue(stale.isDone());
+        assertEquals("v1", stale.join());
+        assertEquals(2, loadCount.get());
+
+        loads.remove().complete("v2");
+        awaitValue("v2");
+    }
+
+    @Test
+    void failedReloadsKeepTheLastKnownGood() throws InterruptedException {
+        cache.get("a");
+        loads.remove().complete("v1");
+        Thread.sleep(REFRESH_AFTER.multipliedBy(2).toMillis());
+
+        cache.get("a");
+        loads.remove().completeExceptionally(new IllegalStateException("down"));
+        assertEquals(Optional.of("v1"), cache.lastKnown("a"));
+        assertEquals("v1", cache.get("a").join());
+    }
+
+    @Test
+    void lastKnownNeitherLoadsNorReloads() throws InterruptedException {
+        assertEquals(Optional.empty(), cache.lastKnown("a"));
+        assertEquals(0, loadCount.get());
+
+        cache.get("a");
+        loads.remove().complete("v1");
+        Thread.sleep(REFRESH_AFTER.multipliedBy(2).toMillis());
+        assertEquals(Optional.of("v1"), cache.lastKnown("a"));
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    void cancellingACallerKeepsTheEntry() {
+        CompletableFuture<String> first = cache.get("a");
+        first.cancel(true);
+        loads.remove().complete("v1");
+        assertEquals("v1", cache.get("a").join());
+        assertEquals(1, loadCount.get());
+    }
+
+    // The reload completes on the cache's executor, give it a moment to replace the entry
+    private void awaitValue(String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!cache.lastKnown("a").equals(Optional.of(expected)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Optional.of(expected), cache.lastKnown("a"));
+    }
+}
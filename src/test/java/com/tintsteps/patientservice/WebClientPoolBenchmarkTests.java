@@ -0,0 +1,106 @@
+package com.tintsteps.patientservice;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tintsteps.patientservice.config.DownstreamClientSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Calls a local stub server through a client built per call, as the integrations used to, and
+ * through one shared pooled client, and reports the latency and heap allocated per call for each.
+ * Run with -Dbenchmark=true.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WebClientPoolBenchmarkTests {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+    private static final byte[] BODY = "{\"id\":\"stub\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private HttpServer server;
+    private ConnectionProvider connectionProvider;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/users", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            exchange.getResponseBody().write(BODY);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+    @Test
+    void sharedPooledClientCostsLessPerCall() {
+        DownstreamClientSettings settings = new DownstreamClientSettings();
+        connectionProvider = settings.newConnectionProvider("benchmark");
+        WebClient shared = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(settings.newHttpClient(connectionProvider)))
+                .build();
+        WebClient.Builder builder = WebClient.builder();
+
+        Supplier<String> perCall = () -> call(builder.build(), baseUrl + "/api/v1/users/1");
+        Supplier<String> pooled = () -> call(shared, "/api/v1/users/1");
+        assertEquals(perCall.get(), pooled.get());
+
+        Result perCallResult = measure(perCall);
+        Result pooledResult = measure(pooled);
+
+        log.info("WebClient, {} calls: per-call build {} us/op {} B/op, shared pooled {} us/op {} B/op",
+                MEASURED_ITERATIONS,
+                "%.1f".formatted(perCallResult.nanos / 1_000.0 / MEASURED_ITERATIONS), perCallResult.bytes / MEASURED_ITERATIONS,
+                "%.1f".formatted(pooledResult.nanos / 1_000.0 / MEASURED_ITERATIONS), pooledResult.bytes / MEASURED_ITERATIONS);
+    }
+
+    private static String call(WebClient client, String uri) {
+        return client.get().uri(uri).retrieve().bodyToMono(String.class).block();
+    }
+
+    // Allocation is summed over all threads, the event loop does most of the work of a call
+    private Result measure(Supplier<String> path) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            path.get();
+        }
+        long bytesBefore = threads.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            path.get();
+        }
+        return new Result(System.nanoTime() - start, threads.getTotalThreadAllocatedBytes() - bytesBefore);
+    }
+
+    private record Result(long nanos, long bytes) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.tintsteps.patientservice.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Checks the binary COPY encoding of numeric and date fields byte for byte against the
+ * PostgreSQL wire format: numeric as digit count, weight, sign, display scale and base-10000
+ * digits, date as days since 2000-01-01.
+ */
+class BinaryCopyWriterTests {
+
+    private static final int POSITIVE = 0x0000;
+    private static final int NEGATIVE = 0x4000;
+
+    @Test
+    void zeroHasNoDigits() throws IOException {
+        assertArrayEquals(numeric(0, POSITIVE, 0), writeNumeric("0"));
+    }
+
+    @Test
+    void fractionBelowOneHasNegativeWeight() throws IOException {
+        assertArrayEquals(numeric(-1, POSITIVE, 2, 500), writeNumeric("0.05"));
+    }
+
+    @Test
+    void fractionIsPaddedToFullDigitGroups() throws IOException {
+        assertArrayEquals(numeric(0, POSITIVE, 1, 70, 5000), writeNumeric("70.5"));
+        assertArrayEquals(numeric(0, POSITIVE, 2, 999, 9900), writeNumeric("999.99"));
+    }
+
+    @Test
+    void integerPartSpanningGroupsCountsInWeight() throws IOException {
+        assertArrayEquals(numeric(1, POSITIVE, 1, 1, 2345, 6000), writeNumeric("12345.6"));
+    }
+
+    @Test
+    void negativeValuesOnlySetTheSign() throws IOException {
+        assertArrayEquals(numeric(0, NEGATIVE, 2, 12, 5000), writeNumeric("-12.50"));
+    }
+
+    @Test
+    void datesBeforeThePostgresEpochAreNegative() throws IOException {
+        assertArrayEquals(date(-1), writeDate(LocalDate.of(1999, 12, 31)));
+        assertArrayEquals(date(-10957), writeDate(LocalDate.of(1970, 1, 1)));
+        assertArrayEquals(date(0), writeDate(LocalDate.of(2000, 1, 1)));
+    }
+
+    private static byte[] writeNumeric(String value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BinaryCopyWriter(bytes, 1).writeNumeric(new BigDecimal(value));
+        return bytes.toByteArray();
+    }
+
+    private static byte[] writeDate(LocalDate value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BinaryCopyWriter(bytes, 1).writeDate(java.sql.Date.valueOf(value));
+        return bytes.toByteArray();
+    }
+
+    private static byte[] numeric(int weight, int sign, int displayScale, int... digits) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(8 + 2 * digits.length);
+        out.writeShort(digits.length);
+        out.writeShort(weight);
+        out.writeShort(sign);
+        out.writeShort(displayScale);
+        for (int digit : digits) {
+            out.writeShort(digit);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] date(int daysSinceEpoch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(4);
+        out.writeInt(daysSinceEpoch);
+        return bytes.toByteArray();
+    }
+}